@@ -8,4 +8,9 @@ public class TestCacheConfig extends CacheConfig {
     void configureRedis(String host) {
         local();
     }
+
+    @Override
+    public void compress(int minLength) {
+        // redis cache store is replaced by local cache store in test, compression is not applicable
+    }
 }
@@ -0,0 +1,11 @@
+package core.framework.module;
+
+/**
+ * @author neo
+ */
+public class TestLimitRateConfig extends LimitRateConfig {
+    @Override
+    public void redis(String host) {
+        // keep rate control local in test, not to connect to redis
+    }
+}
@@ -1,6 +1,7 @@
 package core.framework.module;
 
 import core.framework.redis.Redis;
+import core.framework.redis.RedisStreamHandler;
 import core.framework.test.redis.MockRedis;
 
 import java.time.Duration;
@@ -10,18 +11,22 @@ import java.time.Duration;
  */
 public class TestRedisConfig extends RedisConfig {
     @Override
-    Redis createRedis() {
+    Redis createRedis(String... hosts) {
         return new MockRedis();
     }
 
     @Override
-    void setHost(String host) {
+    void addStreamListener(String stream, String group, RedisStreamHandler handler) {     // not to consume stream in test, call handler directly to test
     }
 
     @Override
     public void poolSize(int minSize, int maxSize) {
     }
 
+    @Override
+    public void multiplex(int connections) {
+    }
+
     @Override
     public void slowOperationThreshold(Duration threshold) {
     }
@@ -4,11 +4,17 @@ import core.framework.redis.Redis;
 import core.framework.redis.RedisAdmin;
 import core.framework.redis.RedisHash;
 import core.framework.redis.RedisList;
+import core.framework.redis.RedisPipeline;
+import core.framework.redis.RedisScript;
 import core.framework.redis.RedisSet;
+import core.framework.redis.RedisSortedSet;
+import core.framework.redis.RedisStream;
 import core.framework.util.Maps;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,7 +27,10 @@ public final class MockRedis implements Redis {
     private final MockRedisHash hash = new MockRedisHash(store);
     private final MockRedisSet set = new MockRedisSet(store);
     private final MockRedisList list = new MockRedisList(store);
+    private final MockRedisSortedSet sortedSet = new MockRedisSortedSet(store);
+    private final MockRedisStream stream = new MockRedisStream(store);
     private final MockRedisAdmin admin = new MockRedisAdmin();
+    private final Map<String, BiFunction<List<String>, String[], Object>> scripts = Maps.newConcurrentHashMap();
 
     @Override
     public String get(String key) {
@@ -98,15 +107,36 @@ public final class MockRedis implements Redis {
     }
 
     @Override
-    public void forEach(String pattern, Consumer<String> consumer) {
+    public void forEach(String pattern, String type, int batchSize, Consumer<String> consumer) {
+        assertThat(batchSize).isGreaterThan(0);
         KeyMatcher matcher = new KeyMatcher(pattern);
-        for (String key : store.store.keySet()) {
-            if (matcher.matches(key)) {
+        for (Map.Entry<String, MockRedisStore.Value> entry : store.store.entrySet()) {
+            String key = entry.getKey();
+            if (matcher.matches(key) && (type == null || type.equals(entry.getValue().type()))) {
                 consumer.accept(key);
             }
         }
     }
 
+    @Override
+    public RedisPipeline pipeline() {
+        return new MockRedisPipeline(this);
+    }
+
+    @Override
+    public RedisScript script(String script) {
+        return (keys, arguments) -> {
+            BiFunction<List<String>, String[], Object> handler = scripts.get(script);
+            assertThat(handler).as("lua script is not supported by mock redis, please use mockScript() to provide java impl, script=%s", script).isNotNull();
+            return handler.apply(keys, arguments);
+        };
+    }
+
+    // simulate lua script with java impl, e.g. mockScript(script, (keys, arguments) -> ...)
+    public void mockScript(String script, BiFunction<List<String>, String[], Object> handler) {
+        scripts.put(script, handler);
+    }
+
     @Override
     public RedisAdmin admin() {
         return admin;
@@ -116,4 +146,14 @@ public final class MockRedis implements Redis {
     public RedisList list() {
         return list;
     }
+
+    @Override
+    public RedisSortedSet sortedSet() {
+        return sortedSet;
+    }
+
+    @Override
+    public RedisStream stream() {
+        return stream;
+    }
 }
@@ -4,6 +4,7 @@ import core.framework.redis.RedisHash;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -71,4 +72,10 @@ public final class MockRedisHash implements RedisHash {
         }
         return deleted;
     }
+
+    @Override
+    public void forEach(String key, int batchSize, BiConsumer<String, String> consumer) {
+        assertThat(batchSize).isGreaterThan(0);
+        getAll(key).forEach(consumer);
+    }
 }
@@ -0,0 +1,144 @@
+package core.framework.test.redis;
+
+import core.framework.redis.RedisPipeline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+public final class MockRedisPipeline implements RedisPipeline {
+    private final MockRedis redis;
+    private final List<Result<?>> results = new ArrayList<>();
+    private boolean executed;
+
+    MockRedisPipeline(MockRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public Supplier<String> get(String key) {
+        return add(() -> redis.get(key));
+    }
+
+    @Override
+    public Supplier<Boolean> set(String key, String value, Duration expiration, boolean onlyIfAbsent) {
+        return add(() -> redis.set(key, value, expiration, onlyIfAbsent));
+    }
+
+    @Override
+    public void expire(String key, Duration duration) {
+        add(() -> {
+            redis.expire(key, duration);
+            return null;
+        });
+    }
+
+    @Override
+    public Supplier<Long> del(String... keys) {
+        return add(() -> redis.del(keys));
+    }
+
+    @Override
+    public Supplier<Long> increaseBy(String key, long increment) {
+        return add(() -> redis.increaseBy(key, increment));
+    }
+
+    @Override
+    public Supplier<String> hashGet(String key, String field) {
+        return add(() -> redis.hash().get(key, field));
+    }
+
+    @Override
+    public Supplier<Map<String, String>> hashGetAll(String key) {
+        return add(() -> redis.hash().getAll(key));
+    }
+
+    @Override
+    public void hashMultiSet(String key, Map<String, String> values) {
+        add(() -> {
+            redis.hash().multiSet(key, values);
+            return null;
+        });
+    }
+
+    @Override
+    public Supplier<Long> hashIncreaseBy(String key, String field, long increment) {
+        return add(() -> redis.hash().increaseBy(key, field, increment));
+    }
+
+    @Override
+    public Supplier<Long> hashDel(String key, String... fields) {
+        return add(() -> redis.hash().del(key, fields));
+    }
+
+    @Override
+    public Supplier<Long> setAdd(String key, String... values) {
+        return add(() -> redis.set().add(key, values));
+    }
+
+    @Override
+    public Supplier<Set<String>> setMembers(String key) {
+        return add(() -> redis.set().members(key));
+    }
+
+    @Override
+    public Supplier<Long> setRemove(String key, String... values) {
+        return add(() -> redis.set().remove(key, values));
+    }
+
+    @Override
+    public Supplier<Long> listPush(String key, String... values) {
+        return add(() -> redis.list().push(key, values));
+    }
+
+    @Override
+    public Supplier<List<String>> listRange(String key, long start, long end) {
+        return add(() -> redis.list().range(key, start, end));
+    }
+
+    @Override
+    public void execute() {
+        assertThat(executed).as("pipeline is already executed").isFalse();
+        assertThat(results).as("commands must not be empty").isNotEmpty();
+        executed = true;
+        for (Result<?> result : results) {
+            result.execute();
+        }
+    }
+
+    private <T> Supplier<T> add(Supplier<T> command) {
+        assertThat(executed).as("pipeline is already executed").isFalse();
+        var result = new Result<>(command);
+        results.add(result);
+        return result;
+    }
+
+    private static final class Result<T> implements Supplier<T> {
+        private final Supplier<T> command;
+        private T value;
+        private boolean executed;
+
+        Result(Supplier<T> command) {
+            this.command = command;
+        }
+
+        void execute() {
+            value = command.get();
+            executed = true;
+        }
+
+        @Override
+        public T get() {
+            assertThat(executed).as("pipeline is not executed").isTrue();
+            return value;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import core.framework.redis.RedisSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -83,4 +84,10 @@ public final class MockRedisSet implements RedisSet {
         if (redisValue == null) return 0;
         return redisValue.set().size();
     }
+
+    @Override
+    public void forEach(String key, int batchSize, Consumer<String> consumer) {
+        assertThat(batchSize).isGreaterThan(0);
+        members(key).forEach(consumer);
+    }
 }
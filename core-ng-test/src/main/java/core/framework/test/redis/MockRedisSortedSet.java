@@ -0,0 +1,122 @@
+package core.framework.test.redis;
+
+import core.framework.redis.RedisSortedSet;
+import core.framework.util.Maps;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+public final class MockRedisSortedSet implements RedisSortedSet {
+    private final MockRedisStore store;
+
+    MockRedisSortedSet(MockRedisStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public long add(String key, Map<String, Long> values, boolean onlyIfAbsent) {
+        assertThat(values).isNotEmpty().doesNotContainKey(null);
+        var redisValue = store.putIfAbsent(key, new HashMap<>());
+        Map<String, Long> sortedSet = redisValue.sortedSet();
+        long addedValues = 0;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            boolean exists = sortedSet.containsKey(entry.getKey());
+            if (!exists) addedValues++;
+            if (!exists || !onlyIfAbsent) sortedSet.put(entry.getKey(), entry.getValue());
+        }
+        return addedValues;
+    }
+
+    @Override
+    public long increaseScoreBy(String key, String value, long increment) {
+        var redisValue = store.putIfAbsent(key, new HashMap<>());
+        return redisValue.sortedSet().merge(value, increment, Long::sum);
+    }
+
+    @Override
+    public Map<String, Long> rangeByScore(String key, long minScore, long maxScore, long offset, long limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : sortedEntries(key)) {
+            long score = entry.getValue();
+            if (score >= minScore && score <= maxScore) entries.add(entry);
+        }
+        int start = (int) Math.min(offset, entries.size());
+        int end = limit < 0 ? entries.size() : (int) Math.min(start + limit, entries.size());
+        return values(entries.subList(start, end));
+    }
+
+    @Override
+    public Map<String, Long> reverseRange(String key, long start, long stop) {
+        List<Map.Entry<String, Long>> entries = sortedEntries(key);
+        int size = entries.size();
+        int from = (int) (start < 0 ? Math.max(size + start, 0) : start);
+        int to = (int) (stop < 0 ? size + stop : Math.min(stop, size - 1));
+        Map<String, Long> results = Maps.newLinkedHashMap();
+        for (int i = from; i <= to; i++) {
+            Map.Entry<String, Long> entry = entries.get(size - 1 - i);
+            results.put(entry.getKey(), entry.getValue());
+        }
+        return results;
+    }
+
+    @Override
+    public Long rank(String key, String value) {
+        List<Map.Entry<String, Long>> entries = sortedEntries(key);
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).getKey().equals(value)) return (long) i;
+        }
+        return null;
+    }
+
+    @Override
+    public Map<String, Long> popMin(String key, long count) {
+        assertThat(count).isPositive();
+        List<Map.Entry<String, Long>> entries = sortedEntries(key);
+        Map<String, Long> results = values(entries.subList(0, (int) Math.min(count, entries.size())));
+        var redisValue = store.get(key);
+        if (redisValue != null) redisValue.sortedSet().keySet().removeAll(results.keySet());
+        return results;
+    }
+
+    @Override
+    public long removeByScore(String key, long minScore, long maxScore) {
+        var redisValue = store.get(key);
+        if (redisValue == null) return 0;
+        Map<String, Long> sortedSet = redisValue.sortedSet();
+        int size = sortedSet.size();
+        sortedSet.values().removeIf(score -> score >= minScore && score <= maxScore);
+        return size - sortedSet.size();
+    }
+
+    @Override
+    public long size(String key) {
+        var redisValue = store.get(key);
+        if (redisValue == null) return 0;
+        return redisValue.sortedSet().size();
+    }
+
+    // redis orders by score, then by value lexicographically
+    private List<Map.Entry<String, Long>> sortedEntries(String key) {
+        var redisValue = store.get(key);
+        if (redisValue == null) return List.of();
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(Map.copyOf(redisValue.sortedSet()).entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.naturalOrder())));
+        return entries;
+    }
+
+    private Map<String, Long> values(List<Map.Entry<String, Long>> entries) {
+        Map<String, Long> results = Maps.newLinkedHashMapWithExpectedSize(entries.size());
+        for (Map.Entry<String, Long> entry : entries) {
+            results.put(entry.getKey(), entry.getValue());
+        }
+        return results;
+    }
+}
@@ -59,6 +59,29 @@ class MockRedisStore {
             return (Set<String>) value;
         }
 
+        @SuppressWarnings("unchecked")
+        Map<String, Long> sortedSet() {
+            assertThat(value).isInstanceOf(Map.class);
+            return (Map<String, Long>) value;
+        }
+
+        MockRedisStream.Stream stream() {
+            assertThat(value).isInstanceOf(MockRedisStream.Stream.class);
+            return (MockRedisStream.Stream) value;
+        }
+
+        // hash and sorted set are both stored as map, tell them by value type
+        String type() {
+            if (value instanceof String) return "string";
+            if (value instanceof List) return "list";
+            if (value instanceof Set) return "set";
+            if (value instanceof MockRedisStream.Stream) return "stream";
+            for (Object mapValue : ((Map<?, ?>) value).values()) {
+                if (mapValue instanceof Long) return "zset";
+            }
+            return "hash";
+        }
+
         boolean expired(long now) {
             return expirationTime != null && now >= expirationTime;
         }
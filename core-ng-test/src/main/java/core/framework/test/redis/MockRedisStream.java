@@ -0,0 +1,173 @@
+package core.framework.test.redis;
+
+import core.framework.redis.RedisStream;
+import core.framework.redis.RedisStreamMessage;
+import core.framework.redis.RedisStreamPendingMessage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+public final class MockRedisStream implements RedisStream {
+    private final MockRedisStore store;
+
+    MockRedisStream(MockRedisStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public String add(String key, Map<String, String> fields, long maxLength) {
+        assertThat(fields).isNotEmpty();
+        assertThat(maxLength).isGreaterThan(0);
+        Stream stream = store.putIfAbsent(key, new Stream()).stream();
+        synchronized (stream) {
+            long now = System.currentTimeMillis();
+            if (now > stream.lastMillis) {
+                stream.lastMillis = now;
+                stream.lastSequence = 0;
+            } else {
+                stream.lastSequence++;
+            }
+            String id = stream.lastMillis + "-" + stream.lastSequence;
+            stream.messages.put(id, new RedisStreamMessage(id, Map.copyOf(fields)));
+            while (stream.messages.size() > maxLength) {
+                stream.messages.pollFirstEntry();
+            }
+            return id;
+        }
+    }
+
+    @Override
+    public boolean createGroup(String key, String group) {
+        Stream stream = store.putIfAbsent(key, new Stream()).stream();
+        synchronized (stream) {
+            if (stream.groups.containsKey(group)) return false;
+            stream.groups.put(group, new Group(stream.messages.isEmpty() ? "0-0" : stream.messages.lastKey()));
+            return true;
+        }
+    }
+
+    @Override
+    public List<RedisStreamMessage> readGroup(String key, String group, String consumer, int count, Duration block) {
+        assertThat(count).isGreaterThan(0);
+        Stream stream = stream(key);
+        synchronized (stream) {
+            Group streamGroup = stream.group(group);
+            List<RedisStreamMessage> messages = new ArrayList<>();
+            long now = System.currentTimeMillis();
+            for (RedisStreamMessage message : stream.messages.tailMap(streamGroup.lastDeliveredId, false).values()) {
+                if (messages.size() == count) break;
+                messages.add(message);
+                streamGroup.lastDeliveredId = message.id;
+                streamGroup.pending.put(message.id, new Pending(consumer, now));
+            }
+            return messages;
+        }
+    }
+
+    @Override
+    public long ack(String key, String group, String... ids) {
+        assertThat(ids).isNotEmpty();
+        Stream stream = stream(key);
+        synchronized (stream) {
+            Group streamGroup = stream.group(group);
+            long acknowledged = 0;
+            for (String id : ids) {
+                if (streamGroup.pending.remove(id) != null) acknowledged++;
+            }
+            return acknowledged;
+        }
+    }
+
+    @Override
+    public List<RedisStreamPendingMessage> pending(String key, String group, int count) {
+        assertThat(count).isGreaterThan(0);
+        Stream stream = stream(key);
+        synchronized (stream) {
+            long now = System.currentTimeMillis();
+            List<RedisStreamPendingMessage> messages = new ArrayList<>();
+            for (Map.Entry<String, Pending> entry : stream.group(group).pending.entrySet()) {
+                if (messages.size() == count) break;
+                Pending pending = entry.getValue();
+                messages.add(new RedisStreamPendingMessage(entry.getKey(), pending.consumer, Duration.ofMillis(now - pending.deliveryTime), pending.deliveries));
+            }
+            return messages;
+        }
+    }
+
+    @Override
+    public List<RedisStreamMessage> claim(String key, String group, String consumer, Duration minIdleTime, String... ids) {
+        assertThat(ids).isNotEmpty();
+        Stream stream = stream(key);
+        synchronized (stream) {
+            Group streamGroup = stream.group(group);
+            long now = System.currentTimeMillis();
+            List<RedisStreamMessage> messages = new ArrayList<>();
+            for (String id : ids) {
+                Pending pending = streamGroup.pending.get(id);
+                if (pending == null || now - pending.deliveryTime < minIdleTime.toMillis()) continue;
+                pending.consumer = consumer;
+                pending.deliveryTime = now;
+                pending.deliveries++;
+                RedisStreamMessage message = stream.messages.get(id);
+                if (message != null) messages.add(message);
+            }
+            return messages;
+        }
+    }
+
+    private Stream stream(String key) {
+        MockRedisStore.Value value = store.get(key);
+        assertThat(value).as("stream not found, key=%s", key).isNotNull();
+        return value.stream();
+    }
+
+    private static int compareId(String id1, String id2) {
+        int index1 = id1.indexOf('-');
+        int index2 = id2.indexOf('-');
+        int result = Long.compare(Long.parseLong(id1.substring(0, index1)), Long.parseLong(id2.substring(0, index2)));
+        if (result != 0) return result;
+        return Long.compare(Long.parseLong(id1.substring(index1 + 1)), Long.parseLong(id2.substring(index2 + 1)));
+    }
+
+    static final class Stream {
+        final TreeMap<String, RedisStreamMessage> messages = new TreeMap<>(MockRedisStream::compareId);
+        final Map<String, Group> groups = new HashMap<>();
+        long lastMillis;
+        long lastSequence;
+
+        Group group(String group) {
+            Group streamGroup = groups.get(group);
+            assertThat(streamGroup).as("group not found, group=%s", group).isNotNull();
+            return streamGroup;
+        }
+    }
+
+    private static final class Group {
+        final Map<String, Pending> pending = new TreeMap<>(MockRedisStream::compareId);
+        String lastDeliveredId;
+
+        Group(String lastDeliveredId) {
+            this.lastDeliveredId = lastDeliveredId;
+        }
+    }
+
+    private static final class Pending {
+        String consumer;
+        long deliveryTime;
+        long deliveries = 1;
+
+        Pending(String consumer, long deliveryTime) {
+            this.consumer = consumer;
+            this.deliveryTime = deliveryTime;
+        }
+    }
+}
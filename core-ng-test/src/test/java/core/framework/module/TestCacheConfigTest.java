@@ -0,0 +1,26 @@
+package core.framework.module;
+
+import core.framework.internal.module.ModuleContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * @author neo
+ */
+class TestCacheConfigTest {
+    private TestCacheConfig config;
+
+    @BeforeEach
+    void createTestCacheConfig() {
+        config = new TestCacheConfig();
+        config.initialize(new ModuleContext(null), null);
+    }
+
+    @Test
+    void compress() {
+        config.redis("localhost");
+        assertThatCode(() -> config.compress(1000)).doesNotThrowAnyException();
+    }
+}
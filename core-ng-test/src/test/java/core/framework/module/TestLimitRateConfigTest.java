@@ -0,0 +1,29 @@
+package core.framework.module;
+
+import core.framework.internal.module.ModuleContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class TestLimitRateConfigTest {
+    private TestLimitRateConfig config;
+    private ModuleContext context;
+
+    @BeforeEach
+    void createTestLimitRateConfig() {
+        context = new ModuleContext(null);
+        config = new TestLimitRateConfig();
+        config.initialize(context, null);
+    }
+
+    @Test
+    void redis() {
+        config.redis("localhost");
+
+        assertThat(context.collector.metrics).isEmpty();   // redis pool is not created
+    }
+}
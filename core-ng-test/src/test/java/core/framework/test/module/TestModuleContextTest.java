@@ -5,6 +5,7 @@ import core.framework.module.CacheConfig;
 import core.framework.module.DBConfig;
 import core.framework.module.ExecutorConfig;
 import core.framework.module.KafkaConfig;
+import core.framework.module.LimitRateConfig;
 import core.framework.module.LogConfig;
 import core.framework.module.RedisConfig;
 import core.framework.module.SessionConfig;
@@ -13,6 +14,7 @@ import core.framework.module.TestCacheConfig;
 import core.framework.module.TestDBConfig;
 import core.framework.module.TestExecutorConfig;
 import core.framework.module.TestKafkaConfig;
+import core.framework.module.TestLimitRateConfig;
 import core.framework.module.TestLogConfig;
 import core.framework.module.TestRedisConfig;
 import core.framework.module.TestSessionConfig;
@@ -41,6 +43,7 @@ class TestModuleContextTest {
         assertThat(context.configClass(DBConfig.class)).isEqualTo(TestDBConfig.class);
         assertThat(context.configClass(ExecutorConfig.class)).isEqualTo(TestExecutorConfig.class);
         assertThat(context.configClass(KafkaConfig.class)).isEqualTo(TestKafkaConfig.class);
+        assertThat(context.configClass(LimitRateConfig.class)).isEqualTo(TestLimitRateConfig.class);
         assertThat(context.configClass(LogConfig.class)).isEqualTo(TestLogConfig.class);
         assertThat(context.configClass(RedisConfig.class)).isEqualTo(TestRedisConfig.class);
         assertThat(context.configClass(SessionConfig.class)).isEqualTo(TestSessionConfig.class);
@@ -3,6 +3,7 @@ package core.framework.test.redis;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -60,4 +61,13 @@ class MockRedisHashTest {
         assertThat(result).isEqualTo(2);
         assertThat(redis.hash().get("key1", "field1")).isEqualTo("2");
     }
+
+    @Test
+    void forEach() {
+        redis.hash().multiSet("key3", Map.of("field1", "value1", "field2", "value2"));
+
+        Map<String, String> values = new HashMap<>();
+        redis.hash().forEach("key3", values::put);
+        assertThat(values).containsOnly(entry("field1", "value1"), entry("field2", "value2"));
+    }
 }
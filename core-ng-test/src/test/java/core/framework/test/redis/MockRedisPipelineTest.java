@@ -0,0 +1,53 @@
+package core.framework.test.redis;
+
+import core.framework.redis.RedisPipeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author neo
+ */
+class MockRedisPipelineTest {
+    private MockRedis redis;
+
+    @BeforeEach
+    void createMockRedis() {
+        redis = new MockRedis();
+    }
+
+    @Test
+    void execute() {
+        redis.set("key1", "value1");
+
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<String> value = pipeline.get("key1");
+        pipeline.hashMultiSet("key2", Map.of("field1", "value1"));
+        pipeline.expire("key2", Duration.ofMinutes(1));
+        Supplier<Map<String, String>> hash = pipeline.hashGetAll("key2");
+        Supplier<Long> count = pipeline.increaseBy("key3", 2);
+        pipeline.execute();
+
+        assertThat(value.get()).isEqualTo("value1");
+        assertThat(hash.get()).containsExactly(entry("field1", "value1"));
+        assertThat(count.get()).isEqualTo(2);
+        assertThat(redis.get("key3")).isEqualTo("2");
+    }
+
+    @Test
+    void getBeforeExecute() {
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<String> value = pipeline.get("key1");
+
+        assertThatThrownBy(value::get)
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("pipeline is not executed");
+    }
+}
@@ -3,6 +3,9 @@ package core.framework.test.redis;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -63,4 +66,13 @@ class MockRedisSetTest {
         redis.set().pop("key10", 1);
         assertThat(redis.set().size("key10")).isEqualTo(1);
     }
+
+    @Test
+    void forEach() {
+        redis.set().add("key3", "value1", "value2");
+
+        List<String> members = new ArrayList<>();
+        redis.set().forEach("key3", 10, members::add);
+        assertThat(members).containsOnly("value1", "value2");
+    }
 }
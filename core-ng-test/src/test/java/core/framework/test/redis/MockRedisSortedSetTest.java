@@ -0,0 +1,58 @@
+package core.framework.test.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author neo
+ */
+class MockRedisSortedSetTest {
+    private MockRedis redis;
+
+    @BeforeEach
+    void createMockRedis() {
+        redis = new MockRedis();
+    }
+
+    @Test
+    void add() {
+        assertThat(redis.sortedSet().add("key1", "v1", 10)).isTrue();
+        assertThat(redis.sortedSet().add("key1", "v1", 20)).isFalse();
+        assertThat(redis.sortedSet().add("key1", Map.of("v1", 30L, "v2", 5L), true)).isEqualTo(1);
+
+        assertThat(redis.sortedSet().rangeByScore("key1", 0, 100)).containsExactly(entry("v2", 5L), entry("v1", 20L));
+        assertThat(redis.sortedSet().size("key1")).isEqualTo(2);
+    }
+
+    @Test
+    void increaseScoreBy() {
+        assertThat(redis.sortedSet().increaseScoreBy("key2", "v1", 5)).isEqualTo(5);
+        assertThat(redis.sortedSet().increaseScoreBy("key2", "v1", 5)).isEqualTo(10);
+    }
+
+    @Test
+    void range() {
+        redis.sortedSet().add("key3", Map.of("v1", 1L, "v2", 2L, "v3", 3L, "v4", 4L), false);
+
+        assertThat(redis.sortedSet().rangeByScore("key3", 2, 4, 1, 1)).containsExactly(entry("v3", 3L));
+        assertThat(redis.sortedSet().rangeByScore("key3", 2, 4, 1, -1)).containsExactly(entry("v3", 3L), entry("v4", 4L));
+        assertThat(redis.sortedSet().reverseRange("key3", 0, 1)).containsExactly(entry("v4", 4L), entry("v3", 3L));
+        assertThat(redis.sortedSet().reverseRange("key3", 0, -1)).hasSize(4);
+        assertThat(redis.sortedSet().rank("key3", "v3")).isEqualTo(2);
+        assertThat(redis.sortedSet().rank("key3", "v5")).isNull();
+    }
+
+    @Test
+    void pop() {
+        redis.sortedSet().add("key4", Map.of("v1", 1L, "v2", 2L, "v3", 3L), false);
+
+        assertThat(redis.sortedSet().popMin("key4", 2)).containsExactly(entry("v1", 1L), entry("v2", 2L));
+        assertThat(redis.sortedSet().removeByScore("key4", 3, 3)).isEqualTo(1);
+        assertThat(redis.sortedSet().size("key4")).isZero();
+    }
+}
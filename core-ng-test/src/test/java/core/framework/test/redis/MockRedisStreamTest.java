@@ -0,0 +1,68 @@
+package core.framework.test.redis;
+
+import core.framework.redis.RedisStreamMessage;
+import core.framework.redis.RedisStreamPendingMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class MockRedisStreamTest {
+    private MockRedis redis;
+
+    @BeforeEach
+    void createMockRedis() {
+        redis = new MockRedis();
+    }
+
+    @Test
+    void readGroup() {
+        redis.stream().add("stream1", Map.of("k", "v0"), 100);
+        assertThat(redis.stream().createGroup("stream1", "group")).isTrue();
+        assertThat(redis.stream().createGroup("stream1", "group")).isFalse();
+        String id1 = redis.stream().add("stream1", Map.of("k", "v1"), 100);
+        String id2 = redis.stream().add("stream1", Map.of("k", "v2"), 100);
+
+        List<RedisStreamMessage> messages = redis.stream().readGroup("stream1", "group", "consumer1", 1);
+        assertThat(messages).extracting(message -> message.id).containsExactly(id1);
+        messages = redis.stream().readGroup("stream1", "group", "consumer2", 10);
+        assertThat(messages).extracting(message -> message.fields.get("k")).containsExactly("v2");
+        assertThat(redis.stream().readGroup("stream1", "group", "consumer1", 10)).isEmpty();
+
+        assertThat(redis.stream().ack("stream1", "group", id1, id1)).isEqualTo(1);
+        List<RedisStreamPendingMessage> pendingMessages = redis.stream().pending("stream1", "group", 10);
+        assertThat(pendingMessages).hasSize(1);
+        assertThat(pendingMessages.get(0).id).isEqualTo(id2);
+        assertThat(pendingMessages.get(0).consumer).isEqualTo("consumer2");
+    }
+
+    @Test
+    void claim() {
+        redis.stream().createGroup("stream2", "group");
+        String id = redis.stream().add("stream2", Map.of("k", "v"), 100);
+        redis.stream().readGroup("stream2", "group", "consumer1", 10);
+
+        assertThat(redis.stream().claim("stream2", "group", "consumer2", Duration.ofMinutes(1), id)).isEmpty();
+        assertThat(redis.stream().claim("stream2", "group", "consumer2", Duration.ZERO, id)).extracting(message -> message.id).containsExactly(id);
+
+        RedisStreamPendingMessage pendingMessage = redis.stream().pending("stream2", "group", 10).get(0);
+        assertThat(pendingMessage.consumer).isEqualTo("consumer2");
+        assertThat(pendingMessage.deliveries).isEqualTo(2);
+    }
+
+    @Test
+    void createGroup() {
+        for (int i = 0; i < 5; i++) {
+            redis.stream().add("stream3", Map.of("k", String.valueOf(i)), 3);
+        }
+        redis.stream().createGroup("stream3", "group");
+        assertThat(redis.stream().readGroup("stream3", "group", "consumer", 10)).isEmpty();     // group only reads messages added after creation
+    }
+}
@@ -4,10 +4,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 
 /**
@@ -36,6 +39,16 @@ class MockRedisTest {
         assertThat(values).containsOnly(entry("key2", "value2"), entry("key3", "value3"));
     }
 
+    @Test
+    void script() {
+        redis.mockScript("return redis.call('incrby', KEYS[1], ARGV[1])", (keys, arguments) -> redis.increaseBy(keys.get(0), Long.parseLong(arguments[0])));
+
+        assertThat(redis.script("return redis.call('incrby', KEYS[1], ARGV[1])").execute(List.of("counter"), "2")).isEqualTo(2L);
+        assertThatThrownBy(() -> redis.script("return 1").execute(List.of()))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("lua script is not supported by mock redis");
+    }
+
     @Test
     void forEach() {
         redis.set("matched-1", "matched-value-1");
@@ -54,6 +67,17 @@ class MockRedisTest {
         assertThat(count.get()).isEqualTo(3);
     }
 
+    @Test
+    void forEachWithType() {
+        redis.set("key-1", "value");
+        redis.hash().set("key-2", "field", "value");
+        redis.sortedSet().add("key-3", "value", 1);
+
+        List<String> keys = new ArrayList<>();
+        redis.forEach("key-*", "hash", 100, keys::add);
+        assertThat(keys).containsExactly("key-2");
+    }
+
     @Test
     void increaseBy() {
         long result = redis.increaseBy("counter", 1);
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -24,7 +26,18 @@ class SessionIntegrationTest extends IntegrationTest {
 
     @BeforeEach
     void createRedisSessionStore() {
-        store = new RedisSessionStore(new MockRedis());
+        var redis = new MockRedis();
+        redis.mockScript(RedisSessionStore.GET_AND_REFRESH_SCRIPT, (keys, arguments) -> {
+            String key = keys.get(0);
+            List<String> values = new ArrayList<>();
+            redis.hash().getAll(key).forEach((field, value) -> {
+                values.add(field);
+                values.add(value);
+            });
+            if (!values.isEmpty()) redis.expire(key, Duration.ofMillis(Long.parseLong(arguments[0])));
+            return values;
+        });
+        store = new RedisSessionStore(redis);
     }
 
     @Test
@@ -1,6 +1,7 @@
 package core.framework.cache;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -14,6 +15,9 @@ public interface Cache<T> {
 
     Map<String, T> getAll(Collection<String> keys, Function<String, T> loader);
 
+    // load all missing keys by one call, e.g. one db query with IN clause, loader must return value for every key passed in
+    Map<String, T> bulkGet(Collection<String> keys, Function<List<String>, Map<String, T>> loader);
+
     void put(String key, T value);
 
     void putAll(Map<String, T> values);
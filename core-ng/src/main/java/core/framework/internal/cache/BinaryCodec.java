@@ -0,0 +1,54 @@
+package core.framework.internal.cache;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.DateTimeException;
+
+/**
+ * value is encoded as header byte + version + fields in declaration order, version is hash of class structure,
+ * so value written by different class structure is treated as cache miss, and value with same version doesn't need to be validated
+ *
+ * @author neo
+ */
+public final class BinaryCodec<T> {
+    static final byte BINARY = 2;   // json never starts with this byte, compressed value starts with CacheCompression.DEFLATE
+    private static final int HEADER_SIZE = 5;
+
+    static boolean encoded(byte[] bytes, int offset, int length) {
+        return length >= HEADER_SIZE && bytes[offset] == BINARY;
+    }
+
+    final int version;
+    private final BinaryCoder<T> coder;
+
+    BinaryCodec(BinaryCoder<T> coder, int version) {
+        this.coder = coder;
+        this.version = version;
+    }
+
+    byte[] encode(T value) {
+        var output = new BinaryOutput(256);
+        output.writeByte(BINARY);
+        output.writeByte(version >>> 24);
+        output.writeByte(version >>> 16);
+        output.writeByte(version >>> 8);
+        output.writeByte(version);
+        coder.encode(output, value);
+        return output.toByteArray();
+    }
+
+    // return null if value was encoded by different class structure
+    @Nullable
+    T decode(byte[] bytes, int offset, int length) throws IOException {
+        int version = (bytes[offset + 1] & 0xFF) << 24 | (bytes[offset + 2] & 0xFF) << 16 | (bytes[offset + 3] & 0xFF) << 8 | bytes[offset + 4] & 0xFF;
+        if (version != this.version) return null;
+        var input = new BinaryInput(bytes, offset + HEADER_SIZE, length - HEADER_SIZE);
+        try {
+            T value = coder.decode(input);
+            if (!input.end()) throw new IOException("unexpected data after value, position=" + input.position);
+            return value;
+        } catch (IndexOutOfBoundsException | DateTimeException e) {
+            throw new IOException("invalid binary value, error=" + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.asm.CodeBuilder;
+import core.framework.internal.asm.DynamicInstanceBuilder;
+import core.framework.internal.reflect.Classes;
+import core.framework.internal.reflect.GenericTypes;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static core.framework.internal.asm.Literal.type;
+
+/**
+ * generate coder for cache class validated by CacheClassValidator, version is hash of class structure, including field names, types and enum constants
+ *
+ * @author neo
+ */
+public class BinaryCodecBuilder<T> {
+    private static final Set<Class<?>> VALUE_CLASSES = Set.of(String.class, Boolean.class, Integer.class, Long.class, Double.class, BigDecimal.class,
+            LocalDate.class, LocalDateTime.class, LocalTime.class, Instant.class, ZonedDateTime.class);
+
+    private final Class<T> cacheClass;
+    private final StringBuilder schema = new StringBuilder();
+    private final Map<Class<?>, String> enumFields = new HashMap<>();
+    DynamicInstanceBuilder<BinaryCoder<T>> builder;
+    private int index;
+
+    public BinaryCodecBuilder(Class<T> cacheClass) {
+        this.cacheClass = cacheClass;
+    }
+
+    public BinaryCodec<T> build() {
+        builder = new DynamicInstanceBuilder<>(BinaryCoder.class, cacheClass.getName() + "$BinaryCoder");
+        String encodeMethod = encodeMethod(cacheClass);
+        String decodeMethod = decodeMethod(cacheClass);
+
+        var encode = new CodeBuilder().append("public void encode({} output, Object value) {\n", type(BinaryOutput.class));
+        encode.indent(1).append("{}(output, ({}) value);\n", encodeMethod, type(cacheClass));
+        encode.append('}');
+        builder.addMethod(encode.build());
+
+        var decode = new CodeBuilder().append("public Object decode({} input) {\n", type(BinaryInput.class));
+        decode.indent(1).append("return {}(input);\n", decodeMethod);
+        decode.append('}');
+        builder.addMethod(decode.build());
+
+        return new BinaryCodec<>(builder.build(), schema.toString().hashCode());
+    }
+
+    String schema() {
+        return schema.toString();
+    }
+
+    private String encodeMethod(Class<?> beanClass) {
+        String methodName = "encode" + beanClass.getSimpleName() + (index++);
+        var builder = new CodeBuilder().append("private void {}({} output, {} bean) {\n", methodName, type(BinaryOutput.class), type(beanClass));
+        builder.indent(1).append("if (bean == null) {\n")
+                .indent(2).append("output.writeByte(0);\n")
+                .indent(2).append("return;\n")
+                .indent(1).append("}\n");
+        builder.indent(1).append("output.writeByte(1);\n");
+
+        schema.append(beanClass.getName()).append('{');
+        for (Field field : Classes.instanceFields(beanClass)) {
+            String fieldName = field.getName();
+            Type fieldType = field.getGenericType();
+            schema.append(fieldName).append(':').append(fieldType.getTypeName()).append(';');
+            String variable = "bean." + fieldName;
+            if (GenericTypes.isList(fieldType)) {
+                encodeList(builder, 1, GenericTypes.listValueClass(fieldType), variable, fieldName);
+            } else if (GenericTypes.isMap(fieldType)) {
+                encodeMap(builder, fieldType, variable, fieldName);
+            } else {
+                builder.indent(1).append("{};\n", encodeValue(GenericTypes.rawClass(fieldType), variable));
+            }
+        }
+        schema.append('}');
+
+        builder.append('}');
+        this.builder.addMethod(builder.build());
+        return methodName;
+    }
+
+    private void encodeList(CodeBuilder builder, int indent, Class<?> valueClass, String expression, String name) {
+        builder.indent(indent).append("java.util.List {}List = (java.util.List) {};\n", name, expression);
+        builder.indent(indent).append("if ({}List == null) output.writeSize(-1);\n", name);
+        builder.indent(indent).append("else {\n");
+        builder.indent(indent + 1).append("output.writeSize({}List.size());\n", name);
+        builder.indent(indent + 1).append("for (java.util.Iterator {}Iterator = {}List.iterator(); {}Iterator.hasNext(); ) {\n", name, name, name);
+        builder.indent(indent + 2).append("{};\n", encodeValue(valueClass, name + "Iterator.next()"));
+        builder.indent(indent + 1).append("}\n");
+        builder.indent(indent).append("}\n");
+    }
+
+    private void encodeMap(CodeBuilder builder, Type mapType, String variable, String name) {
+        Class<?> keyClass = GenericTypes.mapKeyClass(mapType);
+        Type valueType = GenericTypes.mapValueType(mapType);
+        builder.indent(1).append("if ({} == null) output.writeSize(-1);\n", variable);
+        builder.indent(1).append("else {\n");
+        builder.indent(2).append("output.writeSize({}.size());\n", variable);
+        builder.indent(2).append("for (java.util.Iterator {}Iterator = {}.entrySet().iterator(); {}Iterator.hasNext(); ) {\n", name, variable, name);
+        builder.indent(3).append("java.util.Map.Entry {}Entry = (java.util.Map.Entry) {}Iterator.next();\n", name, name);
+        builder.indent(3).append("{};\n", encodeValue(keyClass, name + "Entry.getKey()"));
+        if (GenericTypes.isList(valueType)) {
+            encodeList(builder, 3, GenericTypes.listValueClass(valueType), name + "Entry.getValue()", name + "Value");
+        } else {
+            builder.indent(3).append("{};\n", encodeValue(GenericTypes.rawClass(valueType), name + "Entry.getValue()"));
+        }
+        builder.indent(2).append("}\n");
+        builder.indent(1).append("}\n");
+    }
+
+    private String encodeValue(Class<?> valueClass, String expression) {
+        if (VALUE_CLASSES.contains(valueClass)) {
+            return "output.write" + valueClass.getSimpleName() + "((" + type(valueClass) + ") " + expression + ")";
+        } else if (valueClass.isEnum()) {
+            enumField(valueClass);
+            return "output.writeEnum((java.lang.Enum) " + expression + ")";
+        }
+        return encodeMethod(valueClass) + "(output, (" + type(valueClass) + ") " + expression + ")";
+    }
+
+    private String decodeMethod(Class<?> beanClass) {
+        String methodName = "decode" + beanClass.getSimpleName() + (index++);
+        String beanClassLiteral = type(beanClass);
+        var builder = new CodeBuilder().append("private {} {}({} input) {\n", beanClassLiteral, methodName, type(BinaryInput.class));
+        builder.indent(1).append("if (input.readByte() == 0) return null;\n");
+        builder.indent(1).append("{} bean = new {}();\n", beanClassLiteral, beanClassLiteral);
+
+        for (Field field : Classes.instanceFields(beanClass)) {
+            String fieldName = field.getName();
+            Type fieldType = field.getGenericType();
+            if (GenericTypes.isList(fieldType)) {
+                decodeList(builder, 1, GenericTypes.listValueClass(fieldType), "bean." + fieldName, fieldName);
+            } else if (GenericTypes.isMap(fieldType)) {
+                decodeMap(builder, fieldType, fieldName);
+            } else {
+                builder.indent(1).append("bean.{} = {};\n", fieldName, decodeValue(GenericTypes.rawClass(fieldType)));
+            }
+        }
+
+        builder.indent(1).append("return bean;\n");
+        builder.append('}');
+        this.builder.addMethod(builder.build());
+        return methodName;
+    }
+
+    // assign decoded list to target, target is null if list is null, it must be assigned explicitly, as field may have default value
+    private void decodeList(CodeBuilder builder, int indent, Class<?> valueClass, String target, String name) {
+        builder.indent(indent).append("int {}Size = input.readSize();\n", name);
+        builder.indent(indent).append("java.util.List {}List = null;\n", name);
+        builder.indent(indent).append("if ({}Size >= 0) {\n", name);
+        builder.indent(indent + 1).append("{}List = new java.util.ArrayList({}Size);\n", name, name);
+        builder.indent(indent + 1).append("for (int {}Index = 0; {}Index < {}Size; {}Index++) {\n", name, name, name, name);
+        builder.indent(indent + 2).append("{}List.add({});\n", name, decodeValue(valueClass));
+        builder.indent(indent + 1).append("}\n");
+        builder.indent(indent).append("}\n");
+        builder.indent(indent).append("{} = {}List;\n", target, name);
+    }
+
+    private void decodeMap(CodeBuilder builder, Type mapType, String name) {
+        Class<?> keyClass = GenericTypes.mapKeyClass(mapType);
+        Type valueType = GenericTypes.mapValueType(mapType);
+        builder.indent(1).append("int {}Size = input.readSize();\n", name);
+        builder.indent(1).append("java.util.Map {}Map = null;\n", name);
+        builder.indent(1).append("if ({}Size >= 0) {\n", name);
+        builder.indent(2).append("{}Map = new java.util.LinkedHashMap();\n", name);
+        builder.indent(2).append("for (int {}Index = 0; {}Index < {}Size; {}Index++) {\n", name, name, name, name);
+        builder.indent(3).append("Object {}Key = {};\n", name, decodeValue(keyClass));
+        if (GenericTypes.isList(valueType)) {
+            builder.indent(3).append("java.util.List {}Value;\n", name);
+            decodeList(builder, 3, GenericTypes.listValueClass(valueType), name + "Value", name + "ValueList");
+        } else {
+            builder.indent(3).append("Object {}Value = {};\n", name, decodeValue(GenericTypes.rawClass(valueType)));
+        }
+        builder.indent(3).append("{}Map.put({}Key, {}Value);\n", name, name, name);
+        builder.indent(2).append("}\n");
+        builder.indent(1).append("}\n");
+        builder.indent(1).append("bean.{} = {}Map;\n", name, name);
+    }
+
+    private String decodeValue(Class<?> valueClass) {
+        if (VALUE_CLASSES.contains(valueClass)) {
+            return "input.read" + valueClass.getSimpleName() + "()";
+        } else if (valueClass.isEnum()) {
+            return "(" + type(valueClass) + ") input.readEnum(" + enumField(valueClass) + ")";
+        }
+        return decodeMethod(valueClass) + "(input)";
+    }
+
+    private String enumField(Class<?> enumClass) {
+        return enumFields.computeIfAbsent(enumClass, key -> {
+            String field = "enumConstants" + enumFields.size();
+            builder.addField("private final Object[] {} = {}.values();", field, type(enumClass));
+            schema.append(enumClass.getName()).append('[');
+            for (Object constant : enumClass.getEnumConstants()) {
+                schema.append(((Enum<?>) constant).name()).append(',');
+            }
+            schema.append(']');
+            return field;
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package core.framework.internal.cache;
+
+/**
+ * @author neo
+ */
+public interface BinaryCoder<T> {
+    void encode(BinaryOutput output, T value);
+
+    T decode(BinaryInput input);
+}
@@ -0,0 +1,142 @@
+package core.framework.internal.cache;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+/**
+ * read values written by {@link BinaryOutput}, throws IndexOutOfBoundsException if data is truncated
+ *
+ * @author neo
+ */
+public final class BinaryInput {
+    private final byte[] bytes;
+    private final int limit;
+    int position;
+
+    BinaryInput(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        position = offset;
+        limit = offset + length;
+    }
+
+    public int readByte() {
+        if (position >= limit) throw new IndexOutOfBoundsException("unexpected end of data, position=" + position);
+        return bytes[position++];
+    }
+
+    public int readSize() {
+        return (int) readVarLong() - 1;
+    }
+
+    public String readString() {
+        int size = readSize();
+        if (size < 0) return null;
+        checkRemaining(size);
+        String value = new String(bytes, position, size, StandardCharsets.UTF_8);
+        position += size;
+        return value;
+    }
+
+    public Boolean readBoolean() {
+        int value = readByte();
+        if (value == 0) return null;
+        return value == 2;
+    }
+
+    public Integer readInteger() {
+        if (!present()) return null;
+        return (int) unzigzag(readVarLong());
+    }
+
+    public Long readLong() {
+        if (!present()) return null;
+        return unzigzag(readVarLong());
+    }
+
+    public Double readDouble() {
+        if (!present()) return null;
+        checkRemaining(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[position++] & 0xFF);
+        }
+        return Double.longBitsToDouble(value);
+    }
+
+    public BigDecimal readBigDecimal() {
+        if (!present()) return null;
+        int scale = (int) unzigzag(readVarLong());
+        int size = readSize();
+        checkRemaining(size);
+        byte[] unscaledValue = Arrays.copyOfRange(bytes, position, position + size);
+        position += size;
+        return new BigDecimal(new BigInteger(unscaledValue), scale);
+    }
+
+    public LocalDate readLocalDate() {
+        if (!present()) return null;
+        return LocalDate.ofEpochDay(unzigzag(readVarLong()));
+    }
+
+    public LocalDateTime readLocalDateTime() {
+        if (!present()) return null;
+        LocalDate date = LocalDate.ofEpochDay(unzigzag(readVarLong()));
+        return LocalDateTime.of(date, LocalTime.ofNanoOfDay(readVarLong()));
+    }
+
+    public LocalTime readLocalTime() {
+        if (!present()) return null;
+        return LocalTime.ofNanoOfDay(readVarLong());
+    }
+
+    public Instant readInstant() {
+        if (!present()) return null;
+        return Instant.ofEpochSecond(unzigzag(readVarLong()), readVarLong());
+    }
+
+    public ZonedDateTime readZonedDateTime() {
+        if (!present()) return null;
+        Instant instant = Instant.ofEpochSecond(unzigzag(readVarLong()), readVarLong());
+        return ZonedDateTime.ofInstant(instant, ZoneId.of(readString()));
+    }
+
+    public Object readEnum(Object[] constants) {
+        int ordinal = readSize();
+        if (ordinal < 0) return null;
+        return constants[ordinal];
+    }
+
+    boolean end() {
+        return position == limit;
+    }
+
+    private boolean present() {
+        return readByte() != 0;
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IndexOutOfBoundsException("malformed varint, position=" + position);
+    }
+
+    private long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void checkRemaining(int length) {
+        if (length < 0 || position + length > limit) throw new IndexOutOfBoundsException("unexpected end of data, position=" + position + ", length=" + length);
+    }
+}
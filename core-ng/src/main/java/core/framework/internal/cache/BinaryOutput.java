@@ -0,0 +1,146 @@
+package core.framework.internal.cache;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+/**
+ * used by generated binary coder, every value starts with presence byte or size, numbers are written as zigzag varint
+ *
+ * @author neo
+ */
+public final class BinaryOutput {
+    private byte[] bytes;
+    private int position;
+
+    BinaryOutput(int capacity) {
+        bytes = new byte[capacity];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[position++] = (byte) value;
+    }
+
+    // size of string, list or map, -1 means null
+    public void writeSize(int size) {
+        writeVarLong(size + 1);
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeSize(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeSize(utf8.length);
+        writeBytes(utf8);
+    }
+
+    public void writeBoolean(Boolean value) {
+        writeByte(value == null ? 0 : value ? 2 : 1);
+    }
+
+    public void writeInteger(Integer value) {
+        if (present(value)) writeVarLong(zigzag(value));
+    }
+
+    public void writeLong(Long value) {
+        if (present(value)) writeVarLong(zigzag(value));
+    }
+
+    public void writeDouble(Double value) {
+        if (present(value)) writeFixedLong(Double.doubleToLongBits(value));
+    }
+
+    public void writeBigDecimal(BigDecimal value) {
+        if (present(value)) {
+            writeVarLong(zigzag(value.scale()));
+            byte[] unscaledValue = value.unscaledValue().toByteArray();
+            writeSize(unscaledValue.length);
+            writeBytes(unscaledValue);
+        }
+    }
+
+    public void writeLocalDate(LocalDate value) {
+        if (present(value)) writeVarLong(zigzag(value.toEpochDay()));
+    }
+
+    public void writeLocalDateTime(LocalDateTime value) {
+        if (present(value)) {
+            writeVarLong(zigzag(value.toLocalDate().toEpochDay()));
+            writeVarLong(value.toLocalTime().toNanoOfDay());
+        }
+    }
+
+    public void writeLocalTime(LocalTime value) {
+        if (present(value)) writeVarLong(value.toNanoOfDay());
+    }
+
+    public void writeInstant(Instant value) {
+        if (present(value)) {
+            writeVarLong(zigzag(value.getEpochSecond()));
+            writeVarLong(value.getNano());
+        }
+    }
+
+    public void writeZonedDateTime(ZonedDateTime value) {
+        if (present(value)) {
+            writeVarLong(zigzag(value.toEpochSecond()));
+            writeVarLong(value.getNano());
+            writeString(value.getZone().getId());
+        }
+    }
+
+    // enum constants are bound by version of codec, so ordinal is stable
+    public void writeEnum(Enum<?> value) {
+        writeSize(value == null ? -1 : value.ordinal());
+    }
+
+    byte[] toByteArray() {
+        return position == bytes.length ? bytes : Arrays.copyOf(bytes, position);
+    }
+
+    private boolean present(Object value) {
+        writeByte(value == null ? 0 : 1);
+        return value != null;
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            bytes[position++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        bytes[position++] = (byte) remaining;
+    }
+
+    private void writeFixedLong(long value) {
+        ensureCapacity(8);
+        for (int i = 56; i >= 0; i -= 8) {
+            bytes[position++] = (byte) (value >>> i);
+        }
+    }
+
+    private void writeBytes(byte[] value) {
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, bytes, position, value.length);
+        position += value.length;
+    }
+
+    private long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void ensureCapacity(int length) {
+        if (position + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + length));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package core.framework.internal.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * compress large json value with deflate, compressed value is prefixed with header byte,
+ * json never starts with control char, so uncompressed values (e.g. written before compression is enabled) can still be read
+ *
+ * @author neo
+ */
+public final class CacheCompression {
+    static final byte DEFLATE = 1;
+
+    final int minLength;
+
+    static boolean compressed(byte[] bytes, int offset, int length) {
+        return length > 0 && bytes[offset] == DEFLATE;
+    }
+
+    // decompress as stream, so json reader parses while inflating without holding entire json in memory
+    static InputStream decompress(byte[] bytes, int offset, int length) {
+        return new InflaterInputStream(new ByteArrayInputStream(bytes, offset + 1, length - 1), new Inflater(), 4096) {
+            @Override
+            public void close() {
+                inf.end();  // release native memory of inflater immediately, not wait for gc
+            }
+        };
+    }
+
+    public CacheCompression(int minLength) {
+        if (minLength <= 0) throw new Error("minLength must be greater than 0, minLength=" + minLength);
+        this.minLength = minLength;
+    }
+
+    byte[] compress(byte[] json) {
+        if (json.length < minLength) return json;
+        var deflater = new Deflater(Deflater.BEST_SPEED);   // cache value is written often, favor speed over ratio
+        try {
+            deflater.setInput(json);
+            deflater.finish();
+            var stream = new ByteArrayOutputStream(json.length / 4 + 1);
+            stream.write(DEFLATE);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                stream.write(buffer, 0, length);
+                if (stream.size() >= json.length) return json;     // not compressible, e.g. small value with random content
+            }
+            return stream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -5,6 +5,9 @@ import core.framework.internal.json.JSONReader;
 import core.framework.internal.json.JSONWriter;
 import core.framework.internal.validate.Validator;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+
 /**
  * @author neo
  */
@@ -14,10 +17,24 @@ public class CacheContext<T> {
     // only validate when retrieve cache from store, in case data in cache store is stale, e.g. the class structure is changed but still got old data from cache
     // it's opposite as DB, which only validate on save
     final Validator<T> validator;
+    final CacheStats stats = new CacheStats();
+    @Nullable
+    BinaryCodec<T> codec;   // use binary format instead of json if configured
 
     CacheContext(Class<T> cacheClass) {
         reader = JSONMapper.reader(cacheClass);
         writer = JSONMapper.writer(cacheClass);
         validator = Validator.of(cacheClass);
     }
+
+    byte[] serialize(T value) {
+        if (codec != null) return codec.encode(value);
+        return writer.toJSON(value);
+    }
+
+    // for in process stores, value is always serialized by same context
+    T deserialize(byte[] bytes) throws IOException {
+        if (codec != null) return codec.decode(bytes, 0, bytes.length);
+        return reader.fromJSON(bytes);
+    }
 }
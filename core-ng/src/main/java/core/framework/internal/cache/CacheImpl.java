@@ -1,5 +1,6 @@
 package core.framework.internal.cache;
 
+import core.framework.async.Executor;
 import core.framework.cache.Cache;
 import core.framework.log.ActionLogContext;
 import core.framework.util.Maps;
@@ -9,9 +10,16 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 
 /**
@@ -23,31 +31,109 @@ public class CacheImpl<T> implements Cache<T> {
     public final Duration duration;
 
     final CacheContext<T> context;
+    final Map<String, CompletableFuture<T>> loadings = new ConcurrentHashMap<>();
     private final Logger logger = LoggerFactory.getLogger(CacheImpl.class);
 
     public CacheStore cacheStore;
+    Duration maxStale;
+    private Duration expiration;
+    private Executor refreshExecutor;
 
     public CacheImpl(String name, Class<T> cacheClass, Duration duration) {
         this.name = name;
         this.cacheClass = cacheClass;
         this.duration = duration;
+        expiration = duration;
         context = new CacheContext<>(cacheClass);
     }
 
+    // keep value up to maxStale after duration, stale value is returned immediately and reloaded in background
+    public void staleWhileRevalidate(Duration maxStale, Executor executor) {
+        this.maxStale = maxStale;
+        refreshExecutor = executor;
+        expiration = duration.plus(maxStale);
+    }
+
+    // encode value in binary format instead of json, binary value is bound to class structure by version, and not validated on read
+    public void binaryCodec() {
+        context.codec = new BinaryCodecBuilder<>(cacheClass).build();
+    }
+
     @Override
     public T get(String key, Function<String, T> loader) {
         String cacheKey = cacheKey(key);
+        if (maxStale != null) return getOrRefresh(cacheKey, key, loader);
         T cacheValue = cacheStore.get(cacheKey, context);
         if (cacheValue != null) {
-            ActionLogContext.stat("cache_hit", 1);
+            hit(1);
             return cacheValue;
         }
 
-        logger.debug("load value, key={}", key);
-        T value = load(loader, key);
-        cacheStore.put(cacheKey, value, duration, context);
-        ActionLogContext.stat("cache_miss", 1);
-        return value;
+        miss(1);
+        return loadOnce(cacheKey, key, loader);
+    }
+
+    private T getOrRefresh(String cacheKey, String key, Function<String, T> loader) {
+        CacheStore.Item<T> item = cacheStore.getItem(cacheKey, context);
+        if (item != null) {
+            hit(1);
+            if (System.currentTimeMillis() >= item.expirationTime - maxStale.toMillis()) refresh(cacheKey, key, loader);
+            return item.value;
+        }
+
+        miss(1);
+        return loadOnce(cacheKey, key, loader);
+    }
+
+    private void refresh(String cacheKey, String key, Function<String, T> loader) {
+        var loading = new CompletableFuture<T>();
+        if (loadings.putIfAbsent(cacheKey, loading) != null) return;    // being loaded or refreshed by other thread
+        ActionLogContext.stat("cache_stale", 1);
+        Future<T> future = refreshExecutor.submit("refreshCache", () -> load(cacheKey, key, loader, loading));
+        if (future.isCancelled()) {     // rejected as executor is shutting down
+            loadings.remove(cacheKey, loading);
+            loading.cancel(false);
+        }
+    }
+
+    // only one caller loads value of same key, others wait for it, to prevent hot key expiration from flooding db with same queries
+    private T loadOnce(String cacheKey, String key, Function<String, T> loader) {
+        var loading = new CompletableFuture<T>();
+        CompletableFuture<T> previous = loadings.putIfAbsent(cacheKey, loading);
+        if (previous != null) return awaitLoading(cacheKey, previous);
+        return load(cacheKey, key, loader, loading);
+    }
+
+    private T load(String cacheKey, String key, Function<String, T> loader, CompletableFuture<T> loading) {
+        try {
+            logger.debug("load value, key={}", key);
+            T value = load(loader, key);
+            cacheStore.put(cacheKey, value, expiration, context);
+            loading.complete(value);
+            return value;
+        } catch (Throwable e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadings.remove(cacheKey, loading);
+        }
+    }
+
+    private T awaitLoading(String cacheKey, CompletableFuture<T> loading) {
+        logger.debug("wait for value loaded by other thread, key={}", cacheKey);
+        ActionLogContext.stat("cache_coalesced", 1);
+        T value;
+        try {
+            value = loading.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+        // read from store to get own copy, not to share same object among callers with remote cache store
+        T cacheValue = cacheStore.get(cacheKey, context);
+        return cacheValue != null ? cacheValue : value;
     }
 
     public Optional<T> get(String key) {
@@ -58,34 +144,117 @@ public class CacheImpl<T> implements Cache<T> {
 
     @Override
     public Map<String, T> getAll(Collection<String> keys, Function<String, T> loader) {
-        int size = keys.size();
-        int index = 0;
+        return getOrLoadAll(keys, loadingKeys -> load(loader, loadingKeys));
+    }
+
+    @Override
+    public Map<String, T> bulkGet(Collection<String> keys, Function<List<String>, Map<String, T>> loader) {
+        return getOrLoadAll(keys, loadingKeys -> bulkLoad(loader, loadingKeys));
+    }
+
+    // register loadings of missed keys like get(), other callers wait for them instead of loading same keys again
+    private Map<String, T> getOrLoadAll(Collection<String> keys, Function<List<String>, Map<String, T>> loader) {
         String[] cacheKeys = cacheKeys(keys);
-        Map<String, T> values = Maps.newHashMapWithExpectedSize(size);
-        List<CacheStore.Entry<T>> newValues = new ArrayList<>(size);
-        Map<String, T> cacheValues = cacheStore.getAll(cacheKeys, context);
-        ActionLogContext.stat("cache_hit", cacheValues.size());
+        Map<String, T> values = Maps.newHashMapWithExpectedSize(keys.size());
+        Map<String, T> cacheValues = maxStale == null ? cacheStore.getAll(cacheKeys, context) : getAllOrRefresh(keys, cacheKeys, loader);
+        hit(cacheValues.size());
+        Map<String, CompletableFuture<T>> ownLoadings = new LinkedHashMap<>();      // key -> loading by this caller, keep order of keys passed to loader
+        Map<String, CompletableFuture<T>> otherLoadings = new LinkedHashMap<>();    // key -> loading by other caller
+        int index = 0;
         for (String key : keys) {
             String cacheKey = cacheKeys[index];
             T result = cacheValues.get(cacheKey);
-            if (result == null) {
-                logger.debug("load value, key={}", key);
-                result = load(loader, key);
-                newValues.add(new CacheStore.Entry<>(cacheKey, result));
+            if (result != null) {
+                values.put(key, result);
+            } else if (!ownLoadings.containsKey(key) && !otherLoadings.containsKey(key)) {  // keys may contain duplicates
+                var loading = new CompletableFuture<T>();
+                CompletableFuture<T> previous = loadings.putIfAbsent(cacheKey, loading);
+                if (previous != null) otherLoadings.put(key, previous);
+                else ownLoadings.put(key, loading);
             }
-            values.put(key, result);
             index++;
         }
-        if (!newValues.isEmpty()) {
-            cacheStore.putAll(newValues, duration, context);
-            ActionLogContext.stat("cache_miss", newValues.size());
+        // complete own loadings before waiting for others, to avoid deadlock between callers waiting on each other's keys
+        if (!ownLoadings.isEmpty()) {
+            miss(ownLoadings.size());
+            values.putAll(loadAll(ownLoadings, loader));
+        }
+        for (Map.Entry<String, CompletableFuture<T>> entry : otherLoadings.entrySet()) {
+            values.put(entry.getKey(), awaitLoading(cacheKey(entry.getKey()), entry.getValue()));
         }
         return values;
     }
 
+    // return stale values as hits, and refresh them in background together
+    private Map<String, T> getAllOrRefresh(Collection<String> keys, String[] cacheKeys, Function<List<String>, Map<String, T>> loader) {
+        Map<String, CacheStore.Item<T>> items = cacheStore.getItems(cacheKeys, context);
+        Map<String, T> values = Maps.newHashMapWithExpectedSize(items.size());
+        long staleTime = System.currentTimeMillis() + maxStale.toMillis();     // item expires before this time is within stale window
+        Set<String> staleKeys = new LinkedHashSet<>();
+        int index = 0;
+        for (String key : keys) {
+            String cacheKey = cacheKeys[index];
+            CacheStore.Item<T> item = items.get(cacheKey);
+            if (item != null) {
+                values.put(cacheKey, item.value);
+                if (item.expirationTime <= staleTime) staleKeys.add(key);
+            }
+            index++;
+        }
+        if (!staleKeys.isEmpty()) refreshAll(staleKeys, loader);
+        return values;
+    }
+
+    private void refreshAll(Set<String> keys, Function<List<String>, Map<String, T>> loader) {
+        Map<String, CompletableFuture<T>> ownLoadings = new LinkedHashMap<>();
+        for (String key : keys) {
+            var loading = new CompletableFuture<T>();
+            if (loadings.putIfAbsent(cacheKey(key), loading) == null) ownLoadings.put(key, loading);   // skip keys being loaded or refreshed by other thread
+        }
+        if (ownLoadings.isEmpty()) return;
+        ActionLogContext.stat("cache_stale", ownLoadings.size());
+        Future<Map<String, T>> future = refreshExecutor.submit("refreshCache", () -> loadAll(ownLoadings, loader));
+        if (future.isCancelled()) {     // rejected as executor is shutting down
+            for (Map.Entry<String, CompletableFuture<T>> entry : ownLoadings.entrySet()) {
+                loadings.remove(cacheKey(entry.getKey()), entry.getValue());
+                entry.getValue().cancel(false);
+            }
+        }
+    }
+
+    private Map<String, T> loadAll(Map<String, CompletableFuture<T>> ownLoadings, Function<List<String>, Map<String, T>> loader) {
+        List<String> keys = new ArrayList<>(ownLoadings.keySet());
+        try {
+            logger.debug("load values, keys={}", keys);
+            Map<String, T> loadedValues = loader.apply(keys);
+            Map<String, T> values = Maps.newHashMapWithExpectedSize(keys.size());
+            List<CacheStore.Entry<T>> newValues = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                T value = loadedValues.get(key);
+                if (value == null) throw new Error("value must not be null, key=" + key);
+                values.put(key, value);
+                newValues.add(new CacheStore.Entry<>(cacheKey(key), value));
+            }
+            cacheStore.putAll(newValues, expiration, context);
+            for (Map.Entry<String, CompletableFuture<T>> entry : ownLoadings.entrySet()) {
+                entry.getValue().complete(values.get(entry.getKey()));
+            }
+            return values;
+        } catch (Throwable e) {
+            for (CompletableFuture<T> loading : ownLoadings.values()) {
+                loading.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            for (Map.Entry<String, CompletableFuture<T>> entry : ownLoadings.entrySet()) {
+                loadings.remove(cacheKey(entry.getKey()), entry.getValue());
+            }
+        }
+    }
+
     @Override
     public void put(String key, T value) {
-        cacheStore.put(cacheKey(key), value, duration, context);
+        cacheStore.put(cacheKey(key), value, expiration, context);
     }
 
     @Override
@@ -94,7 +263,7 @@ public class CacheImpl<T> implements Cache<T> {
         for (Map.Entry<String, T> entry : values.entrySet()) {
             cacheValues.add(new CacheStore.Entry<>(cacheKey(entry.getKey()), entry.getValue()));
         }
-        cacheStore.putAll(cacheValues, duration, context);
+        cacheStore.putAll(cacheValues, expiration, context);
     }
 
     @Override
@@ -108,6 +277,20 @@ public class CacheImpl<T> implements Cache<T> {
         cacheStore.delete(cacheKeys);
     }
 
+    public CacheStats stats() {
+        return context.stats;
+    }
+
+    private void hit(int count) {
+        ActionLogContext.stat("cache_hit", count);
+        context.stats.hits.add(count);
+    }
+
+    private void miss(int count) {
+        ActionLogContext.stat("cache_miss", count);
+        context.stats.misses.add(count);
+    }
+
     private String[] cacheKeys(Collection<String> keys) {
         String[] cacheKeys = new String[keys.size()];
         int index = 0;
@@ -122,8 +305,25 @@ public class CacheImpl<T> implements Cache<T> {
         return name + ":" + key;
     }
 
+    private Map<String, T> load(Function<String, T> loader, List<String> keys) {
+        Map<String, T> values = Maps.newHashMapWithExpectedSize(keys.size());
+        for (String key : keys) {
+            values.put(key, load(loader, key));
+        }
+        return values;
+    }
+
+    private Map<String, T> bulkLoad(Function<List<String>, Map<String, T>> loader, List<String> keys) {
+        long start = System.nanoTime();
+        Map<String, T> values = loader.apply(keys);
+        context.stats.load(System.nanoTime() - start);
+        return values;
+    }
+
     private T load(Function<String, T> loader, String key) {
+        long start = System.nanoTime();
         T value = loader.apply(key);
+        context.stats.load(System.nanoTime() - start);
         if (value == null) throw new Error("value must not be null, key=" + key);
         return value;
     }
@@ -0,0 +1,56 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.stat.Metrics;
+import core.framework.internal.stat.Stats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * report counters of each cache since last collect, stats are kept as totals to be shown in /_sys/cache
+ *
+ * @author neo
+ */
+public class CacheMetrics implements Metrics {
+    private final Map<String, CacheImpl<?>> caches;
+    private final Map<String, long[]> previousCounts = new HashMap<>();    // only accessed by stat collector thread
+
+    public CacheMetrics(Map<String, CacheImpl<?>> caches) {
+        this.caches = caches;
+    }
+
+    @Override
+    public void collect(Stats stats) {
+        for (CacheImpl<?> cache : caches.values()) {
+            CacheStats cacheStats = cache.stats();
+            long[] counts = counts(cacheStats);
+            long[] previous = previousCounts.put(cache.name, counts);
+            String prefix = "cache_" + cache.name + '_';
+            stats.put(prefix + "hits", delta(counts, previous, 0));
+            stats.put(prefix + "misses", delta(counts, previous, 1));
+            stats.put(prefix + "loads", delta(counts, previous, 2));
+            stats.put(prefix + "evictions", delta(counts, previous, 3));
+            for (int i = 0; i < CacheStats.LOAD_TIME_BUCKET_NAMES.length; i++) {
+                stats.put(prefix + "load_" + CacheStats.LOAD_TIME_BUCKET_NAMES[i], delta(counts, previous, 4 + i));
+            }
+            stats.put(prefix + "size_in_bytes", cacheStats.sizeInBytes.sum());
+        }
+    }
+
+    private long[] counts(CacheStats stats) {
+        long[] counts = new long[4 + stats.loadTimes.length];
+        counts[0] = stats.hits.sum();
+        counts[1] = stats.misses.sum();
+        counts[2] = stats.loads.sum();
+        counts[3] = stats.evictions.sum();
+        for (int i = 0; i < stats.loadTimes.length; i++) {
+            counts[4 + i] = stats.loadTimes[i].sum();
+        }
+        return counts;
+    }
+
+    private long delta(long[] counts, long[] previous, int index) {
+        if (previous == null) return counts[index];
+        return counts[index] - previous[index];
+    }
+}
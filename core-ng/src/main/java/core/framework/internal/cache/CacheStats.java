@@ -0,0 +1,37 @@
+package core.framework.internal.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * counters of one cache since startup, LongAdder to avoid contention between readers,
+ * sizeInBytes and evictions are only tracked by local cache store, estimated by json length
+ *
+ * @author neo
+ */
+public final class CacheStats {
+    static final long[] LOAD_TIME_BUCKETS_IN_NANOS = {1_000_000, 10_000_000, 100_000_000, 1_000_000_000};     // 1ms, 10ms, 100ms, 1s
+    public static final String[] LOAD_TIME_BUCKET_NAMES = {"1ms", "10ms", "100ms", "1s", "inf"};
+
+    public final LongAdder hits = new LongAdder();
+    public final LongAdder misses = new LongAdder();
+    public final LongAdder loads = new LongAdder();
+    public final LongAdder loadElapsed = new LongAdder();
+    // count of each bucket is number of loads took no longer than bucket and longer than previous one
+    public final LongAdder[] loadTimes = new LongAdder[LOAD_TIME_BUCKETS_IN_NANOS.length + 1];
+    public final LongAdder evictions = new LongAdder();
+    public final LongAdder sizeInBytes = new LongAdder();
+
+    CacheStats() {
+        for (int i = 0; i < loadTimes.length; i++) {
+            loadTimes[i] = new LongAdder();
+        }
+    }
+
+    void load(long elapsed) {
+        loads.increment();
+        loadElapsed.add(elapsed);
+        int index = 0;
+        while (index < LOAD_TIME_BUCKETS_IN_NANOS.length && elapsed > LOAD_TIME_BUCKETS_IN_NANOS[index]) index++;
+        loadTimes[index].increment();
+    }
+}
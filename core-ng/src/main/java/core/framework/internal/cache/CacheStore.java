@@ -1,5 +1,7 @@
 package core.framework.internal.cache;
 
+import core.framework.util.Maps;
+
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -10,8 +12,21 @@ import java.util.Map;
 public interface CacheStore {   // all keys here are direct cacheKey, not the key passed to Cache<T>
     <T> T get(String key, CacheContext<T> context);
 
+    // return value with expiration time, to tell whether value is stale
+    <T> Item<T> getItem(String key, CacheContext<T> context);
+
     <T> Map<String, T> getAll(String[] keys, CacheContext<T> context);
 
+    // return values with expiration time, for stale-while-revalidate with getAll, remote store should get all in one round trip
+    default <T> Map<String, Item<T>> getItems(String[] keys, CacheContext<T> context) {
+        Map<String, Item<T>> items = Maps.newHashMapWithExpectedSize(keys.length);
+        for (String key : keys) {
+            Item<T> item = getItem(key, context);
+            if (item != null) items.put(key, item);
+        }
+        return items;
+    }
+
     <T> void put(String key, T value, Duration expiration, CacheContext<T> context);
 
     <T> void putAll(List<Entry<T>> values, Duration expiration, CacheContext<T> context);
@@ -27,4 +42,20 @@ public interface CacheStore {   // all keys here are direct cacheKey, not the ke
             this.value = value;
         }
     }
+
+    class Item<T> {
+        final T value;
+        final long expirationTime;  // epoch millis
+        final int size;             // length of serialized value read from remote store, -1 if unknown
+
+        Item(T value, long expirationTime) {
+            this(value, expirationTime, -1);
+        }
+
+        Item(T value, long expirationTime, int size) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+            this.size = size;
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package core.framework.internal.cache;
+
+/**
+ * count-min sketch with 4-bit counters to estimate access frequency of keys in small fixed memory,
+ * all counters are halved periodically, so frequency decays and recent popular keys can replace old ones
+ *
+ * @author neo
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;     // each long holds 16 counters
+    private final int mask;
+    private final int sampleSize;
+    int additions;
+
+    FrequencySketch(int maxSize) {
+        int size = Math.max(16, Integer.highestOneBit(Math.max(1, maxSize) - 1) << 1);
+        table = new long[size];
+        mask = size - 1;
+        sampleSize = 10 * Math.max(1, maxSize);
+    }
+
+    int frequency(int hash) {
+        int hashCode = spread(hash);
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < 4; i++) {
+            int count = (int) ((table[index(hashCode, i)] >>> offset(hashCode, i)) & 0xF);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        int hashCode = spread(hash);
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int index = index(hashCode, i);
+            int offset = offset(hashCode, i);
+            if (((table[index] >>> offset) & 0xF) < MAX_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) reset();
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int index(int hashCode, int i) {
+        long hash = (hashCode + SEEDS[i]) * SEEDS[i];
+        hash += hash >>> 32;
+        return (int) hash & mask;
+    }
+
+    // pick one of 16 counters in long by different bits of hash for each row
+    private int offset(int hashCode, int i) {
+        return ((hashCode >>> (i << 3)) & 0xF) << 2;
+    }
+
+    private int spread(int hash) {
+        int result = hash * 0x9e3779b9;
+        return result ^ (result >>> 16);
+    }
+}
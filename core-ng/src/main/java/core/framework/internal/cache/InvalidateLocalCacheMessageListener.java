@@ -30,7 +30,7 @@ public class InvalidateLocalCacheMessageListener implements RedisChannelListener
     public void onMessage(byte[] message) throws IOException {
         InvalidateLocalCacheMessage invalidateMessage = reader.fromJSON(message);
         if (!Network.LOCAL_HOST_ADDRESS.equals(invalidateMessage.clientIP)) {
-            logger.info("invalidate local cache, keys={}", invalidateMessage.keys);
+            logger.info("invalidate local cache, keys={}, size={}", invalidateMessage.keys, invalidateMessage.keys.size());
             localCache.delete(invalidateMessage.keys.toArray(String[]::new));
         }
     }
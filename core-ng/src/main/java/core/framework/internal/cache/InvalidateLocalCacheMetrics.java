@@ -0,0 +1,21 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.stat.Metrics;
+import core.framework.internal.stat.Stats;
+
+/**
+ * @author neo
+ */
+public class InvalidateLocalCacheMetrics implements Metrics {
+    private final InvalidateLocalCachePublisher publisher;
+
+    public InvalidateLocalCacheMetrics(InvalidateLocalCachePublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void collect(Stats stats) {
+        stats.put("cache_invalidate_published_messages", publisher.publishedMessages.sumThenReset());
+        stats.put("cache_invalidate_published_keys", publisher.publishedKeys.sumThenReset());
+    }
+}
@@ -0,0 +1,95 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.json.JSONWriter;
+import core.framework.internal.redis.RedisImpl;
+import core.framework.util.Network;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * collect keys to invalidate within short window, and publish them as one message by background thread,
+ * to take redis publish off request thread, and reduce messages to parse on every subscriber during write burst
+ *
+ * @author neo
+ */
+public class InvalidateLocalCachePublisher extends Thread {
+    final LongAdder publishedMessages = new LongAdder();
+    final LongAdder publishedKeys = new LongAdder();
+    private final Logger logger = LoggerFactory.getLogger(InvalidateLocalCachePublisher.class);
+    private final JSONWriter<InvalidateLocalCacheMessage> writer = new JSONWriter<>(InvalidateLocalCacheMessage.class);
+    private final RedisImpl redis;
+    private final long window;
+    private final Object lock = new Object();
+    private Set<String> keys = new LinkedHashSet<>();    // guarded by lock
+    private volatile boolean stop;
+
+    public InvalidateLocalCachePublisher(RedisImpl redis, Duration window) {
+        super("cache-invalidate-publisher");
+        this.redis = redis;
+        this.window = window.toMillis();
+    }
+
+    public void publish(Collection<String> keys) {
+        synchronized (lock) {
+            if (this.keys.isEmpty()) lock.notifyAll();
+            this.keys.addAll(keys);
+        }
+    }
+
+    @Override
+    public void run() {
+        logger.info("cache invalidate publisher started, window={}ms", window);
+        while (!stop) {
+            try {
+                synchronized (lock) {
+                    while (keys.isEmpty() && !stop) lock.wait();
+                }
+                if (!stop) Thread.sleep(window);    // wait for more keys within window
+            } catch (InterruptedException e) {
+                // interrupted by shutdown, remaining keys will be flushed before exit
+            }
+            flush();
+        }
+        flush();    // publish keys added during shutdown
+        logger.info("cache invalidate publisher stopped");
+    }
+
+    void flush() {
+        Set<String> keys;
+        synchronized (lock) {
+            if (this.keys.isEmpty()) return;
+            keys = this.keys;
+            this.keys = new LinkedHashSet<>();
+        }
+        try {
+            var message = new InvalidateLocalCacheMessage();
+            message.keys = new ArrayList<>(keys);
+            message.clientIP = Network.LOCAL_HOST_ADDRESS;
+            redis.publish(RedisLocalCacheStore.CHANNEL_INVALIDATE_CACHE, writer.toJSON(message));
+            publishedMessages.increment();
+            publishedKeys.add(keys.size());
+        } catch (Throwable e) {
+            logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to publish invalidate local cache message, keys={}", keys, e);
+        }
+    }
+
+    public void shutdown() {
+        logger.info("stopping cache invalidate publisher");
+        stop = true;
+        interrupt();
+    }
+
+    public void awaitTermination(long timeoutInMs) throws InterruptedException {
+        join(timeoutInMs);
+        if (isAlive()) logger.warn("failed to terminate cache invalidate publisher");
+    }
+}
@@ -8,15 +8,31 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * bounded by W-TinyLFU, new items enter small LRU window, items evicted from window compete with LRU victim of main space by estimated frequency,
+ * main space is segmented LRU, items accessed again in probation are promoted to protected, so one time scan can't flush hot items,
+ * size is bounded by both item count and estimated bytes (json length), eviction happens on write, each access takes O(1) to maintain
+ *
  * @author neo
  */
 public class LocalCacheStore implements CacheStore {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int REMOVED = 3;
+
     final Map<String, CacheItem<?>> caches = Maps.newConcurrentHashMap();
     private final Logger logger = LoggerFactory.getLogger(LocalCacheStore.class);
+    // all policy structures are guarded by lock, read only reorders items if lock is available, it's fine to skip some reorders under contention
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AccessQueue window = new AccessQueue();
+    private final AccessQueue probation = new AccessQueue();
+    private final AccessQueue protectedQueue = new AccessQueue();
     public int maxSize = 10000;  // 10000 simple objects roughly takes 1M-10M heap + hashmap overhead
+    public long maxSizeInBytes = 100 * 1024 * 1024;     // estimated by json length, actual heap usage is larger
+    private FrequencySketch sketch;     // created on first use, as maxSize is configured after store is created
 
     @Override
     public <T> T get(String key, CacheContext<T> context) {
@@ -24,16 +40,36 @@ public class LocalCacheStore implements CacheStore {
         return get(key, System.currentTimeMillis());
     }
 
+    @Override
+    public <T> Item<T> getItem(String key, CacheContext<T> context) {
+        logger.debug("getItem, key={}", key);
+        CacheItem<T> item = item(key, System.currentTimeMillis());
+        if (item == null) return null;
+        return new Item<>(item.value, item.expirationTime);
+    }
+
     private <T> T get(String key, long now) {
+        CacheItem<T> item = item(key, now);
+        if (item == null) return null;
+        return item.value;
+    }
+
+    private <T> CacheItem<T> item(String key, long now) {
         @SuppressWarnings("unchecked")
         CacheItem<T> item = (CacheItem<T>) caches.get(key);
-        if (item == null) return null;
-        if (item.expired(now)) {
-            caches.remove(key);
-            return null;
+        if (item != null && item.expired(now)) {
+            remove(item);
+            item = null;
         }
-        item.hits++;
-        return item.value;
+        if (lock.tryLock()) {
+            try {
+                sketch().increment(key.hashCode());     // record miss as well, so frequently requested key can be admitted
+                if (item != null) onAccess(item);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return item;
     }
 
     @Override
@@ -52,7 +88,12 @@ public class LocalCacheStore implements CacheStore {
     public <T> void put(String key, T value, Duration expiration, CacheContext<T> context) {
         logger.debug("put, key={}, expiration={}", key, expiration);
         long expirationTime = System.currentTimeMillis() + expiration.toMillis();
-        caches.put(key, new CacheItem<>(value, expirationTime));
+        put(key, value, expirationTime, weight(key, value, context), context);
+    }
+
+    // for store which already has serialized value, to skip estimating weight again
+    <T> void put(String key, T value, long expirationTime, int weight, CacheContext<T> context) {
+        add(new CacheItem<>(key, value, expirationTime, weight, context.stats));
     }
 
     @Override
@@ -60,10 +101,15 @@ public class LocalCacheStore implements CacheStore {
         logger.debug("putAll, keys={}, expiration={}", new ArrayLogParam(keys(values)), expiration);
         long expirationTime = System.currentTimeMillis() + expiration.toMillis();
         for (Entry<T> value : values) {
-            caches.put(value.key, new CacheItem<>(value.value, expirationTime));
+            add(new CacheItem<>(value.key, value.value, expirationTime, weight(value.key, value.value, context), context.stats));
         }
     }
 
+    // put is much less frequent than get, serialize to estimate size is acceptable
+    private <T> int weight(String key, T value, CacheContext<T> context) {
+        return key.length() + context.writer.toJSON(value).length;
+    }
+
     private <T> String[] keys(List<Entry<T>> values) {
         String[] keys = new String[values.size()];
         int index = 0;
@@ -78,64 +124,212 @@ public class LocalCacheStore implements CacheStore {
     public boolean delete(String... keys) {
         logger.debug("delete, keys={}", new ArrayLogParam(keys));
         boolean deleted = false;
-        for (String key : keys) {
-            CacheItem<?> previous = caches.remove(key);
-            if (!deleted && previous != null) deleted = true;
+        lock.lock();
+        try {
+            for (String key : keys) {
+                CacheItem<?> previous = caches.remove(key);
+                if (previous != null) {
+                    unlink(previous);
+                    release(previous);
+                    deleted = true;
+                }
+            }
+        } finally {
+            lock.unlock();
         }
         return deleted;
     }
 
-    public void cleanup() {    // cleanup is only called by background thread with fixed delay, not need to synchronize
+    public void cleanup() {    // cleanup is only called by background thread with fixed delay, size is bounded on write, here only to release expired items
         logger.info("clean up local cache store");
         long now = System.currentTimeMillis();
-        caches.values().removeIf(item -> item.expired(now));
-        int size = caches.size();
-        if (size > maxSize) {
-            logger.info("evict least frequently used cache items, currentSize={}, maxSize={}", size, maxSize);
-            int evictSize = size - maxSize;
-            evictLeastFrequentlyUsedItems(evictSize);
+        for (CacheItem<?> item : caches.values()) {
+            if (item.expired(now)) remove(item);
         }
     }
 
-    // use LFU to trade off between simplicity and access efficiency,
-    // assume local cache is only used for rarely changed items, and tolerate stale data, or use message to notify updates
-    // cleanup is running in background thread, it maintains approximate maxSize loosely
-    private void evictLeastFrequentlyUsedItems(int evictSize) {
-        Map<Integer, Integer> sizes = new TreeMap<>();
-        for (CacheItem<?> item : caches.values()) {
-            int hits = item.hits;
-            int size = sizes.getOrDefault(hits, 0);
-            sizes.put(hits, size + 1);
-        }
-        int minHits = 0;
-        int currentEvictSize = 0;
-        for (Map.Entry<Integer, Integer> entry : sizes.entrySet()) {
-            currentEvictSize += entry.getValue();
-            if (currentEvictSize >= evictSize) {
-                minHits = entry.getKey();
-                break;
+    public void clear() {
+        lock.lock();
+        try {
+            for (CacheItem<?> item : caches.values()) {
+                release(item);
             }
+            caches.clear();
+            window.clear();
+            probation.clear();
+            protectedQueue.clear();
+        } finally {
+            lock.unlock();
         }
-        int targetHits = minHits;
-        caches.values().removeIf(item -> item.hits <= targetHits);
     }
 
-    public void clear() {
-        caches.clear();
+    public long sizeInBytes() {
+        return window.weight + probation.weight + protectedQueue.weight;
+    }
+
+    private void add(CacheItem<?> item) {
+        lock.lock();
+        try {
+            CacheItem<?> previous = caches.put(item.key, item);
+            if (previous != null) {
+                unlink(previous);
+                release(previous);
+            }
+            item.stats.sizeInBytes.add(item.weight);
+            sketch().increment(item.key.hashCode());
+            item.queue = WINDOW;
+            window.add(item);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(CacheItem<?> item) {
+        lock.lock();
+        try {
+            if (caches.remove(item.key, item)) {
+                unlink(item);
+                release(item);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onAccess(CacheItem<?> item) {
+        if (item.queue == WINDOW) {
+            window.moveToTail(item);
+        } else if (item.queue == PROBATION) {
+            probation.remove(item);
+            item.queue = PROTECTED;
+            protectedQueue.add(item);
+            int maxProtectedSize = maxSize - windowMaxSize() - maxSize / 5;    // protected takes 80% of main space
+            while (protectedQueue.size > maxProtectedSize) {
+                CacheItem<?> demoted = protectedQueue.head;
+                protectedQueue.remove(demoted);
+                demoted.queue = PROBATION;
+                probation.add(demoted);
+            }
+        } else if (item.queue == PROTECTED) {
+            protectedQueue.moveToTail(item);
+        }
+    }
+
+    private void evict() {
+        int windowMaxSize = windowMaxSize();
+        while (window.size > windowMaxSize || window.head != null && sizeInBytes() > maxSizeInBytes) {
+            CacheItem<?> candidate = window.head;
+            window.remove(candidate);
+            admit(candidate);
+        }
+    }
+
+    // candidate evicted from window competes with victim from main space, the one with lower frequency is evicted
+    private void admit(CacheItem<?> candidate) {
+        while (window.size + probation.size + protectedQueue.size + 1 > maxSize || sizeInBytes() + candidate.weight > maxSizeInBytes) {
+            CacheItem<?> victim = probation.head != null ? probation.head : protectedQueue.head;
+            if (victim == null || sketch.frequency(candidate.key.hashCode()) <= sketch.frequency(victim.key.hashCode())) {
+                discard(candidate);
+                return;
+            }
+            unlink(victim);
+            discard(victim);
+        }
+        candidate.queue = PROBATION;
+        probation.add(candidate);
+    }
+
+    private void discard(CacheItem<?> item) {
+        item.queue = REMOVED;
+        if (caches.remove(item.key, item)) {
+            release(item);
+            item.stats.evictions.increment();
+        }
+    }
+
+    private void release(CacheItem<?> item) {
+        item.stats.sizeInBytes.add(-item.weight);
+    }
+
+    private void unlink(CacheItem<?> item) {
+        if (item.queue == WINDOW) window.remove(item);
+        else if (item.queue == PROBATION) probation.remove(item);
+        else if (item.queue == PROTECTED) protectedQueue.remove(item);
+        item.queue = REMOVED;
+    }
+
+    private int windowMaxSize() {
+        return Math.max(1, maxSize / 100);
+    }
+
+    private FrequencySketch sketch() {
+        if (sketch == null) sketch = new FrequencySketch(maxSize);
+        return sketch;
     }
 
     static class CacheItem<T> {
+        final String key;
         final T value;
         final long expirationTime;
-        int hits;
+        final int weight;
+        final CacheStats stats;     // stats of cache which item belongs to, to track size and evictions per cache
+        int queue;
+        CacheItem<?> previous;
+        CacheItem<?> next;
 
-        CacheItem(T value, long expirationTime) {
+        CacheItem(String key, T value, long expirationTime, int weight, CacheStats stats) {
+            this.key = key;
             this.value = value;
             this.expirationTime = expirationTime;
+            this.weight = weight;
+            this.stats = stats;
         }
 
         boolean expired(long now) {
             return now >= expirationTime;
         }
     }
+
+    // doubly linked list in access order, head is least recently used
+    static final class AccessQueue {
+        CacheItem<?> head;
+        CacheItem<?> tail;
+        int size;
+        long weight;
+
+        void add(CacheItem<?> item) {
+            item.previous = tail;
+            item.next = null;
+            if (tail == null) head = item;
+            else tail.next = item;
+            tail = item;
+            size++;
+            weight += item.weight;
+        }
+
+        void remove(CacheItem<?> item) {
+            if (item.previous == null) head = item.next;
+            else item.previous.next = item.next;
+            if (item.next == null) tail = item.previous;
+            else item.next.previous = item.previous;
+            item.previous = null;
+            item.next = null;
+            size--;
+            weight -= item.weight;
+        }
+
+        void moveToTail(CacheItem<?> item) {
+            if (tail == item) return;
+            remove(item);
+            add(item);
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+            size = 0;
+            weight = 0;
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.stat.Metrics;
+import core.framework.internal.stat.Stats;
+
+/**
+ * @author neo
+ */
+public class OffHeapCacheMetrics implements Metrics {
+    private final OffHeapCacheStore cacheStore;
+
+    public OffHeapCacheMetrics(OffHeapCacheStore cacheStore) {
+        this.cacheStore = cacheStore;
+    }
+
+    @Override
+    public void collect(Stats stats) {
+        stats.put("cache_off_heap_size", cacheStore.size());
+        stats.put("cache_off_heap_size_in_bytes", cacheStore.sizeInBytes());
+    }
+}
@@ -0,0 +1,380 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.log.filter.ArrayLogParam;
+import core.framework.util.Maps;
+import core.framework.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * keep serialized values (json or binary) in direct byte buffers outside of heap, to cache large and rarely changing data without putting pressure on GC,
+ * keys are hashed into segments, each segment appends entries to its buffer and indexes them by open addressing hash table,
+ * when buffer is full, live entries are compacted, and oldest entries are evicted if still not enough space,
+ * value is deserialized on every get, optional front store keeps decoded values of hot keys on heap,
+ * direct memory is limited by -XX:MaxDirectMemorySize (default is same as max heap size)
+ *
+ * @author neo
+ */
+public class OffHeapCacheStore implements CacheStore {
+    private static final int SEGMENTS = 16;
+
+    final Segment[] segments = new Segment[SEGMENTS];
+    @Nullable
+    final LocalCacheStore front;
+    private final Logger logger = LoggerFactory.getLogger(OffHeapCacheStore.class);
+
+    public OffHeapCacheStore(long maxSizeInBytes, int maxFrontSize) {
+        long segmentCapacity = maxSizeInBytes / SEGMENTS;
+        if (segmentCapacity < 1024 || segmentCapacity > Integer.MAX_VALUE)
+            throw new Error("maxSizeInBytes must be between 16K and 32G, maxSizeInBytes=" + maxSizeInBytes);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment((int) segmentCapacity);
+        }
+        if (maxFrontSize > 0) {
+            front = new LocalCacheStore();
+            front.maxSize = maxFrontSize;
+        } else {
+            front = null;
+        }
+    }
+
+    @Override
+    public <T> T get(String key, CacheContext<T> context) {
+        logger.debug("get, key={}", key);
+        Item<T> item = item(key, context, System.currentTimeMillis());
+        return item == null ? null : item.value;
+    }
+
+    @Override
+    public <T> Item<T> getItem(String key, CacheContext<T> context) {
+        logger.debug("getItem, key={}", key);
+        return item(key, context, System.currentTimeMillis());
+    }
+
+    @Override
+    public <T> Map<String, T> getAll(String[] keys, CacheContext<T> context) {
+        logger.debug("getAll, keys={}", new ArrayLogParam(keys));
+        long now = System.currentTimeMillis();
+        Map<String, T> results = Maps.newHashMapWithExpectedSize(keys.length);
+        for (String key : keys) {
+            Item<T> item = item(key, context, now);
+            if (item != null) results.put(key, item.value);
+        }
+        return results;
+    }
+
+    private <T> Item<T> item(String key, CacheContext<T> context, long now) {
+        if (front != null) {
+            Item<T> item = front.getItem(key, context);
+            if (item != null) return item;
+        }
+        byte[] keyBytes = Strings.bytes(key);
+        int hash = hash(key);
+        Segment segment = segment(hash);
+        Segment.Value value = segment.get(keyBytes, hash, now);
+        if (value == null) return null;
+
+        T result = decode(value.bytes, context);  // deserialize out of segment lock
+        if (front != null) {
+            // only put decoded value to front if segment is not changed during decoding, otherwise it may put back stale value after put/delete
+            synchronized (segment) {
+                if (segment.version == value.version) front.put(key, result, value.expirationTime, keyBytes.length + value.bytes.length, context);
+            }
+        }
+        return new Item<>(result, value.expirationTime);
+    }
+
+    private <T> T decode(byte[] bytes, CacheContext<T> context) {
+        try {
+            return context.deserialize(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public <T> void put(String key, T value, Duration expiration, CacheContext<T> context) {
+        logger.debug("put, key={}, expiration={}", key, expiration);
+        long expirationTime = System.currentTimeMillis() + expiration.toMillis();
+        put(key, context.serialize(value), expirationTime);
+    }
+
+    @Override
+    public <T> void putAll(List<Entry<T>> values, Duration expiration, CacheContext<T> context) {
+        logger.debug("putAll, size={}, expiration={}", values.size(), expiration);
+        long expirationTime = System.currentTimeMillis() + expiration.toMillis();
+        for (Entry<T> value : values) {
+            put(value.key, context.serialize(value.value), expirationTime);
+        }
+    }
+
+    private void put(String key, byte[] value, long expirationTime) {
+        int hash = hash(key);
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            boolean stored = segment.put(Strings.bytes(key), hash, value, expirationTime);
+            if (!stored) logger.warn("cache value is larger than segment capacity, skipped, key={}, size={}", key, value.length);
+            if (front != null) front.delete(key);
+        }
+    }
+
+    @Override
+    public boolean delete(String... keys) {
+        logger.debug("delete, keys={}", new ArrayLogParam(keys));
+        boolean deleted = false;
+        for (String key : keys) {
+            int hash = hash(key);
+            Segment segment = segment(hash);
+            synchronized (segment) {
+                if (segment.delete(Strings.bytes(key), hash)) deleted = true;
+                if (front != null) front.delete(key);
+            }
+        }
+        return deleted;
+    }
+
+    public void cleanup() {
+        logger.info("clean up off heap cache store");
+        long now = System.currentTimeMillis();
+        for (Segment segment : segments) {
+            segment.cleanup(now);
+        }
+        if (front != null) front.cleanup();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long sizeInBytes() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.sizeInBytes();
+        }
+        return size;
+    }
+
+    private Segment segment(int hash) {
+        return segments[hash >>> 28];   // use high bits for segment, low bits for slot within segment
+    }
+
+    private int hash(String key) {
+        int hash = key.hashCode() * 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+
+    // entry layout in buffer: keyLength(int), valueLength(int), expirationTime(long), key, value
+    static final class Segment {
+        private static final int HEADER_SIZE = 16;
+        private static final int INITIAL_SLOTS = 64;
+
+        final int capacity;
+        int version;        // increased on every change, to tell whether segment is changed between get and put to front store
+        int position;       // next write position
+        private ByteBuffer buffer;     // allocated on first put, so unused segments don't take memory
+        private int[] offsets = new int[INITIAL_SLOTS];     // offset + 1 of entry, 0 means empty slot
+        private int[] hashes = new int[INITIAL_SLOTS];
+        private int size;
+        private long liveBytes;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized Value get(byte[] key, int hash, long now) {
+            int slot = find(key, hash);
+            if (slot < 0) return null;
+            int offset = offsets[slot] - 1;
+            long expirationTime = buffer.getLong(offset + 8);
+            if (now >= expirationTime) {
+                remove(slot);
+                version++;
+                return null;
+            }
+            byte[] value = new byte[buffer.getInt(offset + 4)];
+            buffer.position(offset + HEADER_SIZE + key.length);
+            buffer.get(value);
+            return new Value(value, expirationTime, version);
+        }
+
+        synchronized boolean put(byte[] key, int hash, byte[] value, long expirationTime) {
+            version++;
+            int slot = find(key, hash);
+            if (slot >= 0) remove(slot);
+            int entrySize = HEADER_SIZE + key.length + value.length;
+            if (entrySize > capacity) return false;
+
+            if (buffer == null) buffer = ByteBuffer.allocateDirect(capacity);
+            if (position + entrySize > capacity) compact(entrySize, System.currentTimeMillis());
+
+            int offset = position;
+            buffer.putInt(offset, key.length);
+            buffer.putInt(offset + 4, value.length);
+            buffer.putLong(offset + 8, expirationTime);
+            buffer.position(offset + HEADER_SIZE);
+            buffer.put(key);
+            buffer.put(value);
+            position = offset + entrySize;
+            index(hash, offset);
+            liveBytes += entrySize;
+            return true;
+        }
+
+        synchronized boolean delete(byte[] key, int hash) {
+            int slot = find(key, hash);
+            if (slot < 0) return false;
+            remove(slot);
+            version++;
+            return true;
+        }
+
+        synchronized void cleanup(long now) {
+            int slot = 0;
+            while (slot < offsets.length) {
+                int offset = offsets[slot] - 1;
+                if (offset >= 0 && now >= buffer.getLong(offset + 8)) {
+                    remove(slot);   // entry after slot may be shifted into slot, so check same slot again
+                    version++;
+                } else {
+                    slot++;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long sizeInBytes() {
+            return liveBytes;
+        }
+
+        // move live entries to beginning of buffer in original order, drop expired entries, and evict oldest entries until there is space for new entry
+        private void compact(int entrySize, long now) {
+            long[] entries = new long[size];    // offset << 32 | slot, sort by offset to keep insertion order
+            int count = 0;
+            for (int slot = 0; slot < offsets.length; slot++) {
+                if (offsets[slot] != 0) entries[count++] = (long) (offsets[slot] - 1) << 32 | slot;
+            }
+            Arrays.sort(entries);
+
+            int[] oldHashes = hashes;
+            offsets = new int[offsets.length];
+            hashes = new int[hashes.length];
+            size = 0;
+            long excess = liveBytes + entrySize - capacity;
+            liveBytes = 0;
+            position = 0;
+            for (long entry : entries) {
+                int offset = (int) (entry >>> 32);
+                int length = length(offset);
+                if (now >= buffer.getLong(offset + 8) || excess > 0) {
+                    excess -= length;
+                    continue;
+                }
+                if (offset != position) {
+                    ByteBuffer source = buffer.duplicate();
+                    source.limit(offset + length).position(offset);
+                    buffer.position(position);
+                    buffer.put(source);
+                }
+                index(oldHashes[(int) entry], position);
+                position += length;
+                liveBytes += length;
+            }
+        }
+
+        private int find(byte[] key, int hash) {
+            int mask = offsets.length - 1;
+            int slot = hash & mask;
+            while (true) {
+                int offset = offsets[slot] - 1;
+                if (offset < 0) return -1;
+                if (hashes[slot] == hash && keyEquals(offset, key)) return slot;
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private boolean keyEquals(int offset, byte[] key) {
+            if (buffer.getInt(offset) != key.length) return false;
+            int start = offset + HEADER_SIZE;
+            for (int i = 0; i < key.length; i++) {
+                if (buffer.get(start + i) != key[i]) return false;
+            }
+            return true;
+        }
+
+        private void index(int hash, int offset) {
+            if (size + 1 > offsets.length * 3 / 4) resize();
+            int mask = offsets.length - 1;
+            int slot = hash & mask;
+            while (offsets[slot] != 0) slot = (slot + 1) & mask;
+            offsets[slot] = offset + 1;
+            hashes[slot] = hash;
+            size++;
+        }
+
+        private void resize() {
+            int[] oldOffsets = offsets;
+            int[] oldHashes = hashes;
+            offsets = new int[oldOffsets.length * 2];
+            hashes = new int[oldHashes.length * 2];
+            size = 0;
+            for (int i = 0; i < oldOffsets.length; i++) {
+                if (oldOffsets[i] != 0) index(oldHashes[i], oldOffsets[i] - 1);
+            }
+        }
+
+        // remove by shifting following entries back, to keep probe sequence without tombstones, space in buffer is reclaimed by compact
+        private void remove(int slot) {
+            liveBytes -= length(offsets[slot] - 1);
+            size--;
+            int mask = offsets.length - 1;
+            int hole = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (offsets[next] == 0) break;
+                int home = hashes[next] & mask;
+                // move entry to hole if its home slot is not in (hole, next] cyclically
+                boolean between = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+                if (!between) {
+                    offsets[hole] = offsets[next];
+                    hashes[hole] = hashes[next];
+                    hole = next;
+                }
+            }
+            offsets[hole] = 0;
+            hashes[hole] = 0;
+        }
+
+        private int length(int offset) {
+            return HEADER_SIZE + buffer.getInt(offset) + buffer.getInt(offset + 4);
+        }
+
+        static final class Value {
+            final byte[] bytes;
+            final long expirationTime;
+            final int version;
+
+            Value(byte[] bytes, long expirationTime, int version) {
+                this.bytes = bytes;
+                this.expirationTime = expirationTime;
+                this.version = version;
+            }
+        }
+    }
+}
@@ -1,14 +1,13 @@
 package core.framework.internal.cache;
 
-import core.framework.internal.json.JSONReader;
 import core.framework.internal.redis.RedisException;
 import core.framework.internal.redis.RedisImpl;
-import core.framework.internal.validate.Validator;
 import core.framework.util.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.List;
@@ -23,6 +22,7 @@ public class RedisCacheStore implements CacheStore {
     private final Logger logger = LoggerFactory.getLogger(RedisCacheStore.class);
 
     private final RedisImpl redis;
+    public CacheCompression compression;
 
     public RedisCacheStore(RedisImpl redis) {
         this.redis = redis;
@@ -31,39 +31,66 @@ public class RedisCacheStore implements CacheStore {
     @Override
     public <T> T get(String key, CacheContext<T> context) {
         try {
-            byte[] value = redis.getBytes(key);
-            if (value == null) return null;
-            return deserialize(value, context.reader, context.validator);
+            return redis.get(key, (bytes, offset, length) -> deserialize(bytes, offset, length, context));
         } catch (UncheckedIOException | RedisException e) {
             logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to connect to redis, error={}", e.getMessage(), e);
             return null;
         }
     }
 
+    @Override
+    public <T> Item<T> getItem(String key, CacheContext<T> context) {
+        return getItems(new String[]{key}, context).get(key);
+    }
+
+    // get values with expiration time in one round trip
+    @Override
+    public <T> Map<String, Item<T>> getItems(String[] keys, CacheContext<T> context) {
+        try {
+            return redis.multiGetWithTTL(keys, (bytes, offset, length, ttl) -> {
+                if (ttl == -2) return null;     // key was set after PTTL, treat as miss
+                T value = deserialize(bytes, offset, length, context);
+                if (value == null) return null;
+                long expirationTime = ttl == -1 ? Long.MAX_VALUE : System.currentTimeMillis() + ttl;
+                return new Item<>(value, expirationTime, length);
+            });
+        } catch (UncheckedIOException | RedisException e) {
+            logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to connect to redis, error={}", e.getMessage(), e);
+            return Map.of();
+        }
+    }
+
     @Override
     public <T> Map<String, T> getAll(String[] keys, CacheContext<T> context) {
         try {
-            Map<String, byte[]> redisValues = redis.multiGetBytes(keys);
-            Map<String, T> values = Maps.newHashMapWithExpectedSize(redisValues.size());
-            for (Map.Entry<String, byte[]> entry : redisValues.entrySet()) {
-                T value = deserialize(entry.getValue(), context.reader, context.validator);
-                if (value != null) {
-                    values.put(entry.getKey(), value);
-                }
-            }
-            return values;
+            return redis.multiGet(keys, (bytes, offset, length) -> deserialize(bytes, offset, length, context));
         } catch (UncheckedIOException | RedisException e) {
             logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to connect to redis, error={}", e.getMessage(), e);
             return Map.of();
         }
     }
 
-    private <T> T deserialize(byte[] value, JSONReader<T> reader, Validator<T> validator) {
+    // deserialize from read buffer of redis connection directly, invalid value is treated as cache miss
+    private <T> T deserialize(byte[] bytes, int offset, int length, CacheContext<T> context) {
         try {
-            T result = reader.fromJSON(value);
+            T result;
+            if (CacheCompression.compressed(bytes, offset, length)) {
+                try (InputStream stream = CacheCompression.decompress(bytes, offset, length)) {
+                    if (context.codec != null) {
+                        byte[] value = stream.readAllBytes();
+                        return deserialize(value, 0, value.length, context);
+                    }
+                    result = context.reader.fromJSON(stream);
+                }
+            } else if (BinaryCodec.encoded(bytes, offset, length)) {
+                // value with same version is encoded from same class structure, so it doesn't need validation, value with different version is treated as miss
+                return context.codec == null ? null : context.codec.decode(bytes, offset, length);
+            } else {
+                result = context.reader.fromJSON(bytes, offset, length);
+            }
             if (result == null) return null;
 
-            Map<String, String> errors = validator.errors(result, false);
+            Map<String, String> errors = context.validator.errors(result, false);
             if (errors != null) {
                 logger.warn(errorCode("INVALID_CACHE_DATA"), "failed to validate value from cache, will reload, errors={}", errors);
                 return null;
@@ -79,7 +106,7 @@ public class RedisCacheStore implements CacheStore {
     @Override
     public <T> void put(String key, T value, Duration expiration, CacheContext<T> context) {
         try {
-            redis.set(key, context.writer.toJSON(value), expiration, false);
+            redis.set(key, serialize(value, context), expiration, false);
         } catch (UncheckedIOException | RedisException e) {
             logger.warn(errorCode("CACHE_STORE_FAILED"), "failed to connect to redis, error={}", e.getMessage(), e);
         }
@@ -89,7 +116,7 @@ public class RedisCacheStore implements CacheStore {
     public <T> void putAll(List<Entry<T>> values, Duration expiration, CacheContext<T> context) {
         Map<String, byte[]> cacheValues = Maps.newHashMapWithExpectedSize(values.size());
         for (Entry<T> value : values) {
-            cacheValues.put(value.key, context.writer.toJSON(value.value));
+            cacheValues.put(value.key, serialize(value.value, context));
         }
         try {
             redis.multiSet(cacheValues, expiration);
@@ -98,6 +125,12 @@ public class RedisCacheStore implements CacheStore {
         }
     }
 
+    private <T> byte[] serialize(T value, CacheContext<T> context) {
+        byte[] bytes = context.serialize(value);
+        if (compression == null) return bytes;
+        return compression.compress(bytes);
+    }
+
     @Override
     public boolean delete(String... keys) {
         try {
@@ -1,9 +1,6 @@
 package core.framework.internal.cache;
 
-import core.framework.internal.json.JSONWriter;
-import core.framework.internal.redis.RedisImpl;
 import core.framework.util.Maps;
-import core.framework.util.Network;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -16,27 +13,32 @@ import java.util.Map;
  */
 public class RedisLocalCacheStore implements CacheStore {
     public static final String CHANNEL_INVALIDATE_CACHE = "cache:invalidate";
-    private final CacheStore localCache;
-    private final CacheStore redisCache;
-    private final RedisImpl redis;
-    private final JSONWriter<InvalidateLocalCacheMessage> writer = new JSONWriter<>(InvalidateLocalCacheMessage.class);
+    private final LocalCacheStore localCache;
+    private final RedisCacheStore redisCache;
+    private final InvalidateLocalCachePublisher publisher;
 
-    public RedisLocalCacheStore(CacheStore localCache, CacheStore redisCache, RedisImpl redis) {
+    public RedisLocalCacheStore(LocalCacheStore localCache, RedisCacheStore redisCache, InvalidateLocalCachePublisher publisher) {
         this.localCache = localCache;
         this.redisCache = redisCache;
-        this.redis = redis;
+        this.publisher = publisher;
     }
 
     @Override
     public <T> T get(String key, CacheContext<T> context) {
         T value = localCache.get(key, context);
         if (value != null) return value;
-        value = redisCache.get(key, context);
-        if (value == null) return null;
-        long expirationTime = redis.expirationTime(key)[0];
-        if (expirationTime <= 0) return null;
-        localCache.put(key, value, Duration.ofMillis(expirationTime), context);
-        return value;
+        Item<T> item = redisCache.getItem(key, context);
+        if (item == null || !putLocal(key, item, context)) return null;
+        return item.value;
+    }
+
+    @Override
+    public <T> Item<T> getItem(String key, CacheContext<T> context) {
+        Item<T> item = localCache.getItem(key, context);
+        if (item != null) return item;
+        item = redisCache.getItem(key, context);
+        if (item == null || !putLocal(key, item, context)) return null;
+        return item;
     }
 
     @Override
@@ -53,35 +55,58 @@ public class RedisLocalCacheStore implements CacheStore {
         }
         if (localNotFoundKeys.isEmpty()) return results;
 
-        Map<String, T> redisValues = redisCache.getAll(localNotFoundKeys.toArray(String[]::new), context);
-        if (!redisValues.isEmpty()) {
-            String[] redisKeys = redisValues.keySet().toArray(String[]::new);
-            long[] expirationTimes = redis.expirationTime(redisKeys);
-            for (int i = 0; i < expirationTimes.length; i++) {
-                long expirationTime = expirationTimes[i];
-                if (expirationTime > 0) {
-                    String redisKey = redisKeys[i];
-                    T value = redisValues.get(redisKey);
-                    results.put(redisKey, value);
-                    localCache.put(redisKey, value, Duration.ofMillis(expirationTime), context);
-                }
+        Map<String, Item<T>> redisItems = redisCache.getItems(localNotFoundKeys.toArray(String[]::new), context);
+        for (Map.Entry<String, Item<T>> entry : redisItems.entrySet()) {
+            String redisKey = entry.getKey();
+            Item<T> item = entry.getValue();
+            if (putLocal(redisKey, item, context)) results.put(redisKey, item.value);
+        }
+        return results;
+    }
+
+    @Override
+    public <T> Map<String, Item<T>> getItems(String[] keys, CacheContext<T> context) {
+        Map<String, Item<T>> results = Maps.newHashMapWithExpectedSize(keys.length);
+        List<String> localNotFoundKeys = new ArrayList<>();
+        for (String key : keys) {
+            Item<T> item = localCache.getItem(key, context);
+            if (item != null) {
+                results.put(key, item);
+            } else {
+                localNotFoundKeys.add(key);
             }
         }
+        if (localNotFoundKeys.isEmpty()) return results;
+
+        Map<String, Item<T>> redisItems = redisCache.getItems(localNotFoundKeys.toArray(String[]::new), context);
+        for (Map.Entry<String, Item<T>> entry : redisItems.entrySet()) {
+            String redisKey = entry.getKey();
+            Item<T> item = entry.getValue();
+            if (putLocal(redisKey, item, context)) results.put(redisKey, item);
+        }
         return results;
     }
 
+    // local value expires with remote value, value without expiration is not expected for cache, so skip it
+    private <T> boolean putLocal(String key, Item<T> item, CacheContext<T> context) {
+        if (item.expirationTime == Long.MAX_VALUE) return false;
+        if (item.expirationTime <= System.currentTimeMillis()) return false;
+        localCache.put(key, item.value, item.expirationTime, key.length() + item.size, context);     // use length read from redis as weight, not to serialize again
+        return true;
+    }
+
     @Override
     public <T> void put(String key, T value, Duration expiration, CacheContext<T> context) {
         localCache.put(key, value, expiration, context);
         redisCache.put(key, value, expiration, context);
-        publishInvalidateLocalCacheMessage(List.of(key));
+        publisher.publish(List.of(key));
     }
 
     @Override
     public <T> void putAll(List<Entry<T>> values, Duration expiration, CacheContext<T> context) {
         localCache.putAll(values, expiration, context);
         redisCache.putAll(values, expiration, context);
-        publishInvalidateLocalCacheMessage(keys(values));
+        publisher.publish(keys(values));
     }
 
     @Override
@@ -89,7 +114,7 @@ public class RedisLocalCacheStore implements CacheStore {
         boolean deleted = redisCache.delete(keys);
         localCache.delete(keys);
         if (deleted) {
-            publishInvalidateLocalCacheMessage(Arrays.asList(keys));
+            publisher.publish(Arrays.asList(keys));
         }
         return deleted;
     }
@@ -101,11 +126,4 @@ public class RedisLocalCacheStore implements CacheStore {
         }
         return keys;
     }
-
-    private void publishInvalidateLocalCacheMessage(List<String> keys) {
-        var message = new InvalidateLocalCacheMessage();
-        message.keys = keys;
-        message.clientIP = Network.LOCAL_HOST_ADDRESS;
-        redis.publish(CHANNEL_INVALIDATE_CACHE, writer.toJSON(message));
-    }
 }
@@ -0,0 +1,159 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.log.filter.ArrayLogParam;
+import core.framework.internal.redis.RedisTrackingListener;
+import core.framework.util.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * local cache backed by redis client side caching, redis tracks keys read by this client and pushes invalidation when they are changed, evicted or expired,
+ * so it doesn't need to publish invalidation message or query ttl of remote value
+ *
+ * @author neo
+ */
+public class RedisTrackingCacheStore implements CacheStore, RedisTrackingListener {
+    private final Logger logger = LoggerFactory.getLogger(RedisTrackingCacheStore.class);
+    private final LocalCacheStore localCache;
+    private final RedisCacheStore redisCache;    // must use redis client with tracking enabled
+    // increased before applying invalidation, to detect invalidation arrived during loading value from redis
+    private final AtomicLong invalidations = new AtomicLong();
+    // remote value is valid until invalidated, local expiration is only to release memory of rarely used keys
+    Duration localExpiration = Duration.ofHours(1);
+
+    public RedisTrackingCacheStore(LocalCacheStore localCache, RedisCacheStore redisCache) {
+        this.localCache = localCache;
+        this.redisCache = redisCache;
+    }
+
+    @Override
+    public <T> T get(String key, CacheContext<T> context) {
+        T value = localCache.get(key, context);
+        if (value != null) return value;
+        long version = invalidations.get();
+        value = redisCache.get(key, context);
+        if (value == null) return null;
+        localCache.put(key, value, localExpiration, context);
+        if (version != invalidations.get()) localCache.delete(key);    // value may be invalidated before put into local cache
+        return value;
+    }
+
+    // keep local item with remote expiration, so local hit still tells whether value is stale
+    @Override
+    public <T> Item<T> getItem(String key, CacheContext<T> context) {
+        Item<T> item = localCache.getItem(key, context);
+        if (item != null) return item;
+        long version = invalidations.get();
+        item = redisCache.getItem(key, context);
+        if (item == null || !putLocal(key, item, context)) return null;
+        if (version != invalidations.get()) localCache.delete(key);
+        return item;
+    }
+
+    @Override
+    public <T> Map<String, Item<T>> getItems(String[] keys, CacheContext<T> context) {
+        Map<String, Item<T>> results = Maps.newHashMapWithExpectedSize(keys.length);
+        List<String> localNotFoundKeys = new ArrayList<>();
+        for (String key : keys) {
+            Item<T> item = localCache.getItem(key, context);
+            if (item != null) {
+                results.put(key, item);
+            } else {
+                localNotFoundKeys.add(key);
+            }
+        }
+        if (localNotFoundKeys.isEmpty()) return results;
+
+        long version = invalidations.get();
+        Map<String, Item<T>> redisItems = redisCache.getItems(localNotFoundKeys.toArray(String[]::new), context);
+        List<String> loadedKeys = new ArrayList<>(redisItems.size());
+        for (Map.Entry<String, Item<T>> entry : redisItems.entrySet()) {
+            String redisKey = entry.getKey();
+            Item<T> item = entry.getValue();
+            if (putLocal(redisKey, item, context)) {
+                results.put(redisKey, item);
+                loadedKeys.add(redisKey);
+            }
+        }
+        if (version != invalidations.get() && !loadedKeys.isEmpty()) localCache.delete(loadedKeys.toArray(String[]::new));
+        return results;
+    }
+
+    private <T> boolean putLocal(String key, Item<T> item, CacheContext<T> context) {
+        long now = System.currentTimeMillis();
+        long expirationTime = item.expirationTime == Long.MAX_VALUE ? now + localExpiration.toMillis() : item.expirationTime;
+        if (expirationTime <= now) return false;
+        localCache.put(key, item.value, expirationTime, key.length() + item.size, context);     // use length read from redis as weight, not to serialize again
+        return true;
+    }
+
+    @Override
+    public <T> Map<String, T> getAll(String[] keys, CacheContext<T> context) {
+        Map<String, T> results = Maps.newHashMapWithExpectedSize(keys.length);
+        List<String> localNotFoundKeys = new ArrayList<>();
+        for (String key : keys) {
+            T value = localCache.get(key, context);
+            if (value != null) {
+                results.put(key, value);
+            } else {
+                localNotFoundKeys.add(key);
+            }
+        }
+        if (localNotFoundKeys.isEmpty()) return results;
+
+        long version = invalidations.get();
+        Map<String, T> redisValues = redisCache.getAll(localNotFoundKeys.toArray(String[]::new), context);
+        if (!redisValues.isEmpty()) {
+            List<Entry<T>> values = new ArrayList<>(redisValues.size());
+            for (Map.Entry<String, T> entry : redisValues.entrySet()) {
+                values.add(new Entry<>(entry.getKey(), entry.getValue()));
+            }
+            localCache.putAll(values, localExpiration, context);
+            if (version != invalidations.get()) localCache.delete(redisValues.keySet().toArray(String[]::new));
+            results.putAll(redisValues);
+        }
+        return results;
+    }
+
+    // server only tracks keys read by client, so not to put written value into local cache, next get will read and track it
+    @Override
+    public <T> void put(String key, T value, Duration expiration, CacheContext<T> context) {
+        redisCache.put(key, value, expiration, context);
+        localCache.delete(key);
+    }
+
+    @Override
+    public <T> void putAll(List<Entry<T>> values, Duration expiration, CacheContext<T> context) {
+        redisCache.putAll(values, expiration, context);
+        String[] keys = new String[values.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = values.get(i).key;
+        }
+        localCache.delete(keys);
+    }
+
+    @Override
+    public boolean delete(String... keys) {
+        boolean deleted = redisCache.delete(keys);
+        localCache.delete(keys);
+        return deleted;
+    }
+
+    @Override
+    public void onInvalidate(String[] keys) {
+        invalidations.incrementAndGet();
+        if (keys == null) {
+            logger.info("clear local cache");
+            localCache.clear();
+        } else {
+            logger.debug("invalidate local cache, keys={}", new ArrayLogParam(keys));
+            localCache.delete(keys);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package core.framework.internal.json;
 import com.fasterxml.jackson.databind.ObjectReader;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 
 /**
@@ -21,6 +22,14 @@ public final class JSONReader<T> {
         return reader.readValue(json);
     }
 
+    public T fromJSON(byte[] json, int offset, int length) throws IOException {
+        return reader.readValue(json, offset, length);
+    }
+
+    public T fromJSON(InputStream stream) throws IOException {
+        return reader.readValue(stream);
+    }
+
     public T fromJSON(String json) throws IOException {
         return reader.readValue(json);
     }
@@ -33,7 +33,7 @@ public final class ActionLog {
     final Map<String, PerformanceStat> performanceStats;
     final List<LogEvent> events;
     final long startTime;
-    private final long startCPUTime;
+    private long startCPUTime;
 
     public boolean trace;  // whether flush trace log for all subsequent actions
     public String action = "unassigned";
@@ -78,8 +78,18 @@ public final class ActionLog {
         }
     }
 
+    // action continues on other thread, e.g. async http response, only count cpu time on threads while processing
+    void suspend() {
+        cpuTime += THREAD.getCurrentThreadCpuTime() - startCPUTime;
+    }
+
+    void resume() {
+        startCPUTime = THREAD.getCurrentThreadCpuTime();
+        add(event("resume, thread={}", Thread.currentThread().getName()));
+    }
+
     void end(String message) {
-        cpuTime = THREAD.getCurrentThreadCpuTime() - startCPUTime;
+        cpuTime += THREAD.getCurrentThreadCpuTime() - startCPUTime;
         elapsed = elapsed();
         add(event("elapsed={}", elapsed));
         add(event(message));
@@ -64,6 +64,17 @@ public class LogManager {
         }
     }
 
+    public void detach() {
+        ActionLog actionLog = CURRENT_ACTION_LOG.get();
+        CURRENT_ACTION_LOG.remove();
+        actionLog.suspend();
+    }
+
+    public void attach(ActionLog actionLog) {
+        actionLog.resume();
+        CURRENT_ACTION_LOG.set(actionLog);
+    }
+
     public void logError(Throwable e) {
         String errorMessage = e.getMessage();
         String errorCode = errorCode(e);
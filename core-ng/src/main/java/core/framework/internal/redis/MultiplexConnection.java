@@ -0,0 +1,257 @@
+package core.framework.internal.redis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static core.framework.internal.redis.Protocol.Command.CLIENT;
+import static core.framework.internal.redis.Protocol.Command.HELLO;
+import static core.framework.internal.redis.Protocol.Keyword.NOLOOP;
+import static core.framework.internal.redis.Protocol.Keyword.ON;
+import static core.framework.internal.redis.Protocol.Keyword.TRACKING;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+
+/**
+ * physical connection shared by many callers, redis processes commands of one connection in order,
+ * so writer thread sends requests in submission order, and reader thread matches replies to requests in FIFO order
+ *
+ * @author neo
+ */
+class MultiplexConnection implements AutoCloseable {
+    final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    final Queue<Request> pendingRequests = new ConcurrentLinkedQueue<>();     // requests written to socket, waiting for replies
+    final String name;
+    private final Logger logger = LoggerFactory.getLogger(MultiplexConnection.class);
+    volatile boolean closed;
+    RedisInputStream inputStream;
+    RedisTrackingListener trackingListener;     // only set for client tracking connection
+    private SocketChannel channel;
+    private Thread writer;
+
+    MultiplexConnection(String name) {
+        this.name = name;
+    }
+
+    void connect(String host, int port, int timeoutInMs) throws IOException {
+        channel = SocketChannel.open();
+        try {
+            Socket socket = channel.socket();
+            socket.setKeepAlive(true);
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(host, port), timeoutInMs);     // socket read timeout doesn't apply to channel, caller waits for reply with timeout instead
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        inputStream = new RedisInputStream(Channels.newInputStream(channel));
+        // daemon threads, not to keep jvm alive if connection is not closed, e.g. failed during startup
+        writer = new Thread(this::write, name + "-writer");
+        writer.setDaemon(true);
+        writer.start();
+        var reader = new Thread(this::read, name + "-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    // switch to RESP3 to receive invalidation as push on same connection, NOLOOP to skip invalidation of keys modified by this connection
+    void enableTracking(int timeoutInMs) throws IOException {
+        var buffer = new ByteArrayOutputStream(64);
+        var stream = new RedisOutputStream(buffer, 64);
+        Protocol.writeArray(stream, 2);
+        Protocol.writeBlobString(stream, HELLO);
+        Protocol.writeBlobString(stream, encode(3));
+        Protocol.writeArray(stream, 4);
+        Protocol.writeBlobString(stream, CLIENT);
+        Protocol.writeBlobString(stream, TRACKING);
+        Protocol.writeBlobString(stream, ON);
+        Protocol.writeBlobString(stream, NOLOOP);
+        stream.flush();
+        Object[] replies = submit(buffer.toByteArray(), 2).await(timeoutInMs);
+        for (Object reply : replies) {
+            if (reply instanceof RedisException) throw (RedisException) reply;
+        }
+        logger.info("enabled redis client tracking, connection={}", name);
+    }
+
+    Request submit(byte[] request, int commands) {
+        var item = new Request(this, request, commands);
+        requests.add(item);
+        if (closed) item.fail(new IOException("connection is closed"));     // in case connection is closed before item is added to queue
+        return item;
+    }
+
+    void write() {
+        List<Request> batch = new ArrayList<>();
+        try {
+            while (!closed) {
+                batch.add(requests.take());
+                requests.drainTo(batch);    // coalesce concurrent requests into one write
+                int size = batch.size();
+                var buffers = new ByteBuffer[size];
+                long length = 0;
+                for (int i = 0; i < size; i++) {
+                    Request request = batch.get(i);
+                    pendingRequests.add(request);   // must add to pending before write, reply may arrive before write returns
+                    buffers[i] = ByteBuffer.wrap(request.request);
+                    length += request.request.length;
+                }
+                while (length > 0) {
+                    length -= channel.write(buffers);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            logger.debug("writer thread is interrupted, connection={}", name);
+        } catch (IOException e) {
+            if (!closed) logger.warn("failed to write to redis, connection={}, error={}", name, e.getMessage(), e);
+            close(e);
+        } finally {
+            for (Request request : batch) {
+                request.fail(new IOException("connection is closed"));
+            }
+        }
+    }
+
+    void read() {
+        try {
+            while (!closed) {
+                Object reply;
+                try {
+                    reply = Protocol.read(inputStream);
+                } catch (RedisException e) {
+                    reply = e;
+                }
+                if (reply instanceof Protocol.Push) {
+                    push((Protocol.Push) reply);
+                    continue;
+                }
+                Request request = pendingRequests.peek();
+                if (request == null) throw new IOException("unexpected reply, no pending request");
+                if (request.reply(reply)) pendingRequests.poll();
+            }
+        } catch (IOException e) {
+            if (!closed) logger.warn("failed to read from redis, connection={}, error={}", name, e.getMessage(), e);
+            close(e);
+        }
+    }
+
+    private void push(Protocol.Push push) {
+        Object[] values = push.values;
+        String kind = decode((byte[]) values[0]);
+        if (trackingListener == null || !"invalidate".equals(kind)) {
+            logger.debug("ignore push message, kind={}", kind);
+            return;
+        }
+        Object[] keys = (Object[]) values[1];
+        String[] invalidatedKeys = null;
+        if (keys != null) {
+            invalidatedKeys = new String[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                invalidatedKeys[i] = decode((byte[]) keys[i]);
+            }
+        }
+        invalidate(invalidatedKeys);
+    }
+
+    private void invalidate(String[] keys) {
+        try {
+            trackingListener.onInvalidate(keys);
+        } catch (Throwable e) {     // not to break reader thread
+            logger.warn("failed to handle invalidation, connection={}", name, e);
+        }
+    }
+
+    void close(IOException cause) {
+        closed = true;
+        closeChannel();
+        if (trackingListener != null) invalidate(null);   // server stops tracking once connection is closed
+        failRequests(pendingRequests, cause);
+        failRequests(requests, cause);
+    }
+
+    private void failRequests(Queue<Request> requests, IOException cause) {
+        while (true) {
+            Request request = requests.poll();
+            if (request == null) return;
+            request.fail(cause);
+        }
+    }
+
+    private void closeChannel() {
+        if (writer != null) writer.interrupt();
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            logger.warn("failed to close connection, connection={}", name, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        logger.info("close redis multiplex connection, connection={}", name);
+        close(new IOException("connection is closed"));
+    }
+
+    static final class Request {
+        final byte[] request;
+        final CompletableFuture<Object[]> future = new CompletableFuture<>();
+        private final MultiplexConnection connection;
+        private final Object[] replies;
+        private int received;   // only accessed by reader thread
+
+        Request(MultiplexConnection connection, byte[] request, int commands) {
+            this.connection = connection;
+            this.request = request;
+            replies = new Object[commands];
+        }
+
+        boolean reply(Object reply) {
+            replies[received++] = reply;
+            if (received == replies.length) {
+                future.complete(replies);
+                return true;
+            }
+            return false;
+        }
+
+        void fail(IOException e) {
+            future.completeExceptionally(e);
+        }
+
+        Object[] await(long timeoutInMs) throws IOException {
+            try {
+                return future.get(timeoutInMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // same as socket mode, treat timeout as broken connection, all pending requests fail fast and next request reconnects
+                var exception = new SocketTimeoutException("read timed out");
+                if (!connection.closed) connection.logger.warn("redis reply timed out, close connection, connection={}", connection.name);
+                connection.close(exception);
+                throw exception;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw new IOException(cause.getMessage(), cause);
+            } catch (InterruptedException e) {
+                throw new Error("interrupted during waiting for redis reply", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package core.framework.internal.redis;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * lightweight connection checked out from pool in multiplex mode, buffers commands until flush,
+ * then submits them to one of the shared connections and waits for replies on read
+ *
+ * @author neo
+ */
+final class MultiplexedRedisConnection extends RedisConnection {
+    private final RedisImpl redis;
+    private final int timeoutInMs;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+    private final Deque<MultiplexConnection.Request> requests = new ArrayDeque<>();
+    private int commands;
+    private Object[] replies;
+    private int replyIndex;
+
+    MultiplexedRedisConnection(RedisImpl redis, int timeoutInMs) {
+        this.redis = redis;
+        this.timeoutInMs = timeoutInMs;
+        outputStream = new RedisOutputStream(buffer, 8192);
+    }
+
+    @Override
+    void writeArray(int length) throws IOException {
+        commands++;     // client only writes top level array per command
+        super.writeArray(length);
+    }
+
+    @Override
+    void flush() throws IOException {
+        super.flush();
+        if (commands == 0) return;
+        MultiplexConnection connection = redis.multiplexConnection();
+        requests.add(connection.submit(buffer.toByteArray(), commands));
+        buffer.reset();
+        commands = 0;
+    }
+
+    // replies are already parsed by reader thread of shared connection, so only adapt to sink
+    @Override
+    void readBlobString(Protocol.BlobSink sink) throws IOException {
+        accept(sink, 0, (byte[]) read());
+    }
+
+    @Override
+    int readBlobArray(Protocol.BlobSink sink) throws IOException {
+        Object reply = read();
+        if (reply == null) return -1;
+        if (reply instanceof Map) {     // RESP3 map, e.g. HGETALL on client tracking connection
+            int index = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) reply).entrySet()) {
+                accept(sink, index++, (byte[]) entry.getKey());
+                accept(sink, index++, (byte[]) entry.getValue());
+            }
+            return index;
+        }
+        Object[] values = (Object[]) reply;
+        for (int i = 0; i < values.length; i++) {
+            accept(sink, i, (byte[]) values[i]);
+        }
+        return values.length;
+    }
+
+    private void accept(Protocol.BlobSink sink, int index, byte[] value) {
+        if (value == null) sink.accept(index, null, 0, -1);
+        else sink.accept(index, value, 0, value.length);
+    }
+
+    @Override
+    Object read() throws IOException {
+        if (replies == null || replyIndex == replies.length) {
+            MultiplexConnection.Request request = requests.poll();
+            if (request == null) throw new Error("no pending request to read reply");
+            replies = request.await(timeoutInMs);
+            replyIndex = 0;
+        }
+        Object reply = replies[replyIndex++];
+        if (reply instanceof RedisException) throw (RedisException) reply;
+        return reply;
+    }
+}
@@ -3,9 +3,13 @@ package core.framework.internal.redis;
 import core.framework.util.Strings;
 
 import java.io.IOException;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * refer to https://github.com/antirez/RESP3/blob/master/spec.md, currently only support RESP2
+ * refer to https://github.com/antirez/RESP3/blob/master/spec.md,
+ * connections use RESP2 by default, RESP3 types are only returned after HELLO 3, e.g. client tracking connection
  */
 final class Protocol {
     private static final byte BLOB_STRING_BYTE = '$';
@@ -13,6 +17,17 @@ final class Protocol {
     private static final byte SIMPLE_ERROR_BYTE = '-';
     private static final byte NUMBER_BYTE = ':';
     private static final byte ARRAY_BYTE = '*';
+    // RESP3 types
+    private static final byte NULL_BYTE = '_';
+    private static final byte DOUBLE_BYTE = ',';
+    private static final byte BOOLEAN_BYTE = '#';
+    private static final byte BLOB_ERROR_BYTE = '!';
+    private static final byte VERBATIM_STRING_BYTE = '=';
+    private static final byte BIG_NUMBER_BYTE = '(';
+    private static final byte MAP_BYTE = '%';
+    private static final byte SET_BYTE = '~';
+    private static final byte ATTRIBUTE_BYTE = '|';
+    private static final byte PUSH_BYTE = '>';
 
     static void writeArray(RedisOutputStream stream, int length) throws IOException {
         stream.write(ARRAY_BYTE);
@@ -29,6 +44,53 @@ final class Protocol {
         return parseObject(stream);
     }
 
+    // stream array of blob strings to sink, without boxing into Object[] or copying each blob into byte[], e.g. MGET, HGETALL
+    // map (RESP3) is flatten as key value pairs, same as RESP2, returns number of elements, or -1 if null array
+    static int readBlobArray(RedisInputStream stream, BlobSink sink) throws IOException {
+        byte firstByte = stream.readByte();
+        int length;
+        switch (firstByte) {
+            case ARRAY_BYTE:
+            case SET_BYTE:
+                length = (int) stream.readLong();
+                break;
+            case MAP_BYTE:
+                length = (int) stream.readLong() * 2;
+                break;
+            case SIMPLE_ERROR_BYTE:
+                throw new RedisException(stream.readSimpleString());
+            default:
+                throw new IOException("unexpected redis response, expected array, firstByte=" + (char) firstByte);
+        }
+        for (int i = 0; i < length; i++) {
+            readBlobString(stream, i, sink);
+        }
+        return length;
+    }
+
+    // pass null blob as length -1
+    static void readBlobString(RedisInputStream stream, int index, BlobSink sink) throws IOException {
+        byte firstByte = stream.readByte();
+        switch (firstByte) {
+            case BLOB_STRING_BYTE:
+                int length = (int) stream.readLong();
+                if (length == -1) {
+                    sink.accept(index, null, 0, -1);
+                } else {
+                    stream.readBlob(index, length, sink);
+                }
+                return;
+            case NULL_BYTE:
+                stream.readCRLF();
+                sink.accept(index, null, 0, -1);
+                return;
+            case SIMPLE_ERROR_BYTE:
+                throw new RedisException(stream.readSimpleString());
+            default:
+                throw new IOException("unexpected redis response, expected blob string, firstByte=" + (char) firstByte);
+        }
+    }
+
     private static Object parseObject(RedisInputStream stream) throws IOException {
         byte firstByte = stream.readByte();
         switch (firstByte) {
@@ -43,6 +105,28 @@ final class Protocol {
             case SIMPLE_ERROR_BYTE:
                 String message = stream.readSimpleString();
                 throw new RedisException(message);
+            case NULL_BYTE:
+                stream.readCRLF();
+                return null;
+            case SET_BYTE:      // treat set as array, to keep same result type as RESP2, e.g. SMEMBERS
+                return parseArray(stream);
+            case MAP_BYTE:
+                return parseMap(stream);
+            case PUSH_BYTE:
+                return new Push(parseArray(stream));
+            case BOOLEAN_BYTE:
+                return "t".equals(stream.readSimpleString());
+            case DOUBLE_BYTE:
+                return parseDouble(stream.readSimpleString());
+            case BIG_NUMBER_BYTE:
+                return new BigInteger(stream.readSimpleString());
+            case VERBATIM_STRING_BYTE:
+                return parseVerbatimString(stream);
+            case BLOB_ERROR_BYTE:
+                throw new RedisException(RedisEncodings.decode(parseBlobString(stream)));
+            case ATTRIBUTE_BYTE:    // attribute is auxiliary data before actual reply, skip it
+                parseMap(stream);
+                return parseObject(stream);
             default:
                 throw new IOException("unknown redis response, firstByte=" + (char) firstByte);
         }
@@ -66,6 +150,49 @@ final class Protocol {
         return array;
     }
 
+    private static Map<Object, Object> parseMap(RedisInputStream stream) throws IOException {
+        int length = (int) stream.readLong();
+        Map<Object, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < length; i++) {
+            Object key = parseObject(stream);
+            map.put(key, parseObject(stream));
+        }
+        return map;
+    }
+
+    private static double parseDouble(String value) {
+        switch (value) {
+            case "inf":
+                return Double.POSITIVE_INFINITY;
+            case "-inf":
+                return Double.NEGATIVE_INFINITY;
+            case "nan":
+                return Double.NaN;
+            default:
+                return Double.parseDouble(value);
+        }
+    }
+
+    private static byte[] parseVerbatimString(RedisInputStream stream) throws IOException {
+        byte[] value = parseBlobString(stream);     // format is "txt:content" or "mkd:content", 3 bytes type with ':'
+        byte[] content = new byte[value.length - 4];
+        System.arraycopy(value, 4, content, 0, content.length);
+        return content;
+    }
+
+    static final class Push {     // out of band data pushed by server, e.g. client tracking invalidation
+        final Object[] values;
+
+        Push(Object[] values) {
+            this.values = values;
+        }
+    }
+
+    @FunctionalInterface
+    interface BlobSink {    // bytes is only valid during call, sink must decode or copy it before return
+        void accept(int index, byte[] bytes, int offset, int length);
+    }
+
     static class Command {
         static final byte[] GET = Strings.bytes("GET");
         static final byte[] SET = Strings.bytes("SET");
@@ -83,6 +210,7 @@ final class Protocol {
         static final byte[] HMSET = Strings.bytes("HMSET");
         static final byte[] HDEL = Strings.bytes("HDEL");
         static final byte[] HINCRBY = Strings.bytes("HINCRBY");
+        static final byte[] HSCAN = Strings.bytes("HSCAN");
 
         static final byte[] SADD = Strings.bytes("SADD");
         static final byte[] SMEMBERS = Strings.bytes("SMEMBERS");
@@ -90,14 +218,37 @@ final class Protocol {
         static final byte[] SREM = Strings.bytes("SREM");
         static final byte[] SPOP = Strings.bytes("SPOP");
         static final byte[] SCARD = Strings.bytes("SCARD");
+        static final byte[] SSCAN = Strings.bytes("SSCAN");
 
         static final byte[] LRANGE = Strings.bytes("LRANGE");
         static final byte[] RPUSH = Strings.bytes("RPUSH");
         static final byte[] LPOP = Strings.bytes("LPOP");
 
+        static final byte[] ZADD = Strings.bytes("ZADD");
+        static final byte[] ZINCRBY = Strings.bytes("ZINCRBY");
+        static final byte[] ZRANGEBYSCORE = Strings.bytes("ZRANGEBYSCORE");
+        static final byte[] ZREVRANGE = Strings.bytes("ZREVRANGE");
+        static final byte[] ZRANK = Strings.bytes("ZRANK");
+        static final byte[] ZPOPMIN = Strings.bytes("ZPOPMIN");
+        static final byte[] ZREMRANGEBYSCORE = Strings.bytes("ZREMRANGEBYSCORE");
+        static final byte[] ZCARD = Strings.bytes("ZCARD");
+
+        static final byte[] XADD = Strings.bytes("XADD");
+        static final byte[] XGROUP = Strings.bytes("XGROUP");
+        static final byte[] XREADGROUP = Strings.bytes("XREADGROUP");
+        static final byte[] XACK = Strings.bytes("XACK");
+        static final byte[] XPENDING = Strings.bytes("XPENDING");
+        static final byte[] XCLAIM = Strings.bytes("XCLAIM");
+
+        static final byte[] EVAL = Strings.bytes("EVAL");
+        static final byte[] EVALSHA = Strings.bytes("EVALSHA");
+
         static final byte[] SUBSCRIBE = Strings.bytes("SUBSCRIBE");
         static final byte[] PUBLISH = Strings.bytes("PUBLISH");
 
+        static final byte[] HELLO = Strings.bytes("HELLO");
+        static final byte[] CLIENT = Strings.bytes("CLIENT");
+
         static final byte[] INFO = Strings.bytes("INFO");
         static final byte[] QUIT = Strings.bytes("QUIT");
     }
@@ -105,7 +256,20 @@ final class Protocol {
     static class Keyword {
         static final byte[] MATCH = Strings.bytes("MATCH");
         static final byte[] COUNT = Strings.bytes("COUNT");
+        static final byte[] TYPE = Strings.bytes("TYPE");
         static final byte[] NX = Strings.bytes("NX");
         static final byte[] PX = Strings.bytes("PX");
+        static final byte[] WITHSCORES = Strings.bytes("WITHSCORES");
+        static final byte[] LIMIT = Strings.bytes("LIMIT");
+        static final byte[] MAXLEN = Strings.bytes("MAXLEN");
+        static final byte[] APPROXIMATELY = Strings.bytes("~");
+        static final byte[] CREATE = Strings.bytes("CREATE");
+        static final byte[] MKSTREAM = Strings.bytes("MKSTREAM");
+        static final byte[] GROUP = Strings.bytes("GROUP");
+        static final byte[] BLOCK = Strings.bytes("BLOCK");
+        static final byte[] STREAMS = Strings.bytes("STREAMS");
+        static final byte[] TRACKING = Strings.bytes("TRACKING");
+        static final byte[] ON = Strings.bytes("ON");
+        static final byte[] NOLOOP = Strings.bytes("NOLOOP");
     }
 }
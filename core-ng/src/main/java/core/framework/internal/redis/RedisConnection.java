@@ -84,19 +84,27 @@ class RedisConnection implements AutoCloseable {
     }
 
     String readSimpleString() throws IOException {
-        return (String) Protocol.read(inputStream);
+        return (String) read();
     }
 
     byte[] readBlobString() throws IOException {
-        return (byte[]) Protocol.read(inputStream);
+        return (byte[]) read();
+    }
+
+    void readBlobString(Protocol.BlobSink sink) throws IOException {
+        Protocol.readBlobString(inputStream, 0, sink);
+    }
+
+    int readBlobArray(Protocol.BlobSink sink) throws IOException {
+        return Protocol.readBlobArray(inputStream, sink);
     }
 
     long readLong() throws IOException {
-        return (long) Protocol.read(inputStream);
+        return (long) read();
     }
 
     Object[] readArray() throws IOException {
-        return (Object[]) Protocol.read(inputStream);
+        return (Object[]) read();
     }
 
     Object read() throws IOException {
@@ -108,7 +116,7 @@ class RedisConnection implements AutoCloseable {
         Object[] results = new Object[size];
         for (int i = 0; i < size; i++) {
             try {
-                results[i] = Protocol.read(inputStream);
+                results[i] = read();
             } catch (RedisException e) {
                 exception = e;
             }
@@ -34,4 +34,8 @@ class RedisEncodings {
         if (value == null) return null;
         return new String(value, StandardCharsets.UTF_8);
     }
+
+    static String decode(byte[] value, int offset, int length) {
+        return new String(value, offset, length, StandardCharsets.UTF_8);
+    }
 }
@@ -5,20 +5,22 @@ import core.framework.internal.log.filter.MapLogParam;
 import core.framework.internal.resource.PoolItem;
 import core.framework.log.ActionLogContext;
 import core.framework.redis.RedisHash;
-import core.framework.util.Maps;
 import core.framework.util.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import static core.framework.internal.redis.Protocol.Command.HDEL;
 import static core.framework.internal.redis.Protocol.Command.HGET;
 import static core.framework.internal.redis.Protocol.Command.HGETALL;
 import static core.framework.internal.redis.Protocol.Command.HINCRBY;
 import static core.framework.internal.redis.Protocol.Command.HMSET;
+import static core.framework.internal.redis.Protocol.Command.HSCAN;
 import static core.framework.internal.redis.Protocol.Command.HSET;
 import static core.framework.internal.redis.RedisEncodings.decode;
 import static core.framework.internal.redis.RedisEncodings.encode;
@@ -64,12 +66,10 @@ public final class RedisHashImpl implements RedisHash {
         try {
             RedisConnection connection = item.resource;
             connection.writeKeyCommand(HGETALL, key);
-            Object[] response = connection.readArray();
-            if (response.length % 2 != 0) throw new IOException("unexpected length of array, length=" + response.length);
-            values = Maps.newHashMapWithExpectedSize(response.length / 2);
-            for (int i = 0; i < response.length; i += 2) {
-                values.put(decode((byte[]) response[i]), decode((byte[]) response[i + 1]));
-            }
+            var sink = new MapSink();
+            int length = connection.readBlobArray(sink);
+            if (length % 2 != 0) throw new IOException("unexpected length of array, length=" + length);
+            values = sink.values;
             return values;
         } catch (IOException e) {
             item.broken = true;
@@ -181,4 +181,29 @@ public final class RedisHashImpl implements RedisHash {
             redis.checkSlowOperation(elapsed);
         }
     }
+
+    @Override
+    public void forEach(String key, int batchSize, BiConsumer<String, String> consumer) {
+        redis.scan("hscan", HSCAN, key, null, null, batchSize, values -> {
+            for (int i = 0; i < values.length; i += 2) {
+                consumer.accept(decode((byte[]) values[i]), decode((byte[]) values[i + 1]));
+            }
+        });
+    }
+
+    // decode field and value directly from read buffer, without intermediate object array
+    private static final class MapSink implements Protocol.BlobSink {
+        final Map<String, String> values = new HashMap<>();
+        private String field;
+
+        @Override
+        public void accept(int index, byte[] bytes, int offset, int length) {
+            String value = decode(bytes, offset, length);
+            if (index % 2 == 0) {
+                field = value;
+            } else {
+                values.put(field, value);
+            }
+        }
+    }
 }
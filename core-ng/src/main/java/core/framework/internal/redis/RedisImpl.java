@@ -12,16 +12,24 @@ import core.framework.redis.Redis;
 import core.framework.redis.RedisAdmin;
 import core.framework.redis.RedisHash;
 import core.framework.redis.RedisList;
+import core.framework.redis.RedisPipeline;
+import core.framework.redis.RedisScript;
 import core.framework.redis.RedisSet;
+import core.framework.redis.RedisSortedSet;
+import core.framework.redis.RedisStream;
 import core.framework.util.Maps;
 import core.framework.util.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
 
 import static core.framework.internal.redis.Protocol.Command.DEL;
@@ -38,6 +46,7 @@ import static core.framework.internal.redis.Protocol.Keyword.COUNT;
 import static core.framework.internal.redis.Protocol.Keyword.MATCH;
 import static core.framework.internal.redis.Protocol.Keyword.NX;
 import static core.framework.internal.redis.Protocol.Keyword.PX;
+import static core.framework.internal.redis.Protocol.Keyword.TYPE;
 import static core.framework.internal.redis.RedisEncodings.decode;
 import static core.framework.internal.redis.RedisEncodings.encode;
 
@@ -49,16 +58,22 @@ public class RedisImpl implements Redis {
     private final RedisSet redisSet = new RedisSetImpl(this);
     private final RedisHash redisHash = new RedisHashImpl(this);
     private final RedisList redisList = new RedisListImpl(this);
+    private final RedisSortedSet redisSortedSet = new RedisSortedSetImpl(this);
+    private final RedisStream redisStream = new RedisStreamImpl(this);
     private final RedisAdmin redisAdmin = new RedisAdminImpl(this);
     private final String name;
+    private final AtomicInteger multiplexIndex = new AtomicInteger();
+    private final Map<String, RedisScript> scripts = new ConcurrentHashMap<>();
     public Pool<RedisConnection> pool;
     public RedisHost host;
     long slowOperationThresholdInNanos = Duration.ofMillis(500).toNanos();
     int timeoutInMs = (int) Duration.ofSeconds(5).toMillis();
+    AtomicReferenceArray<MultiplexConnection> multiplexConnections;
+    private RedisTrackingListener trackingListener;
 
     public RedisImpl(String name) {
         this.name = name;
-        pool = new Pool<>(() -> createConnection(timeoutInMs), name);
+        pool = new Pool<>(this::createPoolConnection, name);
         pool.size(5, 50);
         pool.maxIdleTime = Duration.ofMinutes(30);
         pool.checkoutTimeout(Duration.ofSeconds(5));
@@ -73,6 +88,52 @@ public class RedisImpl implements Redis {
         slowOperationThresholdInNanos = threshold.toNanos();
     }
 
+    // share given number of connections among all callers, pool only holds lightweight connections which buffer commands and wait for replies
+    public void multiplex(int connections) {
+        if (connections <= 0) throw new Error("connections must be greater than 0, connections=" + connections);
+        multiplexConnections = new AtomicReferenceArray<>(connections);
+        pool.size(1, 1000);     // pooled connection doesn't hold socket, larger size to not block callers
+    }
+
+    // enable client side caching on multiplex connections, server tracks keys read by connection and pushes invalidation to listener, requires redis 6+
+    public void tracking(RedisTrackingListener listener) {
+        if (multiplexConnections == null) throw new Error("tracking requires multiplex connections");
+        trackingListener = listener;
+    }
+
+    private RedisConnection createPoolConnection() {
+        if (multiplexConnections != null) return new MultiplexedRedisConnection(this, timeoutInMs);
+        return createConnection(timeoutInMs);
+    }
+
+    // pick shared connection by round robin, and replace broken one with new connection
+    MultiplexConnection multiplexConnection() throws IOException {
+        int index = Math.floorMod(multiplexIndex.getAndIncrement(), multiplexConnections.length());
+        MultiplexConnection connection = multiplexConnections.get(index);
+        if (connection != null && !connection.closed) return connection;
+        return createMultiplexConnection(index);
+    }
+
+    private synchronized MultiplexConnection createMultiplexConnection(int index) throws IOException {
+        MultiplexConnection connection = multiplexConnections.get(index);
+        if (connection != null && !connection.closed) return connection;     // created by other thread
+        if (host == null) throw new Error("redis.host must not be null");
+        connection = new MultiplexConnection(name + "-" + index);
+        connection.trackingListener = trackingListener;
+        connection.connect(host.host, host.port, timeoutInMs);
+        if (trackingListener != null) {
+            try {
+                connection.enableTracking(timeoutInMs);
+            } catch (IOException | RedisException e) {
+                connection.close();
+                throw e;
+            }
+            trackingListener.onInvalidate(null);
+        }
+        multiplexConnections.set(index, connection);
+        return connection;
+    }
+
     RedisConnection createConnection(int timeoutInMs) {
         if (host == null) throw new Error("redis.host must not be null");
         try {
@@ -87,30 +148,40 @@ public class RedisImpl implements Redis {
     public void close() {
         logger.info("close redis client, name={}, host={}", name, host);
         pool.close();
+        if (multiplexConnections != null) {
+            for (int i = 0; i < multiplexConnections.length(); i++) {
+                MultiplexConnection connection = multiplexConnections.get(i);
+                if (connection != null) connection.close();
+            }
+        }
     }
 
     @Override
     public String get(String key) {
-        return decode(getBytes(key));
+        return get(key, RedisEncodings::decode);
     }
 
-    public byte[] getBytes(String key) {
+    // decode value directly from read buffer, e.g. deserialize json without copying into byte array
+    public <T> T get(String key, RedisValueDecoder<T> decoder) {
         var watch = new StopWatch();
-        byte[] value = null;
+        var sink = new ValueSink<>(decoder);
         PoolItem<RedisConnection> item = pool.borrowItem();
         try {
             RedisConnection connection = item.resource;
             connection.writeKeyCommand(GET, key);
-            value = connection.readBlobString();
-            return value;
+            connection.readBlobString(sink);
+            return sink.value;
         } catch (IOException e) {
             item.broken = true;
             throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            item.broken = true;     // decoder failed before reply is read completely, connection must not be reused
+            throw e;
         } finally {
             pool.returnItem(item);
             long elapsed = watch.elapsed();
             ActionLogContext.track("redis", elapsed, 1, 0);
-            logger.debug("get, key={}, returnedValue={}, elapsed={}", key, new BytesLogParam(value), elapsed);
+            logger.debug("get, key={}, returnedLength={}, elapsed={}", key, sink.length, elapsed);     // bytes is only valid during decode, not to copy value for log
             checkSlowOperation(elapsed);
         }
     }
@@ -225,36 +296,80 @@ public class RedisImpl implements Redis {
 
     @Override
     public Map<String, String> multiGet(String... keys) {
-        Map<String, byte[]> values = multiGetBytes(keys);
-        Map<String, String> result = Maps.newLinkedHashMapWithExpectedSize(values.size());
-        for (Map.Entry<String, byte[]> entry : values.entrySet()) {
-            result.put(entry.getKey(), decode(entry.getValue()));
-        }
-        return result;
+        return multiGet(keys, RedisEncodings::decode);
     }
 
-    public Map<String, byte[]> multiGetBytes(String... keys) {
+    public <T> Map<String, T> multiGet(String[] keys, RedisValueDecoder<T> decoder) {
         var watch = new StopWatch();
         if (keys.length == 0) throw new Error("keys must not be empty");
-        Map<String, byte[]> values = Maps.newLinkedHashMapWithExpectedSize(keys.length);
+        Map<String, T> values = Maps.newLinkedHashMapWithExpectedSize(keys.length);
+        int[] returnedLength = new int[1];
         PoolItem<RedisConnection> item = pool.borrowItem();
         try {
             RedisConnection connection = item.resource;
             connection.writeKeysCommand(MGET, keys);
-            Object[] response = connection.readArray();
-            for (int i = 0; i < response.length; i++) {
-                byte[] value = (byte[]) response[i];
-                if (value != null) values.put(keys[i], value);
+            connection.readBlobArray((index, bytes, offset, length) -> {
+                if (bytes == null) return;
+                returnedLength[0] += length;
+                T value = decoder.decode(bytes, offset, length);
+                if (value != null) values.put(keys[index], value);
+            });
+            return values;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            item.broken = true;     // decoder failed before reply is read completely, connection must not be reused
+            throw e;
+        } finally {
+            pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, values.size(), 0);
+            logger.debug("mget, keys={}, size={}, returnedValues={}, returnedLength={}, elapsed={}", new ArrayLogParam(keys), keys.length, values.size(), returnedLength[0], elapsed);
+            checkSlowOperation(elapsed);
+        }
+    }
+
+    // pipeline PTTL and GET of each key in one round trip, ttl is read before value, so decoder gets value with its ttl
+    public <T> Map<String, T> multiGetWithTTL(String[] keys, RedisTTLValueDecoder<T> decoder) {
+        var watch = new StopWatch();
+        if (keys.length == 0) throw new Error("keys must not be empty");
+        Map<String, T> values = Maps.newLinkedHashMapWithExpectedSize(keys.length);
+        int[] returnedLength = new int[1];
+        PoolItem<RedisConnection> item = pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            for (String key : keys) {
+                byte[] encodedKey = encode(key);
+                connection.writeArray(2);
+                connection.writeBlobString(PTTL);
+                connection.writeBlobString(encodedKey);
+                connection.writeArray(2);
+                connection.writeBlobString(GET);
+                connection.writeBlobString(encodedKey);
+            }
+            connection.flush();
+            for (String key : keys) {
+                long ttl = connection.readLong();
+                connection.readBlobString((index, bytes, offset, length) -> {
+                    if (bytes == null) return;
+                    returnedLength[0] += length;
+                    T value = decoder.decode(bytes, offset, length, ttl);
+                    if (value != null) values.put(key, value);
+                });
             }
             return values;
         } catch (IOException e) {
             item.broken = true;
             throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            item.broken = true;     // remaining replies are not read, connection must not be reused
+            throw e;
         } finally {
             pool.returnItem(item);
             long elapsed = watch.elapsed();
             ActionLogContext.track("redis", elapsed, values.size(), 0);
-            logger.debug("mget, keys={}, size={}, returnedValues={}, elapsed={}", new ArrayLogParam(keys), keys.length, new BytesValueMapLogParam(values), elapsed);
+            logger.debug("pttl and get, keys={}, size={}, returnedValues={}, returnedLength={}, elapsed={}", new ArrayLogParam(keys), keys.length, values.size(), returnedLength[0], elapsed);
             checkSlowOperation(elapsed);
         }
     }
@@ -328,33 +443,58 @@ public class RedisImpl implements Redis {
     }
 
     @Override
-    public void forEach(String pattern, Consumer<String> consumer) {
+    public RedisSortedSet sortedSet() {
+        return redisSortedSet;
+    }
+
+    @Override
+    public RedisStream stream() {
+        return redisStream;
+    }
+
+    @Override
+    public void forEach(String pattern, @Nullable String type, int batchSize, Consumer<String> consumer) {
+        scan("scan", SCAN, null, pattern, type, batchSize, keys -> {
+            for (Object key : keys) {
+                consumer.accept(decode((byte[]) key));
+            }
+        });
+    }
+
+    // iterate SCAN/HSCAN/SSCAN by cursor, only one batch is held in memory, and time spent by consumer is excluded from redis time
+    void scan(String operation, byte[] command, @Nullable String key, @Nullable String pattern, @Nullable String type, int batchSize, Consumer<Object[]> consumer) {
+        if (batchSize <= 0) throw new Error("batchSize must be greater than 0, batchSize=" + batchSize);
         var watch = new StopWatch();
         long start = System.nanoTime();
         long redisTook = 0;
         PoolItem<RedisConnection> item = pool.borrowItem();
-        int returnedKeys = 0;
+        int returnedValues = 0;
         try {
             RedisConnection connection = item.resource;
-            byte[] batchSize = encode("500"); // use 500 as batch
+            byte[] count = encode(batchSize);
             String cursor = "0";
             do {
-                connection.writeArray(6);
-                connection.writeBlobString(SCAN);
+                connection.writeArray(4 + (key == null ? 0 : 1) + (pattern == null ? 0 : 2) + (type == null ? 0 : 2));
+                connection.writeBlobString(command);
+                if (key != null) connection.writeBlobString(encode(key));
                 connection.writeBlobString(encode(cursor));
-                connection.writeBlobString(MATCH);
-                connection.writeBlobString(encode(pattern));
+                if (pattern != null) {
+                    connection.writeBlobString(MATCH);
+                    connection.writeBlobString(encode(pattern));
+                }
                 connection.writeBlobString(COUNT);
-                connection.writeBlobString(batchSize);
+                connection.writeBlobString(count);
+                if (type != null) {
+                    connection.writeBlobString(TYPE);
+                    connection.writeBlobString(encode(type));
+                }
                 connection.flush();
                 Object[] response = connection.readArray();
                 cursor = decode((byte[]) response[0]);
-                Object[] keys = (Object[]) response[1];
-                returnedKeys += keys.length;
+                Object[] values = (Object[]) response[1];
+                returnedValues += values.length;
                 redisTook += System.nanoTime() - start;
-                for (Object key : keys) {
-                    consumer.accept(decode((byte[]) key));
-                }
+                consumer.accept(values);
                 start = System.nanoTime();
             } while (!"0".equals(cursor));
         } catch (IOException e) {
@@ -363,11 +503,21 @@ public class RedisImpl implements Redis {
         } finally {
             pool.returnItem(item);
             long elapsed = watch.elapsed();
-            ActionLogContext.track("redis", redisTook, returnedKeys, 0);
-            logger.debug("scan, pattern={}, returnedKeys={}, redisTook={}, elapsed={}", pattern, returnedKeys, redisTook, elapsed);
+            ActionLogContext.track("redis", redisTook, returnedValues, 0);
+            logger.debug("{}, key={}, pattern={}, type={}, returnedValues={}, redisTook={}, elapsed={}", operation, key, pattern, type, returnedValues, redisTook, elapsed);
         }
     }
 
+    @Override
+    public RedisPipeline pipeline() {
+        return new RedisPipelineImpl(this);
+    }
+
+    @Override
+    public RedisScript script(String script) {
+        return scripts.computeIfAbsent(script, key -> new RedisScriptImpl(this, key));
+    }
+
     @Override
     public RedisAdmin admin() {
         return redisAdmin;
@@ -431,9 +581,27 @@ public class RedisImpl implements Redis {
         }
     }
 
-    private byte[] expirationValue(Duration expiration) {
+    byte[] expirationValue(Duration expiration) {
         long expirationTime = expiration.toMillis();
         if (expirationTime <= 0) throw new Error("expiration time must be longer than 1ms");
         return encode(expirationTime);
     }
+
+    private static final class ValueSink<T> implements Protocol.BlobSink {
+        private final RedisValueDecoder<T> decoder;
+        T value;
+        int length = -1;
+
+        ValueSink(RedisValueDecoder<T> decoder) {
+            this.decoder = decoder;
+        }
+
+        @Override
+        public void accept(int index, byte[] bytes, int offset, int length) {
+            if (bytes != null) {
+                this.length = length;
+                value = decoder.decode(bytes, offset, length);
+            }
+        }
+    }
 }
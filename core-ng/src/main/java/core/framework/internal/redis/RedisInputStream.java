@@ -79,11 +79,43 @@ class RedisInputStream {
             position += readLength;
             offset += readLength;
         }
+        readCRLF();
+        return response;
+    }
+
+    // pass blob to sink as slice of buffer without copying, only blob larger than buffer is copied into new array,
+    // CRLF is consumed before calling sink, so stream stays consistent even if sink fails
+    void readBlob(int index, int length, Protocol.BlobSink sink) throws IOException {
+        if (length + 2 > buffer.length) {
+            sink.accept(index, readBytes(length), 0, length);
+            return;
+        }
+        ensure(length + 2);
+        int offset = position;
+        position += length;
+        readCRLF();
+        sink.accept(index, buffer, offset, length);
+    }
+
+    void readCRLF() throws IOException {
         byte value = readByte();
         if (value != '\r') throw new IOException("unexpected character");
         value = readByte();
         if (value != '\n') throw new IOException("unexpected character");
-        return response;
+    }
+
+    // make at least length bytes available in buffer, move unread bytes to beginning if not enough space left
+    private void ensure(int length) throws IOException {
+        int available = limit - position;
+        if (available >= length) return;
+        System.arraycopy(buffer, position, buffer, 0, available);
+        position = 0;
+        limit = available;
+        while (limit < length) {
+            int read = stream.read(buffer, limit, buffer.length - limit);
+            if (read == -1) throw new IOException("unexpected end of stream");
+            limit += read;
+        }
     }
 
     private void fill() throws IOException {
@@ -0,0 +1,327 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.filter.LogParam;
+import core.framework.internal.resource.PoolItem;
+import core.framework.log.ActionLogContext;
+import core.framework.redis.RedisPipeline;
+import core.framework.util.Maps;
+import core.framework.util.Sets;
+import core.framework.util.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static core.framework.internal.redis.Protocol.Command.DEL;
+import static core.framework.internal.redis.Protocol.Command.GET;
+import static core.framework.internal.redis.Protocol.Command.HDEL;
+import static core.framework.internal.redis.Protocol.Command.HGET;
+import static core.framework.internal.redis.Protocol.Command.HGETALL;
+import static core.framework.internal.redis.Protocol.Command.HINCRBY;
+import static core.framework.internal.redis.Protocol.Command.HMSET;
+import static core.framework.internal.redis.Protocol.Command.INCRBY;
+import static core.framework.internal.redis.Protocol.Command.LRANGE;
+import static core.framework.internal.redis.Protocol.Command.PEXPIRE;
+import static core.framework.internal.redis.Protocol.Command.RPUSH;
+import static core.framework.internal.redis.Protocol.Command.SADD;
+import static core.framework.internal.redis.Protocol.Command.SET;
+import static core.framework.internal.redis.Protocol.Command.SMEMBERS;
+import static core.framework.internal.redis.Protocol.Command.SREM;
+import static core.framework.internal.redis.Protocol.Keyword.NX;
+import static core.framework.internal.redis.Protocol.Keyword.PX;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+
+/**
+ * @author neo
+ */
+public final class RedisPipelineImpl implements RedisPipeline {
+    private final Logger logger = LoggerFactory.getLogger(RedisPipelineImpl.class);
+    private final RedisImpl redis;
+    private final List<Command<?>> commands = new ArrayList<>();
+    private boolean executed;
+    private StopWatch watch;
+    private PoolItem<RedisConnection> item;
+
+    RedisPipelineImpl(RedisImpl redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public Supplier<String> get(String key) {
+        return read(value -> decode((byte[]) value), GET, encode(key));
+    }
+
+    @Override
+    public Supplier<Boolean> set(String key, String value, Duration expiration, boolean onlyIfAbsent) {
+        int length = 3 + (onlyIfAbsent ? 1 : 0) + (expiration != null ? 2 : 0);
+        byte[][] arguments = new byte[length][];
+        arguments[0] = SET;
+        arguments[1] = encode(key);
+        arguments[2] = encode(value);
+        int index = 3;
+        if (onlyIfAbsent) arguments[index++] = NX;
+        if (expiration != null) {
+            arguments[index++] = PX;
+            arguments[index] = redis.expirationValue(expiration);
+        }
+        return write("OK"::equals, arguments);
+    }
+
+    @Override
+    public void expire(String key, Duration duration) {
+        write(value -> value, PEXPIRE, encode(key), encode(duration.toMillis()));
+    }
+
+    @Override
+    public Supplier<Long> del(String... keys) {
+        if (keys.length == 0) throw new Error("keys must not be empty");
+        return write(value -> (Long) value, arguments(DEL, null, keys));
+    }
+
+    @Override
+    public Supplier<Long> increaseBy(String key, long increment) {
+        return write(value -> (Long) value, INCRBY, encode(key), encode(increment));
+    }
+
+    @Override
+    public Supplier<String> hashGet(String key, String field) {
+        return read(value -> decode((byte[]) value), HGET, encode(key), encode(field));
+    }
+
+    @Override
+    public Supplier<Map<String, String>> hashGetAll(String key) {
+        return read(value -> {
+            Object[] response = (Object[]) value;
+            Map<String, String> values = Maps.newHashMapWithExpectedSize(response.length / 2);
+            for (int i = 0; i < response.length; i += 2) {
+                values.put(decode((byte[]) response[i]), decode((byte[]) response[i + 1]));
+            }
+            return values;
+        }, HGETALL, encode(key));
+    }
+
+    @Override
+    public void hashMultiSet(String key, Map<String, String> values) {
+        if (values.isEmpty()) throw new Error("values must not be empty");
+        byte[][] arguments = new byte[2 + values.size() * 2][];
+        arguments[0] = HMSET;
+        arguments[1] = encode(key);
+        int index = 2;
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            arguments[index++] = encode(entry.getKey());
+            arguments[index++] = encode(entry.getValue());
+        }
+        write(value -> value, arguments);
+    }
+
+    @Override
+    public Supplier<Long> hashIncreaseBy(String key, String field, long increment) {
+        return write(value -> (Long) value, HINCRBY, encode(key), encode(field), encode(increment));
+    }
+
+    @Override
+    public Supplier<Long> hashDel(String key, String... fields) {
+        if (fields.length == 0) throw new Error("fields must not be empty");
+        return write(value -> (Long) value, arguments(HDEL, key, fields));
+    }
+
+    @Override
+    public Supplier<Long> setAdd(String key, String... values) {
+        if (values.length == 0) throw new Error("values must not be empty");
+        return write(value -> (Long) value, arguments(SADD, key, values));
+    }
+
+    @Override
+    public Supplier<Set<String>> setMembers(String key) {
+        return read(value -> {
+            Object[] response = (Object[]) value;
+            Set<String> values = Sets.newHashSetWithExpectedSize(response.length);
+            for (Object item : response) {
+                values.add(decode((byte[]) item));
+            }
+            return values;
+        }, SMEMBERS, encode(key));
+    }
+
+    @Override
+    public Supplier<Long> setRemove(String key, String... values) {
+        if (values.length == 0) throw new Error("values must not be empty");
+        return write(value -> (Long) value, arguments(SREM, key, values));
+    }
+
+    @Override
+    public Supplier<Long> listPush(String key, String... values) {
+        if (values.length == 0) throw new Error("values must not be empty");
+        return write(value -> (Long) value, arguments(RPUSH, key, values));
+    }
+
+    @Override
+    public Supplier<List<String>> listRange(String key, long start, long end) {
+        return read(value -> {
+            Object[] response = (Object[]) value;
+            List<String> values = new ArrayList<>(response.length);
+            for (Object item : response) {
+                values.add(decode((byte[]) item));
+            }
+            return values;
+        }, LRANGE, encode(key), encode(start), encode(end));
+    }
+
+    @Override
+    public void execute() {
+        send();
+        receive();
+    }
+
+    // send and receive are separated, so sharded redis can send to all shards first, then wait for replies together
+    void send() {
+        watch = new StopWatch();
+        if (executed) throw new Error("pipeline is already executed");
+        if (commands.isEmpty()) throw new Error("commands must not be empty");
+        executed = true;
+        item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            for (Command<?> command : commands) {
+                connection.writeArray(command.arguments.length);
+                for (byte[] argument : command.arguments) {
+                    connection.writeBlobString(argument);
+                }
+            }
+            connection.flush();
+        } catch (IOException e) {
+            item.broken = true;
+            complete();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void receive() {
+        try {
+            RedisConnection connection = item.resource;
+            RedisException exception = null;
+            for (Command<?> command : commands) {
+                try {
+                    command.complete(connection.read());
+                } catch (RedisException e) {
+                    command.exception = e;
+                    if (exception == null) exception = e;
+                }
+            }
+            if (exception != null) throw exception;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } catch (RedisException e) {
+            throw e;    // all replies are read, connection can be reused
+        } catch (RuntimeException e) {
+            item.broken = true;     // decoder failed on unexpected reply, remaining replies are not read, connection must not be reused
+            throw e;
+        } finally {
+            complete();
+        }
+    }
+
+    private void complete() {
+        redis.pool.returnItem(item);
+        int reads = 0;
+        int writes = 0;
+        for (Command<?> command : commands) {
+            if (command.write) writes++;
+            else reads++;
+        }
+        long elapsed = watch.elapsed();
+        ActionLogContext.track("redis", elapsed, reads, writes);
+        logger.debug("pipeline, commands={}, size={}, elapsed={}", new CommandsLogParam(commands), commands.size(), elapsed);
+        redis.checkSlowOperation(elapsed);
+    }
+
+    <T> Supplier<T> read(Function<Object, T> decoder, byte[]... arguments) {
+        return add(false, decoder, arguments);
+    }
+
+    <T> Supplier<T> write(Function<Object, T> decoder, byte[]... arguments) {
+        return add(true, decoder, arguments);
+    }
+
+    private <T> Supplier<T> add(boolean write, Function<Object, T> decoder, byte[]... arguments) {
+        if (executed) throw new Error("pipeline is already executed");
+        var command = new Command<>(arguments, write, decoder);
+        commands.add(command);
+        return command;
+    }
+
+    static byte[][] arguments(byte[] command, String key, String... values) {
+        int offset = key == null ? 1 : 2;
+        byte[][] arguments = new byte[offset + values.length][];
+        arguments[0] = command;
+        if (key != null) arguments[1] = encode(key);
+        for (int i = 0; i < values.length; i++) {
+            arguments[offset + i] = encode(values[i]);
+        }
+        return arguments;
+    }
+
+    static final class Command<T> implements Supplier<T> {
+        final byte[][] arguments;
+        final boolean write;
+        private final Function<Object, T> decoder;
+        RedisException exception;
+        private T result;
+        private boolean completed;
+
+        Command(byte[][] arguments, boolean write, Function<Object, T> decoder) {
+            this.arguments = arguments;
+            this.write = write;
+            this.decoder = decoder;
+        }
+
+        void complete(Object response) {
+            result = decoder.apply(response);
+            completed = true;
+        }
+
+        @Override
+        public T get() {
+            if (exception != null) throw exception;
+            if (!completed) throw new Error("pipeline is not executed");
+            return result;
+        }
+    }
+
+    static final class CommandsLogParam implements LogParam {
+        private final List<Command<?>> commands;
+
+        CommandsLogParam(List<Command<?>> commands) {
+            this.commands = commands;
+        }
+
+        @Override
+        public void append(StringBuilder builder, Set<String> maskedFields, int maxParamLength) {   // only log command and key, values may contain sensitive data
+            int maxLength = builder.length() + maxParamLength;
+            builder.append('[');
+            for (int i = 0; i < commands.size(); i++) {
+                byte[][] arguments = commands.get(i).arguments;
+                if (i > 0) builder.append(", ");
+                builder.append(decode(arguments[0]));
+                if (arguments.length > 1) builder.append(' ').append(decode(arguments[1]));
+
+                if (builder.length() >= maxLength) {
+                    builder.setLength(maxLength);
+                    builder.append("...(truncated)");
+                    return;
+                }
+            }
+            builder.append(']');
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package core.framework.internal.redis;
+
+import core.framework.crypto.Hash;
+import core.framework.internal.log.filter.ArrayLogParam;
+import core.framework.internal.resource.PoolItem;
+import core.framework.log.ActionLogContext;
+import core.framework.redis.RedisScript;
+import core.framework.util.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static core.framework.internal.redis.Protocol.Command.EVAL;
+import static core.framework.internal.redis.Protocol.Command.EVALSHA;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+
+/**
+ * @author neo
+ */
+public final class RedisScriptImpl implements RedisScript {
+    private final Logger logger = LoggerFactory.getLogger(RedisScriptImpl.class);
+    private final RedisImpl redis;
+    private final byte[] script;
+    private final byte[] sha;
+    private final String shaHex;
+
+    RedisScriptImpl(RedisImpl redis, String script) {
+        this.redis = redis;
+        this.script = encode(script);
+        shaHex = Hash.sha1Hex(this.script);
+        sha = encode(shaHex);
+    }
+
+    @Override
+    public Object execute(List<String> keys, String... arguments) {
+        var watch = new StopWatch();
+        Object result = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            try {
+                write(connection, EVALSHA, sha, keys, arguments);
+                result = decodeResult(connection.read());
+            } catch (RedisException e) {
+                if (!e.getMessage().startsWith("NOSCRIPT")) throw e;
+                // script cache is empty after redis restarted or flushed, EVAL loads script into cache, so following calls use EVALSHA again
+                logger.debug("script is not loaded, fall back to eval, sha={}", shaHex);
+                write(connection, EVAL, script, keys, arguments);
+                result = decodeResult(connection.read());
+            }
+            return result;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, keys.size(), 0);  // script may read or write, only count keys as reads
+            logger.debug("evalsha, sha={}, keys={}, arguments={}, returnedValue={}, elapsed={}", shaHex, keys, new ArrayLogParam(arguments), result, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    private void write(RedisConnection connection, byte[] command, byte[] script, List<String> keys, String... arguments) throws IOException {
+        connection.writeArray(3 + keys.size() + arguments.length);
+        connection.writeBlobString(command);
+        connection.writeBlobString(script);
+        connection.writeBlobString(encode(keys.size()));
+        for (String key : keys) {
+            connection.writeBlobString(encode(key));
+        }
+        for (String argument : arguments) {
+            connection.writeBlobString(encode(argument));
+        }
+        connection.flush();
+    }
+
+    static Object decodeResult(Object value) {
+        if (value instanceof byte[]) return decode((byte[]) value);
+        if (value instanceof Object[]) {
+            Object[] values = (Object[]) value;
+            List<Object> results = new ArrayList<>(values.length);
+            for (Object item : values) {
+                results.add(decodeResult(item));
+            }
+            return results;
+        }
+        return value;
+    }
+}
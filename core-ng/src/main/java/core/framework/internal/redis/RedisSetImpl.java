@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static core.framework.internal.redis.Protocol.Command.SADD;
 import static core.framework.internal.redis.Protocol.Command.SCARD;
@@ -19,6 +20,7 @@ import static core.framework.internal.redis.Protocol.Command.SISMEMBER;
 import static core.framework.internal.redis.Protocol.Command.SMEMBERS;
 import static core.framework.internal.redis.Protocol.Command.SPOP;
 import static core.framework.internal.redis.Protocol.Command.SREM;
+import static core.framework.internal.redis.Protocol.Command.SSCAN;
 import static core.framework.internal.redis.RedisEncodings.decode;
 import static core.framework.internal.redis.RedisEncodings.encode;
 
@@ -177,4 +179,13 @@ public final class RedisSetImpl implements RedisSet {
             redis.checkSlowOperation(elapsed);
         }
     }
+
+    @Override
+    public void forEach(String key, int batchSize, Consumer<String> consumer) {
+        redis.scan("sscan", SSCAN, key, null, null, batchSize, values -> {
+            for (Object value : values) {
+                consumer.accept(decode((byte[]) value));
+            }
+        });
+    }
 }
@@ -0,0 +1,279 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.resource.PoolItem;
+import core.framework.log.ActionLogContext;
+import core.framework.redis.RedisSortedSet;
+import core.framework.util.Maps;
+import core.framework.util.StopWatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import static core.framework.internal.redis.Protocol.Command.ZADD;
+import static core.framework.internal.redis.Protocol.Command.ZCARD;
+import static core.framework.internal.redis.Protocol.Command.ZINCRBY;
+import static core.framework.internal.redis.Protocol.Command.ZPOPMIN;
+import static core.framework.internal.redis.Protocol.Command.ZRANGEBYSCORE;
+import static core.framework.internal.redis.Protocol.Command.ZRANK;
+import static core.framework.internal.redis.Protocol.Command.ZREMRANGEBYSCORE;
+import static core.framework.internal.redis.Protocol.Command.ZREVRANGE;
+import static core.framework.internal.redis.Protocol.Keyword.LIMIT;
+import static core.framework.internal.redis.Protocol.Keyword.NX;
+import static core.framework.internal.redis.Protocol.Keyword.WITHSCORES;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+
+/**
+ * @author neo
+ */
+public final class RedisSortedSetImpl implements RedisSortedSet {
+    private final Logger logger = LoggerFactory.getLogger(RedisSortedSetImpl.class);
+    private final RedisImpl redis;
+
+    RedisSortedSetImpl(RedisImpl redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public long add(String key, Map<String, Long> values, boolean onlyIfAbsent) {
+        var watch = new StopWatch();
+        if (values.isEmpty()) throw new Error("values must not be empty");
+        long addedValues = 0;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeArray(2 + (onlyIfAbsent ? 1 : 0) + values.size() * 2);
+            connection.writeBlobString(ZADD);
+            connection.writeBlobString(encode(key));
+            if (onlyIfAbsent) connection.writeBlobString(NX);
+            for (Map.Entry<String, Long> entry : values.entrySet()) {
+                connection.writeBlobString(encode(entry.getValue()));
+                connection.writeBlobString(encode(entry.getKey()));
+            }
+            connection.flush();
+            addedValues = connection.readLong();
+            return addedValues;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, 0, (int) addedValues);
+            logger.debug("zadd, key={}, values={}, size={}, onlyIfAbsent={}, addedValues={}, elapsed={}", key, values, values.size(), onlyIfAbsent, addedValues, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public long increaseScoreBy(String key, String value, long increment) {
+        var watch = new StopWatch();
+        long score = 0;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeArray(4);
+            connection.writeBlobString(ZINCRBY);
+            connection.writeBlobString(encode(key));
+            connection.writeBlobString(encode(increment));
+            connection.writeBlobString(encode(value));
+            connection.flush();
+            score = score(connection.read());
+            return score;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, 0, 1);
+            logger.debug("zincrby, key={}, value={}, increment={}, returnedScore={}, elapsed={}", key, value, increment, score, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public Map<String, Long> rangeByScore(String key, long minScore, long maxScore, long offset, long limit) {
+        var watch = new StopWatch();
+        Map<String, Long> values = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeArray(8);
+            connection.writeBlobString(ZRANGEBYSCORE);
+            connection.writeBlobString(encode(key));
+            connection.writeBlobString(encode(minScore));
+            connection.writeBlobString(encode(maxScore));
+            connection.writeBlobString(WITHSCORES);
+            connection.writeBlobString(LIMIT);
+            connection.writeBlobString(encode(offset));
+            connection.writeBlobString(encode(limit));
+            connection.flush();
+            values = values(connection.readArray());
+            return values;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, values == null ? 0 : values.size(), 0);
+            logger.debug("zrangebyscore, key={}, minScore={}, maxScore={}, offset={}, limit={}, returnedValues={}, elapsed={}", key, minScore, maxScore, offset, limit, values, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public Map<String, Long> reverseRange(String key, long start, long stop) {
+        var watch = new StopWatch();
+        Map<String, Long> values = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeArray(5);
+            connection.writeBlobString(ZREVRANGE);
+            connection.writeBlobString(encode(key));
+            connection.writeBlobString(encode(start));
+            connection.writeBlobString(encode(stop));
+            connection.writeBlobString(WITHSCORES);
+            connection.flush();
+            values = values(connection.readArray());
+            return values;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, values == null ? 0 : values.size(), 0);
+            logger.debug("zrevrange, key={}, start={}, stop={}, returnedValues={}, elapsed={}", key, start, stop, values, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public Long rank(String key, String value) {
+        var watch = new StopWatch();
+        Long rank = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeKeyArgumentCommand(ZRANK, key, encode(value));
+            rank = (Long) connection.read();    // return null if value not exists
+            return rank;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, 1, 0);
+            logger.debug("zrank, key={}, value={}, returnedRank={}, elapsed={}", key, value, rank, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public Map<String, Long> popMin(String key, long count) {
+        var watch = new StopWatch();
+        if (count <= 0) throw new Error("count must be greater than 0");
+        Map<String, Long> values = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeKeyArgumentCommand(ZPOPMIN, key, encode(count));
+            values = values(connection.readArray());
+            return values;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            int size = values == null ? 0 : values.size();
+            ActionLogContext.track("redis", elapsed, size, size);
+            logger.debug("zpopmin, key={}, count={}, returnedValues={}, elapsed={}", key, count, values, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public long removeByScore(String key, long minScore, long maxScore) {
+        var watch = new StopWatch();
+        long removedValues = 0;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeArray(4);
+            connection.writeBlobString(ZREMRANGEBYSCORE);
+            connection.writeBlobString(encode(key));
+            connection.writeBlobString(encode(minScore));
+            connection.writeBlobString(encode(maxScore));
+            connection.flush();
+            removedValues = connection.readLong();
+            return removedValues;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, 0, (int) removedValues);
+            logger.debug("zremrangebyscore, key={}, minScore={}, maxScore={}, removedValues={}, elapsed={}", key, minScore, maxScore, removedValues, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public long size(String key) {
+        var watch = new StopWatch();
+        long size = 0;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeKeyCommand(ZCARD, key);
+            size = connection.readLong();
+            return size;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, 1, 0);
+            logger.debug("zcard, key={}, size={}, elapsed={}", key, size, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    // RESP2 returns flat array of value and score, RESP3 returns array of [value, score] pairs
+    private Map<String, Long> values(Object[] response) throws IOException {
+        if (response.length > 0 && response[0] instanceof Object[]) {
+            Map<String, Long> values = Maps.newLinkedHashMapWithExpectedSize(response.length);
+            for (Object pair : response) {
+                Object[] entry = (Object[]) pair;
+                values.put(decode((byte[]) entry[0]), score(entry[1]));
+            }
+            return values;
+        }
+        if (response.length % 2 != 0) throw new IOException("unexpected length of array, length=" + response.length);
+        Map<String, Long> values = Maps.newLinkedHashMapWithExpectedSize(response.length / 2);
+        for (int i = 0; i < response.length; i += 2) {
+            values.put(decode((byte[]) response[i]), score(response[i + 1]));
+        }
+        return values;
+    }
+
+    private long score(Object value) {
+        if (value instanceof Double) return ((Double) value).longValue();
+        String score = decode((byte[]) value);
+        try {
+            return Long.parseLong(score);
+        } catch (NumberFormatException e) {   // score set by other clients may not be integer
+            return (long) Double.parseDouble(score);
+        }
+    }
+}
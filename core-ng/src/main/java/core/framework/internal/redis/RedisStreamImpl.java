@@ -0,0 +1,311 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.filter.ArrayLogParam;
+import core.framework.internal.resource.PoolItem;
+import core.framework.log.ActionLogContext;
+import core.framework.redis.RedisStream;
+import core.framework.redis.RedisStreamMessage;
+import core.framework.redis.RedisStreamPendingMessage;
+import core.framework.util.Maps;
+import core.framework.util.StopWatch;
+import core.framework.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static core.framework.internal.redis.Protocol.Command.XACK;
+import static core.framework.internal.redis.Protocol.Command.XADD;
+import static core.framework.internal.redis.Protocol.Command.XCLAIM;
+import static core.framework.internal.redis.Protocol.Command.XGROUP;
+import static core.framework.internal.redis.Protocol.Command.XPENDING;
+import static core.framework.internal.redis.Protocol.Command.XREADGROUP;
+import static core.framework.internal.redis.Protocol.Keyword.APPROXIMATELY;
+import static core.framework.internal.redis.Protocol.Keyword.BLOCK;
+import static core.framework.internal.redis.Protocol.Keyword.COUNT;
+import static core.framework.internal.redis.Protocol.Keyword.CREATE;
+import static core.framework.internal.redis.Protocol.Keyword.GROUP;
+import static core.framework.internal.redis.Protocol.Keyword.MAXLEN;
+import static core.framework.internal.redis.Protocol.Keyword.MKSTREAM;
+import static core.framework.internal.redis.Protocol.Keyword.STREAMS;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+
+/**
+ * @author neo
+ */
+public final class RedisStreamImpl implements RedisStream {
+    static final String NEW_MESSAGES = ">";     // XREADGROUP id to read messages never delivered to any consumer
+    private static final byte[] AUTO_ID = Strings.bytes("*");
+    private static final byte[] LAST_ID = Strings.bytes("$");
+    private static final byte[] MIN_ID = Strings.bytes("-");
+    private static final byte[] MAX_ID = Strings.bytes("+");
+
+    private final Logger logger = LoggerFactory.getLogger(RedisStreamImpl.class);
+    private final RedisImpl redis;
+
+    RedisStreamImpl(RedisImpl redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public String add(String key, Map<String, String> fields, long maxLength) {
+        var watch = new StopWatch();
+        if (fields.isEmpty()) throw new Error("fields must not be empty");
+        if (maxLength <= 0) throw new Error("maxLength must be greater than 0");
+        String id = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            connection.writeArray(6 + fields.size() * 2);
+            connection.writeBlobString(XADD);
+            connection.writeBlobString(encode(key));
+            connection.writeBlobString(MAXLEN);
+            connection.writeBlobString(APPROXIMATELY);  // trim by whole macro node, much more efficient than exact length
+            connection.writeBlobString(encode(maxLength));
+            connection.writeBlobString(AUTO_ID);
+            for (Map.Entry<String, String> entry : fields.entrySet()) {
+                connection.writeBlobString(encode(entry.getKey()));
+                connection.writeBlobString(encode(entry.getValue()));
+            }
+            connection.flush();
+            id = decode(connection.readBlobString());
+            return id;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, 0, 1);
+            logger.debug("xadd, key={}, fields={}, maxLength={}, id={}, elapsed={}", key, fields, maxLength, id, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public boolean createGroup(String key, String group) {
+        var watch = new StopWatch();
+        boolean created = false;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            created = createGroup(item.resource, key, group);
+            return created;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, 0, created ? 1 : 0);
+            logger.debug("xgroup create, key={}, group={}, created={}, elapsed={}", key, group, created, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public List<RedisStreamMessage> readGroup(String key, String group, String consumer, int count, Duration block) {
+        var watch = new StopWatch();
+        if (count <= 0) throw new Error("count must be greater than 0");
+        long blockInMs = 0;
+        if (block != null) {
+            if (redis.multiplexConnections != null) throw new Error("block is not supported in multiplex mode");
+            blockInMs = block.toMillis();
+            if (blockInMs <= 0 || blockInMs >= redis.timeoutInMs) throw new Error("block must be between 1ms and redis timeout, block=" + block);
+        }
+        List<RedisStreamMessage> messages = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            writeReadGroup(connection, key, group, consumer, count, blockInMs, NEW_MESSAGES);
+            messages = readGroupMessages(connection.readArray());
+            return messages;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            int size = messages == null ? 0 : messages.size();
+            ActionLogContext.track("redis", elapsed, size, 0);
+            logger.debug("xreadgroup, key={}, group={}, consumer={}, count={}, block={}, size={}, elapsed={}", key, group, consumer, count, block, size, elapsed);
+            redis.checkSlowOperation(elapsed - blockInMs * 1_000_000);     // exclude blocking time
+        }
+    }
+
+    @Override
+    public long ack(String key, String group, String... ids) {
+        var watch = new StopWatch();
+        if (ids.length == 0) throw new Error("ids must not be empty");
+        long acknowledged = 0;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            RedisConnection connection = item.resource;
+            writeAck(connection, key, group, ids);
+            acknowledged = connection.readLong();
+            return acknowledged;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("redis", elapsed, 0, ids.length);
+            logger.debug("xack, key={}, group={}, ids={}, acknowledged={}, elapsed={}", key, group, new ArrayLogParam(ids), acknowledged, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public List<RedisStreamPendingMessage> pending(String key, String group, int count) {
+        var watch = new StopWatch();
+        if (count <= 0) throw new Error("count must be greater than 0");
+        List<RedisStreamPendingMessage> messages = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            messages = pending(item.resource, key, group, count);
+            return messages;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            int size = messages == null ? 0 : messages.size();
+            ActionLogContext.track("redis", elapsed, size, 0);
+            logger.debug("xpending, key={}, group={}, count={}, size={}, elapsed={}", key, group, count, size, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    @Override
+    public List<RedisStreamMessage> claim(String key, String group, String consumer, Duration minIdleTime, String... ids) {
+        var watch = new StopWatch();
+        if (ids.length == 0) throw new Error("ids must not be empty");
+        List<RedisStreamMessage> messages = null;
+        PoolItem<RedisConnection> item = redis.pool.borrowItem();
+        try {
+            messages = claim(item.resource, key, group, consumer, minIdleTime.toMillis(), ids);
+            return messages;
+        } catch (IOException e) {
+            item.broken = true;
+            throw new UncheckedIOException(e);
+        } finally {
+            redis.pool.returnItem(item);
+            long elapsed = watch.elapsed();
+            int size = messages == null ? 0 : messages.size();
+            ActionLogContext.track("redis", elapsed, size, size);
+            logger.debug("xclaim, key={}, group={}, consumer={}, minIdleTime={}, ids={}, size={}, elapsed={}", key, group, consumer, minIdleTime, new ArrayLogParam(ids), size, elapsed);
+            redis.checkSlowOperation(elapsed);
+        }
+    }
+
+    // reply is [[key, [[id, [field, value, ...]], ...]]], or null if no message
+    static List<RedisStreamMessage> readGroupMessages(Object[] reply) throws IOException {
+        if (reply == null) return List.of();
+        if (reply.length != 1) throw new IOException("unexpected length of array, length=" + reply.length);
+        return messages((Object[]) ((Object[]) reply[0])[1]);
+    }
+
+    // message deleted from stream but still in pending list is returned as [id, null], skip it since there is nothing to process
+    static List<RedisStreamMessage> messages(Object[] entries) {
+        List<RedisStreamMessage> messages = new ArrayList<>(entries.length);
+        for (Object entry : entries) {
+            if (entry == null) continue;
+            Object[] message = (Object[]) entry;
+            Object[] values = (Object[]) message[1];
+            if (values == null) continue;
+            Map<String, String> fields = Maps.newLinkedHashMapWithExpectedSize(values.length / 2);
+            for (int i = 0; i < values.length; i += 2) {
+                fields.put(decode((byte[]) values[i]), decode((byte[]) values[i + 1]));
+            }
+            messages.add(new RedisStreamMessage(decode((byte[]) message[0]), fields));
+        }
+        return messages;
+    }
+
+    static void writeReadGroup(RedisConnection connection, String key, String group, String consumer, int count, long blockInMs, String id) throws IOException {
+        connection.writeArray(blockInMs > 0 ? 10 : 8);
+        connection.writeBlobString(XREADGROUP);
+        connection.writeBlobString(GROUP);
+        connection.writeBlobString(encode(group));
+        connection.writeBlobString(encode(consumer));
+        connection.writeBlobString(COUNT);
+        connection.writeBlobString(encode(count));
+        if (blockInMs > 0) {
+            connection.writeBlobString(BLOCK);
+            connection.writeBlobString(encode(blockInMs));
+        }
+        connection.writeBlobString(STREAMS);
+        connection.writeBlobString(encode(key));
+        connection.writeBlobString(encode(id));
+        connection.flush();
+    }
+
+    static void writeAck(RedisConnection connection, String key, String group, String... ids) throws IOException {
+        connection.writeArray(3 + ids.length);
+        connection.writeBlobString(XACK);
+        connection.writeBlobString(encode(key));
+        connection.writeBlobString(encode(group));
+        for (String id : ids) {
+            connection.writeBlobString(encode(id));
+        }
+        connection.flush();
+    }
+
+    // return false if group already exists
+    static boolean createGroup(RedisConnection connection, String key, String group) throws IOException {
+        connection.writeArray(6);
+        connection.writeBlobString(XGROUP);
+        connection.writeBlobString(CREATE);
+        connection.writeBlobString(encode(key));
+        connection.writeBlobString(encode(group));
+        connection.writeBlobString(LAST_ID);
+        connection.writeBlobString(MKSTREAM);
+        connection.flush();
+        try {
+            connection.readSimpleString();
+            return true;
+        } catch (RedisException e) {
+            if (e.getMessage().startsWith("BUSYGROUP")) return false;
+            throw e;
+        }
+    }
+
+    static List<RedisStreamPendingMessage> pending(RedisConnection connection, String key, String group, int count) throws IOException {
+        connection.writeArray(6);
+        connection.writeBlobString(XPENDING);
+        connection.writeBlobString(encode(key));
+        connection.writeBlobString(encode(group));
+        connection.writeBlobString(MIN_ID);
+        connection.writeBlobString(MAX_ID);
+        connection.writeBlobString(encode(count));
+        connection.flush();
+        Object[] response = connection.readArray();
+        List<RedisStreamPendingMessage> messages = new ArrayList<>(response.length);
+        for (Object entry : response) {     // [id, consumer, idle time in ms, delivery count]
+            Object[] values = (Object[]) entry;
+            messages.add(new RedisStreamPendingMessage(decode((byte[]) values[0]), decode((byte[]) values[1]), Duration.ofMillis((Long) values[2]), (Long) values[3]));
+        }
+        return messages;
+    }
+
+    static List<RedisStreamMessage> claim(RedisConnection connection, String key, String group, String consumer, long minIdleTimeInMs, String... ids) throws IOException {
+        connection.writeArray(5 + ids.length);
+        connection.writeBlobString(XCLAIM);
+        connection.writeBlobString(encode(key));
+        connection.writeBlobString(encode(group));
+        connection.writeBlobString(encode(consumer));
+        connection.writeBlobString(encode(minIdleTimeInMs));
+        for (String id : ids) {
+            connection.writeBlobString(encode(id));
+        }
+        connection.flush();
+        return messages(connection.readArray());
+    }
+}
@@ -0,0 +1,156 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.ActionLog;
+import core.framework.internal.log.LogManager;
+import core.framework.redis.RedisStreamHandler;
+import core.framework.redis.RedisStreamMessage;
+import core.framework.redis.RedisStreamPendingMessage;
+import core.framework.util.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static core.framework.internal.redis.RedisStreamImpl.NEW_MESSAGES;
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * consume stream as consumer of group with dedicated connection, read messages by blocking XREADGROUP, handle as batch then acknowledge,
+ * on connect, it handles messages pending on this consumer first, e.g. not acknowledged before restart,
+ * and periodically claims messages idle too long, e.g. original consumer died or handler failed
+ *
+ * @author neo
+ */
+public class RedisStreamListenerThread extends Thread {
+    private final Logger logger = LoggerFactory.getLogger(RedisStreamListenerThread.class);
+    private final RedisImpl redis;
+    private final LogManager logManager;
+    private final String stream;
+    private final String group;
+    private final String consumer;
+    private final RedisStreamHandler handler;
+    int batchSize = 100;
+    long blockInMs = Duration.ofSeconds(5).toMillis();
+    long claimIntervalInMs = Duration.ofMinutes(1).toMillis();
+    long claimIdleTimeInMs = Duration.ofMinutes(5).toMillis();
+    private volatile boolean stop;
+    private long nextClaimTime;
+
+    public RedisStreamListenerThread(String name, RedisImpl redis, LogManager logManager, String stream, String group, String consumer, RedisStreamHandler handler) {
+        super(name);
+        this.redis = redis;
+        this.logManager = logManager;
+        this.stream = stream;
+        this.group = group;
+        this.consumer = consumer;
+        this.handler = handler;
+    }
+
+    @Override
+    public void run() {
+        while (!stop) {
+            // socket timeout must be longer than block time
+            try (RedisConnection connection = redis.createConnection(redis.timeoutInMs + (int) blockInMs)) {
+                process(connection);
+            } catch (Throwable e) {
+                if (!stop) {
+                    logger.warn("redis stream connection failed, retry in 10 seconds, stream={}, group={}", stream, group, e);
+                    Threads.sleepRoughly(Duration.ofSeconds(10));
+                }
+            }
+        }
+        logger.info("redis stream listener thread stopped, stream={}, group={}", stream, group);
+    }
+
+    void process(RedisConnection connection) throws IOException {
+        if (RedisStreamImpl.createGroup(connection, stream, group)) {
+            logger.info("created redis stream group, stream={}, group={}", stream, group);
+        }
+        logger.info("subscribed to redis stream, stream={}, group={}, consumer={}", stream, group, consumer);
+
+        String id = "0";    // read pending messages of this consumer from beginning, then switch to new messages
+        while (!stop) {
+            RedisStreamImpl.writeReadGroup(connection, stream, group, consumer, batchSize, blockInMs, id);
+            List<RedisStreamMessage> messages = RedisStreamImpl.readGroupMessages(connection.readArray());
+            if (!messages.isEmpty()) {
+                handle(connection, messages);
+                if (!NEW_MESSAGES.equals(id)) id = messages.get(messages.size() - 1).id;
+            } else if (!NEW_MESSAGES.equals(id)) {
+                id = NEW_MESSAGES;
+            }
+            claimIdleMessages(connection);
+        }
+    }
+
+    private void claimIdleMessages(RedisConnection connection) throws IOException {
+        long now = System.currentTimeMillis();
+        if (now < nextClaimTime) return;
+        nextClaimTime = now + claimIntervalInMs;
+
+        List<RedisStreamPendingMessage> pendingMessages = RedisStreamImpl.pending(connection, stream, group, batchSize);
+        List<String> ids = new ArrayList<>();
+        for (RedisStreamPendingMessage message : pendingMessages) {
+            if (message.idleTime.toMillis() >= claimIdleTimeInMs) ids.add(message.id);
+        }
+        if (ids.isEmpty()) return;
+
+        List<RedisStreamMessage> messages = RedisStreamImpl.claim(connection, stream, group, consumer, claimIdleTimeInMs, ids.toArray(String[]::new));
+        if (!messages.isEmpty()) {
+            logger.warn(errorCode("REDIS_STREAM_MESSAGE_CLAIMED"), "claimed idle messages, stream={}, group={}, count={}", stream, group, messages.size());
+            handle(connection, messages);
+        }
+    }
+
+    void handle(RedisConnection connection, List<RedisStreamMessage> messages) throws IOException {
+        int size = messages.size();
+        String[] ids = new String[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = messages.get(i).id;
+        }
+
+        boolean handled = false;
+        ActionLog actionLog = logManager.begin("=== redis stream message handling begin ===");
+        try {
+            actionLog.action("stream:" + stream);
+            actionLog.context("stream", stream);
+            actionLog.context("group", group);
+            actionLog.context("handler", handler.getClass().getCanonicalName());
+            actionLog.context("message_id", (Object[]) ids);
+            actionLog.track("redis", 0, size, 0);
+            long lag = actionLog.date.toEpochMilli() - timestamp(ids[0]);   // messages are in order of id
+            actionLog.stat("consumer_lag", lag * 1_000_000);    // convert to nanoseconds
+
+            handler.handle(messages);
+            handled = true;
+        } catch (Throwable e) {
+            logManager.logError(e);
+        } finally {
+            logManager.end("=== redis stream message handling end ===");
+        }
+
+        // only acknowledge handled messages, failed messages stay pending and will be claimed after idle time
+        if (handled) {
+            RedisStreamImpl.writeAck(connection, stream, group, ids);
+            connection.readLong();
+        }
+    }
+
+    // id is "{millis}-{sequence}"
+    long timestamp(String id) {
+        int index = id.indexOf('-');
+        return Long.parseLong(index < 0 ? id : id.substring(0, index));
+    }
+
+    public void shutdown() {
+        logger.info("stopping redis stream listener thread, stream={}, group={}", stream, group);
+        stop = true;    // blocking read returns within block time
+    }
+
+    public void awaitTermination(long timeoutInMs) throws InterruptedException {
+        join(timeoutInMs);
+        if (isAlive()) logger.warn("failed to terminate redis stream listener thread, name={}", getName());
+    }
+}
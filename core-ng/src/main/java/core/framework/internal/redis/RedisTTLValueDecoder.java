@@ -0,0 +1,11 @@
+package core.framework.internal.redis;
+
+/**
+ * same as RedisValueDecoder, with remaining ttl of key in millis, -1 if key has no expiration
+ *
+ * @author neo
+ */
+@FunctionalInterface
+public interface RedisTTLValueDecoder<T> {
+    T decode(byte[] bytes, int offset, int length, long ttl);
+}
@@ -0,0 +1,11 @@
+package core.framework.internal.redis;
+
+import javax.annotation.Nullable;
+
+/**
+ * @author neo
+ */
+public interface RedisTrackingListener {
+    // keys is null if all keys must be invalidated, e.g. server flushed db, or tracking connection is reset and invalidations may be lost
+    void onInvalidate(@Nullable String[] keys);
+}
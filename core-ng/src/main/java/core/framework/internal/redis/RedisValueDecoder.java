@@ -0,0 +1,12 @@
+package core.framework.internal.redis;
+
+/**
+ * decode value from slice of read buffer, bytes is only valid during call, so it must not keep reference to bytes,
+ * return null to skip value, e.g. invalid cache data
+ *
+ * @author neo
+ */
+@FunctionalInterface
+public interface RedisValueDecoder<T> {
+    T decode(byte[] bytes, int offset, int length);
+}
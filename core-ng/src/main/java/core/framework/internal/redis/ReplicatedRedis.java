@@ -0,0 +1,183 @@
+package core.framework.internal.redis;
+
+import core.framework.log.ActionLogContext;
+import core.framework.redis.Redis;
+import core.framework.redis.RedisAdmin;
+import core.framework.redis.RedisHash;
+import core.framework.redis.RedisList;
+import core.framework.redis.RedisPipeline;
+import core.framework.redis.RedisScript;
+import core.framework.redis.RedisSet;
+import core.framework.redis.RedisSortedSet;
+import core.framework.redis.RedisStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * send read only commands to replica with least in-flight requests, and all other commands to primary,
+ * replication is async, so reads within readYourWrites() go to primary, e.g. read value right after write it
+ *
+ * @author neo
+ */
+public final class ReplicatedRedis implements Redis {
+    private final Logger logger = LoggerFactory.getLogger(ReplicatedRedis.class);
+    public final RedisImpl primary;
+    final RedisImpl[] replicas;
+    final AtomicIntegerArray inFlight;
+    private final RedisSet redisSet = new ReplicatedRedisSet(this);
+    private final RedisHash redisHash = new ReplicatedRedisHash(this);
+    private final RedisList redisList = new ReplicatedRedisList(this);
+    private final ThreadLocal<Boolean> readPrimary = new ThreadLocal<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final String[] trackNames;  // track elapsed time of each replica, in addition to "redis"
+
+    public ReplicatedRedis(RedisImpl primary, List<RedisImpl> replicas) {
+        if (replicas.isEmpty()) throw new Error("replicas must not be empty");
+        this.primary = primary;
+        this.replicas = replicas.toArray(RedisImpl[]::new);
+        inFlight = new AtomicIntegerArray(this.replicas.length);
+        trackNames = new String[this.replicas.length];
+        for (int i = 0; i < trackNames.length; i++) {
+            trackNames[i] = "redis_replica_" + i;
+        }
+    }
+
+    <T> T read(Function<RedisImpl, T> command) {
+        if (Boolean.TRUE.equals(readPrimary.get())) return command.apply(primary);
+
+        int index = replicaIndex();
+        RedisImpl replica = replicas[index];
+        long start = System.nanoTime();
+        inFlight.incrementAndGet(index);
+        try {
+            return command.apply(replica);
+        } catch (UncheckedIOException e) {
+            logger.warn(errorCode("REDIS_REPLICA_FAILED"), "failed to read from redis replica, retry with primary, host={}", replica.host, e);
+        } finally {
+            inFlight.decrementAndGet(index);
+            ActionLogContext.track(trackNames[index], System.nanoTime() - start);
+        }
+        return command.apply(primary);
+    }
+
+    // pick replica with least in-flight requests, start from rotating position, so replicas with same load are picked evenly
+    int replicaIndex() {
+        int length = replicas.length;
+        int start = Math.floorMod(nextIndex.getAndIncrement(), length);
+        int selected = start;
+        int min = inFlight.get(start);
+        for (int i = 1; i < length && min > 0; i++) {
+            int index = (start + i) % length;
+            int count = inFlight.get(index);
+            if (count < min) {
+                selected = index;
+                min = count;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public <T> T readYourWrites(Supplier<T> action) {
+        Boolean previous = readPrimary.get();
+        readPrimary.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) readPrimary.remove();
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        return read(redis -> redis.get(key));
+    }
+
+    @Override
+    public boolean set(String key, String value, @Nullable Duration expiration, boolean onlyIfAbsent) {
+        return primary.set(key, value, expiration, onlyIfAbsent);
+    }
+
+    @Override
+    public RedisSet set() {
+        return redisSet;
+    }
+
+    @Override
+    public void expire(String key, Duration duration) {
+        primary.expire(key, duration);
+    }
+
+    @Override
+    public long del(String... keys) {
+        return primary.del(keys);
+    }
+
+    @Override
+    public long increaseBy(String key, long increment) {
+        return primary.increaseBy(key, increment);
+    }
+
+    @Override
+    public Map<String, String> multiGet(String... keys) {
+        return read(redis -> redis.multiGet(keys));
+    }
+
+    @Override
+    public void multiSet(Map<String, String> values) {
+        primary.multiSet(values);
+    }
+
+    @Override
+    public RedisHash hash() {
+        return redisHash;
+    }
+
+    @Override
+    public RedisList list() {
+        return redisList;
+    }
+
+    @Override
+    public RedisSortedSet sortedSet() {
+        return primary.sortedSet();
+    }
+
+    @Override
+    public RedisStream stream() {
+        return primary.stream();
+    }
+
+    @Override
+    public void forEach(String pattern, @Nullable String type, int batchSize, Consumer<String> consumer) {
+        primary.forEach(pattern, type, batchSize, consumer);
+    }
+
+    @Override
+    public RedisPipeline pipeline() {
+        return primary.pipeline();
+    }
+
+    @Override
+    public RedisScript script(String script) {
+        return primary.script(script);
+    }
+
+    @Override
+    public RedisAdmin admin() {
+        return primary.admin();
+    }
+}
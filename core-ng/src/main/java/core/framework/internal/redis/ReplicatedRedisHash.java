@@ -0,0 +1,52 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisHash;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * @author neo
+ */
+final class ReplicatedRedisHash implements RedisHash {
+    private final ReplicatedRedis redis;
+
+    ReplicatedRedisHash(ReplicatedRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public String get(String key, String field) {
+        return redis.read(replica -> replica.hash().get(key, field));
+    }
+
+    @Override
+    public Map<String, String> getAll(String key) {
+        return redis.read(replica -> replica.hash().getAll(key));
+    }
+
+    @Override
+    public void set(String key, String field, String value) {
+        redis.primary.hash().set(key, field, value);
+    }
+
+    @Override
+    public void multiSet(String key, Map<String, String> values) {
+        redis.primary.hash().multiSet(key, values);
+    }
+
+    @Override
+    public long increaseBy(String key, String field, long increment) {
+        return redis.primary.hash().increaseBy(key, field, increment);
+    }
+
+    @Override
+    public long del(String key, String... fields) {
+        return redis.primary.hash().del(key, fields);
+    }
+
+    @Override
+    public void forEach(String key, int batchSize, BiConsumer<String, String> consumer) {
+        redis.primary.hash().forEach(key, batchSize, consumer);
+    }
+}
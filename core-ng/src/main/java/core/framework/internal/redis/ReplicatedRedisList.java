@@ -0,0 +1,31 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisList;
+
+import java.util.List;
+
+/**
+ * @author neo
+ */
+final class ReplicatedRedisList implements RedisList {
+    private final ReplicatedRedis redis;
+
+    ReplicatedRedisList(ReplicatedRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public String pop(String key) {
+        return redis.primary.list().pop(key);
+    }
+
+    @Override
+    public long push(String key, String... values) {
+        return redis.primary.list().push(key, values);
+    }
+
+    @Override
+    public List<String> range(String key, long start, long end) {
+        return redis.read(replica -> replica.list().range(key, start, end));
+    }
+}
@@ -0,0 +1,52 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisSet;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * @author neo
+ */
+final class ReplicatedRedisSet implements RedisSet {
+    private final ReplicatedRedis redis;
+
+    ReplicatedRedisSet(ReplicatedRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public long add(String key, String... values) {
+        return redis.primary.set().add(key, values);
+    }
+
+    @Override
+    public Set<String> members(String key) {
+        return redis.read(replica -> replica.set().members(key));
+    }
+
+    @Override
+    public boolean isMember(String key, String value) {
+        return redis.read(replica -> replica.set().isMember(key, value));
+    }
+
+    @Override
+    public long remove(String key, String... values) {
+        return redis.primary.set().remove(key, values);
+    }
+
+    @Override
+    public Set<String> pop(String key, long count) {
+        return redis.primary.set().pop(key, count);
+    }
+
+    @Override
+    public long size(String key) {
+        return redis.primary.set().size(key);
+    }
+
+    @Override
+    public void forEach(String key, int batchSize, Consumer<String> consumer) {
+        redis.primary.set().forEach(key, batchSize, consumer);
+    }
+}
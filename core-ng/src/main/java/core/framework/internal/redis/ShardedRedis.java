@@ -0,0 +1,353 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.Redis;
+import core.framework.redis.RedisAdmin;
+import core.framework.redis.RedisHash;
+import core.framework.redis.RedisList;
+import core.framework.redis.RedisPipeline;
+import core.framework.redis.RedisScript;
+import core.framework.redis.RedisSet;
+import core.framework.redis.RedisSortedSet;
+import core.framework.redis.RedisStream;
+import core.framework.util.Maps;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static core.framework.internal.redis.Protocol.Command.DEL;
+import static core.framework.internal.redis.Protocol.Command.MGET;
+import static core.framework.internal.redis.Protocol.Command.MSET;
+import static core.framework.internal.redis.Protocol.Command.PTTL;
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static core.framework.internal.redis.RedisEncodings.encode;
+
+/**
+ * spread keys over multiple redis hosts by consistent hashing, adding or removing host only remaps keys of neighbour virtual nodes,
+ * multi keys commands are split by shard, sent to all shards first then wait for replies, so it takes about one round trip
+ *
+ * @author neo
+ */
+public final class ShardedRedis implements Redis {
+    private static final int VIRTUAL_NODES = 160;
+
+    final RedisImpl[] shards;
+    private final RedisSet redisSet = new ShardedRedisSet(this);
+    private final RedisHash redisHash = new ShardedRedisHash(this);
+    private final RedisList redisList = new ShardedRedisList(this);
+    private final RedisSortedSet redisSortedSet = new ShardedRedisSortedSet(this);
+    private final RedisStream redisStream = new ShardedRedisStream(this);
+    private final long[] ring;      // sorted hashes of virtual nodes
+    private final int[] ringShards; // shard index of each virtual node
+
+    // murmur3 fmix64 on top of fnv-1a, fnv-1a alone doesn't spread similar keys well
+    static long hash(CharSequence value, int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // execute pipelines of all shards in parallel, all pipelines must be received to return connections even if some failed
+    static void execute(List<RedisPipelineImpl> pipelines) {
+        RuntimeException exception = null;
+        int sent = 0;
+        try {
+            for (RedisPipelineImpl pipeline : pipelines) {
+                pipeline.send();
+                sent++;
+            }
+        } catch (RuntimeException e) {
+            exception = e;
+        }
+        for (int i = 0; i < sent; i++) {
+            try {
+                pipelines.get(i).receive();
+            } catch (RuntimeException e) {
+                if (exception == null) exception = e;
+            }
+        }
+        if (exception != null) throw exception;
+    }
+
+    public ShardedRedis(List<RedisImpl> shards) {
+        if (shards.isEmpty()) throw new Error("shards must not be empty");
+        this.shards = shards.toArray(RedisImpl[]::new);
+        int size = this.shards.length * VIRTUAL_NODES;
+        long[][] nodes = new long[size][];
+        for (int i = 0; i < this.shards.length; i++) {
+            RedisHost host = this.shards[i].host;
+            if (host == null) throw new Error("redis.host must not be null");
+            for (int j = 0; j < VIRTUAL_NODES; j++) {
+                String node = host + "-" + j;   // position of node only depends on host, so order of hosts doesn't matter
+                nodes[i * VIRTUAL_NODES + j] = new long[]{hash(node, 0, node.length()), i};
+            }
+        }
+        Arrays.sort(nodes, (node1, node2) -> Long.compare(node1[0], node2[0]));
+        ring = new long[size];
+        ringShards = new int[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = nodes[i][0];
+            ringShards[i] = (int) nodes[i][1];
+        }
+    }
+
+    // support hash tag as redis cluster, e.g. "{user:1}:profile" and "{user:1}:orders" are always in same shard
+    int shardIndex(String key) {
+        if (shards.length == 1) return 0;
+        int start = 0;
+        int end = key.length();
+        int tagStart = key.indexOf('{');
+        if (tagStart >= 0) {
+            int tagEnd = key.indexOf('}', tagStart + 1);
+            if (tagEnd > tagStart + 1) {
+                start = tagStart + 1;
+                end = tagEnd;
+            }
+        }
+        int index = Arrays.binarySearch(ring, hash(key, start, end));
+        if (index < 0) index = -index - 1;
+        if (index == ring.length) index = 0;
+        return ringShards[index];
+    }
+
+    public RedisImpl shard(String key) {
+        return shards[shardIndex(key)];
+    }
+
+    // return key indexes of each shard
+    int[][] groupByShard(String[] keys) {
+        int[] shardIndexes = new int[keys.length];
+        int[] counts = new int[shards.length];
+        for (int i = 0; i < keys.length; i++) {
+            int shardIndex = shardIndex(keys[i]);
+            shardIndexes[i] = shardIndex;
+            counts[shardIndex]++;
+        }
+        int[][] groups = new int[shards.length][];
+        for (int i = 0; i < shards.length; i++) {
+            groups[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            int shardIndex = shardIndexes[i];
+            groups[shardIndex][counts[shardIndex]++] = i;
+        }
+        return groups;
+    }
+
+    // return shard index if all keys are in same shard, otherwise -1
+    private int singleShard(int[][] groups, int size) {
+        for (int i = 0; i < groups.length; i++) {
+            if (groups[i].length == size) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public String get(String key) {
+        return shard(key).get(key);
+    }
+
+    @Override
+    public boolean set(String key, String value, Duration expiration, boolean onlyIfAbsent) {
+        return shard(key).set(key, value, expiration, onlyIfAbsent);
+    }
+
+    @Override
+    public RedisSet set() {
+        return redisSet;
+    }
+
+    @Override
+    public void expire(String key, Duration duration) {
+        shard(key).expire(key, duration);
+    }
+
+    @Override
+    public long del(String... keys) {
+        if (keys.length == 0) throw new Error("keys must not be empty");
+        int[][] groups = groupByShard(keys);
+        int shardIndex = singleShard(groups, keys.length);
+        if (shardIndex >= 0) return shards[shardIndex].del(keys);
+
+        List<RedisPipelineImpl> pipelines = new ArrayList<>(shards.length);
+        List<Supplier<Long>> results = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            if (groups[i].length == 0) continue;
+            var pipeline = new RedisPipelineImpl(shards[i]);
+            results.add(pipeline.write(value -> (Long) value, RedisPipelineImpl.arguments(DEL, null, keys(keys, groups[i]))));
+            pipelines.add(pipeline);
+        }
+        execute(pipelines);
+        long deletedKeys = 0;
+        for (Supplier<Long> result : results) {
+            deletedKeys += result.get();
+        }
+        return deletedKeys;
+    }
+
+    @Override
+    public long increaseBy(String key, long increment) {
+        return shard(key).increaseBy(key, increment);
+    }
+
+    @Override
+    public Map<String, String> multiGet(String... keys) {
+        if (keys.length == 0) throw new Error("keys must not be empty");
+        int[][] groups = groupByShard(keys);
+        int shardIndex = singleShard(groups, keys.length);
+        if (shardIndex >= 0) return shards[shardIndex].multiGet(keys);
+
+        List<RedisPipelineImpl> pipelines = new ArrayList<>(shards.length);
+        List<Supplier<Object[]>> results = new ArrayList<>(shards.length);
+        List<int[]> resultGroups = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            if (groups[i].length == 0) continue;
+            var pipeline = new RedisPipelineImpl(shards[i]);
+            results.add(pipeline.read(value -> (Object[]) value, RedisPipelineImpl.arguments(MGET, null, keys(keys, groups[i]))));
+            resultGroups.add(groups[i]);
+            pipelines.add(pipeline);
+        }
+        execute(pipelines);
+        byte[][] values = new byte[keys.length][];
+        int size = 0;
+        for (int i = 0; i < results.size(); i++) {
+            Object[] response = results.get(i).get();
+            int[] group = resultGroups.get(i);
+            for (int j = 0; j < group.length; j++) {
+                byte[] value = (byte[]) response[j];
+                values[group[j]] = value;
+                if (value != null) size++;
+            }
+        }
+        Map<String, String> result = Maps.newLinkedHashMapWithExpectedSize(size);     // keep same order as keys
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) result.put(keys[i], decode(values[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public void multiSet(Map<String, String> values) {
+        if (values.isEmpty()) throw new Error("values must not be empty");
+        String[] keys = values.keySet().toArray(String[]::new);
+        int[][] groups = groupByShard(keys);
+        int shardIndex = singleShard(groups, keys.length);
+        if (shardIndex >= 0) {
+            shards[shardIndex].multiSet(values);
+            return;
+        }
+
+        List<RedisPipelineImpl> pipelines = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            int[] group = groups[i];
+            if (group.length == 0) continue;
+            byte[][] arguments = new byte[1 + group.length * 2][];
+            arguments[0] = MSET;
+            for (int j = 0; j < group.length; j++) {
+                String key = keys[group[j]];
+                arguments[1 + j * 2] = encode(key);
+                arguments[2 + j * 2] = encode(values.get(key));
+            }
+            var pipeline = new RedisPipelineImpl(shards[i]);
+            pipeline.write(value -> value, arguments);
+            pipelines.add(pipeline);
+        }
+        execute(pipelines);
+    }
+
+    public long[] expirationTime(String... keys) {
+        if (keys.length == 0) throw new Error("keys must not be empty");
+        int[][] groups = groupByShard(keys);
+        int shardIndex = singleShard(groups, keys.length);
+        if (shardIndex >= 0) return shards[shardIndex].expirationTime(keys);
+
+        List<RedisPipelineImpl> pipelines = new ArrayList<>(shards.length);
+        List<Supplier<Long>> results = new ArrayList<>(Collections.nCopies(keys.length, null));
+        for (int i = 0; i < shards.length; i++) {
+            if (groups[i].length == 0) continue;
+            var pipeline = new RedisPipelineImpl(shards[i]);
+            for (int index : groups[i]) {
+                results.set(index, pipeline.read(value -> (Long) value, PTTL, encode(keys[index])));
+            }
+            pipelines.add(pipeline);
+        }
+        execute(pipelines);
+        long[] expirationTimes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            expirationTimes[i] = results.get(i).get();
+        }
+        return expirationTimes;
+    }
+
+    @Override
+    public RedisHash hash() {
+        return redisHash;
+    }
+
+    @Override
+    public RedisList list() {
+        return redisList;
+    }
+
+    @Override
+    public RedisSortedSet sortedSet() {
+        return redisSortedSet;
+    }
+
+    @Override
+    public RedisStream stream() {
+        return redisStream;
+    }
+
+    @Override
+    public void forEach(String pattern, @Nullable String type, int batchSize, Consumer<String> consumer) {
+        for (RedisImpl shard : shards) {
+            shard.forEach(pattern, type, batchSize, consumer);
+        }
+    }
+
+    @Override
+    public RedisPipeline pipeline() {
+        return new ShardedRedisPipeline(this);
+    }
+
+    @Override
+    public RedisScript script(String script) {
+        return (keys, arguments) -> {
+            if (keys.isEmpty()) throw new Error("keys must not be empty to locate shard");
+            int shardIndex = shardIndex(keys.get(0));
+            for (int i = 1; i < keys.size(); i++) {
+                if (shardIndex(keys.get(i)) != shardIndex) throw new Error("all keys must be in same shard, please use hash tag, keys=" + keys);
+            }
+            return shards[shardIndex].script(script).execute(keys, arguments);
+        };
+    }
+
+    @Override
+    public RedisAdmin admin() {
+        throw new Error("sharded redis does not support admin, please use redis client of each host");
+    }
+
+    private String[] keys(String[] keys, int[] indexes) {
+        String[] results = new String[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            results[i] = keys[indexes[i]];
+        }
+        return results;
+    }
+}
@@ -0,0 +1,52 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisHash;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * @author neo
+ */
+final class ShardedRedisHash implements RedisHash {
+    private final ShardedRedis redis;
+
+    ShardedRedisHash(ShardedRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public String get(String key, String field) {
+        return redis.shard(key).hash().get(key, field);
+    }
+
+    @Override
+    public Map<String, String> getAll(String key) {
+        return redis.shard(key).hash().getAll(key);
+    }
+
+    @Override
+    public void set(String key, String field, String value) {
+        redis.shard(key).hash().set(key, field, value);
+    }
+
+    @Override
+    public void multiSet(String key, Map<String, String> values) {
+        redis.shard(key).hash().multiSet(key, values);
+    }
+
+    @Override
+    public long increaseBy(String key, String field, long increment) {
+        return redis.shard(key).hash().increaseBy(key, field, increment);
+    }
+
+    @Override
+    public long del(String key, String... fields) {
+        return redis.shard(key).hash().del(key, fields);
+    }
+
+    @Override
+    public void forEach(String key, int batchSize, BiConsumer<String, String> consumer) {
+        redis.shard(key).hash().forEach(key, batchSize, consumer);
+    }
+}
@@ -0,0 +1,31 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisList;
+
+import java.util.List;
+
+/**
+ * @author neo
+ */
+final class ShardedRedisList implements RedisList {
+    private final ShardedRedis redis;
+
+    ShardedRedisList(ShardedRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public String pop(String key) {
+        return redis.shard(key).list().pop(key);
+    }
+
+    @Override
+    public long push(String key, String... values) {
+        return redis.shard(key).list().push(key, values);
+    }
+
+    @Override
+    public List<String> range(String key, long start, long end) {
+        return redis.shard(key).list().range(key, start, end);
+    }
+}
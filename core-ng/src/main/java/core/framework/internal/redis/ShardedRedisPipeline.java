@@ -0,0 +1,145 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisPipeline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * route commands to pipeline of each shard, and execute all shards in parallel
+ *
+ * @author neo
+ */
+final class ShardedRedisPipeline implements RedisPipeline {
+    private final ShardedRedis redis;
+    private final RedisPipelineImpl[] pipelines;
+    private boolean executed;
+
+    ShardedRedisPipeline(ShardedRedis redis) {
+        this.redis = redis;
+        pipelines = new RedisPipelineImpl[redis.shards.length];
+    }
+
+    @Override
+    public Supplier<String> get(String key) {
+        return pipeline(key).get(key);
+    }
+
+    @Override
+    public Supplier<Boolean> set(String key, String value, Duration expiration, boolean onlyIfAbsent) {
+        return pipeline(key).set(key, value, expiration, onlyIfAbsent);
+    }
+
+    @Override
+    public void expire(String key, Duration duration) {
+        pipeline(key).expire(key, duration);
+    }
+
+    @Override
+    public Supplier<Long> del(String... keys) {
+        if (keys.length == 0) throw new Error("keys must not be empty");
+        int[][] groups = redis.groupByShard(keys);
+        List<Supplier<Long>> results = new ArrayList<>(groups.length);
+        for (int i = 0; i < groups.length; i++) {
+            int[] group = groups[i];
+            if (group.length == 0) continue;
+            String[] shardKeys = new String[group.length];
+            for (int j = 0; j < group.length; j++) {
+                shardKeys[j] = keys[group[j]];
+            }
+            results.add(pipeline(i).del(shardKeys));
+        }
+        return () -> {
+            long deletedKeys = 0;
+            for (Supplier<Long> result : results) {
+                deletedKeys += result.get();
+            }
+            return deletedKeys;
+        };
+    }
+
+    @Override
+    public Supplier<Long> increaseBy(String key, long increment) {
+        return pipeline(key).increaseBy(key, increment);
+    }
+
+    @Override
+    public Supplier<String> hashGet(String key, String field) {
+        return pipeline(key).hashGet(key, field);
+    }
+
+    @Override
+    public Supplier<Map<String, String>> hashGetAll(String key) {
+        return pipeline(key).hashGetAll(key);
+    }
+
+    @Override
+    public void hashMultiSet(String key, Map<String, String> values) {
+        pipeline(key).hashMultiSet(key, values);
+    }
+
+    @Override
+    public Supplier<Long> hashIncreaseBy(String key, String field, long increment) {
+        return pipeline(key).hashIncreaseBy(key, field, increment);
+    }
+
+    @Override
+    public Supplier<Long> hashDel(String key, String... fields) {
+        return pipeline(key).hashDel(key, fields);
+    }
+
+    @Override
+    public Supplier<Long> setAdd(String key, String... values) {
+        return pipeline(key).setAdd(key, values);
+    }
+
+    @Override
+    public Supplier<Set<String>> setMembers(String key) {
+        return pipeline(key).setMembers(key);
+    }
+
+    @Override
+    public Supplier<Long> setRemove(String key, String... values) {
+        return pipeline(key).setRemove(key, values);
+    }
+
+    @Override
+    public Supplier<Long> listPush(String key, String... values) {
+        return pipeline(key).listPush(key, values);
+    }
+
+    @Override
+    public Supplier<List<String>> listRange(String key, long start, long end) {
+        return pipeline(key).listRange(key, start, end);
+    }
+
+    @Override
+    public void execute() {
+        if (executed) throw new Error("pipeline is already executed");
+        List<RedisPipelineImpl> pipelines = new ArrayList<>(this.pipelines.length);
+        for (RedisPipelineImpl pipeline : this.pipelines) {
+            if (pipeline != null) pipelines.add(pipeline);
+        }
+        if (pipelines.isEmpty()) throw new Error("commands must not be empty");
+        executed = true;
+        ShardedRedis.execute(pipelines);
+    }
+
+    private RedisPipelineImpl pipeline(String key) {
+        return pipeline(redis.shardIndex(key));
+    }
+
+    private RedisPipelineImpl pipeline(int shardIndex) {
+        if (executed) throw new Error("pipeline is already executed");
+        RedisPipelineImpl pipeline = pipelines[shardIndex];
+        if (pipeline == null) {
+            pipeline = new RedisPipelineImpl(redis.shards[shardIndex]);
+            pipelines[shardIndex] = pipeline;
+        }
+        return pipeline;
+    }
+}
@@ -0,0 +1,52 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisSet;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * @author neo
+ */
+final class ShardedRedisSet implements RedisSet {
+    private final ShardedRedis redis;
+
+    ShardedRedisSet(ShardedRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public long add(String key, String... values) {
+        return redis.shard(key).set().add(key, values);
+    }
+
+    @Override
+    public Set<String> members(String key) {
+        return redis.shard(key).set().members(key);
+    }
+
+    @Override
+    public boolean isMember(String key, String value) {
+        return redis.shard(key).set().isMember(key, value);
+    }
+
+    @Override
+    public long remove(String key, String... values) {
+        return redis.shard(key).set().remove(key, values);
+    }
+
+    @Override
+    public Set<String> pop(String key, long count) {
+        return redis.shard(key).set().pop(key, count);
+    }
+
+    @Override
+    public long size(String key) {
+        return redis.shard(key).set().size(key);
+    }
+
+    @Override
+    public void forEach(String key, int batchSize, Consumer<String> consumer) {
+        redis.shard(key).set().forEach(key, batchSize, consumer);
+    }
+}
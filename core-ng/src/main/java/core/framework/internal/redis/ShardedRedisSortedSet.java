@@ -0,0 +1,56 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisSortedSet;
+
+import java.util.Map;
+
+/**
+ * @author neo
+ */
+final class ShardedRedisSortedSet implements RedisSortedSet {
+    private final ShardedRedis redis;
+
+    ShardedRedisSortedSet(ShardedRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public long add(String key, Map<String, Long> values, boolean onlyIfAbsent) {
+        return redis.shard(key).sortedSet().add(key, values, onlyIfAbsent);
+    }
+
+    @Override
+    public long increaseScoreBy(String key, String value, long increment) {
+        return redis.shard(key).sortedSet().increaseScoreBy(key, value, increment);
+    }
+
+    @Override
+    public Map<String, Long> rangeByScore(String key, long minScore, long maxScore, long offset, long limit) {
+        return redis.shard(key).sortedSet().rangeByScore(key, minScore, maxScore, offset, limit);
+    }
+
+    @Override
+    public Map<String, Long> reverseRange(String key, long start, long stop) {
+        return redis.shard(key).sortedSet().reverseRange(key, start, stop);
+    }
+
+    @Override
+    public Long rank(String key, String value) {
+        return redis.shard(key).sortedSet().rank(key, value);
+    }
+
+    @Override
+    public Map<String, Long> popMin(String key, long count) {
+        return redis.shard(key).sortedSet().popMin(key, count);
+    }
+
+    @Override
+    public long removeByScore(String key, long minScore, long maxScore) {
+        return redis.shard(key).sortedSet().removeByScore(key, minScore, maxScore);
+    }
+
+    @Override
+    public long size(String key) {
+        return redis.shard(key).sortedSet().size(key);
+    }
+}
@@ -0,0 +1,50 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisStream;
+import core.framework.redis.RedisStreamMessage;
+import core.framework.redis.RedisStreamPendingMessage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author neo
+ */
+final class ShardedRedisStream implements RedisStream {
+    private final ShardedRedis redis;
+
+    ShardedRedisStream(ShardedRedis redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    public String add(String key, Map<String, String> fields, long maxLength) {
+        return redis.shard(key).stream().add(key, fields, maxLength);
+    }
+
+    @Override
+    public boolean createGroup(String key, String group) {
+        return redis.shard(key).stream().createGroup(key, group);
+    }
+
+    @Override
+    public List<RedisStreamMessage> readGroup(String key, String group, String consumer, int count, Duration block) {
+        return redis.shard(key).stream().readGroup(key, group, consumer, count, block);
+    }
+
+    @Override
+    public long ack(String key, String group, String... ids) {
+        return redis.shard(key).stream().ack(key, group, ids);
+    }
+
+    @Override
+    public List<RedisStreamPendingMessage> pending(String key, String group, int count) {
+        return redis.shard(key).stream().pending(key, group, count);
+    }
+
+    @Override
+    public List<RedisStreamMessage> claim(String key, String group, String consumer, Duration minIdleTime, String... ids) {
+        return redis.shard(key).stream().claim(key, group, consumer, minIdleTime, ids);
+    }
+}
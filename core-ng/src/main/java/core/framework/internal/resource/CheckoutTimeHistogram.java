@@ -0,0 +1,31 @@
+package core.framework.internal.resource;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * count checkouts by elapsed time within each collect interval, LongAdder to avoid contention between borrowers
+ *
+ * @author neo
+ */
+final class CheckoutTimeHistogram {
+    static final long[] BUCKETS_IN_NANOS = {1_000_000, 10_000_000, 100_000_000, 1_000_000_000};     // 1ms, 10ms, 100ms, 1s
+    static final String[] BUCKET_NAMES = {"1ms", "10ms", "100ms", "1s", "inf"};
+
+    final LongAdder[] counts = new LongAdder[BUCKETS_IN_NANOS.length + 1];
+    final AtomicLong maxElapsed = new AtomicLong();
+
+    CheckoutTimeHistogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void record(long elapsed) {
+        int index = 0;
+        while (index < BUCKETS_IN_NANOS.length && elapsed > BUCKETS_IN_NANOS[index]) index++;
+        counts[index].increment();
+        long max = maxElapsed.get();
+        if (elapsed > max) maxElapsed.accumulateAndGet(elapsed, Math::max);   // read first to avoid CAS in most cases
+    }
+}
@@ -6,10 +6,11 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.Iterator;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 import static core.framework.log.Markers.errorCode;
@@ -21,15 +22,23 @@ import static core.framework.log.Markers.errorCode;
  * is to keep original exception, and simplify context variable access (read or write var within method),
  * <p>
  * the downside is boilerplate code, so to keep it only for internal
+ * <p>
+ * borrow tries item last used by current thread first, then lock free idle queue, only waits on lock if pool is exhausted,
+ * so borrowers don't contend on same lock under high concurrency
  *
  * @author neo
  */
 public class Pool<T extends AutoCloseable> {
-    final BlockingDeque<PoolItem<T>> idleItems = new LinkedBlockingDeque<>();
+    final ConcurrentLinkedDeque<PoolItem<T>> idleItems = new ConcurrentLinkedDeque<>();    // may contain items in use or closed, which are skipped on poll
     final String name;
     final AtomicInteger size = new AtomicInteger(0);
+    final CheckoutTimeHistogram checkoutTime = new CheckoutTimeHistogram();
     private final Logger logger = LoggerFactory.getLogger(Pool.class);
     private final Supplier<T> factory;
+    private final ThreadLocal<PoolItem<T>> lastUsedItem = new ThreadLocal<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger(0);
     public Duration maxIdleTime = Duration.ofMinutes(30);
     private int minSize = 1;
     private int maxSize = 50;
@@ -57,8 +66,20 @@ public class Pool<T extends AutoCloseable> {
     }
 
     public PoolItem<T> borrowItem() {
+        long start = System.nanoTime();
+        try {
+            return acquireItem();
+        } finally {
+            checkoutTime.record(System.nanoTime() - start);
+        }
+    }
+
+    private PoolItem<T> acquireItem() {
+        PoolItem<T> item = lastUsedItem.get();
+        if (item != null && item.acquire() && check(item)) return item;
+
         while (true) {
-            PoolItem<T> item = idleItems.poll();
+            item = pollIdleItem();
             if (item != null) {
                 if (check(item)) return item;
                 else continue;
@@ -67,11 +88,21 @@ public class Pool<T extends AutoCloseable> {
             if (size.get() < maxSize) {
                 return createNewItem();         // do not need to check newly created resource
             } else {
-                return waitNextAvailableItem(); // do not need to check valid since it's just returned resource
+                item = waitNextAvailableItem(); // do not need to check valid since it's just returned resource
+                if (item != null) return item;
             }
         }
     }
 
+    private PoolItem<T> pollIdleItem() {
+        while (true) {
+            PoolItem<T> item = idleItems.poll();
+            if (item == null) return null;
+            item.queued.set(false);     // must clear before acquire, so returnItem will queue it again if acquire failed as it's still in use
+            if (item.acquire()) return item;
+        }
+    }
+
     private boolean check(PoolItem<T> item) {
         if (validator == null || System.currentTimeMillis() - item.returnTime < aliveWindowInMs) return true;
         boolean valid;
@@ -96,19 +127,42 @@ public class Pool<T extends AutoCloseable> {
             closeItem(item);
         } else {
             item.returnTime = System.currentTimeMillis();
-            idleItems.push(item);
+            item.state.set(PoolItem.IDLE);
+            lastUsedItem.set(item);
+            if (item.queued.compareAndSet(false, true)) idleItems.push(item);
+        }
+        if (waiters.get() > 0) signalWaiter();    // waiter increases count before polling, so it won't miss returned item
+    }
+
+    private void signalWaiter() {
+        lock.lock();
+        try {
+            available.signal();
+        } finally {
+            lock.unlock();
         }
     }
 
+    // return null if there is room to create new item, e.g. broken item was closed
     private PoolItem<T> waitNextAvailableItem() {
         var watch = new StopWatch();
+        long end = System.currentTimeMillis() + checkoutTimeoutInMs;
+        lock.lock();
+        waiters.incrementAndGet();
         try {
-            PoolItem<T> item = idleItems.poll(checkoutTimeoutInMs, TimeUnit.MILLISECONDS);
-            if (item == null) throw new PoolException("timeout to wait for next available resource", "POOL_TIME_OUT");
-            return item;
+            while (true) {
+                PoolItem<T> item = pollIdleItem();
+                if (item != null) return item;
+                if (size.get() < maxSize) return null;
+                long timeout = end - System.currentTimeMillis();
+                if (timeout <= 0) throw new PoolException("timeout to wait for next available resource", "POOL_TIME_OUT");
+                available.await(timeout, TimeUnit.MILLISECONDS);
+            }
         } catch (InterruptedException e) {
             throw new Error("interrupted during waiting for next available resource", e);
         } finally {
+            waiters.decrementAndGet();
+            lock.unlock();
             logger.debug("wait for next available resource, pool={}, elapsed={}", name, watch.elapsed());
         }
     }
@@ -133,13 +187,22 @@ public class Pool<T extends AutoCloseable> {
     }
 
     int activeCount() {
-        return totalCount() - idleItems.size();
+        return totalCount() - idleCount();
     }
 
     int totalCount() {
         return size.get();
     }
 
+    int idleCount() {
+        int count = 0;
+        for (PoolItem<T> item : idleItems) {
+            if (item.state.get() == PoolItem.IDLE) count++;
+        }
+        return count;
+    }
+
+    // items reused by same thread keep position in queue, so it has to check all items rather than stop at first one not expired
     private void evictIdleItems() {
         Iterator<PoolItem<T>> iterator = idleItems.descendingIterator();
         long maxIdleTimeInMs = maxIdleTime.toMillis();
@@ -147,12 +210,10 @@ public class Pool<T extends AutoCloseable> {
 
         while (iterator.hasNext()) {
             PoolItem<T> item = iterator.next();
-            if (now - item.returnTime >= maxIdleTimeInMs) {
-                boolean removed = idleItems.remove(item);
-                if (!removed) return;
-                closeItem(item);
-            } else {
-                return;
+            if (now - item.returnTime >= maxIdleTimeInMs && item.state.compareAndSet(PoolItem.IDLE, PoolItem.CLOSED)) {
+                iterator.remove();
+                size.decrementAndGet();
+                closeResource(item);
             }
         }
     }
@@ -164,6 +225,7 @@ public class Pool<T extends AutoCloseable> {
     }
 
     private void closeItem(PoolItem<T> item) {
+        item.state.set(PoolItem.CLOSED);    // entry in idle queue or thread local will be skipped
         size.decrementAndGet();
         closeResource(item);
     }
@@ -181,7 +243,7 @@ public class Pool<T extends AutoCloseable> {
         while (true) {
             PoolItem<T> item = idleItems.poll();
             if (item == null) return;
-            closeResource(item);
+            if (item.state.compareAndSet(PoolItem.IDLE, PoolItem.CLOSED)) closeResource(item);
         }
     }
 }
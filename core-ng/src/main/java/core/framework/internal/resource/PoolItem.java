@@ -1,14 +1,28 @@
 package core.framework.internal.resource;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author neo
  */
 public final class PoolItem<T> {
+    static final int IN_USE = 0;
+    static final int IDLE = 1;
+    static final int CLOSED = 2;
+
     public final T resource;
+    // item can be referred by both idle queue and thread local of last borrower, only the one changed state from IDLE to IN_USE owns it
+    final AtomicInteger state = new AtomicInteger(IN_USE);
+    final AtomicBoolean queued = new AtomicBoolean();  // whether item is in idle queue, to keep at most one entry per item
     public boolean broken;
     long returnTime;    // according to profiling, use System.currentTimeMillis instead of Instant.now()
 
     public PoolItem(T resource) {
         this.resource = resource;
     }
+
+    boolean acquire() {
+        return state.compareAndSet(IDLE, IN_USE);
+    }
 }
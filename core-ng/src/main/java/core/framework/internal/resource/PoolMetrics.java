@@ -15,8 +15,18 @@ public class PoolMetrics implements Metrics {
 
     @Override
     public void collect(Stats stats) {
-        stats.put(statName("total_count"), pool.totalCount());
-        stats.put(statName("active_count"), pool.activeCount());
+        int total = pool.totalCount();
+        int idle = pool.idleCount();
+        stats.put(statName("total_count"), total);
+        stats.put(statName("active_count"), total - idle);
+        stats.put(statName("idle_count"), idle);
+
+        // checkout time since last collect, count of each bucket is number of checkouts took no longer than bucket and longer than previous one
+        CheckoutTimeHistogram histogram = pool.checkoutTime;
+        for (int i = 0; i < histogram.counts.length; i++) {
+            stats.put(statName("checkout_" + CheckoutTimeHistogram.BUCKET_NAMES[i]), histogram.counts[i].sumThenReset());
+        }
+        stats.put(statName("checkout_max_elapsed"), histogram.maxElapsed.getAndSet(0));
     }
 
     String statName(String statName) {
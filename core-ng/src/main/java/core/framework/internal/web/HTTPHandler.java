@@ -17,16 +17,25 @@ import core.framework.internal.web.response.ResponseImpl;
 import core.framework.internal.web.route.Route;
 import core.framework.internal.web.session.SessionManager;
 import core.framework.internal.web.site.TemplateManager;
+import core.framework.internal.web.sse.ServerSentEventHandler;
 import core.framework.internal.web.websocket.WebSocketHandler;
 import core.framework.web.Response;
+import io.undertow.server.Connectors;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.HeaderMap;
 import io.undertow.util.HttpString;
+import io.undertow.util.SameThreadExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author neo
@@ -54,7 +63,9 @@ public class HTTPHandler implements HttpHandler {
     private final ResponseHandler responseHandler;
 
     public WebSocketHandler webSocketHandler;
+    public ServerSentEventHandler sseHandler;
     public IPv4AccessControl accessControl;
+    public long asyncTimeoutInMs = 30_000;      // not to hold exchange, action log and in-flight request forever if async response never completes
 
     HTTPHandler(LogManager logManager, SessionManager sessionManager, TemplateManager templateManager) {
         this.logManager = logManager;
@@ -76,6 +87,7 @@ public class HTTPHandler implements HttpHandler {
     private void handle(HttpServerExchange exchange) {
         ActionLog actionLog = logManager.begin("=== http transaction begin ===");
         var request = new RequestImpl(exchange, requestBeanReader);
+        boolean async = false;
         try {
             webContext.initialize(request);
             requestParser.parse(request, exchange, actionLog);
@@ -90,6 +102,11 @@ public class HTTPHandler implements HttpHandler {
                 return; // with WebSocket, not save session
             }
 
+            if (sseHandler != null && sseHandler.check(request.method(), request.path())) {
+                sseHandler.handle(exchange, request, actionLog);
+                return; // with sse, not save session
+            }
+
             ControllerHolder controller = route.get(request.path(), request.method(), request.pathParams, actionLog);
             actionLog.action(controller.action);
             actionLog.context("controller", controller.controllerInfo);
@@ -97,14 +114,52 @@ public class HTTPHandler implements HttpHandler {
 
             request.session = sessionManager.load(request, actionLog);  // load session as late as possible, so for sniffer/scan request with sessionId, it won't call redis every time even for 404/405
 
-            Response response = new InvocationImpl(controller, interceptors, request, webContext).proceed();
-            responseHandler.render(request, (ResponseImpl) response, exchange, actionLog);
+            var response = (ResponseImpl) new InvocationImpl(controller, interceptors, request, webContext).proceed();
+            CompletionStage<Response> asyncResponse = response.asyncResponse();
+            if (asyncResponse != null) {
+                handleAsync(exchange, request, response, asyncResponse, actionLog);
+                async = true;
+                return;
+            }
+            responseHandler.render(request, response, exchange, actionLog);
         } catch (Throwable e) {
             logManager.logError(e);
             errorHandler.handleError(e, exchange, request, actionLog);
         } finally {
             // refer to io.undertow.io.AsyncSenderImpl.send(java.nio.ByteBuffer, io.undertow.io.IoCallback),
             // sender.send() will write response until can't write more, then call channel.resumeWrites(), which will resume after this finally block finished, so this can be small delay
+            webContext.cleanup();
+            if (async) logManager.detach();  // action log will be ended by thread renders response
+            else logManager.end("=== http transaction end ===");
+        }
+    }
+
+    // keep exchange open after current handler returns, wait for completion without holding worker thread, then render response on worker thread
+    private void handleAsync(HttpServerExchange exchange, RequestImpl request, ResponseImpl response, CompletionStage<Response> asyncResponse, ActionLog actionLog) {
+        logger.debug("wait for async response");
+        Map<String, Object> context = webContext.context();
+        // listen after current handler returns, so completion never runs concurrently with cleanup of current thread
+        CompletionStage<Response> timedResponse = withTimeout(asyncResponse);
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> timedResponse.whenComplete((result, error) ->
+                exchange.dispatch(() -> Connectors.executeRootHandler(completedExchange -> complete(completedExchange, request, response, context, actionLog, result, error), exchange))));
+    }
+
+    CompletionStage<Response> withTimeout(CompletionStage<Response> asyncResponse) {
+        return asyncResponse.toCompletableFuture().orTimeout(asyncTimeoutInMs, TimeUnit.MILLISECONDS);
+    }
+
+    void complete(HttpServerExchange exchange, RequestImpl request, ResponseImpl response, Map<String, Object> context, ActionLog actionLog, Response result, Throwable error) {
+        logManager.attach(actionLog);
+        webContext.initialize(request, context);
+        try {
+            logger.debug("async response completed");
+            if (error instanceof TimeoutException) throw new Error("async response timed out, timeout=" + Duration.ofMillis(asyncTimeoutInMs), error);
+            if (error != null) throw error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            responseHandler.render(request, response.complete(result), exchange, actionLog);
+        } catch (Throwable e) {
+            logManager.logError(e);
+            errorHandler.handleError(e, exchange, request, actionLog);
+        } finally {
             webContext.cleanup();
             logManager.end("=== http transaction end ===");
         }
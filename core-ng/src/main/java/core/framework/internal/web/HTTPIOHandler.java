@@ -1,14 +1,23 @@
 package core.framework.internal.web;
 
+import core.framework.http.HTTPMethod;
+import core.framework.internal.web.http.ConcurrencyLimiter;
 import core.framework.internal.web.request.RequestBodyReader;
+import core.framework.internal.web.sse.ServerSentEventHandler;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.form.FormDataParser;
 import io.undertow.server.handlers.form.FormParserFactory;
+import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
 import io.undertow.util.Methods;
+import io.undertow.util.StatusCodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.xnio.channels.StreamSourceChannel;
 
+import javax.annotation.Nullable;
+
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
@@ -16,13 +25,17 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  */
 public class HTTPIOHandler implements HttpHandler {
     public static final String HEALTH_CHECK_PATH = "/health-check";
+    private final Logger logger = LoggerFactory.getLogger(HTTPIOHandler.class);
     private final FormParserFactory formParserFactory;
     private final HTTPHandler handler;
     private final ShutdownHandler shutdownHandler;
+    @Nullable
+    private final ConcurrencyLimiter limiter;
 
-    HTTPIOHandler(HTTPHandler handler, ShutdownHandler shutdownHandler) {
+    HTTPIOHandler(HTTPHandler handler, ShutdownHandler shutdownHandler, @Nullable ConcurrencyLimiter limiter) {
         this.handler = handler;
         this.shutdownHandler = shutdownHandler;
+        this.limiter = limiter;
         var builder = FormParserFactory.builder();
         builder.setDefaultCharset(UTF_8.name());
         formParserFactory = builder.build();
@@ -38,6 +51,11 @@ public class HTTPIOHandler implements HttpHandler {
         boolean shutdown = shutdownHandler.handle(exchange);
         if (shutdown) return;
 
+        if (limiter != null && !exchange.getRequestPath().startsWith("/_sys/") && !sse(exchange)) {   // management requests are never limited, to be able to diagnose under overload
+            boolean rejected = limit(exchange, limiter);
+            if (rejected) return;
+        }
+
         if (hasBody(exchange)) {    // parse body early, not process until body is read (e.g. for chunked), to save one blocking thread during read
             FormDataParser parser = formParserFactory.createParser(exchange);
             if (parser != null) {
@@ -58,6 +76,32 @@ public class HTTPIOHandler implements HttpHandler {
         exchange.dispatch(handler);
     }
 
+    // reject on io thread, to fail fast without occupying worker thread or queue
+    boolean limit(HttpServerExchange exchange, ConcurrencyLimiter limiter) {
+        if (!limiter.acquire()) {
+            logger.debug("reject request due to concurrency limit, requestURL={}, limit={}", exchange.getRequestURL(), limiter.limit());
+            exchange.setStatusCode(StatusCodes.SERVICE_UNAVAILABLE);
+            exchange.getResponseHeaders().put(Headers.RETRY_AFTER, "1");
+            exchange.endExchange();
+            return true;
+        }
+        long start = System.nanoTime();
+        exchange.addExchangeCompleteListener((completedExchange, next) -> {
+            try {
+                limiter.release(System.nanoTime() - start);
+            } finally {
+                next.proceed();
+            }
+        });
+        return false;
+    }
+
+    // sse connection is long living, it should not be counted as in-flight request, only exempt registered sse path, not to let any request bypass limiter
+    boolean sse(HttpServerExchange exchange) {
+        ServerSentEventHandler sseHandler = handler.sseHandler;
+        return sseHandler != null && Methods.GET.equals(exchange.getRequestMethod()) && sseHandler.check(HTTPMethod.GET, exchange.getRequestPath());
+    }
+
     private boolean hasBody(HttpServerExchange exchange) {
         int length = (int) exchange.getRequestContentLength();
         if (length == 0) return false;  // if body is empty, skip reading
@@ -1,6 +1,7 @@
 package core.framework.internal.web;
 
 import core.framework.internal.log.LogManager;
+import core.framework.internal.web.http.ConcurrencyLimiter;
 import core.framework.internal.web.site.SiteManager;
 import core.framework.util.StopWatch;
 import io.undertow.Undertow;
@@ -31,6 +32,7 @@ public class HTTPServer {
     public Integer httpPort;
     public Integer httpsPort;
     public boolean gzip;
+    public ConcurrencyLimiter concurrencyLimiter;
     private Undertow server;
 
     public HTTPServer(LogManager logManager) {
@@ -71,7 +73,7 @@ public class HTTPServer {
     }
 
     private HttpHandler handler() {
-        HttpHandler handler = new HTTPIOHandler(this.handler, shutdownHandler);
+        HttpHandler handler = new HTTPIOHandler(this.handler, shutdownHandler, concurrencyLimiter);
         if (gzip) {
             // only support gzip, deflate is less popular
             handler = new EncodingHandler(handler, new ContentEncodingRepository()
@@ -86,6 +88,8 @@ public class HTTPServer {
             shutdownHandler.shutdown();
             if (handler.webSocketHandler != null)
                 handler.webSocketHandler.shutdown();
+            if (handler.sseHandler != null)
+                handler.sseHandler.shutdown();
         }
     }
 
@@ -9,6 +9,7 @@ import core.framework.internal.reflect.Classes;
 import core.framework.internal.reflect.GenericTypes;
 import core.framework.internal.reflect.Params;
 import core.framework.internal.web.service.HTTPMethods;
+import core.framework.internal.web.service.ResponseTypes;
 import core.framework.util.Lists;
 import core.framework.util.Maps;
 
@@ -50,7 +51,7 @@ public class APIDefinitionBuilder {
             operation.method = HTTPMethods.httpMethod(method);
             operation.path = method.getDeclaredAnnotation(Path.class).value();
             parseParams(operation, method);
-            operation.responseType = parseType(method.getGenericReturnType());
+            operation.responseType = parseType(ResponseTypes.responseType(method));
             service.operations.add(operation);
         }
 
@@ -29,10 +29,19 @@ public class WebContextImpl implements WebContext {
     }
 
     public void initialize(Request request) {
-        CONTEXT.set(new HashMap<>());
+        initialize(request, new HashMap<>());
+    }
+
+    // to carry context of async request to the thread which renders response
+    public void initialize(Request request, Map<String, Object> context) {
+        CONTEXT.set(context);
         REQUEST.set(request);
     }
 
+    public Map<String, Object> context() {
+        return CONTEXT.get();
+    }
+
     public void cleanup() {
         CONTEXT.remove();
         REQUEST.remove();
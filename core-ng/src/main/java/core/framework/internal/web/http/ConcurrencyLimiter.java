@@ -0,0 +1,102 @@
+package core.framework.internal.web.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * limit in-flight requests by gradient of latency, refer to netflix concurrency-limits Gradient2Limit,
+ * long term average latency is baseline, when latency of recent window rises above baseline * tolerance, limit decreases proportionally,
+ * otherwise limit grows by sqrt(limit) as queue allowance, only grows if in-flight requests reach half of limit, to avoid inflating limit under low traffic
+ *
+ * @author neo
+ */
+public final class ConcurrencyLimiter {
+    static final long WINDOW_IN_NANOS = 500_000_000;     // 500ms
+    private static final int MIN_SAMPLES = 10;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_WINDOW_FACTOR = 0.05;     // roughly average of last 20 windows
+
+    public final LongAdder rejected = new LongAdder();
+    final AtomicInteger inFlight = new AtomicInteger();
+    final int minLimit;
+    final int maxLimit;
+    private final Logger logger = LoggerFactory.getLogger(ConcurrencyLimiter.class);
+    private final LongAdder windowElapsed = new LongAdder();
+    private final LongAdder windowCount = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    double longElapsed;     // guarded by lock
+    private volatile int limit;
+    private volatile long windowEnd;
+
+    public ConcurrencyLimiter(int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > maxLimit) throw new Error("invalid limit, minLimit=" + minLimit + ", maxLimit=" + maxLimit);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        limit = maxLimit;   // start from max, and only decrease with latency rising, to not reject requests on startup
+        windowEnd = System.nanoTime() + WINDOW_IN_NANOS;
+    }
+
+    public boolean acquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        if (current > windowMaxInFlight.get()) windowMaxInFlight.accumulateAndGet(current, Math::max);     // read first to avoid CAS in most cases
+        return true;
+    }
+
+    public void release(long elapsed) {
+        inFlight.decrementAndGet();
+        windowElapsed.add(elapsed);
+        windowCount.increment();
+        long now = System.nanoTime();
+        if (now >= windowEnd && lock.tryLock()) {   // only one thread updates limit, others skip
+            try {
+                if (now >= windowEnd) {
+                    update();
+                    windowEnd = now + WINDOW_IN_NANOS;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    void update() {
+        long count = windowCount.sum();
+        if (count < MIN_SAMPLES) return;    // keep collecting until window has enough samples
+        double shortElapsed = (double) windowElapsed.sumThenReset() / windowCount.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(0);
+
+        if (longElapsed == 0) longElapsed = shortElapsed;
+        else longElapsed = longElapsed * (1 - LONG_WINDOW_FACTOR) + shortElapsed * LONG_WINDOW_FACTOR;
+        if (longElapsed > shortElapsed * 2) longElapsed *= 0.95;    // recover baseline faster after latency dropped
+
+        int current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longElapsed / shortElapsed));
+        double newLimit = current * gradient + Math.sqrt(current);
+        if (newLimit > current && maxInFlight < current / 2) return;    // not limited by concurrency, no need to grow
+        newLimit = current * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        int updatedLimit = (int) Math.max(minLimit, Math.min(maxLimit, Math.round(newLimit)));
+        if (updatedLimit != current) {
+            logger.debug("update concurrency limit, limit={}, previous={}, elapsed={}, longElapsed={}", updatedLimit, current, (long) shortElapsed, (long) longElapsed);
+            limit = updatedLimit;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package core.framework.internal.web.http;
+
+import core.framework.internal.stat.Metrics;
+import core.framework.internal.stat.Stats;
+
+/**
+ * @author neo
+ */
+public class ConcurrencyLimiterMetrics implements Metrics {
+    private final ConcurrencyLimiter limiter;
+
+    public ConcurrencyLimiterMetrics(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void collect(Stats stats) {
+        stats.put("http_concurrency_limit", limiter.limit());
+        stats.put("http_in_flight", limiter.inFlight());
+        long rejected = limiter.rejected.sumThenReset();
+        stats.put("http_rejected", rejected);
+        if (rejected > 0) {
+            stats.errorCode = "HTTP_OVERLOADED";
+            stats.errorMessage = "rejected requests due to concurrency limit, rejected=" + rejected + ", limit=" + limiter.limit();
+        }
+    }
+}
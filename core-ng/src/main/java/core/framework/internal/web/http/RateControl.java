@@ -1,23 +1,55 @@
 package core.framework.internal.web.http;
 
-import core.framework.internal.util.LRUMap;
+import core.framework.internal.redis.RedisException;
+import core.framework.redis.Redis;
+import core.framework.redis.RedisScript;
 import core.framework.util.Maps;
 import core.framework.web.exception.TooManyRequestsException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static core.framework.log.Markers.errorCode;
 
 /**
+ * rates are kept in concurrent map and each rate is locked individually, so requests from different clients don't contend,
+ * with redis, rate is enforced cluster wide by token bucket script, local rate is checked first as pre-admission,
+ * and client rejected by redis is rejected locally until next permit is available, to save redis round trips of rejected requests
+ *
  * @author neo
  */
 public class RateControl {
+    // return 0 if acquired, otherwise millis to wait until next permit, time is from redis server to be consistent across nodes
+    static final String ACQUIRE_SCRIPT = "redis.replicate_commands() "
+            + "local time = redis.call('time') "
+            + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) "
+            + "local maxPermits = tonumber(ARGV[1]) "
+            + "local fillRate = tonumber(ARGV[2]) "
+            + "local state = redis.call('hmget', KEYS[1], 'permits', 'time') "
+            + "local permits = tonumber(state[1]) or maxPermits "
+            + "local lastTime = tonumber(state[2]) or now "
+            + "permits = math.min(maxPermits, permits + math.max(0, now - lastTime) * fillRate) "
+            + "local wait = 0 "
+            + "if permits >= 1 then permits = permits - 1 else wait = math.ceil((1 - permits) / fillRate) end "
+            + "redis.call('hset', KEYS[1], 'permits', tostring(permits), 'time', tostring(now)) "
+            + "redis.call('pexpire', KEYS[1], math.ceil(maxPermits / fillRate) + 1000) "
+            + "return wait";
+
     private final Logger logger = LoggerFactory.getLogger(RateControl.class);
     private final int maxEntries;
+    private final ReentrantLock evictLock = new ReentrantLock();
+    final Map<String, Rate> rates = new ConcurrentHashMap<>();
 
     public Map<String, RateConfig> config;
-    private LRUMap<String, Rate> rates;
+    RedisScript acquireScript;
 
     public RateControl(int maxEntries) {
         this.maxEntries = maxEntries;
@@ -25,17 +57,16 @@ public class RateControl {
 
     // config is always called during initialization, so no concurrency issue
     public void config(String group, int maxPermits, int fillRate, TimeUnit unit) {
-        synchronized (this) {
-            if (config == null) {
-                config = Maps.newHashMap();
-                rates = new LRUMap<>(maxEntries);
-            }
-        }
+        if (config == null) config = Maps.newHashMap();
         double fillRatePerNano = ratePerNano(fillRate, unit);
         RateConfig previous = config.put(group, new RateConfig(maxPermits, fillRatePerNano));
         if (previous != null) throw new Error("found duplicate group, group=" + group);
     }
 
+    public void redis(Redis redis) {
+        acquireScript = redis.script(ACQUIRE_SCRIPT);
+    }
+
     public void validateRate(String group, String clientIP) {
         logger.debug("acquire, group={}, clientIP={}", group, clientIP);
         boolean acquired = acquire(group, clientIP);
@@ -57,12 +88,48 @@ public class RateControl {
         }
 
         String key = group + "/" + clientIP;
-        Rate rate;
-        synchronized (this) {
+        Rate rate = rates.get(key);     // get first, computeIfAbsent locks bin even if key exists
+        if (rate == null) {
             rate = rates.computeIfAbsent(key, k -> new Rate(config.maxPermits));
+            if (rates.size() > maxEntries) evict();
         }
         long currentTime = System.nanoTime();
-        return rate.acquire(currentTime, config.maxPermits, config.fillRatePerNano);
+        if (currentTime - rate.blockedUntil < 0) return false;
+        boolean acquired = rate.acquire(currentTime, config.maxPermits, config.fillRatePerNano);
+        if (!acquired || acquireScript == null) return acquired;    // if local rate is exceeded, cluster rate must be exceeded as well
+        return acquireRemotely(key, config, rate, currentTime);
+    }
+
+    private boolean acquireRemotely(String key, RateConfig config, Rate rate, long currentTime) {
+        try {
+            Long wait = (Long) acquireScript.execute(List.of("rate:" + key), String.valueOf(config.maxPermits), String.valueOf(config.fillRatePerNano * 1_000_000));
+            if (wait == null || wait == 0) return true;
+            rate.blockedUntil = currentTime + TimeUnit.MILLISECONDS.toNanos(wait);
+            return false;
+        } catch (UncheckedIOException | RedisException e) {
+            // fall back to local rate, not to fail requests if redis is not available
+            logger.warn(errorCode("RATE_CONTROL_FAILED"), "failed to acquire rate from redis, key={}", key, e);
+            return true;
+        }
+    }
+
+    // approximate lru, evict least recently updated rates in batch, to avoid sorting on every new key
+    void evict() {
+        if (!evictLock.tryLock()) return;   // other thread is evicting
+        try {
+            int size = rates.size();
+            if (size <= maxEntries) return;
+            int evictSize = size - maxEntries * 9 / 10;
+            List<Map.Entry<String, Rate>> entries = new ArrayList<>(rates.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastUpdateTime));
+            for (int i = 0; i < evictSize && i < entries.size(); i++) {
+                Map.Entry<String, Rate> entry = entries.get(i);
+                rates.remove(entry.getKey(), entry.getValue());
+            }
+            logger.debug("evict rates, evicted={}, size={}", evictSize, rates.size());
+        } finally {
+            evictLock.unlock();
+        }
     }
 
     static final class RateConfig {
@@ -78,10 +145,12 @@ public class RateControl {
     static final class Rate {
         volatile double currentPermits;
         volatile long lastUpdateTime;
+        volatile long blockedUntil;     // rejected by redis until this time
 
         Rate(int currentPermits) {
             this.currentPermits = currentPermits;
             this.lastUpdateTime = System.nanoTime();
+            this.blockedUntil = lastUpdateTime;
         }
 
         boolean acquire(long currentTime, int maxPermits, double fillRatePerNano) {
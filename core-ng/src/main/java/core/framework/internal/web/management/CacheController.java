@@ -2,6 +2,7 @@ package core.framework.internal.web.management;
 
 import core.framework.http.ContentType;
 import core.framework.internal.cache.CacheImpl;
+import core.framework.internal.cache.CacheStats;
 import core.framework.internal.web.http.IPv4AccessControl;
 import core.framework.json.JSON;
 import core.framework.util.Strings;
@@ -9,6 +10,7 @@ import core.framework.web.Request;
 import core.framework.web.Response;
 import core.framework.web.exception.NotFoundException;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -59,6 +61,24 @@ public class CacheController {
         view.name = cache.name;
         view.type = cache.cacheClass.getCanonicalName();
         view.duration = (int) cache.duration.getSeconds();
+        view.stats = stats(cache.stats());
         return view;
     }
+
+    private ListCacheResponse.Stats stats(CacheStats cacheStats) {
+        var stats = new ListCacheResponse.Stats();
+        stats.hits = cacheStats.hits.sum();
+        stats.misses = cacheStats.misses.sum();
+        long total = stats.hits + stats.misses;
+        stats.hitRate = total == 0 ? null : (double) stats.hits / total;
+        stats.loads = cacheStats.loads.sum();
+        stats.loadAvgElapsed = stats.loads == 0 ? null : cacheStats.loadElapsed.sum() / stats.loads;
+        stats.loadTimeHistogram = new LinkedHashMap<>();
+        for (int i = 0; i < cacheStats.loadTimes.length; i++) {
+            stats.loadTimeHistogram.put(CacheStats.LOAD_TIME_BUCKET_NAMES[i], cacheStats.loadTimes[i].sum());
+        }
+        stats.evictions = cacheStats.evictions.sum();
+        stats.sizeInBytes = cacheStats.sizeInBytes.sum();
+        return stats;
+    }
 }
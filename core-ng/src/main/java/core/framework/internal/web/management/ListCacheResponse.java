@@ -3,6 +3,7 @@ package core.framework.internal.web.management;
 import core.framework.api.json.Property;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author neo
@@ -18,5 +19,26 @@ public class ListCacheResponse {
         public String type;
         @Property(name = "duration")
         public Integer duration;
+        @Property(name = "stats")
+        public Stats stats;
+    }
+
+    public static class Stats {
+        @Property(name = "hits")
+        public Long hits;
+        @Property(name = "misses")
+        public Long misses;
+        @Property(name = "hit_rate")
+        public Double hitRate;
+        @Property(name = "loads")
+        public Long loads;
+        @Property(name = "load_avg_elapsed")
+        public Long loadAvgElapsed;
+        @Property(name = "load_time_histogram")
+        public Map<String, Long> loadTimeHistogram;
+        @Property(name = "evictions")
+        public Long evictions;
+        @Property(name = "size_in_bytes")
+        public Long sizeInBytes;
     }
 }
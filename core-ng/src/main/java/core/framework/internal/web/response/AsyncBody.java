@@ -0,0 +1,24 @@
+package core.framework.internal.web.response;
+
+import core.framework.web.Response;
+import io.undertow.io.Sender;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * placeholder body of async response, HTTPHandler renders the completed response instead
+ *
+ * @author neo
+ */
+public final class AsyncBody implements Body {
+    final CompletionStage<Response> response;
+
+    public AsyncBody(CompletionStage<Response> response) {
+        this.response = response;
+    }
+
+    @Override
+    public void send(Sender sender, ResponseHandlerContext context) {
+        throw new Error("async response must be completed before sending");
+    }
+}
@@ -0,0 +1,37 @@
+package core.framework.internal.web.response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * serialize and write beans one by one, so only one bean is kept in memory as json at a time
+ *
+ * @author neo
+ */
+public final class JSONArrayBody implements StreamingBody {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JSONArrayBody.class);
+    private final Iterator<?> beans;
+
+    public JSONArrayBody(Iterator<?> beans) {
+        this.beans = beans;
+    }
+
+    @Override
+    public void write(OutputStream output, ResponseHandlerContext context) throws IOException {
+        int count = 0;
+        output.write('[');
+        while (beans.hasNext()) {
+            Object bean = beans.next();
+            if (bean == null) throw new Error("bean must not be null, index=" + count);
+            if (count > 0) output.write(',');
+            output.write(context.writer.toJSON(bean));
+            count++;
+        }
+        output.write(']');
+        LOGGER.debug("[response] body=json array, size={}", count);
+    }
+}
@@ -17,7 +17,12 @@ import io.undertow.util.HeaderMap;
 import io.undertow.util.HttpString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xnio.IoUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
 import java.util.Map;
 
 /**
@@ -43,11 +48,34 @@ public class ResponseHandler {
         putHeaders(response, exchange);
         putCookies(response, exchange);
 
-        response.body.send(exchange.getResponseSender(), context);
+        if (response.body instanceof StreamingBody) {
+            write((StreamingBody) response.body, exchange);
+        } else {
+            response.body.send(exchange.getResponseSender(), context);
+        }
 
         actionLog.context("response_code", status.code);  // set response code context at last, to avoid error handler to log duplicate action_log_context key on exception
     }
 
+    // write to blocking output stream on worker thread, it blocks when channel is not writable, so memory is bounded by buffer size regardless of body size
+    private void write(StreamingBody body, HttpServerExchange exchange) {
+        exchange.startBlocking();
+        OutputStream output = exchange.getOutputStream();
+        boolean completed = false;
+        try {
+            body.write(output, context);
+            output.close();     // flush and end chunked body
+            completed = true;
+        } catch (ClosedChannelException e) {    // e.g. user closed browser before body is written completely
+            throw new FileBody.ClientAbortException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // part of body may be sent, close connection to let client know body is incomplete, rather than end response normally
+            if (!completed && exchange.isResponseStarted()) IoUtils.safeClose(exchange.getConnection());
+        }
+    }
+
     private void putHeaders(ResponseImpl response, HttpServerExchange exchange) {
         HeaderMap headers = exchange.getResponseHeaders();
         for (var entry : response.headers.entrySet()) {
@@ -8,8 +8,10 @@ import core.framework.web.Response;
 import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
 
+import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 /**
  * @author neo
@@ -66,4 +68,23 @@ public final class ResponseImpl implements Response {
         cookies.put(spec, value);
         return this;
     }
+
+    // return null if not async response
+    @Nullable
+    public CompletionStage<Response> asyncResponse() {
+        if (body instanceof AsyncBody) return ((AsyncBody) body).response;
+        return null;
+    }
+
+    // headers and cookies put on async response (e.g. by interceptors) are applied to completed response
+    public ResponseImpl complete(Response response) {
+        if (response == null) throw new Error("async response must not complete with null");
+        var result = (ResponseImpl) response;
+        result.headers.putAll(headers);
+        if (cookies != null) {
+            if (result.cookies == null) result.cookies = Maps.newHashMap();
+            result.cookies.putAll(cookies);
+        }
+        return result;
+    }
 }
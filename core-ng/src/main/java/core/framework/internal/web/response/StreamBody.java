@@ -0,0 +1,26 @@
+package core.framework.internal.web.response;
+
+import core.framework.web.BodyWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @author neo
+ */
+public final class StreamBody implements StreamingBody {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamBody.class);
+    private final BodyWriter writer;
+
+    public StreamBody(BodyWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void write(OutputStream output, ResponseHandlerContext context) throws IOException {
+        LOGGER.debug("[response] body=stream");
+        writer.write(output);
+    }
+}
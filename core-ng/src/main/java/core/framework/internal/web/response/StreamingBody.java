@@ -0,0 +1,20 @@
+package core.framework.internal.web.response;
+
+import io.undertow.io.Sender;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * body written to blocking output stream by ResponseHandler on worker thread, instead of sending whole body by sender
+ *
+ * @author neo
+ */
+interface StreamingBody extends Body {
+    void write(OutputStream output, ResponseHandlerContext context) throws IOException;
+
+    @Override
+    default void send(Sender sender, ResponseHandlerContext context) {
+        throw new Error("streaming body must be written to output stream");
+    }
+}
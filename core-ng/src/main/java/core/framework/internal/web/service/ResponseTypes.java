@@ -0,0 +1,29 @@
+package core.framework.internal.web.service;
+
+import core.framework.internal.reflect.Methods;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * service method can return CompletionStage&lt;T&gt; to release worker thread while waiting, response type is T, and CompletionStage&lt;Void&gt; is same as void
+ *
+ * @author neo
+ */
+public final class ResponseTypes {
+    public static boolean async(Method method) {
+        return CompletionStage.class.equals(method.getReturnType());
+    }
+
+    public static Type responseType(Method method) {
+        Type returnType = method.getGenericReturnType();
+        if (!async(method)) return returnType;
+        if (!(returnType instanceof ParameterizedType))
+            throw new Error("async response type must be CompletionStage<T>, type=" + returnType.getTypeName() + ", method=" + Methods.path(method));
+        Type valueType = ((ParameterizedType) returnType).getActualTypeArguments()[0];
+        if (Void.class.equals(valueType)) return void.class;
+        return valueType;
+    }
+}
@@ -16,6 +16,7 @@ import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static core.framework.internal.asm.Literal.type;
 import static core.framework.internal.asm.Literal.variable;
@@ -92,8 +93,18 @@ public class WebServiceClientBuilder<T> {
         builder.indent(1).append("Object requestBean = {};\n", requestBeanIndex == null ? "null" : "param" + requestBeanIndex);
 
         builder.indent(1);
-        if (returnType != void.class) builder.append("return ({}) ", type(returnClass));
-        builder.append("client.execute({}, path, requestBeanClass, requestBean, {});\n", variable(HTTPMethods.httpMethod(method)), variable(returnType));
+        if (ResponseTypes.async(method)) {    // client calls synchronously, and returns completed future
+            Type responseType = ResponseTypes.responseType(method);
+            if (responseType == void.class) {
+                builder.append("client.execute({}, path, requestBeanClass, requestBean, {});\n", variable(HTTPMethods.httpMethod(method)), variable(responseType));
+                builder.indent(1).append("return {}.completedFuture(null);\n", type(CompletableFuture.class));
+            } else {
+                builder.append("return {}.completedFuture(client.execute({}, path, requestBeanClass, requestBean, {}));\n", type(CompletableFuture.class), variable(HTTPMethods.httpMethod(method)), variable(responseType));
+            }
+        } else {
+            if (returnType != void.class) builder.append("return ({}) ", type(returnClass));
+            builder.append("client.execute({}, path, requestBeanClass, requestBean, {});\n", variable(HTTPMethods.httpMethod(method)), variable(returnType));
+        }
 
         builder.append("}");
         return builder.build();
@@ -1,8 +1,13 @@
 package core.framework.internal.web.service;
 
+import core.framework.api.http.HTTPStatus;
+import core.framework.web.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletionStage;
+
 import static core.framework.log.Markers.errorCode;
 
 /**
@@ -15,4 +20,13 @@ public final class WebServiceController {
     public static void logDeprecation(String method) {
         LOGGER.warn(errorCode("DEPRECATION"), "web service has been deprecated, please notify consumer to update, method={}", method);
     }
+
+    // used by generated class, must be public
+    public static Response async(CompletionStage<?> response, boolean empty, @Nullable HTTPStatus status) {
+        return Response.async(response.thenApply(bean -> {
+            Response result = empty ? Response.empty() : Response.bean(bean);
+            if (status != null) result.status(status);
+            return result;
+        }));
+    }
 }
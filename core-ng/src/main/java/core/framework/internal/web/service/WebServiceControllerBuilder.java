@@ -83,13 +83,20 @@ public class WebServiceControllerBuilder<T> {
         }
         builder.appendCommaSeparatedValues(params).append(");\n");
 
+        ResponseStatus status = method.getDeclaredAnnotation(ResponseStatus.class);
+        if (ResponseTypes.async(method)) {
+            boolean empty = void.class == ResponseTypes.responseType(method);
+            builder.indent(1).append("return {}.async(response, {}, {});\n", type(WebServiceController.class), String.valueOf(empty), status == null ? "null" : variable(status.value()));
+            builder.append("}");
+            return builder.build();
+        }
+
         if (void.class == method.getReturnType()) {
             builder.indent(1).append("return {}.empty()", type(Response.class));
         } else {
             builder.indent(1).append("return {}.bean(response)", type(Response.class));
         }
 
-        ResponseStatus status = method.getDeclaredAnnotation(ResponseStatus.class);
         if (status == null) {
             builder.append(";\n");
         } else {
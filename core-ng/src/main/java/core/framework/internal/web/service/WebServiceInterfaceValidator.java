@@ -72,7 +72,7 @@ public class WebServiceInterfaceValidator {
         if (path == null) throw new Error("service method must have @Path, method=" + Methods.path(method));
         new PathPatternValidator(path.value(), false).validate();
 
-        validateResponseBeanType(method.getGenericReturnType(), method);
+        validateResponseBeanType(ResponseTypes.responseType(method), method);
 
         Set<String> pathVariables = pathVariables(path.value(), method);
         Class<?> requestBeanClass = null;
@@ -3,6 +3,8 @@ package core.framework.internal.web.session;
 import core.framework.crypto.Hash;
 import core.framework.internal.redis.RedisException;
 import core.framework.redis.Redis;
+import core.framework.redis.RedisPipeline;
+import core.framework.redis.RedisScript;
 import core.framework.util.Lists;
 import core.framework.util.Maps;
 import core.framework.util.Strings;
@@ -10,9 +12,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static core.framework.log.Markers.errorCode;
 
@@ -20,22 +24,35 @@ import static core.framework.log.Markers.errorCode;
  * @author neo
  */
 public class RedisSessionStore implements SessionStore {
+    // only refresh existing session, return flat list of fields and values as HGETALL
+    public static final String GET_AND_REFRESH_SCRIPT = "local values = redis.call('hgetall', KEYS[1]) "
+            + "if #values > 0 then redis.call('pexpire', KEYS[1], ARGV[1]) end "
+            + "return values";
+
+    private static final int INVALIDATE_BATCH_SIZE = 500;
+
     private final Logger logger = LoggerFactory.getLogger(RedisSessionStore.class);
 
     private final Redis redis;
+    private final RedisScript getAndRefreshScript;
 
     public RedisSessionStore(Redis redis) {
         this.redis = redis;
+        getAndRefreshScript = redis.script(GET_AND_REFRESH_SCRIPT);
     }
 
     @Override
     public Map<String, String> getAndRefresh(String sessionId, String domain, Duration sessionTimeout) {
         String key = sessionKey(sessionId, domain);
         try {
-            Map<String, String> sessionValues = redis.hash().getAll(key);
-            if (sessionValues.isEmpty()) return null;
-            redis.expire(key, sessionTimeout);
-            return sessionValues;
+            @SuppressWarnings("unchecked")
+            List<String> result = (List<String>) getAndRefreshScript.execute(List.of(key), String.valueOf(sessionTimeout.toMillis()));
+            if (result.isEmpty()) return null;
+            Map<String, String> values = Maps.newHashMapWithExpectedSize(result.size() / 2);
+            for (int i = 0; i < result.size(); i += 2) {
+                values.put(result.get(i), result.get(i + 1));
+            }
+            return values;
         } catch (RedisException e) {
             // gracefully handle invalid data in redis, either legacy old format value, or invalid value/key type inserted manually,
             logger.warn(errorCode("INVALID_SESSION_VALUE"), "failed to get redis session values", e);
@@ -54,9 +71,11 @@ public class RedisSessionStore implements SessionStore {
             if (value == null) deletedFields.add(changedSessionField);
             else updatedValues.put(changedSessionField, value);
         }
-        if (!deletedFields.isEmpty()) redis.hash().del(key, deletedFields.toArray(new String[0]));
-        if (!updatedValues.isEmpty()) redis.hash().multiSet(key, updatedValues);
-        redis.expire(key, sessionTimeout);
+        RedisPipeline pipeline = redis.pipeline();
+        if (!deletedFields.isEmpty()) pipeline.hashDel(key, deletedFields.toArray(new String[0]));
+        if (!updatedValues.isEmpty()) pipeline.hashMultiSet(key, updatedValues);
+        pipeline.expire(key, sessionTimeout);
+        pipeline.execute();
     }
 
     @Override
@@ -65,15 +84,47 @@ public class RedisSessionStore implements SessionStore {
         redis.del(key);
     }
 
-    // use naive solution, generally invalidate by key/value is used to kick out login user, it happens rarely and will be handled by message handler which is in background
+    // generally invalidate by key/value is used to kick out login user, it happens rarely and will be handled by message handler which is in background,
+    // scan session keys in batch, and check/delete each batch by pipeline to save round trips,
+    // not to filter by SCAN TYPE, which requires redis 6+
     @Override
     public void invalidateByKey(String key, String value) {
-        redis.forEach("session:*", sessionKey -> {
-            String valueInSession = redis.hash().get(sessionKey, key);
-            if (Strings.equals(value, valueInSession)) {
-                redis.del(sessionKey);
+        List<String> sessionKeys = new ArrayList<>(INVALIDATE_BATCH_SIZE);
+        redis.forEach("session:*", null, INVALIDATE_BATCH_SIZE, sessionKey -> {
+            sessionKeys.add(sessionKey);
+            if (sessionKeys.size() == INVALIDATE_BATCH_SIZE) {
+                invalidateByKey(sessionKeys, key, value);
+                sessionKeys.clear();
             }
         });
+        if (!sessionKeys.isEmpty()) invalidateByKey(sessionKeys, key, value);
+    }
+
+    private void invalidateByKey(List<String> sessionKeys, String key, String value) {
+        RedisPipeline pipeline = redis.pipeline();
+        List<Supplier<String>> values = new ArrayList<>(sessionKeys.size());
+        for (String sessionKey : sessionKeys) {
+            values.add(pipeline.hashGet(sessionKey, key));
+        }
+        try {
+            pipeline.execute();
+        } catch (RedisException e) {
+            // non hash key matches "session:*" fails with WRONGTYPE, all replies are still read, so check result of each key
+            logger.debug("failed to get session values of some keys, error={}", e.getMessage());
+        }
+
+        List<String> matchedKeys = new ArrayList<>();
+        for (int i = 0; i < sessionKeys.size(); i++) {
+            String sessionValue;
+            try {
+                sessionValue = values.get(i).get();
+            } catch (RedisException e) {
+                logger.warn(errorCode("INVALID_SESSION_VALUE"), "skip invalid session key, key={}, error={}", sessionKeys.get(i), e.getMessage());
+                continue;
+            }
+            if (Strings.equals(value, sessionValue)) matchedKeys.add(sessionKeys.get(i));
+        }
+        if (!matchedKeys.isEmpty()) redis.del(matchedKeys.toArray(String[]::new));
     }
 
     // make sure sessionId can only be used for specific domain, as different webapp may share one session redis, this way to prevent session hijacking by manually reuse sessionId from one site to another
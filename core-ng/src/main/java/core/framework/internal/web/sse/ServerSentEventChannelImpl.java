@@ -0,0 +1,154 @@
+package core.framework.internal.web.sse;
+
+import core.framework.log.ActionLogContext;
+import core.framework.util.Sets;
+import core.framework.util.StopWatch;
+import core.framework.web.sse.ServerSentEventChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xnio.ChannelListeners;
+import org.xnio.IoUtils;
+import org.xnio.channels.StreamSinkChannel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static core.framework.log.Markers.errorCode;
+
+/**
+ * messages are queued by any thread, and written by io thread of connection without blocking,
+ * if client is too slow to consume, channel is closed rather than buffering unbounded messages
+ *
+ * @author neo
+ */
+public class ServerSentEventChannelImpl<T> implements ServerSentEventChannel<T> {
+    static final int MAX_QUEUED_BYTES = 1024 * 1024;    // 1M
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerSentEventChannelImpl.class);
+
+    final String id = UUID.randomUUID().toString();
+    final Set<String> groups = Sets.newConcurrentHashSet();
+    final Queue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+    final AtomicInteger queuedBytes = new AtomicInteger();
+    private final ServerSentEventContextImpl<T> context;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    boolean connected;      // guarded by context lock, channel joins context groups after connected
+    volatile boolean closed;
+    private volatile StreamSinkChannel sink;
+    private boolean ended;  // only accessed by io thread
+
+    ServerSentEventChannelImpl(ServerSentEventContextImpl<T> context) {
+        this.context = context;
+    }
+
+    @Override
+    public void send(T event) {
+        var watch = new StopWatch();
+        byte[] message = context.writer.message(null, context.writer.toData(event));
+        try {
+            send(message);
+        } finally {
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("sse", elapsed, 0, 1);
+            LOGGER.debug("send sse event, id={}, size={}, elapsed={}", id, message.length, elapsed);
+        }
+    }
+
+    @Override
+    public void join(String group) {
+        context.join(this, group);
+    }
+
+    @Override
+    public void leave(String group) {
+        context.leave(this, group);
+    }
+
+    @Override
+    public void close() {
+        LOGGER.debug("close sse channel, id={}", id);
+        closed = true;
+        scheduleFlush();    // end stream after queued messages are written
+    }
+
+    void send(byte[] message) {
+        if (closed) return;
+        if (queuedBytes.addAndGet(message.length) > MAX_QUEUED_BYTES) {
+            LOGGER.warn(errorCode("SSE_CLIENT_TOO_SLOW"), "sse client is too slow to consume events, abort channel, id={}", id);
+            abort();
+            return;
+        }
+        queue.add(ByteBuffer.wrap(message));
+        scheduleFlush();
+    }
+
+    // graceful close waits for queued messages to be written, which may never happen for slow client, so drop queued messages and close connection directly,
+    // exchange complete listener removes channel from context
+    private void abort() {
+        closed = true;
+        queue.clear();
+        queuedBytes.set(0);
+        StreamSinkChannel sink = this.sink;
+        if (sink != null) IoUtils.safeClose(sink);
+    }
+
+    void open(StreamSinkChannel sink) {
+        this.sink = sink;
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        StreamSinkChannel sink = this.sink;
+        if (sink != null && flushScheduled.compareAndSet(false, true)) {
+            sink.getIoThread().execute(this::flush);
+        }
+    }
+
+    // must run on io thread, so writes to sink are never concurrent
+    void flush() {
+        flushScheduled.set(false);
+        if (ended) return;
+        try {
+            ByteBuffer buffer;
+            while ((buffer = queue.peek()) != null) {
+                sink.write(buffer);
+                if (buffer.hasRemaining()) {    // channel is not writable, continue when it's writable
+                    resumeWrites();
+                    return;
+                }
+                queue.poll();
+                queuedBytes.addAndGet(-buffer.limit());
+            }
+            if (!sink.flush()) {
+                resumeWrites();
+                return;
+            }
+            sink.suspendWrites();
+            if (closed) end();
+        } catch (IOException e) {
+            LOGGER.debug("failed to write sse channel, id={}, error={}", id, e.getMessage(), e);
+            closed = true;
+            ended = true;
+            IoUtils.safeClose(sink);
+        }
+    }
+
+    private void resumeWrites() {
+        sink.getWriteSetter().set(channel -> flush());
+        sink.resumeWrites();
+    }
+
+    private void end() throws IOException {
+        ended = true;
+        sink.shutdownWrites();
+        if (!sink.flush()) {
+            sink.getWriteSetter().set(ChannelListeners.flushingChannelListener(null, ChannelListeners.closingChannelExceptionHandler()));
+            sink.resumeWrites();
+        }
+    }
+}
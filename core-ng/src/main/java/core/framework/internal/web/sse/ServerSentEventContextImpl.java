@@ -0,0 +1,163 @@
+package core.framework.internal.web.sse;
+
+import core.framework.log.ActionLogContext;
+import core.framework.util.StopWatch;
+import core.framework.web.sse.ServerSentEventChannel;
+import core.framework.web.sse.ServerSentEventContext;
+import core.framework.web.sse.ServerSentEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * broadcast events are assigned with increasing id and kept in bounded replay buffer,
+ * broadcast and connect are guarded by same lock, so reconnected client receives replayed events then new events in order, without gap or duplication
+ *
+ * @author neo
+ */
+public class ServerSentEventContextImpl<T> implements ServerSentEventContext<T> {
+    final ServerSentEventListener<T> listener;
+    final ServerSentEventWriter<T> writer;
+    private final Logger logger = LoggerFactory.getLogger(ServerSentEventContextImpl.class);
+    private final Map<String, ServerSentEventChannelImpl<T>> channels = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, ServerSentEventChannelImpl<T>>> groups = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private final Deque<Event> events;     // guarded by lock
+    private final int maxEvents;
+    private long lastEventId;   // guarded by lock
+
+    public ServerSentEventContextImpl(Class<T> eventClass, ServerSentEventListener<T> listener, int maxEvents) {
+        this.listener = listener;
+        this.maxEvents = maxEvents;
+        writer = new ServerSentEventWriter<>(eventClass);
+        events = new ArrayDeque<>(maxEvents);
+        lastEventId = System.currentTimeMillis() * 1000;    // to keep id increasing after restart, so client won't get replayed events with smaller id
+    }
+
+    @Override
+    public List<ServerSentEventChannel<T>> all() {
+        return new ArrayList<>(channels.values());
+    }
+
+    @Override
+    public List<ServerSentEventChannel<T>> group(String name) {
+        Map<String, ServerSentEventChannelImpl<T>> channels = groups.get(name);
+        if (channels == null) return List.of();
+        return new ArrayList<>(channels.values());
+    }
+
+    @Override
+    public void broadcast(String group, T event) {
+        var watch = new StopWatch();
+        byte[] data = writer.toData(event);     // serialize out of lock
+        int count = 0;
+        try {
+            synchronized (lock) {
+                long id = ++lastEventId;
+                byte[] message = writer.message(String.valueOf(id), data);
+                if (events.size() == maxEvents) events.removeFirst();
+                events.addLast(new Event(id, group, message));
+
+                Map<String, ServerSentEventChannelImpl<T>> channels = groups.get(group);
+                if (channels != null) {
+                    for (ServerSentEventChannelImpl<T> channel : channels.values()) {
+                        channel.send(message);
+                        count++;
+                    }
+                }
+            }
+        } finally {
+            long elapsed = watch.elapsed();
+            ActionLogContext.track("sse", elapsed, 0, count);
+            logger.debug("broadcast sse event, group={}, channels={}, elapsed={}", group, count, elapsed);
+        }
+    }
+
+    void connect(ServerSentEventChannelImpl<T> channel, @Nullable String lastEventId) {
+        synchronized (lock) {
+            if (lastEventId != null) replay(channel, lastEventId);
+            channels.put(channel.id, channel);
+            for (String group : channel.groups) {
+                groups.computeIfAbsent(group, key -> new ConcurrentHashMap<>()).put(channel.id, channel);
+            }
+            channel.connected = true;
+        }
+    }
+
+    private void replay(ServerSentEventChannelImpl<T> channel, String lastEventId) {
+        long id;
+        try {
+            id = Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            logger.debug("ignore invalid last event id, lastEventId={}", lastEventId);
+            return;
+        }
+        int count = 0;
+        for (Event event : events) {
+            if (event.id > id && channel.groups.contains(event.group)) {
+                channel.send(event.message);
+                count++;
+            }
+        }
+        logger.debug("replay sse events, lastEventId={}, count={}", lastEventId, count);
+    }
+
+    void remove(ServerSentEventChannelImpl<T> channel) {
+        synchronized (lock) {
+            channel.connected = false;
+            channels.remove(channel.id);
+            for (String group : channel.groups) {
+                Map<String, ServerSentEventChannelImpl<T>> channels = groups.get(group);
+                if (channels != null) channels.remove(channel.id);
+            }
+        }
+    }
+
+    void join(ServerSentEventChannelImpl<T> channel, String group) {
+        logger.debug("join group, channel={}, group={}", channel.id, group);
+        synchronized (lock) {
+            channel.groups.add(group);
+            if (channel.connected) groups.computeIfAbsent(group, key -> new ConcurrentHashMap<>()).put(channel.id, channel);
+        }
+    }
+
+    void leave(ServerSentEventChannelImpl<T> channel, String group) {
+        logger.debug("leave group, channel={}, group={}", channel.id, group);
+        synchronized (lock) {
+            channel.groups.remove(group);
+            Map<String, ServerSentEventChannelImpl<T>> channels = groups.get(group);
+            if (channels != null) channels.remove(channel.id);
+        }
+    }
+
+    void keepAlive(byte[] message) {
+        for (ServerSentEventChannelImpl<T> channel : channels.values()) {
+            channel.send(message);
+        }
+    }
+
+    void shutdown() {
+        for (ServerSentEventChannelImpl<T> channel : channels.values()) {
+            channel.close();
+        }
+    }
+
+    private static final class Event {
+        final long id;
+        final String group;
+        final byte[] message;
+
+        Event(long id, String group, byte[] message) {
+            this.id = id;
+            this.group = group;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package core.framework.internal.web.sse;
+
+import core.framework.http.HTTPMethod;
+import core.framework.internal.log.ActionLog;
+import core.framework.internal.web.request.RequestImpl;
+import core.framework.internal.web.session.SessionManager;
+import core.framework.internal.web.websocket.ReadOnlySession;
+import core.framework.util.Strings;
+import core.framework.web.Session;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import io.undertow.util.SameThreadExecutor;
+import io.undertow.util.StatusCodes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static core.framework.util.Strings.format;
+
+/**
+ * connection is kept open after handler returns, without holding worker thread, events are written by io thread
+ *
+ * @author neo
+ */
+public class ServerSentEventHandler {
+    public static final String CONTENT_TYPE = "text/event-stream";
+    static final HttpString LAST_EVENT_ID = new HttpString("Last-Event-ID");
+    private static final HttpString X_ACCEL_BUFFERING = new HttpString("X-Accel-Buffering");
+    private static final byte[] RETRY = Strings.bytes("retry: 5000\n\n");   // reconnect after 5s if disconnected
+    private static final byte[] KEEP_ALIVE = Strings.bytes(":\n\n");     // comment line is ignored by client, to keep connection open thru LB
+
+    private final Map<String, ServerSentEventContextImpl<?>> contexts = new HashMap<>();
+    private final SessionManager sessionManager;
+
+    public ServerSentEventHandler(SessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+    }
+
+    public boolean check(HTTPMethod method, String path) {
+        return method == HTTPMethod.GET && contexts.containsKey(path);
+    }
+
+    public void handle(HttpServerExchange exchange, RequestImpl request, ActionLog actionLog) {
+        String path = request.path();
+        actionLog.action("sse:" + path + ":open");
+
+        @SuppressWarnings("unchecked")
+        ServerSentEventContextImpl<Object> context = (ServerSentEventContextImpl<Object>) contexts.get(path);
+        request.session = loadSession(request, actionLog);
+
+        var channel = new ServerSentEventChannelImpl<>(context);
+        actionLog.context("channel", channel.id);
+        channel.send(RETRY);
+        context.listener.onConnect(request, channel);   // listener may validate request and throw exception, then error response will be rendered as normal request
+        actionLog.context("group", channel.groups.toArray());
+
+        exchange.setStatusCode(StatusCodes.OK);
+        HeaderMap headers = exchange.getResponseHeaders();
+        headers.put(Headers.CONTENT_TYPE, CONTENT_TYPE);
+        headers.put(Headers.CACHE_CONTROL, "no-cache");
+        headers.put(X_ACCEL_BUFFERING, "no");   // disable nginx buffering
+        exchange.addExchangeCompleteListener((completedExchange, next) -> {
+            try {
+                context.remove(channel);
+                context.listener.onClose(channel);
+            } finally {
+                next.proceed();
+            }
+        });
+
+        String lastEventId = exchange.getRequestHeaders().getFirst(LAST_EVENT_ID);
+        // keep exchange open after current handler returns, response channel must be acquired after handler, as error handler needs it if onConnect failed
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> {
+            context.connect(channel, lastEventId);
+            channel.open(exchange.getResponseChannel());
+        });
+    }
+
+    Session loadSession(RequestImpl request, ActionLog actionLog) {
+        Session session = sessionManager.load(request, actionLog);
+        if (session == null) return null;
+        return new ReadOnlySession(session);
+    }
+
+    public void add(String path, ServerSentEventContextImpl<?> context) {
+        if (path.contains("/:")) throw new Error("listener path must be static, path=" + path);
+
+        Class<?> listenerClass = context.listener.getClass();
+        if (listenerClass.isSynthetic())
+            throw new Error("listener class must not be anonymous class or lambda, please create static class, listenerClass=" + listenerClass.getCanonicalName());
+
+        ServerSentEventContextImpl<?> previous = contexts.putIfAbsent(path, context);
+        if (previous != null) throw new Error(format("found duplicate sse listener, path={}, previousListener={}", path, previous.listener.getClass().getCanonicalName()));
+    }
+
+    public void keepAlive() {
+        for (ServerSentEventContextImpl<?> context : contexts.values()) {
+            context.keepAlive(KEEP_ALIVE);
+        }
+    }
+
+    public void shutdown() {
+        for (ServerSentEventContextImpl<?> context : contexts.values()) {
+            context.shutdown();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package core.framework.internal.web.sse;
+
+import core.framework.internal.json.JSONMapper;
+import core.framework.internal.json.JSONWriter;
+import core.framework.internal.validate.Validator;
+import core.framework.util.Strings;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * @author neo
+ */
+class ServerSentEventWriter<T> {
+    private final Class<T> eventClass;
+    private final JSONWriter<T> writer;
+    private final Validator<T> validator;
+
+    ServerSentEventWriter(Class<T> eventClass) {
+        this.eventClass = eventClass;
+        writer = JSONMapper.writer(eventClass);
+        validator = Validator.of(eventClass);
+    }
+
+    byte[] toData(T event) {
+        if (event == null) throw new Error("event must not be null");
+        if (!eventClass.equals(event.getClass())) {
+            throw new Error(Strings.format("event class does not match, expected={}, actual={}", eventClass.getCanonicalName(), event.getClass().getCanonicalName()));
+        }
+        validator.validate(event, false);
+        return writer.toJSON(event);
+    }
+
+    // refer to https://html.spec.whatwg.org/multipage/server-sent-events.html#event-stream-interpretation, json doesn't contain line break, so data is always one line
+    byte[] message(@Nullable String id, byte[] data) {
+        var output = new ByteArrayOutputStream(data.length + 32);
+        if (id != null) {
+            output.writeBytes(Strings.bytes("id: "));
+            output.writeBytes(id.getBytes(UTF_8));
+            output.write('\n');
+        }
+        output.writeBytes(Strings.bytes("data: "));
+        output.writeBytes(data);
+        output.write('\n');
+        output.write('\n');
+        return output.toByteArray();
+    }
+}
@@ -7,10 +7,10 @@ import java.util.Optional;
 /**
  * @author neo
  */
-class ReadOnlySession implements Session {
+public final class ReadOnlySession implements Session {
     private final Session session;
 
-    ReadOnlySession(Session session) {
+    public ReadOnlySession(Session session) {
         this.session = session;
     }
 
@@ -21,11 +21,11 @@ class ReadOnlySession implements Session {
 
     @Override
     public void set(String key, String value) {
-        throw new Error("session is readonly for websocket");
+        throw new Error("session is readonly for websocket and sse");
     }
 
     @Override
     public void invalidate() {
-        throw new Error("session is readonly for websocket");
+        throw new Error("session is readonly for websocket and sse");
     }
 }
@@ -1,15 +1,23 @@
 package core.framework.module;
 
+import core.framework.async.Executor;
 import core.framework.cache.Cache;
 import core.framework.http.HTTPMethod;
 import core.framework.internal.cache.CacheClassValidator;
+import core.framework.internal.cache.CacheCompression;
 import core.framework.internal.cache.CacheImpl;
+import core.framework.internal.cache.CacheMetrics;
 import core.framework.internal.cache.CacheStore;
 import core.framework.internal.cache.InvalidateLocalCacheMessageListener;
+import core.framework.internal.cache.InvalidateLocalCacheMetrics;
+import core.framework.internal.cache.InvalidateLocalCachePublisher;
 import core.framework.internal.cache.LocalCacheMetrics;
 import core.framework.internal.cache.LocalCacheStore;
+import core.framework.internal.cache.OffHeapCacheMetrics;
+import core.framework.internal.cache.OffHeapCacheStore;
 import core.framework.internal.cache.RedisCacheStore;
 import core.framework.internal.cache.RedisLocalCacheStore;
+import core.framework.internal.cache.RedisTrackingCacheStore;
 import core.framework.internal.module.Config;
 import core.framework.internal.module.ModuleContext;
 import core.framework.internal.module.ShutdownHook;
@@ -36,10 +44,15 @@ public class CacheConfig extends Config {
 
     private ModuleContext context;
     private LocalCacheStore localCacheStore;
-    private CacheStore redisCacheStore;
+    private RedisCacheStore redisCacheStore;
     private RedisImpl redis;
     private CacheStore redisLocalCacheStore;
+    private OffHeapCacheStore offHeapCacheStore;
     private int maxLocalSize;
+    private long maxLocalSizeInBytes;
+    private boolean clientTracking;
+    private CacheCompression compression;
+    private Executor refreshExecutor;
 
     @Override
     protected void initialize(ModuleContext context, String name) {
@@ -50,6 +63,7 @@ public class CacheConfig extends Config {
         context.route(HTTPMethod.GET, "/_sys/cache", (LambdaController) controller::list, true);
         context.route(HTTPMethod.GET, "/_sys/cache/:name/:key", (LambdaController) controller::get, true);
         context.route(HTTPMethod.DELETE, "/_sys/cache/:name/:key", (LambdaController) controller::delete, true);
+        context.collector.metrics.add(new CacheMetrics(caches));
     }
 
     @Override
@@ -61,6 +75,9 @@ public class CacheConfig extends Config {
         if (maxLocalSize > 0 && localCacheStore != null) {
             localCacheStore.maxSize = maxLocalSize;
         }
+        if (maxLocalSizeInBytes > 0 && localCacheStore != null) {
+            localCacheStore.maxSizeInBytes = maxLocalSizeInBytes;
+        }
     }
 
     public void local() {
@@ -74,12 +91,12 @@ public class CacheConfig extends Config {
     }
 
     public <T> CacheStoreConfig add(Class<T> cacheClass, Duration duration) {
-        if (localCacheStore == null && redisCacheStore == null) throw new Error("cache store is not configured, please configure first");
+        if (localCacheStore == null && redisCacheStore == null && offHeapCacheStore == null) throw new Error("cache store is not configured, please configure first");
         logger.info("add cache, class={}, duration={}", cacheClass.getCanonicalName(), duration);
         new CacheClassValidator(cacheClass).validate();
         String name = cacheName(cacheClass);
         var cache = new CacheImpl<>(name, cacheClass, duration);
-        cache.cacheStore = redisCacheStore != null ? redisCacheStore : localCacheStore;
+        cache.cacheStore = defaultCacheStore();
         CacheImpl<?> previous = caches.putIfAbsent(name, cache);
         if (previous != null) throw new Error("found duplicate cache name, name=" + name);
         context.beanFactory.bind(Types.generic(Cache.class, cacheClass), null, cache);
@@ -92,6 +109,38 @@ public class CacheConfig extends Config {
         maxLocalSize = size;
     }
 
+    // estimated total size of cached objects in json bytes
+    public void maxLocalSizeInBytes(long size) {
+        maxLocalSizeInBytes = size;
+    }
+
+    // keep serialized values out of heap, for large and rarely changing data, e.g. reference data, use cache(...).offHeap() if other cache store is configured as default,
+    // maxFrontSize is number of decoded values of hot keys to keep on heap, 0 to disable
+    public void offHeap(long maxSizeInBytes, int maxFrontSize) {
+        if (offHeapCacheStore != null) throw new Error("off heap cache store is already configured, please configure only once");
+        logger.info("create off heap cache store, maxSizeInBytes={}, maxFrontSize={}", maxSizeInBytes, maxFrontSize);
+        var cacheStore = new OffHeapCacheStore(maxSizeInBytes, maxFrontSize);
+        context.backgroundTask().scheduleWithFixedDelay(cacheStore::cleanup, Duration.ofMinutes(5));
+        context.collector.metrics.add(new OffHeapCacheMetrics(cacheStore));
+        offHeapCacheStore = cacheStore;
+    }
+
+    // use redis 6 client side caching to invalidate local cache, instead of publishing invalidation message
+    public void clientTracking() {
+        if (redisLocalCacheStore != null) throw new Error("client tracking must be configured before adding local cache");
+        clientTracking = true;
+    }
+
+    // compress value larger than minLength (in bytes of json) to save redis memory and network bandwidth, at cost of cpu
+    // compressed and uncompressed values can be mixed, so it is safe to enable or disable on running system
+    public void compress(int minLength) {
+        if (redisCacheStore == null) throw new Error("compression is only for redis cache store, please configure redis first");
+        if (redisLocalCacheStore != null) throw new Error("compression must be configured before adding local cache");
+        logger.info("compress redis cache value, minLength={}", minLength);
+        compression = new CacheCompression(minLength);
+        redisCacheStore.compression = compression;
+    }
+
     String cacheName(Class<?> cacheClass) {
         return ASCII.toLowerCase(cacheClass.getSimpleName());
     }
@@ -120,15 +169,60 @@ public class CacheConfig extends Config {
         return localCacheStore;
     }
 
+    private CacheStore defaultCacheStore() {
+        if (redisCacheStore != null) return redisCacheStore;
+        if (localCacheStore != null) return localCacheStore;
+        return offHeapCacheStore;
+    }
+
+    OffHeapCacheStore offHeapCacheStore() {
+        if (offHeapCacheStore == null) throw new Error("off heap cache store is not configured, please configure cache().offHeap() first");
+        return offHeapCacheStore;
+    }
+
+    // shared by all caches with stale-while-revalidate, to reload stale values in background
+    Executor refreshExecutor() {
+        if (refreshExecutor == null) {
+            refreshExecutor = context.config(ExecutorConfig.class, null).createExecutor("cache", Runtime.getRuntime().availableProcessors() * 2);
+        }
+        return refreshExecutor;
+    }
+
     CacheStore redisLocalCacheStore() {
         if (redisLocalCacheStore == null) {
-            logger.info("create redis local cache store");
             LocalCacheStore localCache = localCacheStore();
+            if (clientTracking) {
+                redisLocalCacheStore = redisTrackingCacheStore(localCache);
+                return redisLocalCacheStore;
+            }
+            logger.info("create redis local cache store");
             var thread = new RedisSubscribeThread("cache-invalidator", redis, new InvalidateLocalCacheMessageListener(localCache), RedisLocalCacheStore.CHANNEL_INVALIDATE_CACHE);
             context.startupHook.add(thread::start);
             context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> thread.close());
-            redisLocalCacheStore = new RedisLocalCacheStore(localCache, redisCacheStore, redis);
+            var publisher = new InvalidateLocalCachePublisher(redis, Duration.ofMillis(5));
+            context.startupHook.add(publisher::start);
+            context.shutdownHook.add(ShutdownHook.STAGE_4, timeout -> publisher.shutdown());
+            context.shutdownHook.add(ShutdownHook.STAGE_4, publisher::awaitTermination);
+            context.collector.metrics.add(new InvalidateLocalCacheMetrics(publisher));
+            redisLocalCacheStore = new RedisLocalCacheStore(localCache, redisCacheStore, publisher);
         }
         return redisLocalCacheStore;
     }
+
+    private RedisTrackingCacheStore redisTrackingCacheStore(LocalCacheStore localCache) {
+        logger.info("create redis tracking cache store, host={}", redis.host);
+        // all reads and writes of local caches go through one multiplexed connection with tracking enabled
+        var trackingRedis = new RedisImpl("redis-cache-tracking");
+        trackingRedis.host = redis.host;
+        trackingRedis.timeout(Duration.ofSeconds(1));
+        trackingRedis.multiplex(1);
+        var cacheStore = new RedisCacheStore(trackingRedis);
+        cacheStore.compression = compression;
+        var store = new RedisTrackingCacheStore(localCache, cacheStore);
+        trackingRedis.tracking(store);
+        context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> trackingRedis.close());
+        context.backgroundTask().scheduleWithFixedDelay(trackingRedis.pool::refresh, Duration.ofMinutes(5));
+        context.collector.metrics.add(new PoolMetrics(trackingRedis.pool));
+        return store;
+    }
 }
@@ -3,6 +3,8 @@ package core.framework.module;
 import core.framework.internal.cache.CacheImpl;
 import core.framework.internal.cache.RedisCacheStore;
 
+import java.time.Duration;
+
 /**
  * @author neo
  */
@@ -20,4 +22,21 @@ public class CacheStoreConfig {
             cache.cacheStore = config.redisLocalCacheStore();
         }
     }
+
+    public void offHeap() {
+        cache.cacheStore = config.offHeapCacheStore();
+    }
+
+    // use generated binary codec instead of json, for hot keys where json parsing and validation takes significant cpu,
+    // values written by different class structure are treated as miss, so it's safe to change class or switch codec on running system
+    public void binary() {
+        cache.binaryCodec();
+    }
+
+    // return stale value up to maxStale after expiration and reload in background, to take loading latency off the calling path,
+    // loader runs in background thread, so it must not depend on context of current request
+    public void staleWhileRevalidate(Duration maxStale) {
+        if (maxStale.isNegative() || maxStale.isZero()) throw new Error("maxStale must be greater than 0, maxStale=" + maxStale);
+        cache.staleWhileRevalidate(maxStale, config.refreshExecutor());
+    }
 }
@@ -8,6 +8,8 @@ import core.framework.internal.module.ModuleContext;
 import core.framework.internal.web.HTTPIOHandler;
 import core.framework.internal.web.bean.RequestBeanReader;
 import core.framework.internal.web.bean.ResponseBeanWriter;
+import core.framework.internal.web.http.ConcurrencyLimiter;
+import core.framework.internal.web.http.ConcurrencyLimiterMetrics;
 import core.framework.web.Controller;
 import core.framework.web.ErrorHandler;
 import core.framework.web.Interceptor;
@@ -15,6 +17,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Field;
+import java.time.Duration;
 
 /**
  * @author neo
@@ -104,6 +107,26 @@ public final class HTTPConfig extends Config {
         context.httpServer.handler.requestParser.clientIPParser.maxForwardedIPs = maxIPs;
     }
 
+    /**
+     * Limit in-flight requests adaptively by latency, limit starts from maxLimit, decreases when latency rises, and recovers when latency drops,
+     * requests exceed limit are rejected with 503 and Retry-After immediately, /_sys/ and /health-check are never limited.
+     *
+     * @param minLimit the min number of in-flight requests
+     * @param maxLimit the max number of in-flight requests
+     */
+    public void limitConcurrency(int minLimit, int maxLimit) {
+        if (context.httpServer.concurrencyLimiter != null) throw new Error("concurrency limit is already configured, please configure only once");
+        logger.info("limit http concurrency, minLimit={}, maxLimit={}", minLimit, maxLimit);
+        var limiter = new ConcurrencyLimiter(minLimit, maxLimit);
+        context.httpServer.concurrencyLimiter = limiter;
+        context.collector.metrics.add(new ConcurrencyLimiterMetrics(limiter));
+    }
+
+    // max time to wait for response returned by Response.async(), timed out request is completed with error
+    public void asyncTimeout(Duration timeout) {
+        context.httpServer.handler.asyncTimeoutInMs = timeout.toMillis();
+    }
+
     public AccessConfig access() {
         return new AccessConfig(context);
     }
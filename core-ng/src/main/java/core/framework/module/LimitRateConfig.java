@@ -2,20 +2,31 @@ package core.framework.module;
 
 import core.framework.internal.module.Config;
 import core.framework.internal.module.ModuleContext;
+import core.framework.internal.module.ShutdownHook;
+import core.framework.internal.redis.RedisHost;
+import core.framework.internal.redis.RedisImpl;
+import core.framework.internal.resource.PoolMetrics;
 import core.framework.internal.web.http.LimitRateInterceptor;
 import core.framework.internal.web.http.RateControl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 /**
  * @author neo
  */
-public final class LimitRateConfig extends Config {
+public class LimitRateConfig extends Config {
+    private final Logger logger = LoggerFactory.getLogger(LimitRateConfig.class);
+    private ModuleContext context;
+    private boolean redisConfigured;
     private boolean rateControlGroupAdded;
     private RateControl rateControl;
 
     @Override
     protected void initialize(ModuleContext context, String name) {
+        this.context = context;
         rateControl = context.httpServer.handler.rateControl;
         context.httpServer.handler.interceptors.add(new LimitRateInterceptor(rateControl));
     }
@@ -31,4 +42,20 @@ public final class LimitRateConfig extends Config {
         rateControl.config(group, maxPermits, fillRate, unit);
         rateControlGroupAdded = true;
     }
+
+    // enforce rates cluster wide, local rate is still checked first, if redis is not available, fall back to local rate
+    public void redis(String host) {
+        if (redisConfigured) throw new Error("limitRate redis is already configured, please configure only once");
+        logger.info("create redis rate control, host={}", host);
+
+        var redis = new RedisImpl("redis-rate-control");
+        redis.host = new RedisHost(host);
+        redis.timeout(Duration.ofSeconds(1));   // rate is checked on every request, use short timeout to fall back to local rate quickly if redis is slow
+        context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
+        context.collector.metrics.add(new PoolMetrics(redis.pool));
+        context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> redis.close());
+
+        rateControl.redis(redis);
+        redisConfigured = true;
+    }
 }
@@ -85,6 +85,10 @@ public abstract class Module {
         return new WebSocketConfig(context);
     }
 
+    public ServerSentEventConfig sse() {
+        return new ServerSentEventConfig(context);
+    }
+
     public SiteConfig site() {
         return context.config(SiteConfig.class, null);
     }
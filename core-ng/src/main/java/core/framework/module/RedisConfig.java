@@ -5,68 +5,146 @@ import core.framework.internal.module.ModuleContext;
 import core.framework.internal.module.ShutdownHook;
 import core.framework.internal.redis.RedisHost;
 import core.framework.internal.redis.RedisImpl;
+import core.framework.internal.redis.RedisStreamListenerThread;
+import core.framework.internal.redis.ReplicatedRedis;
+import core.framework.internal.redis.ShardedRedis;
 import core.framework.internal.resource.PoolMetrics;
 import core.framework.redis.Redis;
+import core.framework.redis.RedisStreamHandler;
+import core.framework.util.Network;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author neo
  */
 public class RedisConfig extends Config {
     private final Logger logger = LoggerFactory.getLogger(RedisConfig.class);
+    private final List<RedisImpl> clients = new ArrayList<>();
+    private final List<Consumer<RedisImpl>> settings = new ArrayList<>();   // settings can be configured before hosts, apply to all clients once created
     private ModuleContext context;
     private Redis redis;
     private String name;
-    private String host;
+    private String[] replicaHosts;
 
     @Override
     protected void initialize(ModuleContext context, String name) {
         this.context = context;
         this.name = name;
-        redis = createRedis();
-        context.beanFactory.bind(Redis.class, name, redis);
     }
 
     @Override
     protected void validate() {
-        if (host == null) throw new Error("redis host must be configured, name=" + name);
+        if (redis == null) throw new Error("redis host must be configured, name=" + name);
     }
 
-    Redis createRedis() {
-        logger.info("create redis client, name={}", name);
-        var redis = new RedisImpl("redis" + (name == null ? "" : "-" + name));
-        context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> redis.close());
-        context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
-        context.collector.metrics.add(new PoolMetrics(redis.pool));
-        return redis;
+    public void host(String host) {
+        hosts(host);
     }
 
-    public void host(String host) {
-        setHost(host);
-        this.host = host;
+    // with multiple hosts, keys are distributed to hosts by consistent hashing
+    public void hosts(String... hosts) {
+        if (redis != null) throw new Error("redis host is already configured, name=" + name);
+        if (hosts.length == 0) throw new Error("hosts must not be empty");
+        redis = createRedis(hosts);
+        context.beanFactory.bind(Redis.class, name, redis);
+    }
+
+    // read only commands go to replicas, e.g. GET/MGET/HGET/HGETALL/SMEMBERS/LRANGE, all others go to primary host
+    public void replicas(String... hosts) {
+        if (redis != null) throw new Error("replicas must be configured before host, name=" + name);
+        if (hosts.length == 0) throw new Error("hosts must not be empty");
+        replicaHosts = hosts;
     }
 
-    void setHost(String host) {
-        RedisImpl redis = (RedisImpl) this.redis;
+    Redis createRedis(String... hosts) {
+        String clientName = "redis" + (name == null ? "" : "-" + name);
+        if (replicaHosts != null) return createReplicatedRedis(clientName, hosts);
+        if (hosts.length == 1) return createClient(clientName, hosts[0]);
+
+        logger.info("create sharded redis client, name={}, hosts={}", name, String.join(",", hosts));
+        List<RedisImpl> shards = new ArrayList<>(hosts.length);
+        for (int i = 0; i < hosts.length; i++) {
+            shards.add(createClient(clientName + "-" + i, hosts[i]));
+        }
+        return new ShardedRedis(shards);
+    }
+
+    private ReplicatedRedis createReplicatedRedis(String clientName, String... hosts) {
+        if (hosts.length > 1) throw new Error("replicas are not supported with multiple hosts, name=" + name);
+        logger.info("create replicated redis client, name={}, host={}, replicas={}", name, hosts[0], String.join(",", replicaHosts));
+        RedisImpl primary = createClient(clientName, hosts[0]);
+        List<RedisImpl> replicas = new ArrayList<>(replicaHosts.length);
+        for (int i = 0; i < replicaHosts.length; i++) {
+            replicas.add(createClient(clientName + "-replica-" + i, replicaHosts[i]));
+        }
+        return new ReplicatedRedis(primary, replicas);
+    }
+
+    private RedisImpl createClient(String name, String host) {
+        logger.info("create redis client, name={}, host={}", name, host);
+        var redis = new RedisImpl(name);
         redis.host = new RedisHost(host);
+        for (Consumer<RedisImpl> setting : settings) {
+            setting.accept(redis);
+        }
+        context.shutdownHook.add(ShutdownHook.STAGE_7, timeout -> redis.close());
+        context.backgroundTask().scheduleWithFixedDelay(redis.pool::refresh, Duration.ofMinutes(5));
+        context.collector.metrics.add(new PoolMetrics(redis.pool));
+        clients.add(redis);
+        return redis;
     }
 
+    // with multiple hosts, pool size is per host
     public void poolSize(int minSize, int maxSize) {
-        ((RedisImpl) redis).pool.size(minSize, maxSize);
+        configure(redis -> redis.pool.size(minSize, maxSize));
+    }
+
+    // use given number of shared connections with pipelined requests instead of one connection per concurrent caller
+    public void multiplex(int connections) {
+        configure(redis -> redis.multiplex(connections));
     }
 
     public void slowOperationThreshold(Duration threshold) {
-        ((RedisImpl) redis).slowOperationThreshold(threshold);
+        configure(redis -> redis.slowOperationThreshold(threshold));
     }
 
     public void timeout(Duration timeout) {
-        ((RedisImpl) redis).timeout(timeout);
+        configure(redis -> redis.timeout(timeout));
+    }
+
+    private void configure(Consumer<RedisImpl> setting) {
+        settings.add(setting);
+        for (RedisImpl client : clients) {
+            setting.accept(client);
+        }
+    }
+
+    // consume stream as consumer group with dedicated connection, each instance is one consumer named by host name
+    public void subscribe(String stream, String group, RedisStreamHandler handler) {
+        if (redis == null) throw new Error("redis host must be configured first, name=" + name);
+        logger.info("subscribe redis stream, stream={}, group={}, handlerClass={}, name={}", stream, group, handler.getClass().getCanonicalName(), name);
+        addStreamListener(stream, group, handler);
+    }
+
+    void addStreamListener(String stream, String group, RedisStreamHandler handler) {
+        RedisImpl client;
+        if (redis instanceof ShardedRedis) client = ((ShardedRedis) redis).shard(stream);
+        else if (redis instanceof ReplicatedRedis) client = ((ReplicatedRedis) redis).primary;
+        else client = (RedisImpl) redis;
+        var thread = new RedisStreamListenerThread("redis-stream-" + stream, client, context.logManager, stream, group, Network.LOCAL_HOST_NAME, handler);
+        context.startupHook.add(thread::start);
+        context.shutdownHook.add(ShutdownHook.STAGE_0, timeout -> thread.shutdown());
+        context.shutdownHook.add(ShutdownHook.STAGE_1, thread::awaitTermination);
     }
 
     public Redis client() {
+        if (redis == null) throw new Error("redis host must be configured first, name=" + name);
         return redis;
     }
 }
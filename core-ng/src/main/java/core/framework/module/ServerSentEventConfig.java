@@ -0,0 +1,45 @@
+package core.framework.module;
+
+import core.framework.internal.module.ModuleContext;
+import core.framework.internal.web.HTTPIOHandler;
+import core.framework.internal.web.sse.ServerSentEventContextImpl;
+import core.framework.internal.web.sse.ServerSentEventHandler;
+import core.framework.util.Types;
+import core.framework.web.sse.ServerSentEventContext;
+import core.framework.web.sse.ServerSentEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * @author neo
+ */
+public final class ServerSentEventConfig {
+    final ModuleContext context;
+    private final Logger logger = LoggerFactory.getLogger(ServerSentEventConfig.class);
+
+    ServerSentEventConfig(ModuleContext context) {
+        this.context = context;
+    }
+
+    // ServerSentEventContext<T> is bound for each event class, last 100 broadcast events are kept to replay for reconnected client
+    public <T> void listen(String path, Class<T> eventClass, ServerSentEventListener<T> listener) {
+        logger.info("sse, path={}, eventClass={}, listener={}", path, eventClass.getCanonicalName(), listener.getClass().getCanonicalName());
+
+        if (HTTPIOHandler.HEALTH_CHECK_PATH.equals(path)) throw new Error("/health-check is reserved path");
+
+        if (context.httpServer.handler.sseHandler == null) {
+            var handler = new ServerSentEventHandler(context.httpServer.siteManager.sessionManager);
+            context.httpServer.handler.sseHandler = handler;
+            context.backgroundTask().scheduleWithFixedDelay(handler::keepAlive, Duration.ofSeconds(30));  // LB usually closes idle connection after 60s
+        }
+
+        context.beanClassValidator.validate(eventClass);
+        context.serviceRegistry.beanClasses.add(eventClass);
+
+        var sseContext = new ServerSentEventContextImpl<>(eventClass, listener, 100);
+        context.httpServer.handler.sseHandler.add(path, sseContext);
+        context.beanFactory.bind(Types.generic(ServerSentEventContext.class, eventClass), null, sseContext);
+    }
+}
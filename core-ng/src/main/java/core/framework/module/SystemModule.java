@@ -1,5 +1,7 @@
 package core.framework.module;
 
+import core.framework.util.Strings;
+
 /**
  * @author neo
  */
@@ -19,7 +21,8 @@ public final class SystemModule extends Module {
         configureLog();
         property("sys.kafka.uri").ifPresent(uri -> kafka().uri(uri));
         configureDB();
-        property("sys.redis.host").ifPresent(host -> redis().host(host));
+        property("sys.redis.replicas").ifPresent(hosts -> redis().replicas(Strings.split(hosts, ',')));
+        property("sys.redis.host").ifPresent(host -> redis().hosts(Strings.split(host, ',')));
         configureSite();
         property("sys.publishAPI.allowCIDR").ifPresent(cidrs -> api().publishAPI(new IPv4RangePropertyValueParser(cidrs).parse()));
     }
@@ -4,6 +4,7 @@ import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * @author neo
@@ -38,7 +39,26 @@ public interface Redis {
 
     RedisList list();
 
-    void forEach(String pattern, Consumer<String> consumer);
+    RedisSortedSet sortedSet();
+
+    RedisStream stream();
+
+    default void forEach(String pattern, Consumer<String> consumer) {
+        forEach(pattern, null, 500, consumer);
+    }
+
+    // iterate keys by SCAN, only one batch of keys is held in memory, type is to filter keys by type on server side, e.g. "hash" (requires redis 6.0+)
+    void forEach(String pattern, @Nullable String type, int batchSize, Consumer<String> consumer);
+
+    RedisPipeline pipeline();
+
+    // script is cached by sha1 digest, and executed by EVALSHA, fall back to EVAL if script is not loaded yet
+    RedisScript script(String script);
 
     RedisAdmin admin();
+
+    // with replicas, reads within action go to primary, e.g. read value just written, as replication is async
+    default <T> T readYourWrites(Supplier<T> action) {
+        return action.get();
+    }
 }
@@ -2,6 +2,7 @@ package core.framework.redis;
 
 import javax.annotation.Nullable;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * @author neo
@@ -19,4 +20,11 @@ public interface RedisHash {
     long increaseBy(String key, String field, long increment);
 
     long del(String key, String... fields);
+
+    default void forEach(String key, BiConsumer<String, String> consumer) {
+        forEach(key, 500, consumer);
+    }
+
+    // iterate fields by HSCAN, use it instead of getAll() for large hash
+    void forEach(String key, int batchSize, BiConsumer<String, String> consumer);
 }
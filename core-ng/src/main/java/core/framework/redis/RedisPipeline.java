@@ -0,0 +1,55 @@
+package core.framework.redis;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * queue commands and send them to redis within one round trip, results are only available after execute()
+ *
+ * @author neo
+ */
+public interface RedisPipeline {
+    Supplier<String> get(String key);
+
+    default Supplier<Boolean> set(String key, String value) {
+        return set(key, value, null, false);
+    }
+
+    default Supplier<Boolean> set(String key, String value, Duration expiration) {
+        return set(key, value, expiration, false);
+    }
+
+    Supplier<Boolean> set(String key, String value, @Nullable Duration expiration, boolean onlyIfAbsent);
+
+    void expire(String key, Duration duration);
+
+    Supplier<Long> del(String... keys);
+
+    Supplier<Long> increaseBy(String key, long increment);
+
+    Supplier<String> hashGet(String key, String field);
+
+    Supplier<Map<String, String>> hashGetAll(String key);
+
+    void hashMultiSet(String key, Map<String, String> values);
+
+    Supplier<Long> hashIncreaseBy(String key, String field, long increment);
+
+    Supplier<Long> hashDel(String key, String... fields);
+
+    Supplier<Long> setAdd(String key, String... values);
+
+    Supplier<Set<String>> setMembers(String key);
+
+    Supplier<Long> setRemove(String key, String... values);
+
+    Supplier<Long> listPush(String key, String... values);
+
+    Supplier<List<String>> listRange(String key, long start, long end);
+
+    void execute();
+}
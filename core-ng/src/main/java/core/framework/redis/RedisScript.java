@@ -0,0 +1,15 @@
+package core.framework.redis;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * lua script is executed atomically by redis, all keys must be passed in keys, for sharded redis, all keys must be in same shard
+ * result is converted as integer to Long, bulk string to String, array to List&lt;Object&gt;, status to String and nil to null
+ *
+ * @author neo
+ */
+public interface RedisScript {
+    @Nullable
+    Object execute(List<String> keys, String... arguments);
+}
@@ -1,6 +1,7 @@
 package core.framework.redis;
 
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * @author neo
@@ -18,4 +19,11 @@ public interface RedisSet {
     Set<String> pop(String key, long count);
 
     long size(String key);
+
+    default void forEach(String key, Consumer<String> consumer) {
+        forEach(key, 500, consumer);
+    }
+
+    // iterate members by SSCAN, use it instead of members() for large set
+    void forEach(String key, int batchSize, Consumer<String> consumer);
 }
@@ -0,0 +1,41 @@
+package core.framework.redis;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * score is stored as double by redis, long score is exact within 2^53, e.g. epoch millis
+ * returned maps are ordered as redis returns
+ *
+ * @author neo
+ */
+public interface RedisSortedSet {
+    default boolean add(String key, String value, long score) {
+        return add(key, Map.of(value, score), false) == 1;
+    }
+
+    // return number of added values, onlyIfAbsent = not to update score of existing values
+    long add(String key, Map<String, Long> values, boolean onlyIfAbsent);
+
+    long increaseScoreBy(String key, String value, long increment);
+
+    default Map<String, Long> rangeByScore(String key, long minScore, long maxScore) {
+        return rangeByScore(key, minScore, maxScore, 0, -1);
+    }
+
+    // values with score within [minScore, maxScore] in ascending order, limit = -1 to return all values after offset
+    Map<String, Long> rangeByScore(String key, long minScore, long maxScore, long offset, long limit);
+
+    // values by rank in descending order of score, e.g. reverseRange(key, 0, 9) returns top 10
+    Map<String, Long> reverseRange(String key, long start, long stop);
+
+    // rank in ascending order of score, start from 0
+    @Nullable
+    Long rank(String key, String value);
+
+    Map<String, Long> popMin(String key, long count);
+
+    long removeByScore(String key, long minScore, long maxScore);
+
+    long size(String key);
+}
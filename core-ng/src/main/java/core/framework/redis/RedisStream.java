@@ -0,0 +1,36 @@
+package core.framework.redis;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * stream with consumer group works as lightweight message queue, each message is delivered to one consumer of group,
+ * and stays in pending list of group until acknowledged, so it can be claimed by other consumer if original consumer died
+ *
+ * @author neo
+ */
+public interface RedisStream {
+    // append message with auto generated id, and trim stream to about maxLength (MAXLEN ~), return id of message
+    String add(String key, Map<String, String> fields, long maxLength);
+
+    // create group to consume messages added after now, and create stream if not exists, return false if group already exists
+    boolean createGroup(String key, String group);
+
+    default List<RedisStreamMessage> readGroup(String key, String group, String consumer, int count) {
+        return readGroup(key, group, consumer, count, null);
+    }
+
+    // read messages never delivered to other consumers of group, block must be shorter than redis timeout and not supported in multiplex mode,
+    // use redis().subscribe() to consume stream continuously with dedicated connection
+    List<RedisStreamMessage> readGroup(String key, String group, String consumer, int count, @Nullable Duration block);
+
+    long ack(String key, String group, String... ids);
+
+    // pending messages of group in order of id
+    List<RedisStreamPendingMessage> pending(String key, String group, int count);
+
+    // take over pending messages idle longer than minIdleTime, e.g. original consumer died before acknowledging
+    List<RedisStreamMessage> claim(String key, String group, String consumer, Duration minIdleTime, String... ids);
+}
@@ -0,0 +1,13 @@
+package core.framework.redis;
+
+import java.util.List;
+
+/**
+ * messages are acknowledged after handle returns, if handle fails, messages stay pending and will be claimed again after idle timeout
+ *
+ * @author neo
+ */
+@FunctionalInterface
+public interface RedisStreamHandler {
+    void handle(List<RedisStreamMessage> messages) throws Exception;
+}
@@ -0,0 +1,20 @@
+package core.framework.redis;
+
+import java.time.Duration;
+
+/**
+ * @author neo
+ */
+public final class RedisStreamPendingMessage {
+    public final String id;
+    public final String consumer;
+    public final Duration idleTime;     // elapsed time since message was delivered to consumer last time
+    public final long deliveries;
+
+    public RedisStreamPendingMessage(String id, String consumer, Duration idleTime, long deliveries) {
+        this.id = id;
+        this.consumer = consumer;
+        this.idleTime = idleTime;
+        this.deliveries = deliveries;
+    }
+}
@@ -0,0 +1,14 @@
+package core.framework.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * write response body incrementally, output blocks when client is slow, output is closed by framework after write returns
+ *
+ * @author neo
+ */
+@FunctionalInterface
+public interface BodyWriter {
+    void write(OutputStream output) throws IOException;
+}
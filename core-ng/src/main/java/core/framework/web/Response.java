@@ -3,16 +3,21 @@ package core.framework.web;
 import core.framework.api.http.HTTPStatus;
 import core.framework.http.ContentType;
 import core.framework.http.HTTPHeaders;
+import core.framework.internal.web.response.AsyncBody;
 import core.framework.internal.web.response.BeanBody;
 import core.framework.internal.web.response.ByteArrayBody;
 import core.framework.internal.web.response.FileBody;
+import core.framework.internal.web.response.JSONArrayBody;
 import core.framework.internal.web.response.ResponseImpl;
+import core.framework.internal.web.response.StreamBody;
 import core.framework.internal.web.response.TemplateBody;
 import core.framework.internal.web.response.TextBody;
 
 import javax.annotation.Nullable;
 import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 /**
  * @author neo
@@ -51,6 +56,20 @@ public interface Response {
         return new ResponseImpl(new FileBody(path));
     }
 
+    // body is written by chunks as it's generated, e.g. export large csv
+    static Response stream(ContentType contentType, BodyWriter writer) {
+        if (writer == null) throw new Error("writer must not be null");
+        return new ResponseImpl(new StreamBody(writer))
+                .contentType(contentType);
+    }
+
+    // beans are serialized one by one as json array, e.g. iterate large result from db, bean class must be registered by http().bean()
+    static Response jsonArray(Iterator<?> beans) {
+        if (beans == null) throw new Error("beans must not be null");
+        return new ResponseImpl(new JSONArrayBody(beans))
+                .contentType(ContentType.APPLICATION_JSON);
+    }
+
     static Response redirect(String url) {
         return redirect(url, HTTPStatus.SEE_OTHER);
     }
@@ -67,6 +86,12 @@ public interface Response {
                 .status(redirectStatus);
     }
 
+    // worker thread is released while waiting, response is rendered when completed, action log / web context / session are carried over
+    static Response async(CompletionStage<Response> response) {
+        if (response == null) throw new Error("response must not be null");
+        return new ResponseImpl(new AsyncBody(response));
+    }
+
     HTTPStatus status();
 
     Response status(HTTPStatus status);
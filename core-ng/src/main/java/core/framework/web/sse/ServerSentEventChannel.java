@@ -0,0 +1,14 @@
+package core.framework.web.sse;
+
+/**
+ * @author neo
+ */
+public interface ServerSentEventChannel<T> {
+    void send(T event);
+
+    void join(String group);
+
+    void leave(String group);
+
+    void close();
+}
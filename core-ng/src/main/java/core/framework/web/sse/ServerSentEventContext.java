@@ -0,0 +1,15 @@
+package core.framework.web.sse;
+
+import java.util.List;
+
+/**
+ * @author neo
+ */
+public interface ServerSentEventContext<T> {
+    List<ServerSentEventChannel<T>> all();
+
+    List<ServerSentEventChannel<T>> group(String name);
+
+    // event is serialized once and sent to all channels of group, and kept in replay buffer for reconnected client with Last-Event-ID
+    void broadcast(String group, T event);
+}
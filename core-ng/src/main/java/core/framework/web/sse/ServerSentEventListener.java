@@ -0,0 +1,13 @@
+package core.framework.web.sse;
+
+import core.framework.web.Request;
+
+/**
+ * @author neo
+ */
+public interface ServerSentEventListener<T> {
+    void onConnect(Request request, ServerSentEventChannel<T> channel);
+
+    default void onClose(ServerSentEventChannel<T> channel) {
+    }
+}
@@ -0,0 +1,127 @@
+package core.framework.internal.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class BinaryCodecBuilderTest {
+    private BinaryCodecBuilder<Bean> builder;
+    private BinaryCodec<Bean> codec;
+
+    @BeforeEach
+    void createBinaryCodec() {
+        builder = new BinaryCodecBuilder<>(Bean.class);
+        codec = builder.build();
+    }
+
+    @Test
+    void sourceCode() {
+        String sourceCode = builder.builder.sourceCode();
+        assertThat(sourceCode).contains("public void encode(core.framework.internal.cache.BinaryOutput output, Object value)")
+                .contains("public Object decode(core.framework.internal.cache.BinaryInput input)");
+    }
+
+    @Test
+    void encode() throws IOException {
+        var bean = new Bean();
+        bean.stringField = "value";
+        bean.booleanField = Boolean.TRUE;
+        bean.integerField = -1;
+        bean.longField = Long.MAX_VALUE;
+        bean.doubleField = 1.5;
+        bean.bigDecimalField = new BigDecimal("-12345678901234567890.123");
+        bean.dateField = LocalDate.of(1969, 12, 31);
+        bean.dateTimeField = LocalDateTime.of(2020, 8, 24, 12, 30, 15, 123456789);
+        bean.timeField = LocalTime.of(23, 59, 59);
+        bean.instantField = Instant.ofEpochSecond(-1, 999);
+        bean.zonedDateTimeField = ZonedDateTime.of(2020, 8, 24, 12, 0, 0, 0, ZoneId.of("America/New_York"));
+        bean.enumField = TestEnum.V2;
+        bean.listField = Arrays.asList("v1", null, "v3");
+        bean.mapField = Map.of("key", List.of("v1", "v2"));
+        bean.enumMapField = Map.of(TestEnum.V1, child(1));
+        bean.childField = child(2);
+        bean.childrenField = Arrays.asList(child(3), null);
+        bean.defaultField = null;
+
+        byte[] bytes = codec.encode(bean);
+        assertThat(BinaryCodec.encoded(bytes, 0, bytes.length)).isTrue();
+
+        Bean decoded = codec.decode(bytes, 0, bytes.length);
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(bean);
+    }
+
+    @Test
+    void encodeEmptyBean() throws IOException {
+        byte[] bytes = codec.encode(new Bean());
+        Bean decoded = codec.decode(bytes, 0, bytes.length);
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(new Bean());
+    }
+
+    @Test
+    void decodeWithDifferentVersion() throws IOException {
+        byte[] bytes = codec.encode(new Bean());
+        bytes[4]++;
+        assertThat(codec.decode(bytes, 0, bytes.length)).isNull();
+    }
+
+    @Test
+    void version() {
+        assertThat(builder.schema())
+                .contains("stringField:java.lang.String;")
+                .contains("mapField:java.util.Map<java.lang.String, java.util.List<java.lang.String>>;")
+                .contains(TestEnum.class.getName() + "[V1,V2,]");
+        assertThat(new BinaryCodecBuilder<>(Child.class).build().version).isNotEqualTo(codec.version);
+    }
+
+    private Child child(int value) {
+        var child = new Child();
+        child.intField = value;
+        return child;
+    }
+
+    public enum TestEnum {
+        V1,
+        V2
+    }
+
+    public static class Bean {
+        public String stringField;
+        public Boolean booleanField;
+        public Integer integerField;
+        public Long longField;
+        public Double doubleField;
+        public BigDecimal bigDecimalField;
+        public LocalDate dateField;
+        public LocalDateTime dateTimeField;
+        public LocalTime timeField;
+        public Instant instantField;
+        public ZonedDateTime zonedDateTimeField;
+        public TestEnum enumField;
+        public List<String> listField;
+        public Map<String, List<String>> mapField;
+        public Map<TestEnum, Child> enumMapField;
+        public Child childField;
+        public List<Child> childrenField;
+        public String defaultField = "default";
+    }
+
+    public static class Child {
+        public Integer intField;
+    }
+}
@@ -0,0 +1,65 @@
+package core.framework.internal.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class BinaryCodecTest {
+    private BinaryCodec<TestCache> codec;
+    private CacheContext<TestCache> context;
+
+    @BeforeEach
+    void createBinaryCodec() {
+        codec = new BinaryCodecBuilder<>(TestCache.class).build();
+        context = new CacheContext<>(TestCache.class);
+    }
+
+    @Test
+    void encodeSmallerThanJSON() throws IOException {
+        var value = new TestCache();
+        value.stringField = "value";
+        value.listField = List.of("v1", "v2");
+        value.mapField = Map.of("key", "value");
+        value.enumMapField = Map.of(TestCache.TestEnum.V1, "v1");
+
+        byte[] bytes = codec.encode(value);
+        assertThat(bytes.length).isLessThan(context.writer.toJSON(value).length / 2);
+        assertThat(codec.decode(bytes, 0, bytes.length)).usingRecursiveComparison().isEqualTo(value);
+    }
+
+    @Test
+    void decodeTruncatedValue() {
+        var value = new TestCache();
+        value.stringField = "value";
+        byte[] bytes = codec.encode(value);
+
+        assertThatThrownBy(() -> codec.decode(bytes, 0, bytes.length - 1))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("invalid binary value");
+    }
+
+    @Test
+    void decodeWithTrailingData() {
+        byte[] bytes = Arrays.copyOf(codec.encode(new TestCache()), 100);
+
+        assertThatThrownBy(() -> codec.decode(bytes, 0, bytes.length))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("unexpected data after value");
+    }
+
+    @Test
+    void encoded() {
+        byte[] json = context.writer.toJSON(new TestCache());
+        assertThat(BinaryCodec.encoded(json, 0, json.length)).isFalse();
+    }
+}
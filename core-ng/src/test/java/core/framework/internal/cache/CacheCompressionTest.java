@@ -0,0 +1,53 @@
+package core.framework.internal.cache;
+
+import core.framework.util.Strings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class CacheCompressionTest {
+    private CacheCompression compression;
+
+    @BeforeEach
+    void createCacheCompression() {
+        compression = new CacheCompression(100);
+    }
+
+    @Test
+    void compress() throws IOException {
+        byte[] json = Strings.bytes("{\"field\":\"" + "value".repeat(1000) + "\"}");
+        byte[] compressed = compression.compress(json);
+        assertThat(compressed.length).isLessThan(json.length / 10);
+        assertThat(CacheCompression.compressed(compressed, 0, compressed.length)).isTrue();
+
+        // decompress from slice of larger buffer, as reading from redis connection
+        byte[] buffer = new byte[compressed.length + 10];
+        System.arraycopy(compressed, 0, buffer, 5, compressed.length);
+        try (InputStream stream = CacheCompression.decompress(buffer, 5, compressed.length)) {
+            assertThat(stream.readAllBytes()).isEqualTo(json);
+        }
+    }
+
+    @Test
+    void compressSmallValue() {
+        byte[] json = Strings.bytes("{\"field\":\"value\"}");
+        assertThat(compression.compress(json)).isSameAs(json);
+        assertThat(CacheCompression.compressed(json, 0, json.length)).isFalse();
+    }
+
+    @Test
+    void compressIncompressibleValue() {
+        byte[] json = new byte[200];
+        new Random().nextBytes(json);
+        json[0] = '"';
+        assertThat(compression.compress(json)).isSameAs(json);
+    }
+}
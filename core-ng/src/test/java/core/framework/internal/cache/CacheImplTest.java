@@ -1,8 +1,11 @@
 package core.framework.internal.cache;
 
+import core.framework.async.Executor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -12,13 +15,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,6 +55,7 @@ class CacheImplTest {
 
         TestCache result = cache.get("key", key -> null);
         assertThat(result).isSameAs(value);
+        assertThat(cache.stats().hits.sum()).isEqualTo(1);
     }
 
     @Test
@@ -55,6 +66,109 @@ class CacheImplTest {
         assertThat(value.stringField).isEqualTo("value");
 
         verify(cacheStore).put("name:key", value, Duration.ofHours(1), cache.context);
+        assertThat(cache.loadings).isEmpty();
+        assertThat(cache.stats().misses.sum()).isEqualTo(1);
+        assertThat(cache.stats().loads.sum()).isEqualTo(1);
+    }
+
+    @Test
+    void getWhenLoadingByOtherThread() {
+        var value = cacheItem("value");
+        cache.loadings.put("name:key", CompletableFuture.completedFuture(value));
+        when(cacheStore.get("name:key", cache.context)).thenReturn(null);
+
+        TestCache result = cache.get("key", key -> {
+            throw new Error("value should not be loaded");
+        });
+        assertThat(result).isSameAs(value);
+        verify(cacheStore, never()).put(eq("name:key"), any(), any(), any());
+    }
+
+    @Test
+    void getWhenLoadingByOtherThreadFailed() {
+        cache.loadings.put("name:key", CompletableFuture.failedFuture(new IllegalStateException("failed to load")));
+
+        assertThatThrownBy(() -> cache.get("key", key -> cacheItem("value")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("failed to load");
+    }
+
+    @Test
+    void getWithConcurrentMiss() throws InterruptedException {
+        var loading = new CountDownLatch(1);
+        var loaded = new CountDownLatch(1);
+        var loads = new AtomicInteger();
+        Function<String, TestCache> loader = key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(loaded);
+            return cacheItem("value");
+        };
+        var thread1 = new Thread(() -> cache.get("key", loader));
+        var thread2 = new Thread(() -> cache.get("key", loader));
+        thread1.start();
+        await(loading);
+        thread2.start();
+        while (thread2.getState() != Thread.State.WAITING) {    // wait until thread2 waits for value loaded by thread1
+            Thread.onSpinWait();
+        }
+        loaded.countDown();
+        thread1.join();
+        thread2.join();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.loadings).isEmpty();
+    }
+
+    @Test
+    void getWithStaleWhileRevalidate() throws Exception {
+        Executor executor = mock(Executor.class);
+        cache.staleWhileRevalidate(Duration.ofMinutes(5), executor);
+
+        var value = cacheItem("value");
+        when(cacheStore.getItem("name:key", cache.context)).thenReturn(new CacheStore.Item<>(value, System.currentTimeMillis() + Duration.ofMinutes(30).toMillis()));
+        assertThat(cache.get("key", key -> cacheItem("newValue"))).isSameAs(value);
+        verify(executor, never()).submit(anyString(), ArgumentMatchers.<Callable<TestCache>>any());
+
+        // within maxStale before expiration, return stale value and refresh in background
+        when(cacheStore.getItem("name:key", cache.context)).thenReturn(new CacheStore.Item<>(value, System.currentTimeMillis() + Duration.ofMinutes(1).toMillis()));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Callable<TestCache>> task = ArgumentCaptor.forClass(Callable.class);
+        when(executor.submit(anyString(), task.capture())).thenReturn(CompletableFuture.completedFuture(null));
+        assertThat(cache.get("key", key -> cacheItem("newValue"))).isSameAs(value);
+        assertThat(cache.loadings).containsKey("name:key");
+
+        TestCache newValue = task.getValue().call();
+        assertThat(newValue.stringField).isEqualTo("newValue");
+        verify(cacheStore).put("name:key", newValue, Duration.ofMinutes(65), cache.context);
+        assertThat(cache.loadings).isEmpty();
+    }
+
+    @Test
+    void getAllWithStaleWhileRevalidate() throws Exception {
+        Executor executor = mock(Executor.class);
+        cache.staleWhileRevalidate(Duration.ofMinutes(5), executor);
+
+        var value1 = cacheItem("v1");
+        var value2 = cacheItem("v2");
+        long now = System.currentTimeMillis();
+        when(cacheStore.getItems(new String[]{"name:key1", "name:key2"}, cache.context)).thenReturn(Map.of(
+                "name:key1", new CacheStore.Item<>(value1, now + Duration.ofMinutes(30).toMillis()),
+                "name:key2", new CacheStore.Item<>(value2, now + Duration.ofMinutes(1).toMillis())));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Callable<Map<String, TestCache>>> task = ArgumentCaptor.forClass(Callable.class);
+        when(executor.submit(anyString(), task.capture())).thenReturn(CompletableFuture.completedFuture(null));
+
+        Map<String, TestCache> results = cache.getAll(Arrays.asList("key1", "key2"), key -> cacheItem("new-" + key));
+        assertThat(results).containsOnlyKeys("key1", "key2");
+        assertThat(results.get("key2")).isSameAs(value2);      // stale value is returned immediately
+        assertThat(cache.loadings).containsOnlyKeys("name:key2");
+
+        Map<String, TestCache> newValues = task.getValue().call();
+        assertThat(newValues).containsOnlyKeys("key2");
+        assertThat(newValues.get("key2").stringField).isEqualTo("new-key2");
+        verify(cacheStore).putAll(argThat(argument -> argument.size() == 1 && "name:key2".equals(argument.get(0).key)), eq(Duration.ofMinutes(65)), eq(cache.context));
+        assertThat(cache.loadings).isEmpty();
     }
 
     @Test
@@ -91,6 +205,27 @@ class CacheImplTest {
         verify(cacheStore).putAll(argThat(argument -> argument.size() == 1 && "v2".equals(argument.get(0).value.stringField)), eq(Duration.ofHours(1)), eq(cache.context));
     }
 
+    @Test
+    void getAllWhenLoadingByOtherThread() {
+        var value = cacheItem("v2");
+        cache.loadings.put("name:key2", CompletableFuture.completedFuture(value));
+        when(cacheStore.getAll(new String[]{"name:key1", "name:key2", "name:key1"}, cache.context)).thenReturn(Map.of());
+
+        var loads = new AtomicInteger();
+        Map<String, TestCache> results = cache.getAll(Arrays.asList("key1", "key2", "key1"), key -> {
+            loads.incrementAndGet();
+            assertThat(cache.loadings).containsKey("name:key1");
+            return cacheItem("v1");
+        });
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(results.get("key1").stringField).isEqualTo("v1");
+        assertThat(results.get("key2")).isSameAs(value);
+
+        verify(cacheStore).putAll(argThat(argument -> argument.size() == 1 && "name:key1".equals(argument.get(0).key)), eq(Duration.ofHours(1)), eq(cache.context));
+        cache.loadings.remove("name:key2");
+        assertThat(cache.loadings).isEmpty();
+    }
+
     @Test
     void getAllWhenHit() {
         var values = Map.of("name:key1", cacheItem("v1"),
@@ -103,6 +238,52 @@ class CacheImplTest {
         verify(cacheStore, never()).putAll(any(), any(), any());
     }
 
+    @Test
+    void bulkGet() {
+        var values = Map.of("name:key1", cacheItem("v1"));
+        when(cacheStore.getAll(new String[]{"name:key1", "name:key2", "name:key3", "name:key2"}, cache.context)).thenReturn(values);
+
+        var loads = new AtomicInteger();
+        Map<String, TestCache> results = cache.bulkGet(Arrays.asList("key1", "key2", "key3", "key2"), keys -> {
+            loads.incrementAndGet();
+            assertThat(keys).containsExactly("key2", "key3");
+            return Map.of("key2", cacheItem("v2"), "key3", cacheItem("v3"));
+        });
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(results).containsOnlyKeys("key1", "key2", "key3");
+        assertThat(results.get("key3").stringField).isEqualTo("v3");
+
+        verify(cacheStore).putAll(argThat(argument -> argument.size() == 2
+                && "name:key2".equals(argument.get(0).key)
+                && "name:key3".equals(argument.get(1).key)), eq(Duration.ofHours(1)), eq(cache.context));
+        assertThat(cache.loadings).isEmpty();
+    }
+
+    @Test
+    void bulkGetWhenLoadingByOtherThread() {
+        var value = cacheItem("v2");
+        cache.loadings.put("name:key2", CompletableFuture.completedFuture(value));
+        when(cacheStore.getAll(new String[]{"name:key1", "name:key2"}, cache.context)).thenReturn(Map.of());
+
+        Map<String, TestCache> results = cache.bulkGet(Arrays.asList("key1", "key2"), keys -> {
+            assertThat(keys).containsExactly("key1");
+            return Map.of("key1", cacheItem("v1"));
+        });
+        assertThat(results.get("key1").stringField).isEqualTo("v1");
+        assertThat(results.get("key2")).isSameAs(value);
+    }
+
+    @Test
+    void bulkGetWithMissingValue() {
+        when(cacheStore.getAll(new String[]{"name:key1", "name:key2"}, cache.context)).thenReturn(Map.of());
+
+        assertThatThrownBy(() -> cache.bulkGet(Arrays.asList("key1", "key2"), keys -> Map.of("key1", cacheItem("v1"))))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("value must not be null, key=key2");
+        verify(cacheStore, never()).putAll(any(), any(), any());
+        assertThat(cache.loadings).isEmpty();
+    }
+
     @Test
     void put() {
         TestCache item = cacheItem("v1");
@@ -138,6 +319,14 @@ class CacheImplTest {
         verify(cacheStore).delete("name:key1", "name:key2");
     }
 
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new Error(e);
+        }
+    }
+
     private TestCache cacheItem(String stringField) {
         var result = new TestCache();
         result.stringField = stringField;
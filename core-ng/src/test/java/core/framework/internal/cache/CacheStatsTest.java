@@ -0,0 +1,34 @@
+package core.framework.internal.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class CacheStatsTest {
+    private CacheStats stats;
+
+    @BeforeEach
+    void createCacheStats() {
+        stats = new CacheStats();
+    }
+
+    @Test
+    void load() {
+        stats.load(500_000);
+        stats.load(1_000_000);
+        stats.load(50_000_000);
+        stats.load(2_000_000_000);
+
+        assertThat(stats.loads.sum()).isEqualTo(4);
+        assertThat(stats.loadElapsed.sum()).isEqualTo(2_051_500_000L);
+        assertThat(stats.loadTimes[0].sum()).isEqualTo(2);
+        assertThat(stats.loadTimes[1].sum()).isZero();
+        assertThat(stats.loadTimes[2].sum()).isEqualTo(1);
+        assertThat(stats.loadTimes[3].sum()).isZero();
+        assertThat(stats.loadTimes[4].sum()).isEqualTo(1);
+    }
+}
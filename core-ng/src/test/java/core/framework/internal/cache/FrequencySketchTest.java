@@ -0,0 +1,52 @@
+package core.framework.internal.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class FrequencySketchTest {
+    private FrequencySketch sketch;
+
+    @BeforeEach
+    void createFrequencySketch() {
+        sketch = new FrequencySketch(100);
+    }
+
+    @Test
+    void increment() {
+        int hash = "key".hashCode();
+        assertThat(sketch.frequency(hash)).isZero();
+
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(hash);
+        }
+        assertThat(sketch.frequency(hash)).isEqualTo(5);
+    }
+
+    @Test
+    void incrementWithMaxCount() {
+        int hash = "key".hashCode();
+        for (int i = 0; i < 20; i++) {
+            sketch.increment(hash);
+        }
+        assertThat(sketch.frequency(hash)).isEqualTo(15);
+    }
+
+    @Test
+    void reset() {
+        int hash = "key".hashCode();
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(hash);
+        }
+        // counters are halved after sample size (10 * maxSize) additions
+        for (int i = 0; i < 990; i++) {
+            sketch.increment(("key-" + i).hashCode());
+        }
+        assertThat(sketch.additions).isEqualTo(500);
+        assertThat(sketch.frequency(hash)).isLessThan(10);
+    }
+}
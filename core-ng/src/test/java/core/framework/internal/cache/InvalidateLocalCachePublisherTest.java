@@ -0,0 +1,86 @@
+package core.framework.internal.cache;
+
+import core.framework.internal.redis.RedisImpl;
+import core.framework.internal.stat.Stats;
+import core.framework.json.JSON;
+import core.framework.util.Network;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static core.framework.internal.cache.RedisLocalCacheStore.CHANNEL_INVALIDATE_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author neo
+ */
+@ExtendWith(MockitoExtension.class)
+class InvalidateLocalCachePublisherTest {
+    @Mock
+    RedisImpl redis;
+    private InvalidateLocalCachePublisher publisher;
+
+    @BeforeEach
+    void createInvalidateLocalCachePublisher() {
+        publisher = new InvalidateLocalCachePublisher(redis, Duration.ofMillis(5));
+    }
+
+    @Test
+    void flush() {
+        publisher.publish(List.of("key1", "key2"));
+        publisher.publish(List.of("key2", "key3"));
+        publisher.flush();
+
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(redis).publish(eq(CHANNEL_INVALIDATE_CACHE), captor.capture());
+        InvalidateLocalCacheMessage message = JSON.fromJSON(InvalidateLocalCacheMessage.class, new String(captor.getValue(), StandardCharsets.UTF_8));
+        assertThat(message.keys).containsExactly("key1", "key2", "key3");
+        assertThat(message.clientIP).isEqualTo(Network.LOCAL_HOST_ADDRESS);
+
+        var stats = new Stats();
+        new InvalidateLocalCacheMetrics(publisher).collect(stats);
+        assertThat(stats.stats)
+                .containsEntry("cache_invalidate_published_messages", 1.0d)
+                .containsEntry("cache_invalidate_published_keys", 3.0d);
+    }
+
+    @Test
+    void flushWithoutKeys() {
+        publisher.flush();
+
+        verify(redis, never()).publish(anyString(), any());
+    }
+
+    @Test
+    void flushWithFailure() {
+        doThrow(new Error("failed")).when(redis).publish(eq(CHANNEL_INVALIDATE_CACHE), any());
+        publisher.publish(List.of("key1"));
+        publisher.flush();
+
+        assertThat(publisher.publishedMessages.sum()).isZero();
+    }
+
+    @Test
+    void shutdown() throws InterruptedException {
+        publisher.start();
+        publisher.publish(List.of("key1"));
+        publisher.shutdown();
+        publisher.awaitTermination(5000);
+
+        assertThat(publisher.isAlive()).isFalse();
+        verify(redis).publish(eq(CHANNEL_INVALIDATE_CACHE), any());
+    }
+}
@@ -23,6 +23,7 @@ class LocalCacheMetricsTest {
         metrics.collect(stats);
 
         assertThat(stats.stats)
-                .containsEntry("cache_size", 0.0d);
+                .containsEntry("cache_size", 0.0d)
+                .containsEntry("cache_size_in_bytes", 0.0d);
     }
 }
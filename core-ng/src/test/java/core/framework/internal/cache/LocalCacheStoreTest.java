@@ -4,8 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -14,83 +17,161 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 class LocalCacheStoreTest {
     private LocalCacheStore cacheStore;
+    private CacheContext<TestCache> context;
 
     @BeforeEach
     void createLocalCacheStore() {
         cacheStore = new LocalCacheStore();
+        context = new CacheContext<>(TestCache.class);
     }
 
     @Test
     void getAll() {
-        Map<String, TestCache> values = cacheStore.getAll(new String[]{"key1", "key2"}, null);
+        Map<String, TestCache> values = cacheStore.getAll(new String[]{"key1", "key2"}, context);
         assertThat(values).isEmpty();
 
         var value = new TestCache();
-        cacheStore.put("key1", value, Duration.ofMinutes(1), null);
-        values = cacheStore.getAll(new String[]{"key1", "key2"}, null);
+        cacheStore.put("key1", value, Duration.ofMinutes(1), context);
+        values = cacheStore.getAll(new String[]{"key1", "key2"}, context);
         assertThat(values).hasSize(1).containsEntry("key1", value);
     }
 
     @Test
     void get() {
         var value = new TestCache();
-        cacheStore.put("key1", value, Duration.ofMinutes(1), null);
+        cacheStore.put("key1", value, Duration.ofMinutes(1), context);
 
-        TestCache retrievedValue = cacheStore.get("key1", null);
+        TestCache retrievedValue = cacheStore.get("key1", context);
         assertThat(retrievedValue).isSameAs(value);
+        assertThat(cacheStore.get("key2", context)).isNull();
+    }
+
+    @Test
+    void getItem() {
+        var value = new TestCache();
+        long now = System.currentTimeMillis();
+        cacheStore.put("key1", value, Duration.ofMinutes(1), context);
 
-        LocalCacheStore.CacheItem<?> item = cacheStore.caches.get("key1");
-        assertThat(item.hits).isEqualTo(1);
+        CacheStore.Item<TestCache> item = cacheStore.getItem("key1", context);
+        assertThat(item.value).isSameAs(value);
+        assertThat(item.expirationTime).isGreaterThanOrEqualTo(now + Duration.ofMinutes(1).toMillis());
 
-        cacheStore.get("key1", null);
-        assertThat(item.hits).isEqualTo(2);
+        assertThat(cacheStore.getItem("key2", context)).isNull();
     }
 
     @Test
     void getWithExpiredKey() {
         var value = new TestCache();
-        cacheStore.put("key1", value, Duration.ZERO, null);
+        cacheStore.put("key1", value, Duration.ZERO, context);
 
-        TestCache retrievedValue = cacheStore.get("key1", null);
+        TestCache retrievedValue = cacheStore.get("key1", context);
         assertThat(retrievedValue).isNull();
+        assertThat(cacheStore.caches).isEmpty();
+        assertThat(cacheStore.sizeInBytes()).isZero();
     }
 
     @Test
     void cleanup() {
-        cacheStore.put("key1", new TestCache(), Duration.ZERO, null);
-        cacheStore.put("key2", new TestCache(), Duration.ofMinutes(1), null);
+        cacheStore.put("key1", new TestCache(), Duration.ZERO, context);
+        cacheStore.put("key2", new TestCache(), Duration.ofMinutes(1), context);
         cacheStore.cleanup();
 
         assertThat(cacheStore.caches).hasSize(1);
     }
 
     @Test
-    void cleanupWithEviction() {
-        cacheStore.maxSize = 1;
-        cacheStore.put("k1", new TestCache(), Duration.ofHours(1), null);
-        cacheStore.put("k2", new TestCache(), Duration.ofHours(1), null);
-        cacheStore.put("k3", new TestCache(), Duration.ofHours(1), null);
-        cacheStore.get("k1", null);
-        cacheStore.get("k2", null);
-        cacheStore.get("k2", null);
+    void evictByFrequency() {
+        cacheStore.maxSize = 3;
+        cacheStore.put("k1", new TestCache(), Duration.ofHours(1), context);
+        cacheStore.put("k2", new TestCache(), Duration.ofHours(1), context);
+        cacheStore.put("k3", new TestCache(), Duration.ofHours(1), context);
+        cacheStore.get("k1", context);
+        cacheStore.get("k1", context);
+
+        // k3 is evicted from window, but not more frequent than k2
+        cacheStore.put("k4", new TestCache(), Duration.ofHours(1), context);
+        assertThat(cacheStore.caches).containsOnlyKeys("k1", "k2", "k4");
+
+        // k3 is requested frequently, so replaces k2 when evicted from window
+        for (int i = 0; i < 3; i++) {
+            cacheStore.get("k3", context);
+        }
+        cacheStore.put("k3", new TestCache(), Duration.ofHours(1), context);
+        cacheStore.put("k5", new TestCache(), Duration.ofHours(1), context);
+        assertThat(cacheStore.caches).containsOnlyKeys("k1", "k3", "k5");
+    }
 
-        cacheStore.cleanup();
-        assertThat(cacheStore.caches).containsOnlyKeys("k2");
+    @Test
+    void evictBySizeInBytes() {
+        var value = new TestCache();
+        value.stringField = "value".repeat(20);
+        int weight = "key0".length() + context.writer.toJSON(value).length;
+        cacheStore.maxSizeInBytes = weight * 5 / 2;
+        for (int i = 0; i < 3; i++) {
+            cacheStore.put("key" + i, value, Duration.ofHours(1), context);
+        }
+
+        assertThat(cacheStore.caches).containsOnlyKeys("key1", "key2");
+        assertThat(cacheStore.sizeInBytes()).isEqualTo(weight * 2L);
+        assertThat(context.stats.sizeInBytes.sum()).isEqualTo(weight * 2L);
+        assertThat(context.stats.evictions.sum()).isEqualTo(1);
+
+        cacheStore.delete("key0", "key1", "key2");
+        assertThat(cacheStore.sizeInBytes()).isZero();
+        assertThat(context.stats.sizeInBytes.sum()).isZero();
+    }
+
+    @Test
+    void evictLargerThanMaxSizeInBytes() {
+        cacheStore.maxSizeInBytes = 10;
+        var value = new TestCache();
+        value.stringField = "value";
+        cacheStore.put("key", value, Duration.ofHours(1), context);
+
+        assertThat(cacheStore.caches).isEmpty();
+        assertThat(cacheStore.sizeInBytes()).isZero();
+    }
+
+    @Test
+    void hitRatio() {
+        cacheStore.maxSize = 100;
+        var lru = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > 100;
+            }
+        };
+        var random = new Random(1);
+        double[] distribution = zipf(10000);
+        int hits = 0;
+        int lruHits = 0;
+        int requests = 100000;
+        for (int i = 0; i < requests; i++) {
+            // mix with one time scan, which should not flush frequent keys
+            String key = i % 10 == 0 ? "scan-" + i : "key-" + sample(distribution, random);
+            if (cacheStore.get(key, context) != null) hits++;
+            else cacheStore.put(key, new TestCache(), Duration.ofHours(1), context);
+            if (lru.get(key) != null) lruHits++;
+            else lru.put(key, Boolean.TRUE);
+        }
+
+        assertThat(cacheStore.caches.size()).isLessThanOrEqualTo(100);
+        assertThat((double) hits / requests).isGreaterThan(0.35).isGreaterThan((double) lruHits / requests);
     }
 
     @Test
     void putAll() {
         var values = List.of(new CacheStore.Entry<>("key1", new TestCache()),
                 new CacheStore.Entry<>("key2", new TestCache()));
-        cacheStore.putAll(values, Duration.ofMinutes(1), null);
+        cacheStore.putAll(values, Duration.ofMinutes(1), context);
 
         assertThat(cacheStore.caches).hasSize(2);
     }
 
     @Test
     void delete() {
-        cacheStore.put("key1", new TestCache(), Duration.ofMinutes(1), null);
-        cacheStore.put("key2", new TestCache(), Duration.ofMinutes(1), null);
+        cacheStore.put("key1", new TestCache(), Duration.ofMinutes(1), context);
+        cacheStore.put("key2", new TestCache(), Duration.ofMinutes(1), context);
 
         assertThat(cacheStore.delete("key1", "key2")).isTrue();
         assertThat(cacheStore.caches).isEmpty();
@@ -100,8 +181,31 @@ class LocalCacheStoreTest {
 
     @Test
     void clear() {
+        cacheStore.put("key1", new TestCache(), Duration.ofMinutes(1), context);
+        cacheStore.put("key1", new TestCache(), Duration.ofMinutes(1), context);     // replace existing item
         cacheStore.clear();
 
         assertThat(cacheStore.caches).isEmpty();
+        assertThat(cacheStore.sizeInBytes()).isZero();
+        assertThat(context.stats.sizeInBytes.sum()).isZero();
+    }
+
+    // cumulative distribution of zipf with exponent 1
+    private double[] zipf(int size) {
+        double[] distribution = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1.0 / (i + 1);
+            distribution[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            distribution[i] /= sum;
+        }
+        return distribution;
+    }
+
+    private int sample(double[] distribution, Random random) {
+        int index = Arrays.binarySearch(distribution, random.nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, distribution.length - 1);
     }
 }
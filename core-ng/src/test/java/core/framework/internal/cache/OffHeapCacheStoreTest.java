@@ -0,0 +1,162 @@
+package core.framework.internal.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class OffHeapCacheStoreTest {
+    private OffHeapCacheStore cacheStore;
+    private CacheContext<TestCache> context;
+
+    @BeforeEach
+    void createOffHeapCacheStore() {
+        cacheStore = new OffHeapCacheStore(16 * 1024, 0);
+        context = new CacheContext<>(TestCache.class);
+    }
+
+    @Test
+    void createWithInvalidSize() {
+        assertThatThrownBy(() -> new OffHeapCacheStore(1024, 0))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("maxSizeInBytes must be between");
+    }
+
+    @Test
+    void get() {
+        assertThat(cacheStore.get("key1", context)).isNull();
+
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+        TestCache value = cacheStore.get("key1", context);
+        assertThat(value.stringField).isEqualTo("value1");
+        assertThat(cacheStore.get("key1", context)).isNotSameAs(value);     // decoded on every get without front store
+
+        cacheStore.put("key1", value("value2"), Duration.ofMinutes(1), context);
+        assertThat(cacheStore.get("key1", context).stringField).isEqualTo("value2");
+        assertThat(cacheStore.size()).isEqualTo(1);
+    }
+
+    @Test
+    void getItem() {
+        long now = System.currentTimeMillis();
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+
+        CacheStore.Item<TestCache> item = cacheStore.getItem("key1", context);
+        assertThat(item.value.stringField).isEqualTo("value1");
+        assertThat(item.expirationTime).isGreaterThanOrEqualTo(now + Duration.ofMinutes(1).toMillis());
+    }
+
+    @Test
+    void getWithExpiredKey() {
+        cacheStore.put("key1", value("value1"), Duration.ZERO, context);
+
+        assertThat(cacheStore.get("key1", context)).isNull();
+        assertThat(cacheStore.size()).isZero();
+        assertThat(cacheStore.sizeInBytes()).isZero();
+    }
+
+    @Test
+    void getWithFrontStore() {
+        cacheStore = new OffHeapCacheStore(16 * 1024, 10);
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+
+        TestCache value = cacheStore.get("key1", context);
+        assertThat(cacheStore.get("key1", context)).isSameAs(value);
+
+        cacheStore.put("key1", value("value2"), Duration.ofMinutes(1), context);
+        assertThat(cacheStore.front.caches).isEmpty();
+        assertThat(cacheStore.get("key1", context).stringField).isEqualTo("value2");
+
+        cacheStore.delete("key1");
+        assertThat(cacheStore.get("key1", context)).isNull();
+    }
+
+    @Test
+    void getWithBinaryCodec() {
+        context.codec = new BinaryCodecBuilder<>(TestCache.class).build();
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+
+        assertThat(cacheStore.get("key1", context).stringField).isEqualTo("value1");
+    }
+
+    @Test
+    void getAll() {
+        cacheStore.putAll(List.of(new CacheStore.Entry<>("key1", value("value1")),
+                new CacheStore.Entry<>("key2", value("value2"))), Duration.ofMinutes(1), context);
+
+        Map<String, TestCache> values = cacheStore.getAll(new String[]{"key1", "key2", "key3"}, context);
+        assertThat(values).containsOnlyKeys("key1", "key2");
+        assertThat(values.get("key2").stringField).isEqualTo("value2");
+    }
+
+    @Test
+    void putWithEviction() {
+        // each segment has 1K, write far more than capacity, oldest entries are evicted and latest ones must be kept
+        for (int i = 0; i < 1000; i++) {
+            cacheStore.put("key" + i, value("value" + i), Duration.ofMinutes(1), context);
+        }
+        assertThat(cacheStore.sizeInBytes()).isLessThanOrEqualTo(16 * 1024);
+        assertThat(cacheStore.size()).isGreaterThan(0).isLessThan(1000);
+        assertThat(cacheStore.get("key999", context).stringField).isEqualTo("value999");
+
+        int found = 0;
+        for (int i = 0; i < 1000; i++) {
+            TestCache value = cacheStore.get("key" + i, context);
+            if (value != null) {
+                assertThat(value.stringField).isEqualTo("value" + i);
+                found++;
+            }
+        }
+        assertThat(found).isEqualTo(cacheStore.size());
+    }
+
+    @Test
+    void putWithLargeValue() {
+        cacheStore.put("key1", value("value1"), Duration.ofMinutes(1), context);
+        cacheStore.put("key1", value("x".repeat(2000)), Duration.ofMinutes(1), context);
+
+        assertThat(cacheStore.get("key1", context)).isNull();
+    }
+
+    @Test
+    void delete() {
+        cacheStore = new OffHeapCacheStore(1024 * 1024, 0);
+        for (int i = 0; i < 100; i++) {
+            cacheStore.put("key" + i, value("value" + i), Duration.ofMinutes(1), context);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertThat(cacheStore.delete("key" + i)).isTrue();
+        }
+        assertThat(cacheStore.delete("key0")).isFalse();
+
+        // remaining keys must still be found after entries are shifted in index
+        assertThat(cacheStore.size()).isEqualTo(50);
+        for (int i = 1; i < 100; i += 2) {
+            assertThat(cacheStore.get("key" + i, context).stringField).isEqualTo("value" + i);
+        }
+    }
+
+    @Test
+    void cleanup() {
+        cacheStore.put("key1", value("value1"), Duration.ZERO, context);
+        cacheStore.put("key2", value("value2"), Duration.ofMinutes(1), context);
+        cacheStore.cleanup();
+
+        assertThat(cacheStore.size()).isEqualTo(1);
+        assertThat(cacheStore.get("key2", context).stringField).isEqualTo("value2");
+    }
+
+    private TestCache value(String stringField) {
+        var value = new TestCache();
+        value.stringField = stringField;
+        return value;
+    }
+}
@@ -2,20 +2,26 @@ package core.framework.internal.cache;
 
 import core.framework.internal.redis.RedisException;
 import core.framework.internal.redis.RedisImpl;
+import core.framework.internal.redis.RedisTTLValueDecoder;
+import core.framework.internal.redis.RedisValueDecoder;
 import core.framework.util.Strings;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,32 +44,95 @@ class RedisCacheStoreTest {
 
     @Test
     void get() {
-        when(redis.getBytes("key")).thenReturn(Strings.bytes("{\"stringField\":\"value\"}"));
+        mockGet("key", "{\"stringField\":\"value\"}");
         assertThat(cacheStore.get("key", context).stringField).isEqualTo("value");
     }
 
+    @Test
+    void getItem() {
+        mockGetWithTTL("key", "{\"stringField\":\"value\"}", 60000);
+
+        long now = System.currentTimeMillis();
+        CacheStore.Item<TestCache> item = cacheStore.getItem("key", context);
+        assertThat(item.value.stringField).isEqualTo("value");
+        assertThat(item.expirationTime).isGreaterThanOrEqualTo(now + 60000);
+        assertThat(item.size).isEqualTo("{\"stringField\":\"value\"}".length());
+    }
+
+    @Test
+    void getItemWithoutExpiration() {
+        mockGetWithTTL("key", "{\"stringField\":\"value\"}", -1);
+
+        assertThat(cacheStore.getItem("key", context).expirationTime).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void getItemSetAfterTTL() {
+        mockGetWithTTL("key", "{\"stringField\":\"value\"}", -2);
+
+        assertThat(cacheStore.getItem("key", context)).isNull();
+    }
+
+    @Test
+    void getItemWithFailure() {
+        when(redis.multiGetWithTTL(eq(new String[]{"key"}), any())).thenThrow(new RedisException("unexpected"));
+        assertThat(cacheStore.getItem("key", context)).isNull();
+    }
+
     @Test
     void getWithStaleData() {
-        when(redis.getBytes("key")).thenReturn(Strings.bytes("{}"));
+        mockGet("key", "{}");
         assertThat(cacheStore.get("key", context)).isNull();
     }
 
     @Test
     void getWithInvalidJSON() {
-        when(redis.getBytes("key")).thenReturn(Strings.bytes("{\"listField\": 1}"));
+        mockGet("key", "{\"listField\": 1}");
+        assertThat(cacheStore.get("key", context)).isNull();
+    }
+
+    @Test
+    void getWithCompressedValue() {
+        var value = new TestCache();
+        value.stringField = "value";
+        byte[] compressed = new CacheCompression(1).compress(Strings.bytes("{\"stringField\":\"value\",\"listField\":[\"1\",\"1\",\"1\",\"1\",\"1\",\"1\"]}"));
+        assertThat(compressed[0]).isEqualTo(CacheCompression.DEFLATE);
+
+        when(redis.get(eq("key"), any())).thenAnswer(invocation -> {
+            RedisValueDecoder<?> decoder = invocation.getArgument(1);
+            return decoder.decode(compressed, 0, compressed.length);
+        });
+        assertThat(cacheStore.get("key", context).stringField).isEqualTo("value");
+    }
+
+    @Test
+    void getWithBinaryValue() {
+        context.codec = new BinaryCodecBuilder<>(TestCache.class).build();
+        var value = new TestCache();
+        value.stringField = "value";
+        byte[] bytes = new CacheCompression(1).compress(context.serialize(value));
+        mockGetBytes("key", bytes);
+        assertThat(cacheStore.get("key", context).stringField).isEqualTo("value");
+
+        // binary value with different version or without codec configured is treated as miss
+        byte[] binary = context.serialize(value);
+        binary[1]++;
+        mockGetBytes("key", binary);
+        assertThat(cacheStore.get("key", context)).isNull();
+
+        context.codec = null;
         assertThat(cacheStore.get("key", context)).isNull();
     }
 
     @Test
     void getWithFailure() {
-        when(redis.getBytes("key")).thenThrow(new RedisException("unexpected"));
+        when(redis.get(eq("key"), any())).thenThrow(new RedisException("unexpected"));
         assertThat(cacheStore.get("key", context)).isNull();
     }
 
     @Test
     void getAll() {
-        Map<String, byte[]> values = Map.of("key", Strings.bytes("{\"stringField\":\"value\"}"));
-        when(redis.multiGetBytes("key")).thenReturn(values);
+        mockMultiGet(new String[]{"key"}, Map.of("key", "{\"stringField\":\"value\"}"));
         Map<String, TestCache> results = cacheStore.getAll(new String[]{"key"}, context);
         assertThat(results).hasSize(1);
         assertThat(results.get("key").stringField).isEqualTo("value");
@@ -71,18 +140,18 @@ class RedisCacheStoreTest {
 
     @Test
     void getAllWithStaleAndInvalidData() {
-        Map<String, byte[]> values = Map.of("key1", Strings.bytes("{\"stringField\":\"value\"}"),
-                "key2", Strings.bytes("{}"),
-                "key3", Strings.bytes("{\"listField\": 1}"));
-        when(redis.multiGetBytes("key1", "key2", "key3")).thenReturn(values);
-        Map<String, TestCache> results = cacheStore.getAll(new String[]{"key1", "key2", "key3"}, context);
+        String[] keys = {"key1", "key2", "key3"};
+        mockMultiGet(keys, Map.of("key1", "{\"stringField\":\"value\"}",
+                "key2", "{}",
+                "key3", "{\"listField\": 1}"));
+        Map<String, TestCache> results = cacheStore.getAll(keys, context);
         assertThat(results).hasSize(1);
         assertThat(results.get("key1").stringField).isEqualTo("value");
     }
 
     @Test
     void getAllWithFailure() {
-        when(redis.multiGetBytes("key")).thenThrow(new RedisException("unexpected"));
+        when(redis.multiGet(eq(new String[]{"key"}), any())).thenThrow(new RedisException("unexpected"));
         assertThat(cacheStore.getAll(new String[]{"key"}, context)).isEmpty();
     }
 
@@ -94,6 +163,20 @@ class RedisCacheStoreTest {
         verify(redis).set("key", context.writer.toJSON(value), expiration, false);
     }
 
+    @Test
+    void putWithCompression() {
+        cacheStore.compression = new CacheCompression(1);
+        var value = new TestCache();
+        value.stringField = "value".repeat(100);
+        cacheStore.put("key", value, Duration.ofHours(1), context);
+
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(redis).set(eq("key"), captor.capture(), eq(Duration.ofHours(1)), eq(false));
+        byte[] compressed = captor.getValue();
+        assertThat(compressed[0]).isEqualTo(CacheCompression.DEFLATE);
+        assertThat(compressed.length).isLessThan(context.writer.toJSON(value).length);
+    }
+
     @Test
     void putWithFailure() {
         var value = new TestCache();
@@ -133,4 +216,44 @@ class RedisCacheStoreTest {
         when(redis.del("key")).thenThrow(new RedisException("unexpected"));
         assertThat(cacheStore.delete("key")).isFalse();
     }
+
+    private void mockGet(String key, String value) {
+        when(redis.get(eq(key), any())).thenAnswer(invocation -> decode(invocation.getArgument(1), value));
+    }
+
+    private void mockGetBytes(String key, byte[] value) {
+        doAnswer(invocation -> {
+            RedisValueDecoder<?> decoder = invocation.getArgument(1);
+            return decoder.decode(value, 0, value.length);
+        }).when(redis).get(eq(key), any());
+    }
+
+    private void mockMultiGet(String[] keys, Map<String, String> values) {
+        when(redis.multiGet(eq(keys), any())).thenAnswer(invocation -> {
+            RedisValueDecoder<?> decoder = invocation.getArgument(1);
+            Map<String, Object> results = new HashMap<>();
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                Object value = decode(decoder, entry.getValue());
+                if (value != null) results.put(entry.getKey(), value);
+            }
+            return results;
+        });
+    }
+
+    private void mockGetWithTTL(String key, String value, long ttl) {
+        when(redis.multiGetWithTTL(eq(new String[]{key}), any())).thenAnswer(invocation -> {
+            RedisTTLValueDecoder<?> decoder = invocation.getArgument(1);
+            Map<String, Object> results = new HashMap<>();
+            Object item = decode((bytes, offset, length) -> decoder.decode(bytes, offset, length, ttl), value);
+            if (item != null) results.put(key, item);
+            return results;
+        });
+    }
+
+    // pass value as slice of larger buffer, same as reading from redis connection
+    private Object decode(RedisValueDecoder<?> decoder, String value) {
+        byte[] bytes = Strings.bytes("$" + value.length() + "\r\n" + value + "\r\n");
+        int offset = bytes.length - value.length() - 2;
+        return decoder.decode(bytes, offset, value.length());
+    }
 }
@@ -1,6 +1,5 @@
 package core.framework.internal.cache;
 
-import core.framework.internal.redis.RedisImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,9 +10,10 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
-import static core.framework.internal.cache.RedisLocalCacheStore.CHANNEL_INVALIDATE_CACHE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -25,16 +25,16 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class RedisLocalCacheStoreTest {
     @Mock
-    CacheStore localCacheStore;
+    LocalCacheStore localCacheStore;
     @Mock
-    CacheStore redisCacheStore;
+    RedisCacheStore redisCacheStore;
     @Mock
-    RedisImpl redis;
+    InvalidateLocalCachePublisher publisher;
     private RedisLocalCacheStore cacheStore;
 
     @BeforeEach
     void createRedisLocalCacheStore() {
-        cacheStore = new RedisLocalCacheStore(localCacheStore, redisCacheStore, redis);
+        cacheStore = new RedisLocalCacheStore(localCacheStore, redisCacheStore, publisher);
     }
 
     @Test
@@ -49,27 +49,36 @@ class RedisLocalCacheStoreTest {
     void getWithRemoteHit() {
         var value = new TestCache();
         when(localCacheStore.get("key", null)).thenReturn(null);
-        when(redisCacheStore.get("key", null)).thenReturn(value);
-        when(redis.expirationTime("key")).thenReturn(new long[]{1000});
+        when(redisCacheStore.<TestCache>getItem("key", null)).thenReturn(item(value, 1000));
 
         assertThat(cacheStore.<TestCache>get("key", null)).isSameAs(value);
-        verify(localCacheStore).put(eq("key"), eq(value), any(), any());
+        verify(localCacheStore).put(eq("key"), eq(value), anyLong(), eq(13), any());
+    }
+
+    @Test
+    void getItemWithRemoteHit() {
+        var value = new TestCache();
+        when(localCacheStore.getItem("key", null)).thenReturn(null);
+        when(redisCacheStore.<TestCache>getItem("key", null)).thenReturn(item(value, 1000));
+
+        CacheStore.Item<TestCache> item = cacheStore.getItem("key", null);
+        assertThat(item.value).isSameAs(value);
+        verify(localCacheStore).put(eq("key"), eq(value), anyLong(), eq(13), any());
     }
 
     @Test
     void getWithRemoteHitButExpired() {
         when(localCacheStore.get("key", null)).thenReturn(null);
-        when(redisCacheStore.get("key", null)).thenReturn(new byte[0]);
-        when(redis.expirationTime("key")).thenReturn(new long[]{0});
+        when(redisCacheStore.<TestCache>getItem("key", null)).thenReturn(item(new TestCache(), 0));
 
         assertThat(cacheStore.<TestCache>get("key", null)).isNull();
-        verify(localCacheStore, never()).put(any(), any(), any(), any());
+        verify(localCacheStore, never()).put(any(), any(), anyLong(), anyInt(), any());
     }
 
     @Test
     void getWithMiss() {
         when(localCacheStore.get("key", null)).thenReturn(null);
-        when(redisCacheStore.get("key", null)).thenReturn(null);
+        when(redisCacheStore.<TestCache>getItem("key", null)).thenReturn(null);
 
         assertThat(cacheStore.<TestCache>get("key", null)).isNull();
     }
@@ -86,32 +95,44 @@ class RedisLocalCacheStoreTest {
     void getAllWithRemoteHit() {
         when(localCacheStore.get("key1", null)).thenReturn(new TestCache());
         when(localCacheStore.get("key2", null)).thenReturn(null);
-        when(redisCacheStore.getAll(new String[]{"key2"}, null)).thenReturn(Map.of("key2", new TestCache()));
-        when(redis.expirationTime("key2")).thenReturn(new long[]{1000});
+        when(redisCacheStore.<TestCache>getItems(new String[]{"key2"}, null)).thenReturn(Map.of("key2", item(new TestCache(), 1000)));
 
         assertThat(cacheStore.getAll(new String[]{"key1", "key2"}, null)).containsKeys("key1", "key2");
-        verify(localCacheStore).put(eq("key2"), any(), any(), any());
+        verify(localCacheStore).put(eq("key2"), any(), anyLong(), eq(14), any());
     }
 
     @Test
     void getAllWithRemoteHitButExpired() {
         when(localCacheStore.get("key1", null)).thenReturn(new TestCache());
         when(localCacheStore.get("key2", null)).thenReturn(null);
-        when(redisCacheStore.getAll(new String[]{"key2"}, null)).thenReturn(Map.of("key2", new TestCache()));
-        when(redis.expirationTime("key2")).thenReturn(new long[]{0});
+        when(redisCacheStore.<TestCache>getItems(new String[]{"key2"}, null)).thenReturn(Map.of("key2", item(new TestCache(), 0)));
 
         assertThat(cacheStore.getAll(new String[]{"key1", "key2"}, null)).containsKeys("key1");
-        verify(localCacheStore, never()).put(eq("key2"), any(), any(), any());
+        verify(localCacheStore, never()).put(eq("key2"), any(), anyLong(), anyInt(), any());
     }
 
     @Test
     void getAllWithRemoteMiss() {
         when(localCacheStore.get("key1", null)).thenReturn(new TestCache());
         when(localCacheStore.get("key2", null)).thenReturn(null);
-        when(redisCacheStore.getAll(new String[]{"key2"}, null)).thenReturn(Map.of());
+        when(redisCacheStore.<TestCache>getItems(new String[]{"key2"}, null)).thenReturn(Map.of());
 
         assertThat(cacheStore.getAll(new String[]{"key1", "key2"}, null)).containsKeys("key1");
-        verify(localCacheStore, never()).put(eq("key2"), any(), any(), any());
+        verify(localCacheStore, never()).put(eq("key2"), any(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void getItems() {
+        var value1 = new TestCache();
+        var value2 = new TestCache();
+        when(localCacheStore.<TestCache>getItem("key1", null)).thenReturn(item(value1, 1000));
+        when(localCacheStore.getItem("key2", null)).thenReturn(null);
+        when(redisCacheStore.<TestCache>getItems(new String[]{"key2"}, null)).thenReturn(Map.of("key2", item(value2, 1000)));
+
+        Map<String, CacheStore.Item<TestCache>> items = cacheStore.getItems(new String[]{"key1", "key2"}, null);
+        assertThat(items.get("key1").value).isSameAs(value1);
+        assertThat(items.get("key2").value).isSameAs(value2);
+        verify(localCacheStore).put(eq("key2"), eq(value2), anyLong(), eq(14), any());
     }
 
     @Test
@@ -121,7 +142,7 @@ class RedisLocalCacheStoreTest {
 
         verify(localCacheStore).put("key", value, Duration.ofHours(1), null);
         verify(redisCacheStore).put("key", value, Duration.ofHours(1), null);
-        verify(redis).publish(eq(CHANNEL_INVALIDATE_CACHE), any());
+        verify(publisher).publish(List.of("key"));
     }
 
     @Test
@@ -132,7 +153,7 @@ class RedisLocalCacheStoreTest {
 
         verify(localCacheStore).putAll(values, expiration, null);
         verify(redisCacheStore).putAll(values, expiration, null);
-        verify(redis).publish(eq(CHANNEL_INVALIDATE_CACHE), any());
+        verify(publisher).publish(List.of("key"));
     }
 
     @Test
@@ -142,7 +163,7 @@ class RedisLocalCacheStoreTest {
         cacheStore.delete("key1");
 
         verify(localCacheStore).delete("key1");
-        verify(redis, never()).publish(eq(CHANNEL_INVALIDATE_CACHE), any());
+        verify(publisher, never()).publish(any());
     }
 
     @Test
@@ -152,6 +173,10 @@ class RedisLocalCacheStoreTest {
         cacheStore.delete("key1");
 
         verify(localCacheStore).delete("key1");
-        verify(redis).publish(eq(CHANNEL_INVALIDATE_CACHE), any());
+        verify(publisher).publish(List.of("key1"));
+    }
+
+    private CacheStore.Item<TestCache> item(TestCache value, long ttl) {
+        return new CacheStore.Item<>(value, System.currentTimeMillis() + ttl, 10);
     }
 }
@@ -0,0 +1,136 @@
+package core.framework.internal.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author neo
+ */
+@ExtendWith(MockitoExtension.class)
+class RedisTrackingCacheStoreTest {
+    @Mock
+    LocalCacheStore localCacheStore;
+    @Mock
+    RedisCacheStore redisCacheStore;
+    private RedisTrackingCacheStore cacheStore;
+
+    @BeforeEach
+    void createRedisTrackingCacheStore() {
+        cacheStore = new RedisTrackingCacheStore(localCacheStore, redisCacheStore);
+    }
+
+    @Test
+    void getWithLocalHit() {
+        var value = new TestCache();
+        when(localCacheStore.get("key", null)).thenReturn(value);
+
+        assertThat(cacheStore.<TestCache>get("key", null)).isSameAs(value);
+    }
+
+    @Test
+    void getItemWithRemoteHit() {
+        var value = new TestCache();
+        when(localCacheStore.getItem("key", null)).thenReturn(null);
+        when(redisCacheStore.<TestCache>getItem("key", null)).thenReturn(new CacheStore.Item<>(value, System.currentTimeMillis() + 60000, 10));
+
+        CacheStore.Item<TestCache> item = cacheStore.getItem("key", null);
+        assertThat(item.value).isSameAs(value);
+        verify(localCacheStore).put(eq("key"), eq(value), anyLong(), eq(13), eq(null));
+    }
+
+    @Test
+    void getWithRemoteHit() {
+        var value = new TestCache();
+        when(localCacheStore.get("key", null)).thenReturn(null);
+        when(redisCacheStore.get("key", null)).thenReturn(value);
+
+        assertThat(cacheStore.<TestCache>get("key", null)).isSameAs(value);
+        verify(localCacheStore).put("key", value, cacheStore.localExpiration, null);
+    }
+
+    @Test
+    void getWithInvalidationDuringLoading() {
+        var value = new TestCache();
+        when(localCacheStore.get("key", null)).thenReturn(null);
+        doAnswer(invocation -> {
+            cacheStore.onInvalidate(new String[]{"key"});
+            return value;
+        }).when(redisCacheStore).get("key", null);
+
+        assertThat(cacheStore.<TestCache>get("key", null)).isSameAs(value);
+        verify(localCacheStore).put("key", value, cacheStore.localExpiration, null);
+        verify(localCacheStore, times(2)).delete("key");
+    }
+
+    @Test
+    void getAllWithRemoteHit() {
+        var value = new TestCache();
+        when(localCacheStore.get("key1", null)).thenReturn(value);
+        when(localCacheStore.get("key2", null)).thenReturn(null);
+        when(redisCacheStore.getAll(new String[]{"key2"}, null)).thenReturn(Map.of("key2", value));
+
+        Map<String, TestCache> values = cacheStore.getAll(new String[]{"key1", "key2"}, null);
+        assertThat(values).containsOnlyKeys("key1", "key2");
+        verify(localCacheStore).putAll(any(), eq(cacheStore.localExpiration), any());
+    }
+
+    @Test
+    void getItemsWithRemoteHit() {
+        var value = new TestCache();
+        when(localCacheStore.getItem("key", null)).thenReturn(null);
+        when(redisCacheStore.<TestCache>getItems(new String[]{"key"}, null)).thenReturn(Map.of("key", new CacheStore.Item<>(value, Long.MAX_VALUE, 10)));
+
+        Map<String, CacheStore.Item<TestCache>> items = cacheStore.getItems(new String[]{"key"}, null);
+        assertThat(items.get("key").value).isSameAs(value);
+        verify(localCacheStore).put(eq("key"), eq(value), anyLong(), eq(13), eq(null));
+    }
+
+    @Test
+    void put() {
+        var value = new TestCache();
+        cacheStore.put("key", value, Duration.ofHours(1), null);
+
+        verify(redisCacheStore).put("key", value, Duration.ofHours(1), null);
+        verify(localCacheStore).delete("key");
+    }
+
+    @Test
+    void putAll() {
+        List<CacheStore.Entry<TestCache>> values = List.of(new CacheStore.Entry<>("key1", new TestCache()), new CacheStore.Entry<>("key2", new TestCache()));
+        cacheStore.putAll(values, Duration.ofHours(1), null);
+
+        verify(redisCacheStore).putAll(values, Duration.ofHours(1), null);
+        verify(localCacheStore).delete("key1", "key2");
+    }
+
+    @Test
+    void delete() {
+        when(redisCacheStore.delete("key")).thenReturn(true);
+
+        assertThat(cacheStore.delete("key")).isTrue();
+        verify(localCacheStore).delete("key");
+    }
+
+    @Test
+    void invalidateAll() {
+        cacheStore.onInvalidate(null);
+
+        verify(localCacheStore).clear();
+    }
+}
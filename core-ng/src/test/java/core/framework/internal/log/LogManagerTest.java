@@ -32,6 +32,18 @@ class LogManagerTest {
         assertThat(LogManager.appName(Map.of())).isEqualTo("local");
     }
 
+    @Test
+    void detachAndAttach() {
+        ActionLog actionLog = logManager.begin("begin");
+        logManager.detach();
+        assertThat(LogManager.CURRENT_ACTION_LOG.get()).isNull();
+
+        logManager.attach(actionLog);
+        assertThat(LogManager.CURRENT_ACTION_LOG.get()).isSameAs(actionLog);
+        logManager.end("end");
+        assertThat(actionLog.cpuTime).isGreaterThanOrEqualTo(0);
+    }
+
     private static class TestException extends Exception implements ErrorCode {
         private static final long serialVersionUID = 4243205974337190882L;
 
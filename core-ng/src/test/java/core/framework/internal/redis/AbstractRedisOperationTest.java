@@ -26,7 +26,7 @@ abstract class AbstractRedisOperationTest {
     @Mock
     Pool<RedisConnection> pool;
     private ByteArrayOutputStream request;
-    private PoolItem<RedisConnection> poolItem;
+    PoolItem<RedisConnection> poolItem;
 
     @BeforeEach
     void createRedis() {
@@ -0,0 +1,113 @@
+package core.framework.internal.redis;
+
+import core.framework.util.Strings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class MultiplexConnectionTest {
+    private MultiplexConnection connection;
+
+    @BeforeEach
+    void createMultiplexConnection() {
+        connection = new MultiplexConnection("redis-0");
+    }
+
+    @Test
+    void readInFIFOOrder() throws Exception {
+        var request1 = new MultiplexConnection.Request(connection, new byte[0], 2);
+        var request2 = new MultiplexConnection.Request(connection, new byte[0], 1);
+        connection.pendingRequests.add(request1);
+        connection.pendingRequests.add(request2);
+        connection.inputStream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("+OK\r\n-ERR error\r\n$-1\r\n")));
+        connection.read();      // read until end of stream
+
+        Object[] replies1 = request1.future.get();
+        assertThat(replies1[0]).isEqualTo("OK");
+        assertThat(replies1[1]).isInstanceOf(RedisException.class);
+        assertThat(request2.future.get()).containsExactly((Object) null);
+        assertThat(connection.closed).isTrue();
+    }
+
+    @Test
+    void readInvalidationPush() throws Exception {
+        List<String[]> invalidations = new ArrayList<>();
+        connection.trackingListener = invalidations::add;
+        var request = new MultiplexConnection.Request(connection, new byte[0], 1);
+        connection.pendingRequests.add(request);
+        connection.inputStream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes(">2\r\n$10\r\ninvalidate\r\n*1\r\n$3\r\nkey\r\n+OK\r\n>2\r\n$10\r\ninvalidate\r\n_\r\n")));
+        connection.read();
+
+        assertThat(request.future.get()).containsExactly("OK");
+        assertThat(invalidations).hasSize(3);
+        assertThat(invalidations.get(0)).containsExactly("key");
+        assertThat(invalidations.get(1)).isNull();  // flushed
+        assertThat(invalidations.get(2)).isNull();  // connection closed
+    }
+
+    @Test
+    void failPendingRequestsWhenClosed() {
+        var request = new MultiplexConnection.Request(connection, new byte[0], 1);
+        connection.pendingRequests.add(request);
+        connection.inputStream = new RedisInputStream(new ByteArrayInputStream(new byte[0]));
+        connection.read();
+
+        assertThatThrownBy(() -> request.future.get())
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("unexpected end of stream");
+    }
+
+    @Test
+    void submitToClosedConnection() {
+        connection.close();
+        MultiplexConnection.Request request = connection.submit(new byte[0], 1);
+
+        assertThatThrownBy(() -> request.await(100))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("connection is closed");
+    }
+
+    @Test
+    void multiplexedRedisConnection() throws IOException {
+        var redis = new RedisImpl("redis");
+        redis.multiplex(1);
+        redis.multiplexConnections = new AtomicReferenceArray<>(new MultiplexConnection[]{connection});
+        var multiplexedConnection = new MultiplexedRedisConnection(redis, 100);
+
+        multiplexedConnection.writeKeyCommand(Protocol.Command.GET, "key");
+        MultiplexConnection.Request request = connection.requests.poll();
+        assertThat(request).isNotNull();
+        assertThat(decode(request.request)).isEqualTo("*2\r\n$3\r\nGET\r\n$3\r\nkey\r\n");
+
+        request.reply(Strings.bytes("value"));
+        assertThat(decode(multiplexedConnection.readBlobString())).isEqualTo("value");
+    }
+
+    @Test
+    void multiplexedRedisConnectionReadBlobArray() throws IOException {
+        var redis = new RedisImpl("redis");
+        redis.multiplex(1);
+        redis.multiplexConnections = new AtomicReferenceArray<>(new MultiplexConnection[]{connection});
+        var multiplexedConnection = new MultiplexedRedisConnection(redis, 100);
+
+        multiplexedConnection.writeKeysCommand(Protocol.Command.MGET, "key1", "key2");
+        connection.requests.poll().reply(new Object[]{Strings.bytes("value1"), null});
+        List<String> values = new ArrayList<>();
+        int length = multiplexedConnection.readBlobArray((index, bytes, offset, size) -> values.add(bytes == null ? null : decode(bytes, offset, size)));
+        assertThat(length).isEqualTo(2);
+        assertThat(values).containsExactly("value1", null);
+    }
+}
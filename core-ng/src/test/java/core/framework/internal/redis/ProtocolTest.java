@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static core.framework.internal.redis.RedisEncodings.decode;
 import static core.framework.internal.redis.RedisEncodings.encode;
@@ -76,4 +79,70 @@ class ProtocolTest {
         byte[] response = (byte[]) Protocol.read(new RedisInputStream(stream));
         assertThat(decode(response)).isEmpty();
     }
+
+    @Test
+    void readRESP3Null() throws IOException {
+        var stream = new ByteArrayInputStream(Strings.bytes("_\r\n"));
+        assertThat(Protocol.read(new RedisInputStream(stream))).isNull();
+    }
+
+    @Test
+    void readRESP3Map() throws IOException {
+        var stream = new ByteArrayInputStream(Strings.bytes("%2\r\n+server\r\n$5\r\nredis\r\n+proto\r\n:3\r\n"));
+        @SuppressWarnings("unchecked")
+        Map<Object, Object> response = (Map<Object, Object>) Protocol.read(new RedisInputStream(stream));
+        assertThat(response).hasSize(2).containsEntry("proto", 3L);
+        assertThat(decode((byte[]) response.get("server"))).isEqualTo("redis");
+    }
+
+    @Test
+    void readRESP3Scalars() throws IOException {
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("#t\r\n,1.5\r\n,inf\r\n=8\r\ntxt:text\r\n")));
+        assertThat(Protocol.read(stream)).isEqualTo(Boolean.TRUE);
+        assertThat(Protocol.read(stream)).isEqualTo(1.5);
+        assertThat(Protocol.read(stream)).isEqualTo(Double.POSITIVE_INFINITY);
+        assertThat(decode((byte[]) Protocol.read(stream))).isEqualTo("text");
+    }
+
+    @Test
+    void readRESP3Push() throws IOException {
+        var stream = new ByteArrayInputStream(Strings.bytes(">2\r\n$10\r\ninvalidate\r\n*1\r\n$3\r\nkey\r\n"));
+        var push = (Protocol.Push) Protocol.read(new RedisInputStream(stream));
+        assertThat(decode((byte[]) push.values[0])).isEqualTo("invalidate");
+        assertThat((Object[]) push.values[1]).containsExactly((Object) encode("key"));
+    }
+
+    @Test
+    void readRESP3BlobError() {
+        var stream = new ByteArrayInputStream(Strings.bytes("!5\r\nerror\r\n"));
+        assertThatThrownBy(() -> Protocol.read(new RedisInputStream(stream)))
+                .isInstanceOf(RedisException.class)
+                .hasMessage("error");
+    }
+
+    @Test
+    void readBlobArray() throws IOException {
+        var stream = new ByteArrayInputStream(Strings.bytes("*3\r\n$2\r\nv1\r\n$-1\r\n$0\r\n\r\n"));
+        List<String> values = new ArrayList<>();
+        int length = Protocol.readBlobArray(new RedisInputStream(stream), (index, bytes, offset, size) -> values.add(bytes == null ? null : decode(bytes, offset, size)));
+        assertThat(length).isEqualTo(3);
+        assertThat(values).containsExactly("v1", null, "");
+    }
+
+    @Test
+    void readBlobArrayWithRESP3Map() throws IOException {
+        var stream = new ByteArrayInputStream(Strings.bytes("%1\r\n$1\r\nk\r\n$1\r\nv\r\n"));
+        List<String> values = new ArrayList<>();
+        int length = Protocol.readBlobArray(new RedisInputStream(stream), (index, bytes, offset, size) -> values.add(decode(bytes, offset, size)));
+        assertThat(length).isEqualTo(2);
+        assertThat(values).containsExactly("k", "v");
+    }
+
+    @Test
+    void readBlobArrayWithError() {
+        var stream = new ByteArrayInputStream(Strings.bytes("-WRONGTYPE Operation against a key holding the wrong kind of value\r\n"));
+        assertThatThrownBy(() -> Protocol.readBlobArray(new RedisInputStream(stream), (index, bytes, offset, size) -> {
+        })).isInstanceOf(RedisException.class)
+                .hasMessageStartingWith("WRONGTYPE");
+    }
 }
@@ -65,4 +65,14 @@ class RedisHashOperationTest extends AbstractRedisOperationTest {
 
         assertRequestEquals("*4\r\n$7\r\nHINCRBY\r\n$3\r\nkey\r\n$2\r\nf1\r\n$1\r\n1\r\n");
     }
+
+    @Test
+    void forEach() {
+        response("*2\r\n$1\r\n0\r\n*4\r\n$2\r\nf1\r\n$2\r\nv1\r\n$2\r\nf2\r\n$2\r\nv2\r\n");
+        Map<String, String> values = new LinkedHashMap<>();
+        redis.hash().forEach("key", values::put);
+
+        assertThat(values).containsExactly(entry("f1", "v1"), entry("f2", "v2"));
+        assertRequestEquals("*5\r\n$5\r\nHSCAN\r\n$3\r\nkey\r\n$1\r\n0\r\n$5\r\nCOUNT\r\n$3\r\n500\r\n");
+    }
 }
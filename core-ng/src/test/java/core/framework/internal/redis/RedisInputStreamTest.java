@@ -5,7 +5,12 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -19,4 +24,28 @@ class RedisInputStreamTest {
 
         assertEquals("line1\rline2", message);
     }
+
+    @Test
+    void readBlob() throws IOException {
+        // first blob ends near end of buffer, second one must be moved to beginning of buffer to be read as slice
+        String value1 = "1".repeat(8180);
+        String value2 = "2".repeat(100);
+        String value3 = "3".repeat(10000);   // larger than buffer
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes(value1 + "\r\n" + value2 + "\r\n" + value3 + "\r\n")));
+        List<String> values = new ArrayList<>();
+        Protocol.BlobSink sink = (index, bytes, offset, length) -> values.add(new String(bytes, offset, length, UTF_8));
+        stream.readBlob(0, value1.length(), sink);
+        stream.readBlob(1, value2.length(), sink);
+        stream.readBlob(2, value3.length(), sink);
+
+        assertThat(values).containsExactly(value1, value2, value3);
+    }
+
+    @Test
+    void readBlobWithInvalidCRLF() {
+        var stream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes("value\n\r")));
+        assertThatThrownBy(() -> stream.readBlob(0, 5, (index, bytes, offset, length) -> {
+        })).isInstanceOf(IOException.class)
+                .hasMessageContaining("unexpected character");
+    }
 }
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 
 import static core.framework.internal.redis.RedisEncodings.encode;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 
@@ -126,6 +127,17 @@ class RedisOperationTest extends AbstractRedisOperationTest {
         assertRequestEquals("*6\r\n$4\r\nSCAN\r\n$1\r\n0\r\n$5\r\nMATCH\r\n$2\r\nk*\r\n$5\r\nCOUNT\r\n$3\r\n500\r\n");
     }
 
+    @Test
+    void forEachWithType() {
+        response("*2\r\n$1\r\n5\r\n*1\r\n$2\r\nk1\r\n" + "*2\r\n$1\r\n0\r\n*1\r\n$2\r\nk2\r\n");
+        List<String> keys = Lists.newArrayList();
+        redis.forEach("k*", "hash", 100, keys::add);
+
+        assertThat(keys).containsExactly("k1", "k2");
+        assertRequestEquals("*8\r\n$4\r\nSCAN\r\n$1\r\n0\r\n$5\r\nMATCH\r\n$2\r\nk*\r\n$5\r\nCOUNT\r\n$3\r\n100\r\n$4\r\nTYPE\r\n$4\r\nhash\r\n"
+                + "*8\r\n$4\r\nSCAN\r\n$1\r\n5\r\n$5\r\nMATCH\r\n$2\r\nk*\r\n$5\r\nCOUNT\r\n$3\r\n100\r\n$4\r\nTYPE\r\n$4\r\nhash\r\n");
+    }
+
     @Test
     void expirationTime() {
         response(":1000\r\n:-1\r\n:-2\r\n");
@@ -135,6 +147,16 @@ class RedisOperationTest extends AbstractRedisOperationTest {
         assertRequestEquals("*2\r\n$4\r\nPTTL\r\n$2\r\nk1\r\n" + "*2\r\n$4\r\nPTTL\r\n$2\r\nk2\r\n" + "*2\r\n$4\r\nPTTL\r\n$2\r\nk3\r\n");
     }
 
+    @Test
+    void multiGetWithTTL() {
+        response(":1000\r\n$2\r\nv1\r\n" + ":-2\r\n$-1\r\n");
+        Map<String, String> values = redis.multiGetWithTTL(new String[]{"k1", "k2"}, (bytes, offset, length, ttl) -> new String(bytes, offset, length, UTF_8) + ":" + ttl);
+
+        assertThat(values).containsExactly(entry("k1", "v1:1000"));
+        assertRequestEquals("*2\r\n$4\r\nPTTL\r\n$2\r\nk1\r\n" + "*2\r\n$3\r\nGET\r\n$2\r\nk1\r\n"
+                + "*2\r\n$4\r\nPTTL\r\n$2\r\nk2\r\n" + "*2\r\n$3\r\nGET\r\n$2\r\nk2\r\n");
+    }
+
     @Test
     void publish() {
         response(":1\r\n");
@@ -0,0 +1,64 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisPipeline;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author neo
+ */
+class RedisPipelineOperationTest extends AbstractRedisOperationTest {
+    @Test
+    void execute() {
+        response("$6\r\nfoobar\r\n+OK\r\n:1\r\n*2\r\n$2\r\nf1\r\n$2\r\nv1\r\n:5\r\n");
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<String> value = pipeline.get("k1");
+        Supplier<Boolean> updated = pipeline.set("k2", "v2", Duration.ofMinutes(1));
+        pipeline.expire("k3", Duration.ofMinutes(1));
+        Supplier<Map<String, String>> hash = pipeline.hashGetAll("k3");
+        Supplier<Long> count = pipeline.increaseBy("k4", 5);
+        pipeline.execute();
+
+        assertThat(value.get()).isEqualTo("foobar");
+        assertThat(updated.get()).isTrue();
+        assertThat(hash.get()).containsExactly(entry("f1", "v1"));
+        assertThat(count.get()).isEqualTo(5);
+        assertRequestEquals("*2\r\n$3\r\nGET\r\n$2\r\nk1\r\n"
+                + "*5\r\n$3\r\nSET\r\n$2\r\nk2\r\n$2\r\nv2\r\n$2\r\nPX\r\n$5\r\n60000\r\n"
+                + "*3\r\n$7\r\nPEXPIRE\r\n$2\r\nk3\r\n$5\r\n60000\r\n"
+                + "*2\r\n$7\r\nHGETALL\r\n$2\r\nk3\r\n"
+                + "*3\r\n$6\r\nINCRBY\r\n$2\r\nk4\r\n$1\r\n5\r\n");
+    }
+
+    @Test
+    void executeWithError() {
+        response("-WRONGTYPE Operation against a key holding the wrong kind of value\r\n:1\r\n");
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<String> value = pipeline.get("k1");
+        Supplier<Long> deleted = pipeline.del("k2");
+
+        assertThatThrownBy(pipeline::execute)
+                .isInstanceOf(RedisException.class)
+                .hasMessageContaining("WRONGTYPE");
+        assertThatThrownBy(value::get).isInstanceOf(RedisException.class);
+        assertThat(deleted.get()).isEqualTo(1);
+    }
+
+    @Test
+    void executeWithUnexpectedReply() {
+        response(":1\r\n:1\r\n");
+        RedisPipeline pipeline = redis.pipeline();
+        pipeline.get("k1");
+        pipeline.del("k2");
+
+        assertThatThrownBy(pipeline::execute).isInstanceOf(ClassCastException.class);
+        assertThat(poolItem.broken).isTrue();
+    }
+}
@@ -0,0 +1,34 @@
+package core.framework.internal.redis;
+
+import core.framework.crypto.Hash;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class RedisScriptOperationTest extends AbstractRedisOperationTest {
+    private static final String SCRIPT = "return redis.call('get', KEYS[1])";
+
+    @Test
+    void execute() {
+        response("*2\r\n$2\r\nv1\r\n:1\r\n");
+        Object result = redis.script(SCRIPT).execute(List.of("key"), "arg");
+
+        assertThat(result).isEqualTo(List.of("v1", 1L));
+        assertRequestEquals("*5\r\n$7\r\nEVALSHA\r\n$40\r\n" + Hash.sha1Hex(SCRIPT) + "\r\n$1\r\n1\r\n$3\r\nkey\r\n$3\r\narg\r\n");
+    }
+
+    @Test
+    void executeWithoutLoadedScript() {
+        response("-NOSCRIPT No matching script. Please use EVAL.\r\n$2\r\nv1\r\n");
+        Object result = redis.script(SCRIPT).execute(List.of("key"));
+
+        assertThat(result).isEqualTo("v1");
+        assertRequestEquals("*4\r\n$7\r\nEVALSHA\r\n$40\r\n" + Hash.sha1Hex(SCRIPT) + "\r\n$1\r\n1\r\n$3\r\nkey\r\n"
+                + "*4\r\n$4\r\nEVAL\r\n$" + SCRIPT.length() + "\r\n" + SCRIPT + "\r\n$1\r\n1\r\n$3\r\nkey\r\n");
+    }
+}
@@ -2,6 +2,8 @@ package core.framework.internal.redis;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -61,4 +63,14 @@ class RedisSetOperationTest extends AbstractRedisOperationTest {
         assertThat(redis.set().size("key")).isEqualTo(1);
         assertRequestEquals("*2\r\n$5\r\nSCARD\r\n$3\r\nkey\r\n");
     }
+
+    @Test
+    void forEach() {
+        response("*2\r\n$1\r\n0\r\n*2\r\n$1\r\n1\r\n$1\r\n2\r\n");
+        List<String> members = new ArrayList<>();
+        redis.set().forEach("key", 10, members::add);
+
+        assertThat(members).containsExactly("1", "2");
+        assertRequestEquals("*5\r\n$5\r\nSSCAN\r\n$3\r\nkey\r\n$1\r\n0\r\n$5\r\nCOUNT\r\n$2\r\n10\r\n");
+    }
 }
@@ -0,0 +1,87 @@
+package core.framework.internal.redis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author neo
+ */
+class RedisSortedSetOperationTest extends AbstractRedisOperationTest {
+    @Test
+    void add() {
+        response(":1\r\n");
+        boolean added = redis.sortedSet().add("key", "v1", 100);
+
+        assertThat(added).isTrue();
+        assertRequestEquals("*4\r\n$4\r\nZADD\r\n$3\r\nkey\r\n$3\r\n100\r\n$2\r\nv1\r\n");
+    }
+
+    @Test
+    void addIfAbsent() {
+        response(":2\r\n");
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("v1", 1L);
+        values.put("v2", 2L);
+        long added = redis.sortedSet().add("key", values, true);
+
+        assertThat(added).isEqualTo(2);
+        assertRequestEquals("*7\r\n$4\r\nZADD\r\n$3\r\nkey\r\n$2\r\nNX\r\n$1\r\n1\r\n$2\r\nv1\r\n$1\r\n2\r\n$2\r\nv2\r\n");
+    }
+
+    @Test
+    void increaseScoreBy() {
+        response("$2\r\n15\r\n");
+        long score = redis.sortedSet().increaseScoreBy("key", "v1", 5);
+
+        assertThat(score).isEqualTo(15);
+        assertRequestEquals("*4\r\n$7\r\nZINCRBY\r\n$3\r\nkey\r\n$1\r\n5\r\n$2\r\nv1\r\n");
+    }
+
+    @Test
+    void rangeByScore() {
+        response("*4\r\n$2\r\nv1\r\n$1\r\n1\r\n$2\r\nv2\r\n$3\r\n2.5\r\n");
+        Map<String, Long> values = redis.sortedSet().rangeByScore("key", 0, 10, 20, 10);
+
+        assertThat(values).containsExactly(entry("v1", 1L), entry("v2", 2L));
+        assertRequestEquals("*8\r\n$13\r\nZRANGEBYSCORE\r\n$3\r\nkey\r\n$1\r\n0\r\n$2\r\n10\r\n$10\r\nWITHSCORES\r\n$5\r\nLIMIT\r\n$2\r\n20\r\n$2\r\n10\r\n");
+    }
+
+    @Test
+    void reverseRangeWithRESP3() {
+        response("*2\r\n*2\r\n$2\r\nv2\r\n,2\r\n*2\r\n$2\r\nv1\r\n,1\r\n");
+        Map<String, Long> values = redis.sortedSet().reverseRange("key", 0, 1);
+
+        assertThat(values).containsExactly(entry("v2", 2L), entry("v1", 1L));
+        assertRequestEquals("*5\r\n$9\r\nZREVRANGE\r\n$3\r\nkey\r\n$1\r\n0\r\n$1\r\n1\r\n$10\r\nWITHSCORES\r\n");
+    }
+
+    @Test
+    void rank() {
+        response("$-1\r\n");
+        assertThat(redis.sortedSet().rank("key", "v1")).isNull();
+        assertRequestEquals("*3\r\n$5\r\nZRANK\r\n$3\r\nkey\r\n$2\r\nv1\r\n");
+    }
+
+    @Test
+    void popMin() {
+        response("*2\r\n$2\r\nv1\r\n$1\r\n1\r\n");
+        Map<String, Long> values = redis.sortedSet().popMin("key", 1);
+
+        assertThat(values).containsExactly(entry("v1", 1L));
+        assertRequestEquals("*3\r\n$7\r\nZPOPMIN\r\n$3\r\nkey\r\n$1\r\n1\r\n");
+    }
+
+    @Test
+    void removeByScore() {
+        response(":3\r\n");
+        long removed = redis.sortedSet().removeByScore("key", 0, 100);
+
+        assertThat(removed).isEqualTo(3);
+        assertRequestEquals("*4\r\n$16\r\nZREMRANGEBYSCORE\r\n$3\r\nkey\r\n$1\r\n0\r\n$3\r\n100\r\n");
+    }
+}
@@ -0,0 +1,71 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.log.LogManager;
+import core.framework.redis.RedisStreamHandler;
+import core.framework.redis.RedisStreamMessage;
+import core.framework.util.Strings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author neo
+ */
+@ExtendWith(MockitoExtension.class)
+class RedisStreamListenerThreadTest {
+    @Mock
+    RedisStreamHandler handler;
+    private RedisStreamListenerThread thread;
+    private RedisConnection connection;
+    private ByteArrayOutputStream request;
+
+    @BeforeEach
+    void createRedisStreamListenerThread() {
+        thread = new RedisStreamListenerThread("name", null, new LogManager(), "stream", "group", "consumer", handler);
+        request = new ByteArrayOutputStream();
+        connection = new RedisConnection();
+        connection.outputStream = new RedisOutputStream(request, 512);
+    }
+
+    @Test
+    void handle() throws Exception {
+        connection.inputStream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes(":1\r\n")));
+        List<RedisStreamMessage> messages = List.of(new RedisStreamMessage("1526919030474-0", Map.of("k", "v")));
+        thread.handle(connection, messages);
+
+        verify(handler).handle(messages);
+        assertThat(decode(request.toByteArray())).isEqualTo("*4\r\n$4\r\nXACK\r\n$6\r\nstream\r\n$5\r\ngroup\r\n$15\r\n1526919030474-0\r\n");
+    }
+
+    @Test
+    void handleWithFailure() throws Exception {
+        doThrow(new Error("failed")).when(handler).handle(any());
+        thread.handle(connection, List.of(new RedisStreamMessage("1526919030474-0", Map.of("k", "v"))));
+
+        assertThat(request.toByteArray()).isEmpty();    // not acknowledged
+    }
+
+    @Test
+    void timestamp() {
+        assertThat(thread.timestamp("1526919030474-55")).isEqualTo(1526919030474L);
+    }
+
+    @Test
+    void shutdown() throws InterruptedException {
+        thread.shutdown();
+        thread.awaitTermination(100);
+    }
+}
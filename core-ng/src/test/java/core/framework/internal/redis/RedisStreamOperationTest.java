@@ -0,0 +1,92 @@
+package core.framework.internal.redis;
+
+import core.framework.redis.RedisStreamMessage;
+import core.framework.redis.RedisStreamPendingMessage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author neo
+ */
+class RedisStreamOperationTest extends AbstractRedisOperationTest {
+    private static final String ID = "1526919030474-0";
+
+    @Test
+    void add() {
+        response("$15\r\n" + ID + "\r\n");
+        String id = redis.stream().add("stream", Map.of("k", "v"), 1000);
+
+        assertThat(id).isEqualTo(ID);
+        assertRequestEquals("*8\r\n$4\r\nXADD\r\n$6\r\nstream\r\n$6\r\nMAXLEN\r\n$1\r\n~\r\n$4\r\n1000\r\n$1\r\n*\r\n$1\r\nk\r\n$1\r\nv\r\n");
+    }
+
+    @Test
+    void createGroup() {
+        response("+OK\r\n");
+        assertThat(redis.stream().createGroup("stream", "group")).isTrue();
+        assertRequestEquals("*6\r\n$6\r\nXGROUP\r\n$6\r\nCREATE\r\n$6\r\nstream\r\n$5\r\ngroup\r\n$1\r\n$\r\n$8\r\nMKSTREAM\r\n");
+    }
+
+    @Test
+    void createExistingGroup() {
+        response("-BUSYGROUP Consumer Group name already exists\r\n");
+        assertThat(redis.stream().createGroup("stream", "group")).isFalse();
+    }
+
+    @Test
+    void readGroup() {
+        response("*1\r\n*2\r\n$6\r\nstream\r\n*1\r\n*2\r\n$15\r\n" + ID + "\r\n*2\r\n$1\r\nk\r\n$1\r\nv\r\n");
+        List<RedisStreamMessage> messages = redis.stream().readGroup("stream", "group", "consumer", 10);
+
+        assertThat(messages).hasSize(1);
+        assertThat(messages.get(0).id).isEqualTo(ID);
+        assertThat(messages.get(0).fields).containsExactly(entry("k", "v"));
+        assertRequestEquals("*8\r\n$10\r\nXREADGROUP\r\n$5\r\nGROUP\r\n$5\r\ngroup\r\n$8\r\nconsumer\r\n$5\r\nCOUNT\r\n$2\r\n10\r\n$7\r\nSTREAMS\r\n$6\r\nstream\r\n$1\r\n>\r\n");
+    }
+
+    @Test
+    void readGroupWithBlock() {
+        response("*-1\r\n");
+        List<RedisStreamMessage> messages = redis.stream().readGroup("stream", "group", "consumer", 10, Duration.ofSeconds(1));
+
+        assertThat(messages).isEmpty();
+        assertRequestEquals("*10\r\n$10\r\nXREADGROUP\r\n$5\r\nGROUP\r\n$5\r\ngroup\r\n$8\r\nconsumer\r\n$5\r\nCOUNT\r\n$2\r\n10\r\n$5\r\nBLOCK\r\n$4\r\n1000\r\n$7\r\nSTREAMS\r\n$6\r\nstream\r\n$1\r\n>\r\n");
+    }
+
+    @Test
+    void ack() {
+        response(":1\r\n");
+        assertThat(redis.stream().ack("stream", "group", ID)).isEqualTo(1);
+        assertRequestEquals("*4\r\n$4\r\nXACK\r\n$6\r\nstream\r\n$5\r\ngroup\r\n$15\r\n" + ID + "\r\n");
+    }
+
+    @Test
+    void pending() {
+        response("*1\r\n*4\r\n$15\r\n" + ID + "\r\n$8\r\nconsumer\r\n:60000\r\n:2\r\n");
+        List<RedisStreamPendingMessage> messages = redis.stream().pending("stream", "group", 10);
+
+        assertThat(messages).hasSize(1);
+        RedisStreamPendingMessage message = messages.get(0);
+        assertThat(message.id).isEqualTo(ID);
+        assertThat(message.consumer).isEqualTo("consumer");
+        assertThat(message.idleTime).isEqualTo(Duration.ofMinutes(1));
+        assertThat(message.deliveries).isEqualTo(2);
+        assertRequestEquals("*6\r\n$8\r\nXPENDING\r\n$6\r\nstream\r\n$5\r\ngroup\r\n$1\r\n-\r\n$1\r\n+\r\n$2\r\n10\r\n");
+    }
+
+    @Test
+    void claim() {
+        response("*2\r\n*2\r\n$15\r\n" + ID + "\r\n*2\r\n$1\r\nk\r\n$1\r\nv\r\n*2\r\n$15\r\n1526919030474-1\r\n*-1\r\n");
+        List<RedisStreamMessage> messages = redis.stream().claim("stream", "group", "consumer", Duration.ofMinutes(1), ID, "1526919030474-1");
+
+        assertThat(messages).hasSize(1);    // deleted message is skipped
+        assertThat(messages.get(0).id).isEqualTo(ID);
+        assertRequestEquals("*7\r\n$6\r\nXCLAIM\r\n$6\r\nstream\r\n$5\r\ngroup\r\n$8\r\nconsumer\r\n$5\r\n60000\r\n$15\r\n" + ID + "\r\n$15\r\n1526919030474-1\r\n");
+    }
+}
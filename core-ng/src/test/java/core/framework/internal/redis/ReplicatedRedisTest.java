@@ -0,0 +1,99 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.resource.Pool;
+import core.framework.util.Strings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class ReplicatedRedisTest {
+    private ReplicatedRedis redis;
+    private List<ByteArrayOutputStream> requests;   // index 0 is primary, followed by replicas
+    private List<RedisConnection> connections;
+
+    @BeforeEach
+    void createReplicatedRedis() {
+        requests = new ArrayList<>();
+        connections = new ArrayList<>();
+        List<RedisImpl> clients = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            var request = new ByteArrayOutputStream();
+            var connection = new RedisConnection();
+            connection.outputStream = new RedisOutputStream(request, 512);
+            var client = new RedisImpl("redis-" + i);
+            client.pool = new Pool<>(() -> connection, "redis-" + i);
+            requests.add(request);
+            connections.add(connection);
+            clients.add(client);
+        }
+        redis = new ReplicatedRedis(clients.get(0), clients.subList(1, 3));
+    }
+
+    @Test
+    void readFromReplica() {
+        response(1, "$5\r\nvalue\r\n");
+        response(2, "$5\r\nvalue\r\n");
+
+        assertThat(redis.get("key")).isEqualTo("value");
+        assertThat(redis.get("key")).isEqualTo("value");
+        assertThat(decode(requests.get(0).toByteArray())).isEmpty();
+        assertRequestEquals(1, "*2\r\n$3\r\nGET\r\n$3\r\nkey\r\n");
+        assertRequestEquals(2, "*2\r\n$3\r\nGET\r\n$3\r\nkey\r\n");
+    }
+
+    @Test
+    void readWithFailedReplica() {
+        response(0, "$5\r\nvalue\r\n");
+        response(1, "");
+        response(2, "");
+
+        assertThat(redis.hash().get("key", "field")).isEqualTo("value");
+        assertRequestEquals(0, "*3\r\n$4\r\nHGET\r\n$3\r\nkey\r\n$5\r\nfield\r\n");
+    }
+
+    @Test
+    void write() {
+        response(0, "+OK\r\n");
+
+        redis.set("key", "value");
+        assertRequestEquals(0, "*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$5\r\nvalue\r\n");
+    }
+
+    @Test
+    void readYourWrites() {
+        response(0, "*1\r\n$5\r\nvalue\r\n");
+
+        List<String> values = redis.readYourWrites(() -> redis.list().range("key"));
+        assertThat(values).containsExactly("value");
+        assertRequestEquals(0, "*4\r\n$6\r\nLRANGE\r\n$3\r\nkey\r\n$1\r\n0\r\n$2\r\n-1\r\n");
+    }
+
+    @Test
+    void replicaIndex() {
+        redis.inFlight.set(0, 2);
+        redis.inFlight.set(1, 1);
+        assertThat(redis.replicaIndex()).isEqualTo(1);
+        assertThat(redis.replicaIndex()).isEqualTo(1);
+
+        redis.inFlight.set(0, 0);
+        assertThat(redis.replicaIndex()).isEqualTo(0);
+    }
+
+    private void response(int index, String data) {
+        connections.get(index).inputStream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes(data)));
+    }
+
+    private void assertRequestEquals(int index, String data) {
+        assertThat(decode(requests.get(index).toByteArray())).isEqualTo(data);
+    }
+}
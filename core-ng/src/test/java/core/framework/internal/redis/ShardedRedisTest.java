@@ -0,0 +1,164 @@
+package core.framework.internal.redis;
+
+import core.framework.internal.resource.Pool;
+import core.framework.redis.RedisPipeline;
+import core.framework.util.Strings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static core.framework.internal.redis.RedisEncodings.decode;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author neo
+ */
+class ShardedRedisTest {
+    private ShardedRedis redis;
+    private List<ByteArrayOutputStream> requests;
+    private List<RedisConnection> connections;
+
+    @BeforeEach
+    void createShardedRedis() {
+        requests = new ArrayList<>();
+        connections = new ArrayList<>();
+        List<RedisImpl> shards = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            var request = new ByteArrayOutputStream();
+            var connection = new RedisConnection();
+            connection.outputStream = new RedisOutputStream(request, 512);
+            var shard = new RedisImpl("redis-" + i);
+            shard.host = new RedisHost("redis-" + i);
+            shard.pool = new Pool<>(() -> connection, "redis-" + i);
+            requests.add(request);
+            connections.add(connection);
+            shards.add(shard);
+        }
+        redis = new ShardedRedis(shards);
+    }
+
+    @Test
+    void distribution() {
+        ShardedRedis redis = shardedRedis("redis-0", "redis-1", "redis-2");
+        int[] counts = new int[3];
+        for (int i = 0; i < 30000; i++) {
+            counts[redis.shardIndex("key:" + i)]++;
+        }
+        for (int count : counts) {
+            assertThat(count).isBetween(8000, 12000);
+        }
+    }
+
+    @Test
+    void addHost() {
+        ShardedRedis redis = shardedRedis("redis-0", "redis-1", "redis-2");
+        ShardedRedis newRedis = shardedRedis("redis-2", "redis-0", "redis-1", "redis-3");
+        int moved = 0;
+        for (int i = 0; i < 30000; i++) {
+            String key = "key:" + i;
+            String host = redis.shard(key).host.host;
+            String newHost = newRedis.shard(key).host.host;
+            if (!host.equals(newHost)) {
+                assertThat(newHost).isEqualTo("redis-3");   // only keys moved to new host
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(6000, 9000);    // about 1/4 of keys
+    }
+
+    @Test
+    void hashTag() {
+        ShardedRedis redis = shardedRedis("redis-0", "redis-1", "redis-2");
+        for (int i = 0; i < 100; i++) {
+            assertThat(redis.shardIndex("{user:" + i + "}:orders")).isEqualTo(redis.shardIndex("{user:" + i + "}:profile"));
+        }
+    }
+
+    @Test
+    void multiGet() {
+        String key1 = key(0, 1);
+        String key2 = key(1, 1);
+        String key3 = key(0, 2);
+        response(0, "*2\r\n$2\r\nv1\r\n$-1\r\n");
+        response(1, "*1\r\n$2\r\nv2\r\n");
+
+        Map<String, String> values = redis.multiGet(key1, key2, key3);
+        assertThat(values).containsExactly(entry(key1, "v1"), entry(key2, "v2"));
+        assertRequestEquals(0, "*3\r\n$4\r\nMGET\r\n$" + key1.length() + "\r\n" + key1 + "\r\n$" + key3.length() + "\r\n" + key3 + "\r\n");
+        assertRequestEquals(1, "*2\r\n$4\r\nMGET\r\n$" + key2.length() + "\r\n" + key2 + "\r\n");
+    }
+
+    @Test
+    void del() {
+        response(0, ":1\r\n");
+        response(1, ":2\r\n");
+
+        assertThat(redis.del(key(0, 1), key(1, 1), key(1, 2))).isEqualTo(3);
+    }
+
+    @Test
+    void expirationTime() {
+        response(0, ":1000\r\n");
+        response(1, ":-2\r\n");
+
+        assertThat(redis.expirationTime(key(1, 1), key(0, 1))).containsExactly(-2, 1000);
+    }
+
+    @Test
+    void pipeline() {
+        String key1 = key(0, 1);
+        String key2 = key(1, 1);
+        response(0, "$2\r\nv1\r\n");
+        response(1, "$2\r\nv2\r\n");
+
+        RedisPipeline pipeline = redis.pipeline();
+        Supplier<String> value1 = pipeline.get(key1);
+        Supplier<String> value2 = pipeline.get(key2);
+        pipeline.execute();
+
+        assertThat(value1.get()).isEqualTo("v1");
+        assertThat(value2.get()).isEqualTo("v2");
+    }
+
+    @Test
+    void scriptWithKeysInDifferentShards() {
+        assertThatThrownBy(() -> redis.script("return 1").execute(List.of(key(0, 1), key(1, 1))))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("all keys must be in same shard");
+    }
+
+    private ShardedRedis shardedRedis(String... hosts) {
+        List<RedisImpl> shards = new ArrayList<>();
+        for (String host : hosts) {
+            var shard = new RedisImpl(host);
+            shard.host = new RedisHost(host);
+            shards.add(shard);
+        }
+        return new ShardedRedis(shards);
+    }
+
+    // find nth key on given shard
+    private String key(int shardIndex, int nth) {
+        int found = 0;
+        for (int i = 0; ; i++) {
+            String key = "key:" + i;
+            if (redis.shardIndex(key) == shardIndex && ++found == nth) return key;
+        }
+    }
+
+    private void response(int shardIndex, String data) {
+        connections.get(shardIndex).inputStream = new RedisInputStream(new ByteArrayInputStream(Strings.bytes(data)));
+    }
+
+    private void assertRequestEquals(int shardIndex, String data) {
+        assertThat(decode(requests.get(shardIndex).toByteArray())).isEqualTo(data);
+    }
+}
@@ -34,6 +34,16 @@ class PoolMetricsTest {
 
         assertThat(stats.stats)
                 .containsEntry("pool_test_active_count", 1.0d)
-                .containsEntry("pool_test_total_count", 2.0d);
+                .containsEntry("pool_test_total_count", 2.0d)
+                .containsEntry("pool_test_idle_count", 1.0d)
+                .containsKey("pool_test_checkout_max_elapsed");
+        double checkouts = 0;
+        for (String bucket : CheckoutTimeHistogram.BUCKET_NAMES) {
+            checkouts += stats.stats.get("pool_test_checkout_" + bucket);
+        }
+        assertThat(checkouts).isEqualTo(2);
+
+        metrics.collect(stats);
+        assertThat(stats.stats).containsEntry("pool_test_checkout_max_elapsed", 0.0d);   // reset after collect
     }
 }
@@ -124,4 +124,64 @@ class PoolTest {
         pool.close();
         assertThat(item.resource.closed).isTrue();
     }
+
+    @Test
+    void borrowLastUsedItem() {
+        PoolItem<TestPoolResource> item1 = pool.borrowItem();
+        PoolItem<TestPoolResource> item2 = pool.borrowItem();
+        pool.returnItem(item2);
+        pool.returnItem(item1);
+
+        assertThat(pool.borrowItem()).isSameAs(item1);
+        assertThat(pool.borrowItem()).isSameAs(item2);     // entry of item1 in idle queue is skipped
+        assertThat(pool.idleCount()).isZero();
+        assertThat(pool.activeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void returnItemInUse() {
+        PoolItem<TestPoolResource> item = pool.borrowItem();
+        pool.returnItem(item);
+        assertThat(pool.borrowItem()).isSameAs(item);   // borrowed from thread local, entry still in queue
+        pool.returnItem(item);
+
+        assertThat(pool.idleItems).hasSize(1);      // not to queue same item twice
+    }
+
+    @Test
+    void waitForReturnedItem() throws InterruptedException {
+        pool.size(1, 1);
+        pool.checkoutTimeout(Duration.ofSeconds(5));
+        PoolItem<TestPoolResource> item = pool.borrowItem();
+
+        var thread = new Thread(() -> pool.returnItem(pool.borrowItem()));
+        thread.start();
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+        pool.returnItem(item);
+        thread.join();
+
+        assertThat(pool.totalCount()).isEqualTo(1);
+        assertThat(pool.idleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void waitForBrokenItem() throws InterruptedException {
+        pool.size(1, 1);
+        pool.checkoutTimeout(Duration.ofSeconds(5));
+        PoolItem<TestPoolResource> item = pool.borrowItem();
+
+        var thread = new Thread(() -> pool.returnItem(pool.borrowItem()));
+        thread.start();
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+        item.broken = true;
+        pool.returnItem(item);      // waiter creates new item once broken item is closed
+        thread.join();
+
+        assertThat(pool.totalCount()).isEqualTo(1);
+        assertThat(item.resource.closed).isTrue();
+    }
 }
@@ -1,11 +1,19 @@
 package core.framework.internal.web;
 
 import core.framework.internal.log.ActionLog;
+import core.framework.web.Response;
 import io.undertow.util.HeaderMap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * @author neo
@@ -29,4 +37,14 @@ class HTTPHandlerTest {
         assertThat(actionLog.trace).isTrue();
         assertThat(actionLog.clients).containsExactly("client");
     }
+
+    @Test
+    void withTimeout() {
+        handler.asyncTimeoutInMs = 10;
+        CompletionStage<Response> response = handler.withTimeout(new CompletableFuture<>());
+
+        assertThatThrownBy(() -> response.toCompletableFuture().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
 }
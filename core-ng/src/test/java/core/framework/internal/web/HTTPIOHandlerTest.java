@@ -0,0 +1,52 @@
+package core.framework.internal.web;
+
+import core.framework.internal.web.sse.ServerSentEventContextImpl;
+import core.framework.internal.web.sse.ServerSentEventHandler;
+import core.framework.internal.web.sse.TestEvent;
+import core.framework.internal.web.sse.TestServerSentEventListener;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class HTTPIOHandlerTest {
+    private HTTPHandler handler;
+    private HTTPIOHandler ioHandler;
+
+    @BeforeEach
+    void createHTTPIOHandler() {
+        handler = new HTTPHandler(null, null, null);
+        ioHandler = new HTTPIOHandler(handler, null, null);
+    }
+
+    @Test
+    void sse() {
+        HttpServerExchange exchange = exchange("/sse");
+        assertThat(ioHandler.sse(exchange)).isFalse();
+
+        handler.sseHandler = new ServerSentEventHandler(null);
+        handler.sseHandler.add("/sse", new ServerSentEventContextImpl<>(TestEvent.class, new TestServerSentEventListener(), 10));
+        assertThat(ioHandler.sse(exchange)).isTrue();
+
+        exchange.setRequestMethod(Methods.POST);
+        assertThat(ioHandler.sse(exchange)).isFalse();
+
+        // accept header of sse must not bypass concurrency limiter for other paths
+        HttpServerExchange other = exchange("/ajax");
+        other.getRequestHeaders().put(Headers.ACCEPT, ServerSentEventHandler.CONTENT_TYPE);
+        assertThat(ioHandler.sse(other)).isFalse();
+    }
+
+    private HttpServerExchange exchange(String path) {
+        var exchange = new HttpServerExchange(null);
+        exchange.setRequestMethod(Methods.GET);
+        exchange.setRequestPath(path);
+        return exchange;
+    }
+}
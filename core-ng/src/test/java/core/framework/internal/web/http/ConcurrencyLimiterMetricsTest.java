@@ -0,0 +1,40 @@
+package core.framework.internal.web.http;
+
+import core.framework.internal.stat.Stats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class ConcurrencyLimiterMetricsTest {
+    private ConcurrencyLimiter limiter;
+    private ConcurrencyLimiterMetrics metrics;
+
+    @BeforeEach
+    void createConcurrencyLimiterMetrics() {
+        limiter = new ConcurrencyLimiter(1, 1);
+        metrics = new ConcurrencyLimiterMetrics(limiter);
+    }
+
+    @Test
+    void collect() {
+        limiter.acquire();
+        limiter.acquire();
+
+        var stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats)
+                .containsEntry("http_concurrency_limit", 1.0)
+                .containsEntry("http_in_flight", 1.0)
+                .containsEntry("http_rejected", 1.0);
+        assertThat(stats.errorCode).isEqualTo("HTTP_OVERLOADED");
+
+        stats = new Stats();
+        metrics.collect(stats);
+        assertThat(stats.stats).containsEntry("http_rejected", 0.0);
+        assertThat(stats.errorCode).isNull();
+    }
+}
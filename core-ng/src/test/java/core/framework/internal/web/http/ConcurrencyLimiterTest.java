@@ -0,0 +1,107 @@
+package core.framework.internal.web.http;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class ConcurrencyLimiterTest {
+    private ConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void createConcurrencyLimiter() {
+        limiter = new ConcurrencyLimiter(2, 100);
+    }
+
+    @Test
+    void createWithInvalidLimit() {
+        assertThatThrownBy(() -> new ConcurrencyLimiter(0, 10))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("invalid limit");
+
+        assertThatThrownBy(() -> new ConcurrencyLimiter(10, 5))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("invalid limit");
+    }
+
+    @Test
+    void acquire() {
+        limiter = new ConcurrencyLimiter(1, 2);
+        assertThat(limiter.acquire()).isTrue();
+        assertThat(limiter.acquire()).isTrue();
+        assertThat(limiter.acquire()).isFalse();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+        assertThat(limiter.rejected.sum()).isEqualTo(1);
+
+        limiter.release(100);
+        assertThat(limiter.inFlight()).isEqualTo(1);
+        assertThat(limiter.acquire()).isTrue();
+    }
+
+    @Test
+    void updateWithoutEnoughSamples() {
+        record(5, 1000, 100);
+        limiter.update();
+        assertThat(limiter.limit()).isEqualTo(100);
+        assertThat(limiter.longElapsed).isZero();
+    }
+
+    @Test
+    void updateWithLatencyRising() {
+        record(20, 1_000_000, 100);
+        limiter.update();
+        assertThat(limiter.longElapsed).isEqualTo(1_000_000);
+        assertThat(limiter.limit()).isEqualTo(100);
+
+        for (int i = 0; i < 10; i++) {
+            record(20, 10_000_000, 100);
+            limiter.update();
+        }
+        assertThat(limiter.limit()).isLessThan(100).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void updateWithLatencyRecovered() {
+        limiter.longElapsed = 1_000_000;
+        for (int i = 0; i < 20; i++) {
+            record(20, 10_000_000, 100);
+            limiter.update();
+        }
+        int limit = limiter.limit();
+        assertThat(limit).isLessThan(100);
+
+        record(20, 1_000_000, limit);
+        limiter.update();
+        assertThat(limiter.limit()).isGreaterThan(limit);
+    }
+
+    @Test
+    void updateWithLowTraffic() {
+        limiter.longElapsed = 1_000_000;
+        for (int i = 0; i < 20; i++) {
+            record(20, 10_000_000, 100);
+            limiter.update();
+        }
+        int limit = limiter.limit();
+
+        record(20, 1_000_000, 1);   // not limited by concurrency, limit should not grow
+        limiter.update();
+        assertThat(limiter.limit()).isEqualTo(limit);
+    }
+
+    private void record(int count, long elapsed, int concurrency) {
+        int acquired = 0;
+        for (int i = 0; i < concurrency; i++) {
+            if (limiter.acquire()) acquired++;
+        }
+        limiter.inFlight.addAndGet(-acquired);
+        for (int i = 0; i < count; i++) {
+            limiter.acquire();
+            limiter.release(elapsed);
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package core.framework.internal.web.http;
 
+import core.framework.internal.redis.RedisException;
+import core.framework.redis.RedisScript;
 import core.framework.web.exception.TooManyRequestsException;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author neo
@@ -50,4 +62,64 @@ class RateControlTest {
                 .isInstanceOf(TooManyRequestsException.class)
                 .hasMessageContaining("exceeded");
     }
+
+    @Test
+    void evict() {
+        RateControl control = new RateControl(10);
+        control.config("group", 1, 1, TimeUnit.DAYS);
+        for (int i = 0; i < 10; i++) {
+            var rate = new RateControl.Rate(1);
+            rate.lastUpdateTime = i;
+            control.rates.put("group/10.0.0." + i, rate);
+        }
+        control.acquire("group", "10.0.0.10");
+        assertThat(control.rates).hasSize(9)
+                .doesNotContainKeys("group/10.0.0.0", "group/10.0.0.1")
+                .containsKey("group/10.0.0.10");
+    }
+
+    @Test
+    void acquireWithRedis() {
+        RateControl control = new RateControl(10);
+        control.config("group", 10, 1, TimeUnit.SECONDS);
+        RedisScript script = mock(RedisScript.class);
+        control.acquireScript = script;
+
+        when(script.execute(eq(List.of("rate:group/10.0.0.1")), eq("10"), anyString())).thenReturn(0L);
+        assertThat(control.acquire("group", "10.0.0.1")).isTrue();
+
+        when(script.execute(eq(List.of("rate:group/10.0.0.1")), eq("10"), anyString())).thenReturn(60000L);
+        assertThat(control.acquire("group", "10.0.0.1")).isFalse();
+
+        // rejected locally until next permit is available
+        assertThat(control.acquire("group", "10.0.0.1")).isFalse();
+        verify(script, times(2)).execute(any(), any(), any());
+    }
+
+    @Test
+    void acquireWithLocalRateExceeded() {
+        RateControl control = new RateControl(10);
+        control.config("group", 1, 1, TimeUnit.DAYS);
+        RedisScript script = mock(RedisScript.class);
+        control.acquireScript = script;
+        when(script.execute(any(), any(), any())).thenReturn(0L);
+
+        assertThat(control.acquire("group", "10.0.0.1")).isTrue();
+        assertThat(control.acquire("group", "10.0.0.1")).isFalse();
+        verify(script, times(1)).execute(any(), any(), any());
+    }
+
+    @Test
+    void acquireWithRedisFailed() {
+        RateControl control = new RateControl(10);
+        control.config("group", 10, 1, TimeUnit.SECONDS);
+        RedisScript script = mock(RedisScript.class);
+        control.acquireScript = script;
+
+        when(script.execute(any(), any(), any()))
+                .thenThrow(new UncheckedIOException(new IOException("connection refused")))
+                .thenThrow(new RedisException("ERR"));
+        assertThat(control.acquire("group", "10.0.0.1")).isTrue();
+        assertThat(control.acquire("group", "10.0.0.1")).isTrue();
+    }
 }
@@ -0,0 +1,68 @@
+package core.framework.internal.web.response;
+
+import core.framework.internal.web.bean.ResponseBeanWriter;
+import core.framework.internal.web.site.AJAXErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class JSONArrayBodyTest {
+    private ResponseHandlerContext context;
+
+    @BeforeEach
+    void createResponseHandlerContext() {
+        context = new ResponseHandlerContext(new ResponseBeanWriter(), null);
+    }
+
+    @Test
+    void write() throws IOException {
+        var body = new JSONArrayBody(List.of(response("1"), response("2")).iterator());
+        var output = new ByteArrayOutputStream();
+        body.write(output, context);
+
+        assertThat(output.toString(UTF_8)).isEqualTo("[{\"id\":\"1\",\"errorCode\":null,\"message\":null},{\"id\":\"2\",\"errorCode\":null,\"message\":null}]");
+    }
+
+    @Test
+    void writeEmpty() throws IOException {
+        var body = new JSONArrayBody(Collections.emptyIterator());
+        var output = new ByteArrayOutputStream();
+        body.write(output, context);
+
+        assertThat(output.toString(UTF_8)).isEqualTo("[]");
+    }
+
+    @Test
+    void writeNullBean() {
+        var body = new JSONArrayBody(Arrays.asList(response("1"), null).iterator());
+        assertThatThrownBy(() -> body.write(new ByteArrayOutputStream(), context))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("bean must not be null");
+    }
+
+    @Test
+    void send() {
+        var body = new JSONArrayBody(Collections.emptyIterator());
+        assertThatThrownBy(() -> body.send(null, context))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("must be written to output stream");
+    }
+
+    private AJAXErrorResponse response(String id) {
+        var response = new AJAXErrorResponse();
+        response.id = id;
+        return response;
+    }
+}
@@ -6,6 +6,9 @@ import core.framework.web.Response;
 import io.undertow.util.Headers;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -43,4 +46,31 @@ class ResponseImplTest {
 
         assertThat(Response.redirect("/path").status()).isEqualTo(HTTPStatus.SEE_OTHER);
     }
+
+    @Test
+    void async() {
+        var response = (ResponseImpl) Response.async(CompletableFuture.completedFuture(Response.text("value")));
+        assertThat(response.asyncResponse()).isNotNull();
+        assertThat(((ResponseImpl) Response.text("value")).asyncResponse()).isNull();
+
+        response.header("X-Header", "value");
+        ResponseImpl result = response.complete(Response.text("value").header("X-Header", "previous"));
+        assertThat(result.header("X-Header")).hasValue("value");
+        assertThat(result.contentType()).hasValue(ContentType.TEXT_PLAIN);
+
+        assertThatThrownBy(() -> response.complete(null))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("must not complete with null");
+    }
+
+    @Test
+    void stream() {
+        var response = (ResponseImpl) Response.stream(ContentType.TEXT_PLAIN, output -> output.write(1));
+        assertThat(response.body).isInstanceOf(StreamBody.class);
+        assertThat(response.contentType()).hasValue(ContentType.TEXT_PLAIN);
+
+        response = (ResponseImpl) Response.jsonArray(List.of().iterator());
+        assertThat(response.body).isInstanceOf(JSONArrayBody.class);
+        assertThat(response.contentType()).hasValue(ContentType.APPLICATION_JSON);
+    }
 }
@@ -24,6 +24,7 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
 /**
  * @author neo
@@ -59,6 +60,10 @@ public interface TestWebService {
     @Path("/deprecated/test/:id")
     Optional<TestResponse> deprecated(@PathParam("id") Integer id);
 
+    @GET
+    @Path("/async/test/:id")
+    CompletionStage<TestResponse> getAsync(@PathParam("id") Integer id);
+
     enum TestEnum {
         @Property(name = "A1")
         A,
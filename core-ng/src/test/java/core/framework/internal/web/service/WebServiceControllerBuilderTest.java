@@ -14,6 +14,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
@@ -120,6 +122,23 @@ class WebServiceControllerBuilderTest {
         assertThat(bean).isEmpty();
     }
 
+    @Test
+    void getAsync() throws Exception {
+        when(request.pathParam("id")).thenReturn("1");
+
+        var builder = new WebServiceControllerBuilder<>(TestWebService.class, serviceImpl, TestWebService.class.getDeclaredMethod("getAsync", Integer.class));
+        Controller controller = builder.build();
+
+        String sourceCode = builder.builder.sourceCode();
+        assertThat(sourceCode).isEqualTo(ClasspathResources.text("webservice-test/test-webservice-controller-getAsync.java"));
+
+        CompletionStage<Response> asyncResponse = ((ResponseImpl) controller.execute(request)).asyncResponse();
+        assertThat(asyncResponse).isNotNull();
+        Response response = asyncResponse.toCompletableFuture().get();
+        assertThat(response.status()).isEqualTo(HTTPStatus.OK);
+        assertThat(((BeanBody) ((ResponseImpl) response).body).bean).isInstanceOf(TestWebService.TestResponse.class);
+    }
+
     public static class TestWebServiceImpl implements TestWebService {
         @Override
         public TestResponse search(TestSearchRequest request) {
@@ -164,5 +183,11 @@ class WebServiceControllerBuilderTest {
         public Optional<TestResponse> deprecated(Integer id) {
             return Optional.empty();
         }
+
+        @Override
+        public CompletionStage<TestResponse> getAsync(Integer id) {
+            assertThat(id).isEqualTo(1);
+            return CompletableFuture.completedFuture(new TestResponse());
+        }
     }
 }
@@ -2,7 +2,8 @@ package core.framework.internal.web.session;
 
 import core.framework.internal.redis.RedisException;
 import core.framework.redis.Redis;
-import core.framework.redis.RedisHash;
+import core.framework.redis.RedisPipeline;
+import core.framework.redis.RedisScript;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,10 +13,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -26,11 +35,14 @@ class RedisSessionStoreTest {
     @Mock
     Redis redis;
     @Mock
-    RedisHash redisHash;
+    RedisScript script;
+    @Mock
+    RedisPipeline pipeline;
     private RedisSessionStore store;
 
     @BeforeEach
     void createRedisSessionStore() {
+        when(redis.script(RedisSessionStore.GET_AND_REFRESH_SCRIPT)).thenReturn(script);
         store = new RedisSessionStore(redis);
     }
 
@@ -42,11 +54,22 @@ class RedisSessionStoreTest {
                 .startsWith("session:");
     }
 
+    @Test
+    void getAndRefresh() {
+        when(script.execute(List.of(store.sessionKey("sessionId", "localhost")), "1800000")).thenReturn(List.of("key", "value"));
+        assertThat(store.getAndRefresh("sessionId", "localhost", Duration.ofMinutes(30))).containsEntry("key", "value");
+    }
+
+    @Test
+    void getAndRefreshWithoutSession() {
+        when(script.execute(List.of(store.sessionKey("sessionId", "localhost")), "1800000")).thenReturn(List.of());
+        assertThat(store.getAndRefresh("sessionId", "localhost", Duration.ofMinutes(30))).isNull();
+    }
+
     @Test
     void getAndRefreshWithRedisDown() {
         // redis shutdown in the middle
-        when(redis.hash()).thenReturn(redisHash);
-        when(redisHash.getAll(anyString())).thenThrow(new UncheckedIOException(new IOException("unexpected end of stream")));
+        when(script.execute(List.of(store.sessionKey("sessionId", "localhost")), "1800000")).thenThrow(new UncheckedIOException(new IOException("unexpected end of stream")));
 
         assertThatThrownBy(() -> store.getAndRefresh("sessionId", "localhost", Duration.ofMinutes(30)))
                 .isInstanceOf(UncheckedIOException.class);
@@ -55,8 +78,46 @@ class RedisSessionStoreTest {
     @Test
     void getAndRefreshWithInvalidRedisData() {
         // session value in redis is invalid
-        when(redis.hash()).thenReturn(redisHash);
-        when(redisHash.getAll(anyString())).thenThrow(new RedisException("WRONGTYPE Operation against a key holding the wrong kind of value"));
+        when(script.execute(List.of(store.sessionKey("sessionId", "localhost")), "1800000")).thenThrow(new RedisException("WRONGTYPE Operation against a key holding the wrong kind of value"));
         assertThat(store.getAndRefresh("sessionId", "localhost", Duration.ofMinutes(30))).isNull();
     }
+
+    @Test
+    void invalidateByKey() {
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(3);
+            consumer.accept("session:1");
+            consumer.accept("session:2");
+            return null;
+        }).when(redis).forEach(eq("session:*"), isNull(), anyInt(), any());
+        when(redis.pipeline()).thenReturn(pipeline);
+        when(pipeline.hashGet("session:1", "user_id")).thenReturn(() -> "user1");
+        when(pipeline.hashGet("session:2", "user_id")).thenReturn(() -> "user2");
+
+        store.invalidateByKey("user_id", "user1");
+
+        verify(pipeline).execute();
+        verify(redis).del("session:1");
+    }
+
+    @Test
+    void invalidateByKeyWithNonHashKey() {
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(3);
+            consumer.accept("session:1");
+            consumer.accept("session:invalid");
+            return null;
+        }).when(redis).forEach(eq("session:*"), isNull(), anyInt(), any());
+        when(redis.pipeline()).thenReturn(pipeline);
+        var exception = new RedisException("WRONGTYPE Operation against a key holding the wrong kind of value");
+        when(pipeline.hashGet("session:1", "user_id")).thenReturn(() -> "user1");
+        when(pipeline.hashGet("session:invalid", "user_id")).thenReturn(() -> {
+            throw exception;
+        });
+        doThrow(exception).when(pipeline).execute();
+
+        store.invalidateByKey("user_id", "user1");
+
+        verify(redis).del("session:1");
+    }
 }
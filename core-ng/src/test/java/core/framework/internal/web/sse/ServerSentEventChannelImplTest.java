@@ -0,0 +1,81 @@
+package core.framework.internal.web.sse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.xnio.ChannelListener;
+import org.xnio.XnioIoThread;
+import org.xnio.channels.StreamSinkChannel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author neo
+ */
+@ExtendWith(MockitoExtension.class)
+class ServerSentEventChannelImplTest {
+    @Mock
+    StreamSinkChannel sink;
+    @Mock
+    XnioIoThread ioThread;
+    private ServerSentEventChannelImpl<TestEvent> channel;
+
+    @BeforeEach
+    void createServerSentEventChannelImpl() {
+        channel = new ServerSentEventChannelImpl<>(new ServerSentEventContextImpl<>(TestEvent.class, new TestServerSentEventListener(), 10));
+        when(sink.getIoThread()).thenReturn(ioThread);
+        channel.open(sink);
+    }
+
+    @Test
+    void flush() throws IOException {
+        when(sink.write(any(ByteBuffer.class))).thenAnswer(invocation -> {
+            ByteBuffer buffer = invocation.getArgument(0);
+            int length = buffer.remaining();
+            buffer.position(buffer.limit());
+            return length;
+        });
+        when(sink.flush()).thenReturn(true);
+
+        var event = new TestEvent();
+        event.message = "value";
+        channel.send(event);
+        channel.close();
+        channel.flush();
+
+        assertThat(channel.queue).isEmpty();
+        assertThat(channel.queuedBytes.get()).isZero();
+        verify(sink).shutdownWrites();
+    }
+
+    @Test
+    void flushWithChannelNotWritable() throws IOException {
+        when(sink.write(any(ByteBuffer.class))).thenReturn(0);
+        when(sink.getWriteSetter()).thenReturn(new ChannelListener.SimpleSetter<>());
+
+        channel.send(new byte[10]);
+        channel.flush();
+
+        assertThat(channel.queue).hasSize(1);
+        verify(sink).resumeWrites();
+    }
+
+    @Test
+    void sendWithSlowClient() throws IOException {
+        channel.send(new byte[ServerSentEventChannelImpl.MAX_QUEUED_BYTES]);
+        channel.send(new byte[1]);
+
+        assertThat(channel.closed).isTrue();
+        assertThat(channel.queue).isEmpty();
+        assertThat(channel.queuedBytes.get()).isZero();
+        verify(sink).close();
+    }
+}
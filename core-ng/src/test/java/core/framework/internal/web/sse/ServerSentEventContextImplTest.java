@@ -0,0 +1,110 @@
+package core.framework.internal.web.sse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author neo
+ */
+class ServerSentEventContextImplTest {
+    private ServerSentEventContextImpl<TestEvent> context;
+
+    @BeforeEach
+    void createServerSentEventContextImpl() {
+        context = new ServerSentEventContextImpl<>(TestEvent.class, new TestServerSentEventListener(), 2);
+    }
+
+    @Test
+    void join() {
+        var channel = new ServerSentEventChannelImpl<>(context);
+        channel.join("group1");
+        assertThat(context.group("group1")).isEmpty();  // only joins context after connected
+
+        context.connect(channel, null);
+        assertThat(context.all()).containsOnly(channel);
+        assertThat(context.group("group1")).containsOnly(channel);
+
+        channel.join("group2");
+        assertThat(context.group("group2")).containsOnly(channel);
+
+        channel.leave("group1");
+        assertThat(context.group("group1")).isEmpty();
+    }
+
+    @Test
+    void remove() {
+        var channel = new ServerSentEventChannelImpl<>(context);
+        channel.join("group1");
+        context.connect(channel, null);
+
+        context.remove(channel);
+        assertThat(context.all()).isEmpty();
+        assertThat(context.group("group1")).isEmpty();
+    }
+
+    @Test
+    void broadcast() {
+        var channel1 = new ServerSentEventChannelImpl<>(context);
+        channel1.join("group1");
+        context.connect(channel1, null);
+        var channel2 = new ServerSentEventChannelImpl<>(context);
+        channel2.join("group2");
+        context.connect(channel2, null);
+
+        context.broadcast("group1", event("value"));
+        assertThat(messages(channel1)).hasSize(1).allMatch(message -> message.startsWith("id: ") && message.endsWith("data: {\"message\":\"value\"}\n\n"));
+        assertThat(messages(channel2)).isEmpty();
+    }
+
+    @Test
+    void replay() {
+        var channel = new ServerSentEventChannelImpl<>(context);
+        channel.join("group1");
+        context.connect(channel, null);
+        context.broadcast("group1", event("value1"));
+        String lastEventId = eventId(messages(channel).get(0));
+
+        context.broadcast("group1", event("value2"));
+        context.broadcast("group2", event("value3"));
+        context.broadcast("group1", event("value4"));     // buffer only keeps last 2 events
+
+        var reconnected = new ServerSentEventChannelImpl<>(context);
+        reconnected.join("group1");
+        context.connect(reconnected, lastEventId);
+        assertThat(messages(reconnected)).hasSize(1).allMatch(message -> message.contains("value4"));
+
+        reconnected = new ServerSentEventChannelImpl<>(context);
+        reconnected.join("group1");
+        context.connect(reconnected, "invalid");
+        assertThat(messages(reconnected)).isEmpty();
+    }
+
+    @Test
+    void shutdown() {
+        var channel = new ServerSentEventChannelImpl<>(context);
+        context.connect(channel, null);
+        context.shutdown();
+        assertThat(channel.closed).isTrue();
+    }
+
+    private String eventId(String message) {
+        return message.substring("id: ".length(), message.indexOf('\n'));
+    }
+
+    private List<String> messages(ServerSentEventChannelImpl<TestEvent> channel) {
+        return channel.queue.stream().map(buffer -> UTF_8.decode(ByteBuffer.wrap(buffer.array())).toString()).collect(Collectors.toList());
+    }
+
+    private TestEvent event(String message) {
+        var event = new TestEvent();
+        event.message = message;
+        return event;
+    }
+}
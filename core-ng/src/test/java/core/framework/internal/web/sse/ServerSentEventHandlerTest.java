@@ -0,0 +1,46 @@
+package core.framework.internal.web.sse;
+
+import core.framework.http.HTTPMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class ServerSentEventHandlerTest {
+    private ServerSentEventHandler handler;
+
+    @BeforeEach
+    void createServerSentEventHandler() {
+        handler = new ServerSentEventHandler(null);
+    }
+
+    @Test
+    void add() {
+        assertThatThrownBy(() -> handler.add("/sse/:name", null))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("listener path must be static");
+
+        assertThatThrownBy(() -> handler.add("/sse", new ServerSentEventContextImpl<TestEvent>(TestEvent.class, (request, channel) -> {
+        }, 10))).isInstanceOf(Error.class)
+                .hasMessageContaining("listener class must not be anonymous class or lambda");
+
+        var context = new ServerSentEventContextImpl<>(TestEvent.class, new TestServerSentEventListener(), 10);
+        handler.add("/sse", context);
+        assertThatThrownBy(() -> handler.add("/sse", context))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("found duplicate sse listener");
+    }
+
+    @Test
+    void check() {
+        handler.add("/sse", new ServerSentEventContextImpl<>(TestEvent.class, new TestServerSentEventListener(), 10));
+
+        assertThat(handler.check(HTTPMethod.GET, "/sse")).isTrue();
+        assertThat(handler.check(HTTPMethod.POST, "/sse")).isFalse();
+        assertThat(handler.check(HTTPMethod.GET, "/other")).isFalse();
+    }
+}
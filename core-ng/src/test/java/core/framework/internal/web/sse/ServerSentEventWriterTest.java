@@ -0,0 +1,44 @@
+package core.framework.internal.web.sse;
+
+import core.framework.internal.validate.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+class ServerSentEventWriterTest {
+    private ServerSentEventWriter<TestEvent> writer;
+
+    @BeforeEach
+    void createServerSentEventWriter() {
+        writer = new ServerSentEventWriter<>(TestEvent.class);
+    }
+
+    @Test
+    void message() {
+        byte[] data = writer.toData(event("value"));
+        assertThat(new String(writer.message("1", data), UTF_8)).isEqualTo("id: 1\ndata: {\"message\":\"value\"}\n\n");
+        assertThat(new String(writer.message(null, data), UTF_8)).isEqualTo("data: {\"message\":\"value\"}\n\n");
+    }
+
+    @Test
+    void toDataWithInvalidEvent() {
+        assertThatThrownBy(() -> writer.toData(null))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("event must not be null");
+
+        assertThatThrownBy(() -> writer.toData(new TestEvent()))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private TestEvent event(String message) {
+        var event = new TestEvent();
+        event.message = message;
+        return event;
+    }
+}
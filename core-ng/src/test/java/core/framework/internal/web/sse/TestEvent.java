@@ -0,0 +1,13 @@
+package core.framework.internal.web.sse;
+
+import core.framework.api.json.Property;
+import core.framework.api.validate.NotNull;
+
+/**
+ * @author neo
+ */
+public class TestEvent {
+    @NotNull
+    @Property(name = "message")
+    public String message;
+}
@@ -2,8 +2,10 @@ package core.framework.module;
 
 import core.framework.internal.cache.CacheImpl;
 import core.framework.internal.cache.LocalCacheStore;
+import core.framework.internal.cache.OffHeapCacheStore;
 import core.framework.internal.cache.RedisCacheStore;
 import core.framework.internal.cache.RedisLocalCacheStore;
+import core.framework.internal.cache.RedisTrackingCacheStore;
 import core.framework.internal.cache.TestCache;
 import core.framework.internal.module.ModuleContext;
 import org.junit.jupiter.api.BeforeEach;
@@ -70,6 +72,69 @@ class CacheConfigTest {
         assertThat(cache.cacheStore).isInstanceOf(RedisLocalCacheStore.class);
     }
 
+    @Test
+    void addWithClientTracking() {
+        config.redis("localhost");
+        config.clientTracking();
+
+        config.add(TestCache.class, Duration.ofHours(1)).local();
+        CacheImpl<?> cache = config.caches.get("testcache");
+        assertThat(cache.cacheStore).isInstanceOf(RedisTrackingCacheStore.class);
+
+        assertThatThrownBy(() -> config.clientTracking())
+                .hasMessageContaining("client tracking must be configured before adding local cache");
+    }
+
+    @Test
+    void addWithOffHeap() {
+        config.redis("localhost");
+        CacheStoreConfig cacheStoreConfig = config.add(TestCache.class, Duration.ofHours(1));
+        assertThatThrownBy(cacheStoreConfig::offHeap)
+                .hasMessageContaining("off heap cache store is not configured");
+
+        config.offHeap(1024 * 1024, 100);
+        cacheStoreConfig.offHeap();
+        CacheImpl<?> cache = config.caches.get("testcache");
+        assertThat(cache.cacheStore).isInstanceOf(OffHeapCacheStore.class);
+
+        assertThatThrownBy(() -> config.offHeap(1024 * 1024, 100))
+                .hasMessageContaining("off heap cache store is already configured");
+    }
+
+    @Test
+    void binary() {
+        config.local();
+        config.add(TestCache.class, Duration.ofHours(1)).binary();
+
+        CacheImpl<?> cache = config.caches.get("testcache");
+        assertThat(cache.cacheStore).isInstanceOf(LocalCacheStore.class);
+    }
+
+    @Test
+    void compress() {
+        assertThatThrownBy(() -> config.compress(1024))
+                .hasMessageContaining("please configure redis first");
+
+        config.redis("localhost");
+        config.compress(1024);
+        config.add(TestCache.class, Duration.ofHours(1)).local();
+
+        assertThatThrownBy(() -> config.compress(1024))
+                .hasMessageContaining("compression must be configured before adding local cache");
+    }
+
+    @Test
+    void staleWhileRevalidate() {
+        config.local();
+        CacheStoreConfig cacheStoreConfig = config.add(TestCache.class, Duration.ofHours(1));
+
+        assertThatThrownBy(() -> cacheStoreConfig.staleWhileRevalidate(Duration.ZERO))
+                .hasMessageContaining("maxStale must be greater than 0");
+
+        cacheStoreConfig.staleWhileRevalidate(Duration.ofMinutes(5));
+        assertThat(config.refreshExecutor()).isNotNull();
+    }
+
     @Test
     void cacheName() {
         assertThat(config.cacheName(TestCache.class))
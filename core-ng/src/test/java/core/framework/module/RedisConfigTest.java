@@ -1,6 +1,9 @@
 package core.framework.module;
 
 import core.framework.internal.module.ModuleContext;
+import core.framework.internal.redis.RedisImpl;
+import core.framework.internal.redis.ReplicatedRedis;
+import core.framework.internal.redis.ShardedRedis;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -29,12 +32,37 @@ class RedisConfigTest {
 
     @Test
     void client() {
-        config.host("localhost");
         config.poolSize(0, 0);
+        config.host("localhost");
         config.slowOperationThreshold(Duration.ofSeconds(1));
         config.timeout(Duration.ofSeconds(5));
-        assertThat(config.client()).isNotNull();
+        assertThat(config.client()).isInstanceOf(RedisImpl.class);
 
         config.validate();
+
+        assertThatThrownBy(() -> config.host("localhost"))
+                .hasMessageContaining("redis host is already configured");
+    }
+
+    @Test
+    void clientWithHosts() {
+        config.hosts("localhost:6379", "localhost:6380");
+        assertThat(config.client()).isInstanceOf(ShardedRedis.class);
+    }
+
+    @Test
+    void clientWithReplicas() {
+        config.replicas("localhost:6380", "localhost:6381");
+        config.host("localhost:6379");
+        assertThat(config.client()).isInstanceOf(ReplicatedRedis.class);
+
+        assertThatThrownBy(() -> config.replicas("localhost:6382"))
+                .hasMessageContaining("replicas must be configured before host");
+    }
+
+    @Test
+    void clientWithoutHost() {
+        assertThatThrownBy(() -> config.client())
+                .hasMessageContaining("redis host must be configured first");
     }
 }
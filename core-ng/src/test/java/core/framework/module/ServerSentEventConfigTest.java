@@ -0,0 +1,45 @@
+package core.framework.module;
+
+import core.framework.http.HTTPMethod;
+import core.framework.internal.module.ModuleContext;
+import core.framework.internal.web.HTTPIOHandler;
+import core.framework.internal.web.sse.TestEvent;
+import core.framework.internal.web.sse.TestServerSentEventListener;
+import core.framework.util.Types;
+import core.framework.web.sse.ServerSentEventContext;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author neo
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ServerSentEventConfigTest {
+    private ServerSentEventConfig config;
+
+    @BeforeAll
+    void createServerSentEventConfig() {
+        config = new ServerSentEventConfig(new ModuleContext(null));
+    }
+
+    @Test
+    void withReservedPath() {
+        assertThatThrownBy(() -> config.listen(HTTPIOHandler.HEALTH_CHECK_PATH, TestEvent.class, new TestServerSentEventListener()))
+                .isInstanceOf(Error.class)
+                .hasMessageContaining("/health-check is reserved path");
+    }
+
+    @Test
+    void listen() {
+        config.listen("/sse", TestEvent.class, new TestServerSentEventListener());
+
+        Object context = config.context.beanFactory.bean(Types.generic(ServerSentEventContext.class, TestEvent.class), null);
+        assertThat(context).isNotNull();
+        assertThat(config.context.serviceRegistry.beanClasses).contains(TestEvent.class);
+        assertThat(config.context.httpServer.handler.sseHandler.check(HTTPMethod.GET, "/sse")).isTrue();
+    }
+}
@@ -0,0 +1,14 @@
+public class TestWebServiceImpl$getAsync implements core.framework.web.Controller {
+    private final core.framework.internal.web.service.TestWebService delegate;
+
+    public TestWebServiceImpl$getAsync(core.framework.internal.web.service.TestWebService $1) {
+        this.delegate = $1;
+    }
+
+    public core.framework.web.Response execute(core.framework.web.Request request) throws Exception {
+        Integer $id = core.framework.internal.web.service.PathParamHelper.toInt(request.pathParam("id"));
+        java.util.concurrent.CompletionStage response = delegate.getAsync($id);
+        return core.framework.internal.web.service.WebServiceController.async(response, false, null);
+    }
+
+}